@@ -0,0 +1,36 @@
+package com.ivantrykosh.app.budgettracker.client.data.remote
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import java.util.UUID
+
+/**
+ * Interceptor, which adds Idempotency-Key header to requests creating, updating and deleting transactions.
+ * It runs once per call, so retries of the call by OkHttp send the same key and the server does not repeat the request
+ */
+class IdempotencyKeyInterceptor : Interceptor {
+
+    /**
+     * Add new idempotency key to request, if it is a mutating request to transactions
+     *
+     * @param chain chain of request
+     */
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        if (request.method !in MUTATING_METHODS
+            || !request.url.encodedPath.contains("/transactions/")
+            || request.header(IDEMPOTENCY_KEY_HEADER) != null) {
+            return chain.proceed(request)
+        }
+        return chain.proceed(
+            request.newBuilder()
+                .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                .build()
+        )
+    }
+
+    companion object {
+        const val IDEMPOTENCY_KEY_HEADER = "Idempotency-Key"
+        private val MUTATING_METHODS = setOf("POST", "PUT", "PATCH", "DELETE")
+    }
+}
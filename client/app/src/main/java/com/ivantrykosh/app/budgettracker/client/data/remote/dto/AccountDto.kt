@@ -10,7 +10,8 @@ data class AccountDto(
     val userId: Long,
     val name: String,
     val incomesSum: Double,
-    val expensesSum: Double
+    val expensesSum: Double,
+    val version: Long? = null
 )
 
 /**
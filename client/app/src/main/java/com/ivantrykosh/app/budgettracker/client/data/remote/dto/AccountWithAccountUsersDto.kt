@@ -23,6 +23,7 @@ fun AccountWithAccountUsersDto.toAccountDetails(): AccountDetails {
         total = accountDto.incomesSum + accountDto.expensesSum,
         email2 = accountUsersDto.email2,
         email3 = accountUsersDto.email3,
-        email4 = accountUsersDto.email4
+        email4 = accountUsersDto.email4,
+        version = accountDto.version
     )
 }
\ No newline at end of file
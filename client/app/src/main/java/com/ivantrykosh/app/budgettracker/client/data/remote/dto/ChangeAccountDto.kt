@@ -8,4 +8,5 @@ data class ChangeAccountDto(
     val email2: String?,
     val email3: String?,
     val email4: String?,
+    val version: Long? = null,
 )
\ No newline at end of file
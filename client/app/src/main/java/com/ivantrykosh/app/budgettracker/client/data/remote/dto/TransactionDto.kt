@@ -12,5 +12,6 @@ data class TransactionDto(
     val value: Double,
     val date: Date,
     val toFromWhom: String?,
-    val note: String?
+    val note: String?,
+    val version: Long? = null
 )
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.google.gson.GsonBuilder
 import com.ivantrykosh.app.budgettracker.client.common.Constants
 import com.ivantrykosh.app.budgettracker.client.data.remote.AccountApi
 import com.ivantrykosh.app.budgettracker.client.data.remote.AuthApi
+import com.ivantrykosh.app.budgettracker.client.data.remote.IdempotencyKeyInterceptor
 import com.ivantrykosh.app.budgettracker.client.data.remote.TransactionApi
 import com.ivantrykosh.app.budgettracker.client.data.remote.UserApi
 import com.ivantrykosh.app.budgettracker.client.data.repository.AccountRepositoryImpl
@@ -38,6 +39,7 @@ object AppModule {
 
     val client = OkHttpClient.Builder()
         .retryOnConnectionFailure(true)
+        .addInterceptor(IdempotencyKeyInterceptor())
         .connectTimeout(5, TimeUnit.SECONDS)
         .readTimeout(5, TimeUnit.SECONDS)
         .writeTimeout(5, TimeUnit.SECONDS)
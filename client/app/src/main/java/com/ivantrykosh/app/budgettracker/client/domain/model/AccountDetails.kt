@@ -12,5 +12,6 @@ data class AccountDetails(
     val total: Double,
     val email2: String?,
     val email3: String?,
-    val email4: String?
+    val email4: String?,
+    val version: Long?
 )
\ No newline at end of file
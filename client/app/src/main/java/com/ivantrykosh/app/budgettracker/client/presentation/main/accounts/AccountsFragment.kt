@@ -453,7 +453,8 @@ class AccountsFragment : Fragment(), OnAccountClickListener {
                     dialogAccountDetailsBinding.accountDetailsInputNameEditText.text.toString(),
                     dialogAccountDetailsBinding.accountDetailsEditTextInputEmail1.text.toString(),
                     dialogAccountDetailsBinding.accountDetailsEditTextInputEmail2.text.toString(),
-                    dialogAccountDetailsBinding.accountDetailsEditTextInputEmail3.text.toString()
+                    dialogAccountDetailsBinding.accountDetailsEditTextInputEmail3.text.toString(),
+                    viewModel.getAccountState.value?.account?.version
                 )
                 viewModel.updateAccount(viewModel.getAccountState.value?.account?.accountId.toString(), changeAccountDto)
                 viewModel.updateAccountState.observe(requireActivity()) { updateAccount ->
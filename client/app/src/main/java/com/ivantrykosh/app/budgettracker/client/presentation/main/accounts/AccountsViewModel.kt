@@ -298,7 +298,8 @@ class AccountsViewModel @Inject constructor(
                 email4 = when {
                     changeAccountDto.email4.isNullOrBlank() -> null
                     else -> changeAccountDto.email4
-                }
+                },
+                version = changeAccountDto.version
             )
             updateAccountUseCase(token, id, newAccountDto).onEach { result ->
                 when (result) {
@@ -508,7 +508,8 @@ class TransactionsFragment : Fragment(), OnTransactionClickListener {
                 value,
                 viewModel.parseStringToDate(dialogTransactionDetailsBinding.transactionDetailsInputDateText.text.toString()),
                 dialogTransactionDetailsBinding.transactionDetailsInputFromToEdit.text.toString(),
-                dialogTransactionDetailsBinding.transactionDetailsInputNoteEdit.text.toString()
+                dialogTransactionDetailsBinding.transactionDetailsInputNoteEdit.text.toString(),
+                viewModel.getTransactionState.value!!.transaction?.version
             )
             if (transactionDto == null) {
                 showError(resources.getString(R.string.error), resources.getString(R.string.invalid_account))
@@ -526,6 +527,10 @@ class TransactionsFragment : Fragment(), OnTransactionClickListener {
                                 Toast.makeText(requireContext(), resources.getString(R.string.transaction_is_updated), Toast.LENGTH_SHORT).show()
                                 refresh()
                             }
+                            Constants.ErrorStatusCodes.CONFLICT -> {
+                                showError(resources.getString(R.string.error), resources.getString(R.string.transaction_was_changed))
+                                refresh()
+                            }
                             Constants.ErrorStatusCodes.UNAUTHORIZED,
                             Constants.ErrorStatusCodes.FORBIDDEN,
                             Constants.ErrorStatusCodes.TOKEN_NOT_FOUND -> {
@@ -204,8 +204,9 @@ class TransactionsViewModel @Inject constructor(
      * @param date date of transaction
      * @param toFromWhom to from/whom information
      * @param note note of transaction
+     * @param version version of transaction, which was got from server
      */
-    fun toTransactionDto(id: Long?, accountName: String, category: String, value: Double, date: Date, toFromWhom: String, note: String): TransactionDto? {
+    fun toTransactionDto(id: Long?, accountName: String, category: String, value: Double, date: Date, toFromWhom: String, note: String, version: Long?): TransactionDto? {
         return try {
             val accountId = _getAccountsState.value?.accounts?.first { it.name == accountName }?.accountId ?: -1
             TransactionDto(
@@ -216,6 +217,7 @@ class TransactionsViewModel @Inject constructor(
                 date = date,
                 toFromWhom = toFromWhom.ifBlank { null },
                 note = note.ifBlank { null },
+                version = version,
             )
         } catch (e: NoSuchElementException) {
             null
@@ -388,7 +390,8 @@ class TransactionsViewModel @Inject constructor(
                             value = transactionDto.value,
                             date = transactionDto.date,
                             toFromWhom = transactionDto.toFromWhom,
-                            note = transactionDto.note
+                            note = transactionDto.note,
+                            version = transactionDto.version
                         )
                     }
                     _getTransactionState.value = GetTransactionState(transaction = transaction)
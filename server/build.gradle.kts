@@ -8,9 +8,36 @@ group = "com.ivantrykosh.app.budgettracker"
 version = "0.0.1-SNAPSHOT"
 
 java {
-	sourceCompatibility = JavaVersion.VERSION_17
+	toolchain {
+		languageVersion.set(JavaLanguageVersion.of(21))
+	}
+}
+
+// Connector/J 9 replaced its synchronized blocks with locks, so JDBC calls do not pin virtual threads
+extra["mysql.version"] = "9.0.0"
+
+// Load tests, which start the server in-process and measure it with many concurrent clients
+sourceSets {
+	create("loadTest") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
 }
 
+configurations["loadTestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadTestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
+// JMH microbenchmarks of mappers, validators, tokens and serialization, which run without the server
+sourceSets {
+	create("jmh") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations.implementation.get())
+configurations["jmhRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 configurations {
 	compileOnly {
 		extendsFrom(configurations.annotationProcessor.get())
@@ -26,6 +53,8 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-mail")
 	implementation("org.springframework.boot:spring-boot-starter-security")
 	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	testImplementation("junit:junit:4.13.1")
 	compileOnly("org.projectlombok:lombok")
 	runtimeOnly("com.mysql:mysql-connector-j")
@@ -34,15 +63,105 @@ dependencies {
 	implementation("io.jsonwebtoken:jjwt-api:0.11.5")
 	implementation("io.jsonwebtoken:jjwt-impl:0.11.5")
 	implementation("io.jsonwebtoken:jjwt-jackson:0.11.5")
+	implementation("org.hibernate.orm:hibernate-jcache")
+	implementation("org.ehcache:ehcache::jakarta")
+	implementation("org.springframework.boot:spring-boot-starter-data-r2dbc")
+	runtimeOnly("io.asyncer:r2dbc-mysql")
 
 	testImplementation("org.junit.jupiter:junit-jupiter-api:5.2.0")
 	testImplementation("org.junit.jupiter:junit-jupiter-engine:5.2.0")
 	testImplementation("com.h2database:h2")
 	runtimeOnly("com.h2database:h2")
+	testImplementation("io.r2dbc:r2dbc-h2")
 	testImplementation("org.springframework.security:spring-security-test")
+	testImplementation("com.icegreen:greenmail-junit5:2.0.1")
+
+	"jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+	"jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+tasks.register<JavaExec>("virtualThreadsLoadTest") {
+	description = "Compares throughput and latency of platform and virtual threads modes against an H2-backed server."
+	group = "verification"
+	classpath = sourceSets["loadTest"].runtimeClasspath
+	mainClass.set("com.ivantrykosh.app.budgettracker.server.loadtest.VirtualThreadsLoadComparison")
+	jvmArgs("-Djdk.tracePinnedThreads=short")
+	args(
+		providers.gradleProperty("loadTest.clients").getOrElse("2000"),
+		providers.gradleProperty("loadTest.durationSeconds").getOrElse("30"),
+		layout.buildDirectory.file("load-test/virtual-threads.json").get().asFile.path
+	)
+}
+
+tasks.register<JavaExec>("sharedAccountsLoadTest") {
+	description = "Compares latency of batches of reads of a user with many shared accounts with and without concurrent request tasks against an H2-backed server."
+	group = "verification"
+	classpath = sourceSets["loadTest"].runtimeClasspath
+	mainClass.set("com.ivantrykosh.app.budgettracker.server.loadtest.SharedAccountsLoadComparison")
+	args(
+		providers.gradleProperty("loadTest.clients").getOrElse("8"),
+		providers.gradleProperty("loadTest.durationSeconds").getOrElse("30"),
+		providers.gradleProperty("loadTest.sharedAccounts").getOrElse("12"),
+		providers.gradleProperty("loadTest.transactionsPerAccount").getOrElse("2000"),
+		layout.buildDirectory.file("load-test/shared-accounts.json").get().asFile.path
+	)
+}
+
+tasks.register<JavaExec>("groupCommitBenchmark") {
+	description = "Compares latency of direct and group-commit inserts of transactions at fixed arrival rates against a file-based H2 database."
+	group = "verification"
+	classpath = sourceSets["loadTest"].runtimeClasspath
+	mainClass.set("com.ivantrykosh.app.budgettracker.server.loadtest.GroupCommitBenchmark")
+	args(
+		providers.gradleProperty("benchmark.durationSeconds").getOrElse("10"),
+		layout.buildDirectory.file("load-test/group-commit.json").get().asFile.path,
+		layout.buildDirectory.dir("load-test/group-commit-db").get().asFile.path,
+		providers.gradleProperty("benchmark.rates").getOrElse("1000,10000,50000"),
+		providers.gradleProperty("transactions.group-commit.max-batch-size").getOrElse("500"),
+		providers.gradleProperty("transactions.group-commit.max-delay-ms").getOrElse("5")
+	)
+}
+
+tasks.register<JavaExec>("jmh") {
+	description = "Runs JMH microbenchmarks with fixed forks and iterations and saves results as JSON."
+	group = "verification"
+	classpath = sourceSets["jmh"].runtimeClasspath
+	mainClass.set("org.openjdk.jmh.Main")
+	val results = layout.buildDirectory.file("jmh/results.json").get().asFile
+	doFirst {
+		results.parentFile.mkdirs()
+	}
+	args(
+		providers.gradleProperty("jmh.includes").getOrElse(".*Benchmark.*"),
+		"-f", providers.gradleProperty("jmh.forks").getOrElse("2"),
+		"-wi", providers.gradleProperty("jmh.warmupIterations").getOrElse("5"),
+		"-w", "1s",
+		"-i", providers.gradleProperty("jmh.iterations").getOrElse("10"),
+		"-r", "1s",
+		"-jvmArgs", "-Xms2g -Xmx2g",
+		"-rf", "json",
+		"-rff", results.path
+	)
+}
+
+tasks.register<JavaExec>("sessionLoadTest") {
+	description = "Replays scripted user sessions at a fixed arrival rate against a server with a seeded file-based H2 dataset."
+	group = "verification"
+	classpath = sourceSets["loadTest"].runtimeClasspath
+	mainClass.set("com.ivantrykosh.app.budgettracker.server.loadtest.SessionReplayLoadTest")
+	maxHeapSize = providers.gradleProperty("loadTest.maxHeap").getOrElse("4g")
+	args(
+		providers.gradleProperty("loadTest.sessionsPerSecond").getOrElse("20"),
+		providers.gradleProperty("loadTest.durationSeconds").getOrElse("60"),
+		layout.buildDirectory.file("load-test/sessions.json").get().asFile.path,
+		layout.buildDirectory.dir("load-test/sessions-db").get().asFile.path,
+		providers.gradleProperty("dataset.users").getOrElse("1000"),
+		providers.gradleProperty("dataset.transactions").getOrElse("1000000"),
+		providers.gradleProperty("loadTest.thinkTimeMillis").getOrElse("0")
+	)
+}
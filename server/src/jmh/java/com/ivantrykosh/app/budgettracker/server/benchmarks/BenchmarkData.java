@@ -0,0 +1,123 @@
+package com.ivantrykosh.app.budgettracker.server.benchmarks;
+
+import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
+import com.ivantrykosh.app.budgettracker.server.application.mappers.TransactionMapper;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Creates entities and DTOs for benchmarks. Data is generated with a fixed seed, so every run measures the same data.
+ */
+final class BenchmarkData {
+    private static final long SEED = 20240101L; // Seed of generated data
+    private static final String[] CATEGORIES = {"Food", "Transport", "Salary", "Health", "Entertainment", "Utilities", "Gifts", "Education"}; // Categories of transactions
+    private static final long START_DATE = 1704067200000L; // 2024-01-01, first date of transactions
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000; // One day in milliseconds
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Create users with IDs from 1
+     * @param count number of users
+     * @return created users
+     */
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User();
+            user.setUserId((long) i);
+            user.setEmail("user" + i + "@gmail.com");
+            user.setPasswordHash("hash");
+            user.setRegistrationDate(new Date(START_DATE));
+            user.setIsVerified(true);
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Create accounts with IDs from 1, which belong to the given users in turn
+     * @param count number of accounts
+     * @param users owners of accounts
+     * @return created accounts
+     */
+    static List<Account> accounts(int count, List<User> users) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Account account = new Account();
+            account.setAccountId((long) i);
+            account.setName("Account " + i);
+            account.setUser(users.get(i % users.size()));
+            account.setVersion(i % 3);
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    /**
+     * Create account users of the given accounts. Every account is shared with up to three other users
+     * @param accounts accounts of account users
+     * @param users users, with whom accounts are shared
+     * @return created account users
+     */
+    static List<AccountUsers> accountsUsers(List<Account> accounts, List<User> users) {
+        Random random = new Random(SEED);
+        List<AccountUsers> accountsUsers = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            AccountUsers accountUsers = new AccountUsers();
+            accountUsers.setAccountUsersId(account.getAccountId());
+            accountUsers.setAccount(account);
+            int sharedUsers = random.nextInt(4);
+            accountUsers.setUser2Id(sharedUsers > 0 ? users.get(random.nextInt(users.size())).getUserId() : null);
+            accountUsers.setUser3Id(sharedUsers > 1 ? users.get(random.nextInt(users.size())).getUserId() : null);
+            accountUsers.setUser4Id(sharedUsers > 2 ? users.get(random.nextInt(users.size())).getUserId() : null);
+            accountsUsers.add(accountUsers);
+        }
+        return accountsUsers;
+    }
+
+    /**
+     * Create transactions with IDs from 1 spread over the given accounts
+     * @param count number of transactions
+     * @param accounts accounts of transactions
+     * @return created transactions
+     */
+    static List<Transaction> transactions(int count, List<Account> accounts) {
+        Random random = new Random(SEED);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId((long) i);
+            transaction.setAccount(accounts.get(random.nextInt(accounts.size())));
+            transaction.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            transaction.setValue(Math.round((random.nextDouble() * 2000 - 1500) * 100) / 100.0);
+            transaction.setDate(new Date(START_DATE + random.nextInt(365) * DAY_MILLIS));
+            transaction.setToFromWhom(random.nextInt(3) == 0 ? "Shop " + random.nextInt(100) : null);
+            transaction.setNote(random.nextInt(4) == 0 ? "Note of transaction " + i : null);
+            transaction.setVersion(random.nextInt(3));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    /**
+     * Create DTOs of transactions
+     * @param count number of transactions
+     * @return created DTOs
+     */
+    static List<TransactionDto> transactionDtos(int count) {
+        TransactionMapper mapper = new TransactionMapper();
+        return transactions(count, accounts(Math.max(1, count / 100), users(10))).stream()
+                .map(mapper::convertToDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.ivantrykosh.app.budgettracker.server.benchmarks;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import com.ivantrykosh.app.budgettracker.server.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generation and validation of JWT tokens with JwtUtil.
+ * Every authenticated request validates a token, so validation is on the path of every endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+    private static final String SECRET_KEY = "YmVuY2htYXJrLXNlY3JldC1rZXktZm9yLWJ1ZGdldC10cmFja2VyLXNlcnZlcg=="; // Secret key of benchmarks
+
+    private JwtUtil jwtUtil;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    /**
+     * Create JwtUtil with the secret key and generate token of user
+     */
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        Field secretKey = ReflectionUtils.findField(JwtUtil.class, "SECRET_KEY");
+        ReflectionUtils.makeAccessible(secretKey);
+        ReflectionUtils.setField(secretKey, jwtUtil, SECRET_KEY);
+
+        User user = BenchmarkData.users(1).get(0);
+        userDetails = new CustomUserDetails(user);
+        token = jwtUtil.generateToken(user.getEmail());
+    }
+
+    /**
+     * Generate token like login and refresh endpoints
+     * @return generated token
+     */
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(userDetails.getUsername());
+    }
+
+    /**
+     * Extract username from token like the filter of authenticated requests
+     * @return username of token
+     */
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    /**
+     * Validate token of user like the filter of authenticated requests
+     * @return whether token is valid
+     */
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+}
@@ -0,0 +1,153 @@
+package com.ivantrykosh.app.budgettracker.server.benchmarks;
+
+import com.ivantrykosh.app.budgettracker.server.application.dtos.AccountDto;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.AccountUsersDto;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
+import com.ivantrykosh.app.budgettracker.server.application.mappers.AccountMapper;
+import com.ivantrykosh.app.budgettracker.server.application.mappers.AccountUsersMapper;
+import com.ivantrykosh.app.budgettracker.server.application.mappers.TransactionMapper;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.AccountSums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures conversion of lists of entities to DTOs and back with TransactionMapper, AccountMapper and AccountUsersMapper.
+ * Services used by mappers return prepared data, so only the mapping is measured, not the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({"100", "10000"})
+    private int size; // Number of converted items
+
+    private TransactionMapper transactionMapper;
+    private AccountMapper accountMapper;
+    private AccountUsersMapper accountUsersMapper;
+
+    private List<Transaction> transactions;
+    private List<TransactionDto> transactionDtos;
+    private List<Account> accounts;
+    private List<AccountUsers> accountsUsers;
+
+    /**
+     * Create data and mappers with services, which return prepared sums and users
+     */
+    @Setup
+    public void setUp() {
+        List<User> users = BenchmarkData.users(Math.max(4, size / 10));
+        accounts = BenchmarkData.accounts(size, users);
+        accountsUsers = BenchmarkData.accountsUsers(accounts, users);
+        transactions = BenchmarkData.transactions(size, accounts);
+
+        Map<Long, AccountSums> sums = accounts.stream()
+                .collect(Collectors.toMap(Account::getAccountId, account -> sums(account.getAccountId(), 100.0 * account.getAccountId(), -50.0 * account.getAccountId())));
+        Map<Long, User> usersById = users.stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+        transactionMapper = new TransactionMapper();
+        transactionDtos = transactions.stream()
+                .map(transactionMapper::convertToDto)
+                .collect(Collectors.toList());
+        accountMapper = new AccountMapper(new TransactionService() {
+            @Override
+            public Map<Long, AccountSums> getSumsOfTransactionsByAccountIds(List<Long> accountIds) {
+                return sums;
+            }
+        });
+        accountUsersMapper = new AccountUsersMapper(new UserService() {
+            @Override
+            public List<User> getUsersByIds(Collection<Long> userIds) {
+                return userIds.stream()
+                        .map(usersById::get)
+                        .collect(Collectors.toList());
+            }
+        });
+    }
+
+    /**
+     * Convert transactions to DTOs like endpoints, which return transactions
+     * @return converted items
+     */
+    @Benchmark
+    public List<TransactionDto> transactionsToDtos() {
+        return transactions.stream()
+                .map(transactionMapper::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convert DTOs of transactions to entities like endpoints, which save transactions
+     * @return converted items
+     */
+    @Benchmark
+    public List<Transaction> transactionDtosToEntities() {
+        return transactionDtos.stream()
+                .map(transactionMapper::convertToEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convert accounts to DTOs with sums of all accounts
+     * @return converted items
+     */
+    @Benchmark
+    public List<AccountDto> accountsToDtos() {
+        return accountMapper.convertToDtos(accounts);
+    }
+
+    /**
+     * Convert account users to DTOs with emails of all users
+     * @return converted items
+     */
+    @Benchmark
+    public List<AccountUsersDto> accountsUsersToDtos() {
+        return accountUsersMapper.convertToDtos(accountsUsers);
+    }
+
+    /**
+     * Create sums of account
+     * @param accountId ID of account
+     * @param incomesSum sum of incomes
+     * @param expensesSum sum of expenses
+     * @return sums of account
+     */
+    private static AccountSums sums(Long accountId, Double incomesSum, Double expensesSum) {
+        return new AccountSums() {
+            @Override
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public Double getIncomesSum() {
+                return incomesSum;
+            }
+
+            @Override
+            public Double getExpensesSum() {
+                return expensesSum;
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.ivantrykosh.app.budgettracker.server.benchmarks;
+
+import com.ivantrykosh.app.budgettracker.server.util.PasswordManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generation and SHA-256 hashing of passwords with PasswordManager, which are used to reset passwords
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordManagerBenchmark {
+
+    private PasswordManager passwordManager;
+    private String password;
+    private String salt;
+
+    /**
+     * Create PasswordManager and password to hash
+     */
+    @Setup
+    public void setUp() {
+        passwordManager = new PasswordManager();
+        password = "Password1@benchmark";
+        salt = "user1@gmail.com";
+    }
+
+    /**
+     * Generate password of the length used by reset of password
+     * @return generated password
+     */
+    @Benchmark
+    public String generatePassword() {
+        return passwordManager.generatePassword(10);
+    }
+
+    /**
+     * Hash password with email as salt
+     * @return hashed password
+     */
+    @Benchmark
+    public String hashPassword() {
+        return passwordManager.hashPassword(password, salt);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ivantrykosh.app.budgettracker.server.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of lists of TransactionDto, which are returned by endpoints of transactions.
+ * ObjectMapper is configured like the one of Spring Boot, so dates are written as ISO strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionDtoSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size; // Number of serialized transactions
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private List<TransactionDto> transactionDtos;
+    private byte[] json;
+
+    /**
+     * Create ObjectMapper and DTOs of transactions
+     */
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = objectMapper.writerFor(new TypeReference<List<TransactionDto>>() {});
+        transactionDtos = BenchmarkData.transactionDtos(size);
+        json = writer.writeValueAsBytes(transactionDtos);
+    }
+
+    /**
+     * Serialize DTOs to a byte array
+     * @return JSON of DTOs
+     */
+    @Benchmark
+    public byte[] serializeToBytes() throws IOException {
+        return writer.writeValueAsBytes(transactionDtos);
+    }
+
+    /**
+     * Serialize DTOs to a stream like a response, without collecting JSON in memory
+     * @return number of written bytes
+     */
+    @Benchmark
+    public long serializeToStream() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        writer.writeValue(outputStream, transactionDtos);
+        return outputStream.count;
+    }
+
+    /**
+     * Deserialize DTOs from JSON like a client
+     * @return deserialized DTOs
+     */
+    @Benchmark
+    public List<TransactionDto> deserialize() throws IOException {
+        return objectMapper.readValue(json, new TypeReference<List<TransactionDto>>() {});
+    }
+
+    /**
+     * Output stream, which counts written bytes and drops them
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count; // Number of written bytes
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ivantrykosh.app.budgettracker.server.benchmarks;
+
+import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
+import com.ivantrykosh.app.budgettracker.server.application.services.RequestLookupContext;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.validators.TransactionValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checks of TransactionValidator in the order, in which the update endpoint runs them.
+ * The lookup context returns prepared entities, so only the checks are measured, not the database.
+ * DTOs are taken in turn from a list of generated transactions, so results of checks are not constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionValidatorBenchmark {
+    private static final int NUMBER_OF_TRANSACTIONS = 1024; // Number of generated transactions, must be a power of two
+
+    private TransactionValidator transactionValidator;
+    private List<TransactionDto> transactionDtos;
+    private int next; // Index of the next DTO
+
+    /**
+     * Create TransactionValidator with lookup context, which returns generated entities
+     */
+    @Setup
+    public void setUp() {
+        transactionDtos = BenchmarkData.transactionDtos(NUMBER_OF_TRANSACTIONS);
+        Transaction transaction = new Transaction();
+        Account account = new Account();
+        RequestLookupContext lookupContext = new RequestLookupContext() {
+            @Override
+            public Transaction getTransactionById(Long transactionId) {
+                return transaction;
+            }
+
+            @Override
+            public Account getAccountById(Long accountId) {
+                return account;
+            }
+        };
+
+        transactionValidator = new TransactionValidator();
+        Field lookupContextField = ReflectionUtils.findField(TransactionValidator.class, "lookupContext");
+        ReflectionUtils.makeAccessible(lookupContextField);
+        ReflectionUtils.setField(lookupContextField, transactionValidator, lookupContext);
+    }
+
+    /**
+     * Run all checks of the next DTO like the update endpoint
+     * @return whether DTO is valid
+     */
+    @Benchmark
+    public boolean checkTransaction() {
+        TransactionDto transactionDto = transactionDtos.get(next++ & (NUMBER_OF_TRANSACTIONS - 1));
+        return transactionValidator.checkTransactionId(transactionDto.getTransactionId())
+                && transactionValidator.checkAccountId(transactionDto.getAccountId())
+                && transactionValidator.checkCategory(transactionDto.getCategory())
+                && transactionValidator.checkValue(transactionDto.getValue())
+                && transactionValidator.checkDate(transactionDto.getDate())
+                && transactionValidator.checkToFromWhom(transactionDto.getToFromWhom())
+                && transactionValidator.checkNote(transactionDto.getNote());
+    }
+
+    /**
+     * Run checks of fields of the next DTO, which do not look up entities
+     * @return whether fields are valid
+     */
+    @Benchmark
+    public boolean checkFields() {
+        TransactionDto transactionDto = transactionDtos.get(next++ & (NUMBER_OF_TRANSACTIONS - 1));
+        return transactionValidator.checkCategory(transactionDto.getCategory())
+                && transactionValidator.checkValue(transactionDto.getValue())
+                && transactionValidator.checkDate(transactionDto.getDate())
+                && transactionValidator.checkToFromWhom(transactionDto.getToFromWhom())
+                && transactionValidator.checkNote(transactionDto.getNote());
+    }
+}
@@ -0,0 +1,243 @@
+package com.ivantrykosh.app.budgettracker.server.loadtest;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds a synthetic dataset, which looks like the data of real users, with batched JDBC inserts.
+ * Users own one to three accounts, part of accounts is shared with up to three other users through account users,
+ * and transactions are skewed: a few accounts and categories get most of them, and recent dates are more frequent than old ones.
+ * Data is generated from a fixed seed, so the same settings always produce the same dataset.
+ * The dataset is seeded only into empty tables. If users are already seeded, the existing dataset is loaded instead,
+ * so a file database can be reused between runs.
+ */
+public class DatasetSeeder {
+    private static final long SEED = 20240101L; // Seed of generated data
+    private static final int BATCH_SIZE = 10_000; // Number of rows inserted with one batch
+    private static final int HISTORY_DAYS = 3 * 365; // Number of days back, over which transactions are spread
+    private static final double INCOME_RATIO = 0.15; // Part of transactions, which are incomes
+    private static final double SHARED_ACCOUNT_RATIO = 0.2; // Part of accounts, which are shared with other users
+    private static final String[] EXPENSE_CATEGORIES = {"Food", "Transport", "Utilities", "Entertainment", "Health", "Clothes",
+            "Restaurants", "Education", "Gifts", "Travel", "Pets", "Sport", "Taxes", "Insurance", "Repairs"}; // Categories of expenses from the most to the least frequent
+    private static final String[] INCOME_CATEGORIES = {"Salary", "Bonus", "Interest", "Gifts", "Sales"}; // Categories of incomes from the most to the least frequent
+    private static final String EMAIL_FORMAT = "loadtest%d@gmail.com"; // Format of emails of seeded users
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(SEED);
+
+    public DatasetSeeder(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Seeds the dataset, if it is not seeded yet, and loads users with their accounts.
+     *
+     * @param users The number of users.
+     * @param transactions The number of transactions.
+     * @param passwordHash The password hash of all users.
+     * @return The seeded users.
+     */
+    public List<SeededUser> seed(int users, long transactions, String passwordHash) {
+        Long existingUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existingUsers == null || existingUsers == 0) {
+            insertUsers(users, passwordHash);
+            List<long[]> accounts = insertAccounts();
+            insertAccountUsers(accounts);
+            insertTransactions(accounts, transactions);
+        } else {
+            System.out.println("Dataset is already seeded with " + existingUsers + " users, it is reused");
+        }
+        return loadUsers();
+    }
+
+    /**
+     * Inserts verified users.
+     *
+     * @param users The number of users.
+     * @param passwordHash The password hash of all users.
+     */
+    private void insertUsers(int users, String passwordHash) {
+        Timestamp registrationDate = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusDays(HISTORY_DAYS));
+        List<Object[]> rows = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{EMAIL_FORMAT.formatted(i), passwordHash, registrationDate, true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, user_password_hash, registration_date, is_verified) VALUES (?, ?, ?, ?)", rows);
+        System.out.println("Seeded " + users + " users");
+    }
+
+    /**
+     * Inserts one to three accounts of every user.
+     *
+     * @return The IDs of inserted accounts with IDs of their owners.
+     */
+    private List<long[]> insertAccounts() {
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT user_id FROM users ORDER BY user_id", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : userIds) {
+            double accounts = random.nextDouble();
+            int count = accounts < 0.1 ? 3 : accounts < 0.4 ? 2 : 1;
+            for (int i = 1; i <= count; i++) {
+                rows.add(new Object[]{userId, "Account " + i, 0});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO accounts (user_id, name, version) VALUES (?, ?, ?)", rows);
+        System.out.println("Seeded " + rows.size() + " accounts");
+        return jdbcTemplate.query("SELECT account_id, user_id FROM accounts ORDER BY account_id",
+                (resultSet, rowNumber) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)});
+    }
+
+    /**
+     * Inserts account users of every account. Shared accounts get one to three other users.
+     *
+     * @param accounts The IDs of accounts with IDs of their owners.
+     */
+    private void insertAccountUsers(List<long[]> accounts) {
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT user_id FROM users ORDER BY user_id", Long.class);
+        List<Object[]> rows = new ArrayList<>(accounts.size());
+        for (long[] account : accounts) {
+            Long[] sharedUserIds = new Long[3];
+            if (random.nextDouble() < SHARED_ACCOUNT_RATIO && userIds.size() > 3) {
+                int sharedUsers = 1 + random.nextInt(3);
+                for (int i = 0; i < sharedUsers; i++) {
+                    Long userId;
+                    do {
+                        userId = userIds.get(random.nextInt(userIds.size()));
+                    } while (userId == account[1] || contains(sharedUserIds, userId));
+                    sharedUserIds[i] = userId;
+                }
+            }
+            rows.add(new Object[]{account[0], sharedUserIds[0], sharedUserIds[1], sharedUserIds[2]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account_users (account_id, user2_id, user3_id, user4_id) VALUES (?, ?, ?, ?)", rows,
+                new int[]{Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT});
+        System.out.println("Seeded " + rows.size() + " account users");
+    }
+
+    /**
+     * Inserts transactions in batches. Accounts, categories and dates are skewed.
+     *
+     * @param accounts The IDs of accounts with IDs of their owners.
+     * @param transactions The number of transactions.
+     */
+    private void insertTransactions(List<long[]> accounts, long transactions) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        String sql = "INSERT INTO transactions (account_id, category, transaction_value, date, to_from_whom, note, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+        long inserted = 0;
+        while (inserted < transactions) {
+            int batch = (int) Math.min(BATCH_SIZE, transactions - inserted);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    boolean isIncome = random.nextDouble() < INCOME_RATIO;
+                    String[] categories = isIncome ? INCOME_CATEGORIES : EXPENSE_CATEGORIES;
+                    double value = isIncome
+                            ? Math.round(500 + random.nextDouble() * 3000)
+                            : -Math.round(Math.exp(random.nextGaussian() + 3) * 100) / 100.0;
+                    int daysBack = (int) (HISTORY_DAYS * Math.pow(random.nextDouble(), 2));
+
+                    statement.setLong(1, accounts.get(skewedIndex(accounts.size(), 2.0))[0]);
+                    statement.setString(2, categories[skewedIndex(categories.length, 2.5)]);
+                    statement.setDouble(3, value);
+                    statement.setTimestamp(4, Timestamp.valueOf(now.minusDays(daysBack).minusMinutes(random.nextInt(24 * 60))));
+                    if (random.nextDouble() < 0.3) {
+                        statement.setString(5, "Shop " + skewedIndex(200, 2.0));
+                    } else {
+                        statement.setNull(5, Types.VARCHAR);
+                    }
+                    if (random.nextDouble() < 0.1) {
+                        statement.setString(6, "Note " + random.nextInt(1000));
+                    } else {
+                        statement.setNull(6, Types.VARCHAR);
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch;
+                }
+            });
+            inserted += batch;
+            if (inserted % (BATCH_SIZE * 50L) == 0 || inserted == transactions) {
+                System.out.println("Seeded " + inserted + " of " + transactions + " transactions");
+            }
+        }
+    }
+
+    /**
+     * Loads seeded users with IDs of their own and shared accounts.
+     *
+     * @return The seeded users ordered by ID.
+     */
+    private List<SeededUser> loadUsers() {
+        Map<Long, SeededUser> users = new HashMap<>();
+        List<SeededUser> orderedUsers = new ArrayList<>();
+        jdbcTemplate.query("SELECT user_id, email FROM users ORDER BY user_id", resultSet -> {
+            SeededUser user = new SeededUser(resultSet.getString(2), new ArrayList<>());
+            users.put(resultSet.getLong(1), user);
+            orderedUsers.add(user);
+        });
+        jdbcTemplate.query("SELECT a.account_id, a.user_id, au.user2_id, au.user3_id, au.user4_id FROM accounts a " +
+                "LEFT JOIN account_users au ON au.account_id = a.account_id ORDER BY a.account_id", resultSet -> {
+            long accountId = resultSet.getLong(1);
+            for (int column = 2; column <= 5; column++) {
+                long userId = resultSet.getLong(column);
+                if (!resultSet.wasNull() && users.containsKey(userId)) {
+                    users.get(userId).accountIds().add(accountId);
+                }
+            }
+        });
+        return orderedUsers.stream()
+                .filter(user -> !user.accountIds().isEmpty())
+                .toList();
+    }
+
+    /**
+     * Returns a random index, which is skewed towards small indexes.
+     *
+     * @param size The number of indexes.
+     * @param skew The skew. 1 means uniform distribution, greater values make small indexes more frequent.
+     * @return The random index.
+     */
+    private int skewedIndex(int size, double skew) {
+        return Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), skew)));
+    }
+
+    /**
+     * Checks, whether the array contains the value.
+     *
+     * @param values The array.
+     * @param value The value.
+     * @return True, if the array contains the value.
+     */
+    private static boolean contains(Long[] values, Long value) {
+        for (Long existing : values) {
+            if (value.equals(existing)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * User of the dataset.
+     *
+     * @param email The email of the user.
+     * @param accountIds The IDs of own and shared accounts of the user.
+     */
+    public record SeededUser(String email, List<Long> accountIds) {
+    }
+}
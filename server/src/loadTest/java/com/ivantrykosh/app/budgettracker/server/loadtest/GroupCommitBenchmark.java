@@ -0,0 +1,261 @@
+package com.ivantrykosh.app.budgettracker.server.loadtest;
+
+import com.ivantrykosh.app.budgettracker.server.BudgetTrackerApplication;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.persistence.TransactionGroupCommitWriter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Compares creation of transactions with and without group commit at fixed arrival rates.
+ * The server is started in-process against a file-based H2 database, so commits are written to disk.
+ * Inserts arrive at a fixed rate regardless of how fast earlier ones complete, every insert on its own virtual thread,
+ * and latency is measured from the scheduled arrival, so time spent waiting in queues is included.
+ * Direct mode saves every transaction in its own database transaction like createTransaction without group commit,
+ * group commit mode submits it to TransactionGroupCommitWriter and waits for the commit.
+ * Results are printed and saved as JSON.
+ * <p>
+ * Arguments: duration in seconds per rate (10), path of JSON result, directory of database,
+ * rates in inserts per second (1000,10000,50000), maximum batch size (500), maximum delay in milliseconds (5).
+ */
+public class GroupCommitBenchmark {
+    private static final int WARM_UP_SECONDS = 2; // Duration of warm-up of every measurement, which is not measured
+    private static final long INSERT_TIMEOUT_SECONDS = 60; // Time after which an insert is counted as failed
+
+    public static void main(String[] args) throws Exception {
+        int durationSeconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path jsonPath = args.length > 1 ? Path.of(args[1]) : null;
+        Path databaseDirectory = args.length > 2 ? Path.of(args[2]) : Files.createTempDirectory("group-commit-benchmark");
+        List<Integer> rates = args.length > 3
+                ? Arrays.stream(args[3].split(",")).map(String::trim).map(Integer::parseInt).collect(Collectors.toList())
+                : List.of(1000, 10000, 50000);
+        int maxBatchSize = args.length > 4 ? Integer.parseInt(args[4]) : 500;
+        long maxDelayMillis = args.length > 5 ? Long.parseLong(args[5]) : 5;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BudgetTrackerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:file:" + databaseDirectory.resolve("benchmark").toAbsolutePath(),
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.security.secret-key=bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWJ1ZGdldC10cmFja2VyLXNlcnZlcg==",
+                        "properties.address=localhost",
+                        "spring.mail.host=localhost",
+                        "spring.mail.username=benchmark@localhost",
+                        "email.outbox.enabled=false",
+                        "confirmation-tokens.reaper.enabled=false",
+                        "transactions.group-commit.enabled=true",
+                        "transactions.group-commit.max-batch-size=" + maxBatchSize,
+                        "transactions.group-commit.max-delay-ms=" + maxDelayMillis,
+                        "transactions.group-commit.queue-capacity=" + (rates.stream().max(Integer::compare).orElse(50000) * 2),
+                        "logging.level.root=WARN")
+                .run();
+
+        List<String> results = new ArrayList<>();
+        try {
+            Account account = seed(context);
+            TransactionService transactionService = context.getBean(TransactionService.class);
+            TransactionGroupCommitWriter groupCommitWriter = context.getBean(TransactionGroupCommitWriter.class);
+
+            for (int rate : rates) {
+                Insert direct = transaction -> transactionService.saveTransaction(transaction);
+                Insert groupCommit = transaction -> groupCommitWriter.submit(transaction).get(INSERT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+                measure(account, rate, WARM_UP_SECONDS, direct);
+                Result directResult = measure(account, rate, durationSeconds, direct);
+                directResult.mode = "direct";
+                results.add(directResult.toJson());
+
+                measure(account, rate, WARM_UP_SECONDS, groupCommit);
+                long batchesBefore = groupCommitWriter.getFlushedBatches();
+                long insertedBefore = groupCommitWriter.getInsertedTransactions();
+                Result groupCommitResult = measure(account, rate, durationSeconds, groupCommit);
+                groupCommitResult.mode = "groupCommit";
+                groupCommitResult.batches = groupCommitWriter.getFlushedBatches() - batchesBefore;
+                groupCommitResult.insertedInBatches = groupCommitWriter.getInsertedTransactions() - insertedBefore;
+                results.add(groupCommitResult.toJson());
+            }
+        } finally {
+            context.close();
+        }
+
+        String json = """
+                {
+                  "durationSeconds": %d,
+                  "maxBatchSize": %d,
+                  "maxDelayMillis": %d,
+                  "results": [
+                    %s
+                  ]
+                }
+                """.formatted(durationSeconds, maxBatchSize, maxDelayMillis, String.join(",\n    ", results));
+        System.out.println(json);
+        if (jsonPath != null) {
+            Files.createDirectories(jsonPath.getParent());
+            Files.writeString(jsonPath, json);
+        }
+    }
+
+    /**
+     * Saves user with account, to which transactions are inserted.
+     *
+     * @param context The context of the server.
+     * @return The saved account.
+     */
+    private static Account seed(ConfigurableApplicationContext context) {
+        User user = new User();
+        user.setEmail("benchmark@gmail.com");
+        user.setPasswordHash("hash");
+        user.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        user.setIsVerified(true);
+        User savedUser = context.getBean(UserService.class).saveUser(user);
+
+        Account account = new Account();
+        account.setName("Benchmark account");
+        account.setUser(savedUser);
+        Account savedAccount = context.getBean(AccountService.class).saveAccount(account);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(savedAccount);
+        context.getBean(AccountUsersService.class).saveAccountUsers(accountUsers);
+        return savedAccount;
+    }
+
+    /**
+     * Starts inserts at the given rate and waits until all of them complete.
+     *
+     * @param account The account of inserted transactions.
+     * @param rate The number of inserts started per second.
+     * @param durationSeconds The duration of arrivals.
+     * @param insert The way of inserting.
+     * @return The result of measurement.
+     */
+    private static Result measure(Account account, int rate, int durationSeconds, Insert insert) throws InterruptedException {
+        int total = rate * durationSeconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long[] latencies = new long[total]; // Latency of every insert in nanoseconds, -1 if it failed
+        AtomicLong lastCompletion = new AtomicLong();
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                long scheduled = start + i * intervalNanos;
+                long delay = scheduled - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        insert.insert(createTransaction(account));
+                        long completion = System.nanoTime();
+                        latencies[index] = completion - scheduled;
+                        lastCompletion.accumulateAndGet(completion, Math::max);
+                    } catch (Exception e) {
+                        latencies[index] = -1;
+                    }
+                });
+            }
+        }
+
+        Result result = new Result();
+        result.rate = rate;
+        result.setLatencies(latencies, lastCompletion.get() - start);
+        return result;
+    }
+
+    /**
+     * Creates new transaction of the account.
+     *
+     * @param account The account of transaction.
+     * @return The new transaction.
+     */
+    private static Transaction createTransaction(Account account) {
+        Transaction transaction = new Transaction();
+        transaction.setCategory("Benchmark");
+        transaction.setValue(10.0);
+        transaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        transaction.setAccount(account);
+        return transaction;
+    }
+
+    /**
+     * Way of inserting one transaction, which returns after it is committed
+     */
+    @FunctionalInterface
+    private interface Insert {
+        void insert(Transaction transaction) throws Exception;
+    }
+
+    /**
+     * Result of measurement of one mode at one rate
+     */
+    private static class Result {
+        private String mode; // Way of inserting
+        private int rate; // Target inserts per second
+        private long inserts; // Number of committed inserts
+        private long errors; // Number of failed inserts
+        private double throughput; // Committed inserts per second
+        private double p50Millis; // Median latency
+        private double p95Millis; // 95th percentile of latency
+        private double p99Millis; // 99th percentile of latency
+        private double maxMillis; // Maximum latency
+        private long batches = -1; // Number of committed batches, only for group commit
+        private long insertedInBatches; // Number of transactions in committed batches, only for group commit
+
+        private void setLatencies(long[] latencies, long elapsedNanos) {
+            long[] successful = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+            inserts = successful.length;
+            errors = latencies.length - successful.length;
+            throughput = elapsedNanos <= 0 ? 0 : inserts / (elapsedNanos / 1_000_000_000.0);
+            p50Millis = percentile(successful, 0.50);
+            p95Millis = percentile(successful, 0.95);
+            p99Millis = percentile(successful, 0.99);
+            maxMillis = successful.length == 0 ? 0 : successful[successful.length - 1] / 1_000_000.0;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        private String toJson() {
+            String json = String.format(Locale.ROOT,
+                    "{\"mode\": \"%s\", \"rate\": %d, \"inserts\": %d, \"errors\": %d, \"throughput\": %.1f, \"p50Millis\": %.2f, \"p95Millis\": %.2f, \"p99Millis\": %.2f, \"maxMillis\": %.2f",
+                    mode, rate, inserts, errors, throughput, p50Millis, p95Millis, p99Millis, maxMillis);
+            if (batches >= 0) {
+                json += String.format(Locale.ROOT, ", \"batches\": %d, \"averageBatchSize\": %.1f",
+                        batches, batches == 0 ? 0.0 : (double) insertedInBatches / batches);
+            }
+            return json + "}";
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.ivantrykosh.app.budgettracker.server.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivantrykosh.app.budgettracker.server.BudgetTrackerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Replays scripted user sessions against the server at a fixed arrival rate, for capacity planning.
+ * The server is started in-process against a file-based H2 database, which is seeded by DatasetSeeder with a synthetic dataset.
+ * Every session logs in and then requests the overview of accounts, transactions of the current month,
+ * transactions of the last year for reports, and creates a transaction, like a user of the client.
+ * The month view is also requested with the fields shown in the list of transactions only, so savings of field selection are measured.
+ * Sessions arrive at a fixed rate regardless of how fast earlier ones complete, every session on its own virtual thread.
+ * Latency of login is measured from the scheduled arrival, so time spent waiting in queues is included.
+ * Throughput, latency percentiles and average size of response bodies of every step are printed and saved as JSON.
+ * <p>
+ * Arguments: sessions per second (20), duration in seconds (60), path of JSON result, directory of database,
+ * number of users (1000), number of transactions (1000000), think time between steps in milliseconds (0).
+ * Further arguments are passed to the server as properties, for example --rate-limit.enabled=true.
+ */
+public class SessionReplayLoadTest {
+    private static final int WARM_UP_SECONDS = 10; // Duration of warm-up, which is not measured
+    private static final long REQUEST_TIMEOUT_SECONDS = 60; // Time after which a request is counted as failed
+    private static final String PASSWORD = "LoadTest1@password"; // Password of all seeded users
+    private static final String MONTH_VIEW_FIELDS = "transactionId,category,value,date"; // Fields of transactions shown in the month view
+    private static final List<String> STEPS = List.of("login", "overview", "monthView", "monthViewFields", "report", "createTransaction"); // Steps of every session
+
+    public static void main(String[] args) throws Exception {
+        int sessionsPerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        Path jsonPath = args.length > 2 ? Path.of(args[2]) : null;
+        Path databaseDirectory = args.length > 3 ? Path.of(args[3]) : Files.createTempDirectory("session-load-test");
+        int users = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+        long transactions = args.length > 5 ? Long.parseLong(args[5]) : 1_000_000;
+        long thinkTimeMillis = args.length > 6 ? Long.parseLong(args[6]) : 0;
+        String[] serverArgs = args.length > 7 ? Arrays.copyOfRange(args, 7, args.length) : new String[0];
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BudgetTrackerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:file:" + databaseDirectory.resolve("sessions").toAbsolutePath(),
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.security.secret-key=bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWJ1ZGdldC10cmFja2VyLXNlcnZlcg==",
+                        "properties.address=localhost",
+                        "spring.mail.host=localhost",
+                        "spring.mail.username=loadtest@localhost",
+                        "email.outbox.enabled=false",
+                        "confirmation-tokens.reaper.enabled=false",
+                        "rate-limit.enabled=false",
+                        "logging.level.root=WARN")
+                .run(serverArgs);
+
+        String json;
+        try {
+            long seedStart = System.nanoTime();
+            String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+            List<DatasetSeeder.SeededUser> seededUsers = new DatasetSeeder(context.getBean(DataSource.class))
+                    .seed(users, transactions, passwordHash);
+            double seedSeconds = (System.nanoTime() - seedStart) / 1_000_000_000.0;
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            SessionRunner runner = new SessionRunner("http://localhost:" + port, seededUsers, thinkTimeMillis);
+
+            runner.measure(sessionsPerSecond, WARM_UP_SECONDS);
+            Result result = runner.measure(sessionsPerSecond, durationSeconds);
+
+            json = """
+                    {
+                      "sessionsPerSecond": %d,
+                      "durationSeconds": %d,
+                      "thinkTimeMillis": %d,
+                      "users": %d,
+                      "transactions": %d,
+                      "seedSeconds": %s,
+                      "sessions": %d,
+                      "completedSessions": %d,
+                      "steps": {
+                        %s
+                      }
+                    }
+                    """.formatted(sessionsPerSecond, durationSeconds, thinkTimeMillis, seededUsers.size(), transactions,
+                    String.format(Locale.ROOT, "%.1f", seedSeconds), result.sessions, result.completedSessions.get(),
+                    result.steps.entrySet().stream()
+                            .map(step -> "\"" + step.getKey() + "\": " + step.getValue().toJson(result.elapsedNanos))
+                            .collect(Collectors.joining(",\n    ")));
+        } finally {
+            context.close();
+        }
+
+        System.out.println(json);
+        if (jsonPath != null) {
+            Files.createDirectories(jsonPath.getParent());
+            Files.writeString(jsonPath, json);
+        }
+    }
+
+    /**
+     * Starts sessions at a fixed rate and runs their steps against the server
+     */
+    private static class SessionRunner {
+        private final String baseUrl; // URL of the server
+        private final List<DatasetSeeder.SeededUser> users; // Users, whose sessions are replayed
+        private final long thinkTimeMillis; // Pause between steps of a session
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final Random random = new Random(42); // Chooses users of sessions, so runs replay the same users
+
+        private SessionRunner(String baseUrl, List<DatasetSeeder.SeededUser> users, long thinkTimeMillis) {
+            this.baseUrl = baseUrl;
+            this.users = users;
+            this.thinkTimeMillis = thinkTimeMillis;
+        }
+
+        /**
+         * Starts sessions at the given rate and waits until all of them complete.
+         *
+         * @param sessionsPerSecond The number of sessions started per second.
+         * @param durationSeconds The duration of arrivals.
+         * @return The result of measurement.
+         */
+        private Result measure(int sessionsPerSecond, int durationSeconds) {
+            int total = sessionsPerSecond * durationSeconds;
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / sessionsPerSecond;
+            Result result = new Result(total);
+            AtomicLong lastCompletion = new AtomicLong();
+            long start = System.nanoTime();
+
+            // Sessions run on virtual threads, so the load generator is not limited by its own threads
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient httpClient = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .executor(executor)
+                         .connectTimeout(Duration.ofSeconds(30))
+                         .build()) {
+                for (int i = 0; i < total; i++) {
+                    long scheduled = start + i * intervalNanos;
+                    long delay = scheduled - System.nanoTime();
+                    if (delay > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                    // Active users open the client more often than others
+                    DatasetSeeder.SeededUser user = users.get(Math.min(users.size() - 1, (int) (users.size() * Math.pow(random.nextDouble(), 2))));
+                    executor.execute(() -> {
+                        if (runSession(httpClient, user, scheduled, result)) {
+                            result.completedSessions.incrementAndGet();
+                        }
+                        lastCompletion.accumulateAndGet(System.nanoTime(), Math::max);
+                    });
+                }
+            }
+
+            result.elapsedNanos = lastCompletion.get() - start;
+            return result;
+        }
+
+        /**
+         * Runs steps of one session. The session stops at the first failed step.
+         *
+         * @param httpClient The HTTP client.
+         * @param user The user of the session.
+         * @param scheduled The scheduled arrival of the session in nanoseconds.
+         * @param result The result, to which latencies are added.
+         * @return True, if all steps succeeded.
+         */
+        private boolean runSession(HttpClient httpClient, DatasetSeeder.SeededUser user, long scheduled, Result result) {
+            String accountIds = user.accountIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+            HttpResponse<String> login = send(httpClient, "login", scheduled, result, post("/api/v1/auth/login",
+                    "{\"email\": \"" + user.email() + "\", \"passwordHash\": \"" + PASSWORD + "\"}", null));
+            if (login == null) {
+                return false;
+            }
+            String token;
+            try {
+                token = objectMapper.readTree(login.body()).get("token").asText();
+            } catch (Exception e) {
+                result.steps.get("login").failed(-1);
+                return false;
+            }
+
+            List<Step> steps = List.of(
+                    new Step("overview", get("/api/v1/accounts/get-all", token)),
+                    new Step("monthView", get("/api/v1/transactions/get-all-between-dates?accountIds=" + accountIds
+                            + "&startDate=" + today.withDayOfMonth(1) + "&endDate=" + today, token)),
+                    new Step("monthViewFields", get("/api/v1/transactions/get-all-between-dates?accountIds=" + accountIds
+                            + "&startDate=" + today.withDayOfMonth(1) + "&endDate=" + today + "&fields=" + MONTH_VIEW_FIELDS, token)),
+                    new Step("report", get("/api/v1/transactions/get-all-between-dates?accountIds=" + accountIds
+                            + "&startDate=" + today.minusYears(1) + "&endDate=" + today, token)),
+                    new Step("createTransaction", post("/api/v1/transactions/create", String.format(Locale.ROOT,
+                            "{\"accountId\": %d, \"category\": \"Food\", \"value\": %.2f, \"date\": %d}",
+                            user.accountIds().get(0), -1 - ThreadLocalRandom.current().nextDouble() * 100, System.currentTimeMillis()), token))
+            );
+            for (Step step : steps) {
+                if (thinkTimeMillis > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(thinkTimeMillis));
+                }
+                if (send(httpClient, step.name(), System.nanoTime(), result, step.request()) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Sends request of a step and records its latency and size of the response body.
+         *
+         * @param httpClient The HTTP client.
+         * @param step The name of the step.
+         * @param start The start of the step in nanoseconds.
+         * @param result The result, to which the latency and the size are added.
+         * @param request The request to send.
+         * @return The response, or null if the request failed.
+         */
+        private HttpResponse<String> send(HttpClient httpClient, String step, long start, Result result, HttpRequest request) {
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() >= 400) {
+                    result.steps.get(step).failed(response.statusCode());
+                    return null;
+                }
+                result.steps.get(step).succeeded(System.nanoTime() - start, response.body().getBytes(StandardCharsets.UTF_8).length);
+                return response;
+            } catch (Exception e) {
+                result.steps.get(step).failed(-1);
+                return null;
+            }
+        }
+
+        /**
+         * Creates authenticated GET request.
+         *
+         * @param path The path and query of the request.
+         * @param token The JWT token.
+         * @return The request.
+         */
+        private HttpRequest get(String path, String token) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(REQUEST_TIMEOUT_SECONDS))
+                    .GET()
+                    .build();
+        }
+
+        /**
+         * Creates POST request with JSON body.
+         *
+         * @param path The path of the request.
+         * @param body The JSON body.
+         * @param token The JWT token, or null for requests without authentication.
+         * @return The request.
+         */
+        private HttpRequest post(String path, String body, String token) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(REQUEST_TIMEOUT_SECONDS))
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Step of a session with its request
+     *
+     * @param name The name of the step.
+     * @param request The request of the step.
+     */
+    private record Step(String name, HttpRequest request) {
+    }
+
+    /**
+     * Result of measurement
+     */
+    private static class Result {
+        private final int sessions; // Number of started sessions
+        private final AtomicLong completedSessions = new AtomicLong(); // Number of sessions, whose steps all succeeded
+        private final Map<String, StepResult> steps = new LinkedHashMap<>(); // Results of steps in order of sessions
+        private long elapsedNanos; // Time from the first arrival to the last completion
+
+        private Result(int sessions) {
+            this.sessions = sessions;
+            for (String step : STEPS) {
+                steps.put(step, new StepResult());
+            }
+        }
+    }
+
+    /**
+     * Latencies, sizes of responses and errors of one step
+     */
+    private static class StepResult {
+        private long[] latencies = new long[1024]; // Latencies of successful requests in nanoseconds
+        private int count; // Number of successful requests
+        private long bytes; // Total size of bodies of successful responses
+        private final Map<Integer, Long> errors = new TreeMap<>(); // Number of failed requests by status, -1 for failures without response
+
+        private synchronized void succeeded(long latency, long size) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            bytes += size;
+        }
+
+        private synchronized void failed(int status) {
+            errors.merge(status, 1L, Long::sum);
+        }
+
+        private synchronized String toJson(long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double throughput = elapsedNanos <= 0 ? 0 : count / (elapsedNanos / 1_000_000_000.0);
+            String errorsJson = errors.entrySet().stream()
+                    .map(error -> "\"" + error.getKey() + "\": " + error.getValue())
+                    .collect(Collectors.joining(", ", "{", "}"));
+            return String.format(Locale.ROOT,
+                    "{\"requests\": %d, \"errors\": %s, \"throughput\": %.1f, \"p50Millis\": %.2f, \"p95Millis\": %.2f, \"p99Millis\": %.2f, \"maxMillis\": %.2f, \"avgBytes\": %d}",
+                    count, errorsJson, throughput, percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0, count == 0 ? 0 : bytes / count);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.ivantrykosh.app.budgettracker.server.loadtest;
+
+import com.ivantrykosh.app.budgettracker.server.BudgetTrackerApplication;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.util.JwtUtil;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares latency of batches of reads of a user with many shared accounts, when the reads run one after another
+ * and when they run concurrently as request tasks. Every mode starts the server in-process against an in-memory H2 database,
+ * seeds a user, with whom accounts of other users are shared, and runs the given number of concurrent clients, which send
+ * a batch with one read of transactions for every shared account. Results are printed and saved as JSON.
+ * <p>
+ * Arguments: number of clients (8), duration in seconds (30), number of shared accounts (12, at most batch.max-operations),
+ * number of transactions per account (2000), path of JSON result (optional).
+ */
+public class SharedAccountsLoadComparison {
+    private static final int WARM_UP_SECONDS = 5; // Duration of warm-up, which is not measured
+    private static final String SECRET_KEY = "bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWJ1ZGdldC10cmFja2VyLXNlcnZlcg=="; // Secret key of JWT
+    private static final String EMAIL = "loadtest@gmail.com"; // Email of seeded user
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int sharedAccounts = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+        int transactionsPerAccount = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+
+        String sequential = run(false, clients, durationSeconds, sharedAccounts, transactionsPerAccount);
+        String parallel = run(true, clients, durationSeconds, sharedAccounts, transactionsPerAccount);
+
+        String json = """
+                {
+                  "clients": %d,
+                  "durationSeconds": %d,
+                  "sharedAccounts": %d,
+                  "transactionsPerAccount": %d,
+                  "sequential": %s,
+                  "requestTasks": %s
+                }
+                """.formatted(clients, durationSeconds, sharedAccounts, transactionsPerAccount, sequential, parallel);
+        System.out.println(json);
+        if (args.length > 4) {
+            Path path = Path.of(args[4]);
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, json);
+        }
+    }
+
+    /**
+     * Starts the server with request tasks enabled or disabled and measures the batch.
+     *
+     * @param requestTasks Whether reads of the batch run concurrently.
+     * @param clients The number of concurrent clients.
+     * @param durationSeconds The duration of measurement of every request.
+     * @param sharedAccounts The number of accounts shared with the user.
+     * @param transactionsPerAccount The number of transactions of every account.
+     * @return The result of the batch as JSON.
+     */
+    private static String run(boolean requestTasks, int clients, int durationSeconds, int sharedAccounts, int transactionsPerAccount) throws Exception {
+        String mode = requestTasks ? "request-tasks" : "sequential";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BudgetTrackerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "request-tasks.enabled=" + requestTasks,
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "spring.security.secret-key=" + SECRET_KEY,
+                        "rate-limit.enabled=false",
+                        "properties.address=localhost",
+                        "spring.mail.host=localhost",
+                        "spring.mail.username=loadtest@localhost",
+                        "email.outbox.enabled=false",
+                        "confirmation-tokens.reaper.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            List<Long> accountIds = new ArrayList<>();
+            String token = seed(context, sharedAccounts, transactionsPerAccount, accountIds);
+            String baseUrl = "http://localhost:" + port;
+            URI batchUri = URI.create(baseUrl + "/api/v1/batch");
+            String batch = accountIds.stream()
+                    .map(accountId -> "{\"method\": \"GET\", \"path\": \"/api/v1/transactions/get-all-by-account?id=" + accountId + "\"}")
+                    .collect(Collectors.joining(",", "{\"operations\": [", "]}"));
+
+            measure(batchUri, token, batch, clients, WARM_UP_SECONDS);
+            Result result = measure(batchUri, token, batch, clients, durationSeconds);
+            return "{\"batch\": " + result.toJson() + "}";
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Saves verified user and accounts of other users shared with them, every account with transactions.
+     *
+     * @param context The context of the server.
+     * @param sharedAccounts The number of accounts shared with the user.
+     * @param transactionsPerAccount The number of transactions of every account.
+     * @param accountIds The list, to which IDs of saved accounts are added.
+     * @return The JWT token of the user.
+     */
+    private static String seed(ConfigurableApplicationContext context, int sharedAccounts, int transactionsPerAccount, List<Long> accountIds) {
+        User savedUser = saveUser(context, EMAIL);
+        for (int i = 0; i < sharedAccounts; i++) {
+            Account account = new Account();
+            account.setName("Shared account " + i);
+            account.setUser(saveUser(context, "owner" + i + "@gmail.com"));
+            Account savedAccount = context.getBean(AccountService.class).saveAccount(account);
+            accountIds.add(savedAccount.getAccountId());
+
+            AccountUsers accountUsers = new AccountUsers();
+            accountUsers.setAccount(savedAccount);
+            accountUsers.setUser2Id(savedUser.getUserId());
+            context.getBean(AccountUsersService.class).saveAccountUsers(accountUsers);
+
+            for (int j = 0; j < transactionsPerAccount; j++) {
+                Transaction transaction = new Transaction();
+                transaction.setCategory("Load test");
+                transaction.setValue(j % 2 == 0 ? 10.0 : -10.0);
+                transaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusDays(j % 365)));
+                transaction.setAccount(savedAccount);
+                context.getBean(TransactionService.class).saveTransaction(transaction);
+            }
+        }
+
+        return context.getBean(JwtUtil.class).generateToken(EMAIL);
+    }
+
+    /**
+     * Saves verified user.
+     *
+     * @param context The context of the server.
+     * @param email The email of the user.
+     * @return The saved user.
+     */
+    private static User saveUser(ConfigurableApplicationContext context, String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        user.setIsVerified(true);
+        return context.getBean(UserService.class).saveUser(user);
+    }
+
+    /**
+     * Runs concurrent clients, which send requests in a loop until the end of measurement.
+     *
+     * @param uri The URI of the batch.
+     * @param token The JWT token.
+     * @param batch The JSON body of the batch.
+     * @param clients The number of concurrent clients.
+     * @param durationSeconds The duration of measurement.
+     * @return The result of measurement.
+     */
+    private static Result measure(URI uri, String token, String batch, int clients, int durationSeconds) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(batch))
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clientExecutor)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            List<Future<ClientResult>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(clientExecutor.submit(() -> runClient(httpClient, request, deadline)));
+            }
+
+            Result result = new Result();
+            List<long[]> latencies = new ArrayList<>();
+            for (Future<ClientResult> future : futures) {
+                ClientResult clientResult = future.get();
+                latencies.add(Arrays.copyOf(clientResult.latencies, clientResult.count));
+                result.errors += clientResult.errors;
+            }
+            result.setLatencies(latencies, durationSeconds);
+            return result;
+        }
+    }
+
+    /**
+     * Sends requests until the deadline.
+     *
+     * @param httpClient The HTTP client.
+     * @param request The request to send.
+     * @param deadline The end of measurement in nanoseconds.
+     * @return The latencies of successful requests and the number of errors.
+     */
+    private static ClientResult runClient(HttpClient httpClient, HttpRequest request, long deadline) {
+        ClientResult clientResult = new ClientResult();
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    clientResult.add(System.nanoTime() - start);
+                } else {
+                    clientResult.errors++;
+                }
+            } catch (Exception e) {
+                clientResult.errors++;
+            }
+        }
+        return clientResult;
+    }
+
+    /**
+     * Latencies of one client
+     */
+    private static class ClientResult {
+        private long[] latencies = new long[1024]; // Latencies in nanoseconds
+        private int count; // Number of successful requests
+        private long errors; // Number of failed requests
+
+        private void add(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    /**
+     * Result of measurement of the batch
+     */
+    private static class Result {
+        private long requests; // Number of successful requests
+        private long errors; // Number of failed requests
+        private double throughput; // Successful requests per second
+        private double p50Millis; // Median latency
+        private double p95Millis; // 95th percentile of latency
+        private double p99Millis; // 99th percentile of latency
+
+        private void setLatencies(List<long[]> clientLatencies, int durationSeconds) {
+            long[] all = clientLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            requests = all.length;
+            throughput = (double) requests / durationSeconds;
+            p50Millis = percentile(all, 0.50);
+            p95Millis = percentile(all, 0.95);
+            p99Millis = percentile(all, 0.99);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        private String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"requests\": %d, \"errors\": %d, \"throughput\": %.1f, \"p50Millis\": %.2f, \"p95Millis\": %.2f, \"p99Millis\": %.2f}",
+                    requests, errors, throughput, p50Millis, p95Millis, p99Millis);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.ivantrykosh.app.budgettracker.server.loadtest;
+
+import com.ivantrykosh.app.budgettracker.server.BudgetTrackerApplication;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.util.JwtUtil;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares throughput and latency of the server in platform threads mode and in virtual threads mode.
+ * Every mode starts the server in-process against an in-memory H2 database, seeds one user with an account
+ * and transactions, and runs the given number of concurrent clients, which request the list of accounts in a loop.
+ * Results are printed and saved as JSON.
+ * <p>
+ * Arguments: number of clients (2000), duration in seconds (30), path of JSON result (optional).
+ */
+public class VirtualThreadsLoadComparison {
+    private static final int WARM_UP_SECONDS = 5; // Duration of warm-up, which is not measured
+    private static final String SECRET_KEY = "bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWJ1ZGdldC10cmFja2VyLXNlcnZlcg=="; // Secret key of JWT
+    private static final String EMAIL = "loadtest@gmail.com"; // Email of seeded user
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        Result platformThreads = run(false, clients, durationSeconds);
+        Result virtualThreads = run(true, clients, durationSeconds);
+
+        String json = """
+                {
+                  "clients": %d,
+                  "durationSeconds": %d,
+                  "platformThreads": %s,
+                  "virtualThreads": %s
+                }
+                """.formatted(clients, durationSeconds, platformThreads.toJson(), virtualThreads.toJson());
+        System.out.println(json);
+        if (args.length > 2) {
+            Path path = Path.of(args[2]);
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, json);
+        }
+    }
+
+    /**
+     * Starts the server in the given mode and measures it.
+     *
+     * @param virtualThreads Whether the server runs in virtual threads mode.
+     * @param clients The number of concurrent clients.
+     * @param durationSeconds The duration of measurement.
+     * @return The result of measurement.
+     */
+    private static Result run(boolean virtualThreads, int clients, int durationSeconds) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BudgetTrackerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.virtual-threads.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=200",
+                        "server.tomcat.max-connections=" + (clients * 2),
+                        "server.tomcat.accept-count=" + clients,
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.security.secret-key=" + SECRET_KEY,
+                        "properties.address=localhost",
+                        "spring.mail.host=localhost",
+                        "spring.mail.username=loadtest@localhost",
+                        "email.outbox.enabled=false",
+                        "confirmation-tokens.reaper.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String token = seed(context);
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/accounts/get-all");
+
+            measure(uri, token, clients, WARM_UP_SECONDS);
+            Result result = measure(uri, token, clients, durationSeconds);
+            result.mode = mode;
+            return result;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Saves verified user with account and transactions.
+     *
+     * @param context The context of the server.
+     * @return The JWT token of the user.
+     */
+    private static String seed(ConfigurableApplicationContext context) {
+        User user = new User();
+        user.setEmail(EMAIL);
+        user.setPasswordHash("hash");
+        user.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        user.setIsVerified(true);
+        User savedUser = context.getBean(UserService.class).saveUser(user);
+
+        for (int i = 0; i < 3; i++) {
+            Account account = new Account();
+            account.setName("Load test account " + i);
+            account.setUser(savedUser);
+            Account savedAccount = context.getBean(AccountService.class).saveAccount(account);
+
+            AccountUsers accountUsers = new AccountUsers();
+            accountUsers.setAccount(savedAccount);
+            context.getBean(AccountUsersService.class).saveAccountUsers(accountUsers);
+
+            for (int j = 0; j < 100; j++) {
+                Transaction transaction = new Transaction();
+                transaction.setCategory("Load test");
+                transaction.setValue(j % 2 == 0 ? 10.0 : -10.0);
+                transaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+                transaction.setAccount(savedAccount);
+                context.getBean(TransactionService.class).saveTransaction(transaction);
+            }
+        }
+
+        return context.getBean(JwtUtil.class).generateToken(EMAIL);
+    }
+
+    /**
+     * Runs concurrent clients, which send requests in a loop until the end of measurement.
+     *
+     * @param uri The URI to request.
+     * @param token The JWT token.
+     * @param clients The number of concurrent clients.
+     * @param durationSeconds The duration of measurement.
+     * @return The result of measurement.
+     */
+    private static Result measure(URI uri, String token, int clients, int durationSeconds) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        // Clients run on virtual threads, so the load generator is not limited by its own threads
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clientExecutor)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            List<Future<ClientResult>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(clientExecutor.submit(() -> runClient(httpClient, request, deadline)));
+            }
+
+            Result result = new Result();
+            List<long[]> latencies = new ArrayList<>();
+            for (Future<ClientResult> future : futures) {
+                ClientResult clientResult = future.get();
+                latencies.add(Arrays.copyOf(clientResult.latencies, clientResult.count));
+                result.errors += clientResult.errors;
+            }
+            result.setLatencies(latencies, durationSeconds);
+            return result;
+        }
+    }
+
+    /**
+     * Sends requests until the deadline.
+     *
+     * @param httpClient The HTTP client.
+     * @param request The request to send.
+     * @param deadline The end of measurement in nanoseconds.
+     * @return The latencies of successful requests and the number of errors.
+     */
+    private static ClientResult runClient(HttpClient httpClient, HttpRequest request, long deadline) {
+        ClientResult clientResult = new ClientResult();
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    clientResult.add(System.nanoTime() - start);
+                } else {
+                    clientResult.errors++;
+                }
+            } catch (Exception e) {
+                clientResult.errors++;
+            }
+        }
+        return clientResult;
+    }
+
+    /**
+     * Latencies of one client
+     */
+    private static class ClientResult {
+        private long[] latencies = new long[1024]; // Latencies in nanoseconds
+        private int count; // Number of successful requests
+        private long errors; // Number of failed requests
+
+        private void add(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    /**
+     * Result of measurement of one mode
+     */
+    private static class Result {
+        private String mode; // Threads mode of the server
+        private long requests; // Number of successful requests
+        private long errors; // Number of failed requests
+        private double throughput; // Successful requests per second
+        private double p50Millis; // Median latency
+        private double p95Millis; // 95th percentile of latency
+        private double p99Millis; // 99th percentile of latency
+        private double maxMillis; // Maximum latency
+
+        private void setLatencies(List<long[]> clientLatencies, int durationSeconds) {
+            long[] all = clientLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            requests = all.length;
+            throughput = (double) requests / durationSeconds;
+            p50Millis = percentile(all, 0.50);
+            p95Millis = percentile(all, 0.95);
+            p99Millis = percentile(all, 0.99);
+            maxMillis = all.length == 0 ? 0 : all[all.length - 1] / 1_000_000.0;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        private String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"mode\": \"%s\", \"requests\": %d, \"errors\": %d, \"throughput\": %.1f, \"p50Millis\": %.2f, \"p95Millis\": %.2f, \"p99Millis\": %.2f, \"maxMillis\": %.2f}",
+                    mode, requests, errors, throughput, p50Millis, p95Millis, p99Millis, maxMillis);
+        }
+    }
+}
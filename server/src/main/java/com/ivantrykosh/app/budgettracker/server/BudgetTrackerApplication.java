@@ -2,11 +2,24 @@ package com.ivantrykosh.app.budgettracker.server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.PropertySource;
 
 /**
- * The entry point of the app
+ * The entry point of the app.
+ * Default settings are loaded from server-defaults.properties and can be overridden by application.properties.
+ * R2DBC is configured by ReactiveDataConfig only when spring.r2dbc.url is set, so its auto-configuration is excluded.
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = {
+		R2dbcAutoConfiguration.class,
+		R2dbcDataAutoConfiguration.class,
+		R2dbcRepositoriesAutoConfiguration.class,
+		R2dbcTransactionManagerAutoConfiguration.class
+})
+@PropertySource("classpath:server-defaults.properties")
 public class BudgetTrackerApplication {
 
 	public static void main(String[] args) {
@@ -2,18 +2,22 @@ package com.ivantrykosh.app.budgettracker.server.application.controllers;
 
 import com.ivantrykosh.app.budgettracker.server.application.dtos.AccountDto;
 import com.ivantrykosh.app.budgettracker.server.application.dtos.AccountUsersDto;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.PurgeStatusDto;
 import com.ivantrykosh.app.budgettracker.server.application.mappers.AccountMapper;
 import com.ivantrykosh.app.budgettracker.server.application.mappers.AccountUsersMapper;
-import com.ivantrykosh.app.budgettracker.server.application.mappers.Mapper;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
 import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.presentation.FieldSelection;
 import com.ivantrykosh.app.budgettracker.server.presentation.requests.CreateAndChangeAccountRequest;
 import com.ivantrykosh.app.budgettracker.server.presentation.responses.AccountResponse;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountPurgeService;
 import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
 import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.RequestLookupContext;
 import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
 import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.events.AccountEventBroadcaster;
 import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
 import com.ivantrykosh.app.budgettracker.server.validators.AccountValidator;
 import jakarta.transaction.Transactional;
@@ -21,13 +25,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Account REST controller
@@ -35,6 +44,7 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/v1/accounts")
 public class AccountController {
+    private static final List<String> ACCOUNT_FIELDS = List.of("accountId", "userId", "name", "incomesSum", "expensesSum", "version"); // Fields of accounts, which can be selected
     @Autowired
     private UserService userService;
     @Autowired
@@ -44,11 +54,17 @@ public class AccountController {
     @Autowired
     private TransactionService transactionService;
     @Autowired
-    private Mapper<Account, AccountDto> mapper = new AccountMapper(transactionService);
+    private AccountPurgeService accountPurgeService;
     @Autowired
-    private Mapper<AccountUsers, AccountUsersDto> mapperAccountUsers = new AccountUsersMapper(userService);
+    private RequestLookupContext lookupContext;
+    @Autowired
+    private AccountMapper mapper = new AccountMapper(transactionService);
+    @Autowired
+    private AccountUsersMapper mapperAccountUsers = new AccountUsersMapper(userService);
     @Autowired
     private AccountValidator accountValidator;
+    @Autowired(required = false)
+    private AccountEventBroadcaster accountEventBroadcaster; // Broadcaster of changes of accounts, if account events are enabled
     Logger logger = LoggerFactory.getLogger(AccountController.class); // Logger
 
     /**
@@ -62,16 +78,16 @@ public class AccountController {
     public ResponseEntity<?> createAccount(@RequestBody CreateAndChangeAccountRequest createAndChangeAccountRequest) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        List<Account> accounts = accountService.getAccountsByUserId(user.getUserId());
+        List<Account> accounts = lookupContext.getAccountsByUserId(user.getUserId());
         if (!accountValidator.checkName(createAndChangeAccountRequest.getName(), accounts)) {
-            logger.error("Invalid name " + createAndChangeAccountRequest.getName() + " of account for user email " + user.getEmail());
+            logger.error("Invalid name {} of account for user email {}", createAndChangeAccountRequest.getName(), user.getEmail());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid name of account!");
         }
 
@@ -80,20 +96,20 @@ public class AccountController {
         account.setUser(user);
         Account savedAccount = accountService.saveAccount(account);
 
-        logger.info("Account with name " + account.getName() + " of user " + user.getEmail() + " was saved");
+        logger.info("Account with name {} of user {} was saved", account.getName(), user.getEmail());
 
         AccountUsers accountUsers = new AccountUsers();
         accountUsers.setAccount(savedAccount);
         AccountUsers savedAccountUsers = accountUsersService.saveAccountUsers(accountUsers);
 
-        logger.info("AccountUsers with ID " + savedAccountUsers.getAccountUsersId() + " of user " + user.getEmail() + " was saved");
+        logger.info("AccountUsers with ID {} of user {} was saved", savedAccountUsers.getAccountUsersId(), user.getEmail());
 
         if (createAndChangeAccountRequest.getEmail2() != null) {
             if (!accountValidator.checkEmail(createAndChangeAccountRequest.getEmail2(), account)
                     || createAndChangeAccountRequest.getEmail2().equals(createAndChangeAccountRequest.getEmail3())
                     || createAndChangeAccountRequest.getEmail2().equals(createAndChangeAccountRequest.getEmail4())) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid email2 " + createAndChangeAccountRequest.getEmail2() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email2 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail2(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail2() + "!");
             }
         }
@@ -102,7 +118,7 @@ public class AccountController {
                     || createAndChangeAccountRequest.getEmail3().equals(createAndChangeAccountRequest.getEmail2())
                     || createAndChangeAccountRequest.getEmail3().equals(createAndChangeAccountRequest.getEmail4())) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid email3 " + createAndChangeAccountRequest.getEmail3() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email3 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail3(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail3() + "!");
             }
         }
@@ -111,22 +127,22 @@ public class AccountController {
                     || createAndChangeAccountRequest.getEmail4().equals(createAndChangeAccountRequest.getEmail2())
                     || createAndChangeAccountRequest.getEmail4().equals(createAndChangeAccountRequest.getEmail3())) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid email4 " + createAndChangeAccountRequest.getEmail4() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email4 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail4(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail4() + "!");
             }
         }
 
         if (createAndChangeAccountRequest.getEmail2() != null) {
-            User user2 = userService.getUserByEmail(createAndChangeAccountRequest.getEmail2());
+            User user2 = lookupContext.getUserByEmail(createAndChangeAccountRequest.getEmail2());
             if (!user2.getIsVerified()) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid email2 " + createAndChangeAccountRequest.getEmail2() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email2 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail2(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail2() + "!");
             }
-            List<Account> user2Accounts = accountService.getAccountsByUserId(user2.getUserId());
+            List<Account> user2Accounts = lookupContext.getAccountsByUserId(user2.getUserId());
             if (!accountValidator.checkName(createAndChangeAccountRequest.getName(), user2Accounts)) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid name " + createAndChangeAccountRequest.getName() + " of account for user email " + user.getEmail());
+                logger.error("Invalid name {} of account for user email {}", createAndChangeAccountRequest.getName(), user.getEmail());
                 return ResponseEntity.status(HttpStatus.CONFLICT).body("Invalid name of account! User 2 already have account with this name");
             }
             savedAccountUsers.setUser2Id(
@@ -134,16 +150,16 @@ public class AccountController {
             );
         }
         if (createAndChangeAccountRequest.getEmail3() != null) {
-            User user3 = userService.getUserByEmail(createAndChangeAccountRequest.getEmail3());
+            User user3 = lookupContext.getUserByEmail(createAndChangeAccountRequest.getEmail3());
             if (!user3.getIsVerified()) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid email3 " + createAndChangeAccountRequest.getEmail3() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email3 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail3(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail3() + "!");
             }
-            List<Account> user3Accounts = accountService.getAccountsByUserId(user3.getUserId());
+            List<Account> user3Accounts = lookupContext.getAccountsByUserId(user3.getUserId());
             if (!accountValidator.checkName(createAndChangeAccountRequest.getName(), user3Accounts)) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid name " + createAndChangeAccountRequest.getName() + " of account for user email " + user.getEmail());
+                logger.error("Invalid name {} of account for user email {}", createAndChangeAccountRequest.getName(), user.getEmail());
                 return ResponseEntity.status(HttpStatus.CONFLICT).body("Invalid name of account! User 3 already have account with this name");
             }
             savedAccountUsers.setUser3Id(
@@ -151,16 +167,16 @@ public class AccountController {
             );
         }
         if (createAndChangeAccountRequest.getEmail4() != null) {
-            User user4 = userService.getUserByEmail(createAndChangeAccountRequest.getEmail4());
+            User user4 = lookupContext.getUserByEmail(createAndChangeAccountRequest.getEmail4());
             if (!user4.getIsVerified()) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid email4 " + createAndChangeAccountRequest.getEmail4() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email4 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail4(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail4() + "!");
             }
-            List<Account> user4Accounts = accountService.getAccountsByUserId(user4.getUserId());
+            List<Account> user4Accounts = lookupContext.getAccountsByUserId(user4.getUserId());
             if (!accountValidator.checkName(createAndChangeAccountRequest.getName(), user4Accounts)) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid name " + createAndChangeAccountRequest.getName() + " of account for user email " + user.getEmail());
+                logger.error("Invalid name {} of account for user email {}", createAndChangeAccountRequest.getName(), user.getEmail());
                 return ResponseEntity.status(HttpStatus.CONFLICT).body("Invalid name of account! User 4 already have account with this name");
             }
             savedAccountUsers.setUser4Id(
@@ -170,12 +186,12 @@ public class AccountController {
 
         AccountUsers updatedAccountUsers = accountUsersService.updateAccountUsers(savedAccountUsers);
 
-        logger.info("AccountUsers with ID " + account.getAccountId() + " of user " + user.getEmail() + " was updated");
+        logger.info("AccountUsers with ID {} of user {} was updated", account.getAccountId(), user.getEmail());
 
         return ResponseEntity.status(HttpStatus.CREATED).body(
                 new AccountResponse(
                         mapper.convertToDto(account),
-                        mapperAccountUsers.convertToDto(updatedAccountUsers)
+                        convertAccountUsersToDto(updatedAccountUsers)
                 )
         );
     }
@@ -184,13 +200,14 @@ public class AccountController {
      * Endpoint to retrieve details of an account based on the provided account ID.
      *
      * @param id The ID of the account to retrieve.
+     * @param fields The comma-separated fields of accounts to return or null, if all fields are returned. Sums of transactions are calculated only if they are selected.
      * @return ResponseEntity with the result of the account retrieval process and HttpStatus indicating the result.
      */
     @GetMapping("/get")
-    public ResponseEntity<?> getAccount(@RequestParam String id) {
+    public ResponseEntity<?> getAccount(@RequestParam String id, @RequestParam(required = false) String fields) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
@@ -198,88 +215,153 @@ public class AccountController {
         try {
             accountId = Long.parseLong(id);
         } catch (NumberFormatException e) {
-            logger.error("Invalid ID " + id + " of account");
+            logger.error("Invalid ID {} of account", id);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid id of account!");
         }
 
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, ACCOUNT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields {}", fields);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid fields!");
+        }
+
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        Account account = accountService.getAccountById(accountId);
+        Account account = lookupContext.getAccountById(accountId);
         if (account == null) {
-            logger.error("No account with ID " + accountId);
+            logger.error("No account with ID {}", accountId);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
         }
-        AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
-        if (account.getUser().getUserId() != user.getUserId()) {
+        AccountUsers accountUsers = lookupContext.getAccountUsersByAccountId(account.getAccountId());
+        boolean isOwner = account.getUser().getUserId() == user.getUserId();
+        if (!isOwner) {
             if (accountUsers.getUser2Id() != user.getUserId()
                     && accountUsers.getUser3Id() != user.getUserId()
                     && accountUsers.getUser4Id() != user.getUserId()) {
-                logger.error("User with email " + user.getEmail() + " does not have permission to get account with ID " + account.getAccountId());
+                logger.error("User with email {} does not have permission to get account with ID {}", user.getEmail(), account.getAccountId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to get account with name + " + account.getName() + "!");
             }
-            accountUsers.setUser2Id(null);
-            accountUsers.setUser3Id(null);
-            accountUsers.setUser4Id(null);
         }
 
-        logger.info("Account with ID " + account.getAccountId() + " and AccountUsers with ID " + accountUsers.getAccountUsersId() + " were got successfully");
+        // Users of the account are hidden from shared users in the DTO, the entity is shared by the whole request
+        AccountUsersDto accountUsersDto;
+        if (isOwner) {
+            accountUsersDto = convertAccountUsersToDto(accountUsers);
+        } else {
+            accountUsersDto = new AccountUsersDto();
+            accountUsersDto.setAccountUsersId(accountUsers.getAccountUsersId());
+            accountUsersDto.setAccountId(account.getAccountId());
+        }
+
+        logger.info("Account with ID {} and AccountUsers with ID {} were got successfully", account.getAccountId(), accountUsers.getAccountUsersId());
+
+        AccountDto accountDto = hasSums(selection)
+                ? mapper.convertToDto(account)
+                : mapper.convertToDtos(List.of(account), Map.of()).get(0);
 
         return ResponseEntity.status(HttpStatus.OK).body(
-                new AccountResponse(
-                        mapper.convertToDto(account),
-                        mapperAccountUsers.convertToDto(accountUsers)
-                )
+                selection.apply(new AccountResponse(accountDto, accountUsersDto))
         );
     }
 
     /**
      * Endpoint to retrieve details of all accounts associated with the currently authenticated user.
      *
+     * @param fields The comma-separated fields of accounts to return or null, if all fields are returned. Sums of transactions are calculated only if they are selected.
      * @return ResponseEntity with the result of the accounts retrieval process and HttpStatus indicating the result.
      */
     @GetMapping("/get-all")
-    public ResponseEntity<?> getAllAccounts() {
+    public ResponseEntity<?> getAllAccounts(@RequestParam(required = false) String fields) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, ACCOUNT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields {}", fields);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid fields!");
+        }
+
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        List<Account> accounts = accountService.getAccountsByUserId(user.getUserId());
+        List<Account> accounts = new ArrayList<>(lookupContext.getAccountsByUserId(user.getUserId()));
         List<AccountUsers> accountsUsers = accountUsersService.getAccountsUsersByUserId(user.getUserId());
 
         for (AccountUsers accountUsers : accountsUsers) {
-            accounts.add(
-                    accountService.getAccountById(accountUsers.getAccount().getAccountId())
-            );
+            accounts.add(accountUsers.getAccount());
         }
 
-        logger.info("All Accounts and AccountUsers for user with email " + user.getEmail() + " were got successfully");
+        logger.info("All Accounts and AccountUsers for user with email {} were got successfully", user.getEmail());
 
         return ResponseEntity.status(HttpStatus.OK).body(
-                accounts.stream()
-                        .map(account -> mapper.convertToDto(account))
-                        .collect(Collectors.toList())
+                selection.apply(hasSums(selection) ? mapper.convertToDtos(accounts) : mapper.convertToDtos(accounts, Map.of()))
         );
     }
 
+    /**
+     * Endpoint to subscribe to changes of all accounts associated with the currently authenticated user.
+     * Changes of transactions with new sums of their accounts are pushed as server-sent events until the subscription times out
+     * or users of a subscribed account change. Errors are returned as plain text before the stream starts.
+     *
+     * @return The emitter of server-sent events.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToAccountEvents() {
+        CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!customUserDetails.isEnabled()) {
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Email is not verified!");
+        }
+        if (accountEventBroadcaster == null) {
+            logger.error("Account events are disabled");
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account events are disabled!");
+        }
+
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = lookupContext.getUserByEmail(email);
+
+        List<Long> accountIds = new ArrayList<>();
+        lookupContext.getAccountsByUserId(user.getUserId()).forEach(account -> accountIds.add(account.getAccountId()));
+        accountUsersService.getAccountsUsersByUserId(user.getUserId()).forEach(accountUsers -> accountIds.add(accountUsers.getAccount().getAccountId()));
+
+        logger.info("User with email {} subscribed to events of accounts with IDs {}", user.getEmail(), accountIds);
+
+        return accountEventBroadcaster.subscribe(user.getUserId(), accountIds);
+    }
+
+    /**
+     * Handles requests rejected before streaming.
+     *
+     * @param e The exception with status and message.
+     * @return ResponseEntity with an error message and HttpStatus.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<String> handleRejectedRequest(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode()).contentType(MediaType.TEXT_PLAIN).body(e.getReason());
+    }
+
     /**
      * Endpoint to update details of an account based on the provided account ID.
+     * The account is updated only if it was not changed since the version of the request. Requests without version are rejected.
      *
      * @param id The ID of the account to update.
      * @param createAndChangeAccountRequest The request object containing updated account details and additional user emails.
-     * @return ResponseEntity with the result of the account update process and HttpStatus indicating the result.
+     * @return ResponseEntity with the result of the account update process, the current account on conflict, and HttpStatus indicating the result.
      */
     @PatchMapping("/update")
     @Transactional
     public ResponseEntity<?> updateAccount(@RequestParam String id, @RequestBody CreateAndChangeAccountRequest createAndChangeAccountRequest) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
@@ -287,37 +369,39 @@ public class AccountController {
         try {
             accountId = Long.parseLong(id);
         } catch (NumberFormatException e) {
-            logger.error("Invalid ID " + id + " of account");
+            logger.error("Invalid ID {} of account", id);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid id of account!");
         }
+        if (createAndChangeAccountRequest.getVersion() == null) {
+            logger.error("No version of account with ID {}", accountId);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body("Version of account is required!");
+        }
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        Account account = accountService.getAccountById(accountId);
+        Account account = lookupContext.getAccountById(accountId);
         if (account == null) {
-            logger.error("No account with ID " + accountId);
+            logger.error("No account with ID {}", accountId);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
         }
         if (account.getUser().getUserId() != user.getUserId()) {
-            logger.error("User with email " + user.getEmail() + " does not have permission to update account with ID " + account.getAccountId());
+            logger.error("User with email {} does not have permission to update account with ID {}", user.getEmail(), account.getAccountId());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to update account with name + " + account.getName() + "!");
         }
 
-        List<Account> accounts = accountService.getAccountsByUserId(user.getUserId());
+        List<Account> accounts = lookupContext.getAccountsByUserId(user.getUserId());
         if (!account.getName().equals(createAndChangeAccountRequest.getName()) && !accountValidator.checkName(createAndChangeAccountRequest.getName(), accounts)) {
-            logger.error("Invalid name " + createAndChangeAccountRequest.getName() + " of account of user with email " + user.getEmail());
+            logger.error("Invalid name {} of account of user with email {}", createAndChangeAccountRequest.getName(), user.getEmail());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid name of account! Please, choose another name!");
         }
 
-        account.setName(createAndChangeAccountRequest.getName());
-
-        AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
+        AccountUsers accountUsers = lookupContext.getAccountUsersByAccountId(account.getAccountId());
         if (createAndChangeAccountRequest.getEmail2() != null) {
             if (!accountValidator.checkEmail(createAndChangeAccountRequest.getEmail2(), account)
                     || createAndChangeAccountRequest.getEmail2().equals(createAndChangeAccountRequest.getEmail3())
                     || createAndChangeAccountRequest.getEmail2().equals(createAndChangeAccountRequest.getEmail4())) {
-                logger.error("Invalid email2 " + createAndChangeAccountRequest.getEmail2() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email2 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail2(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail2() + "!");
             }
         }
@@ -325,7 +409,7 @@ public class AccountController {
             if (!accountValidator.checkEmail(createAndChangeAccountRequest.getEmail3(), account)
                     || createAndChangeAccountRequest.getEmail3().equals(createAndChangeAccountRequest.getEmail2())
                     || createAndChangeAccountRequest.getEmail3().equals(createAndChangeAccountRequest.getEmail4())) {
-                logger.error("Invalid email3 " + createAndChangeAccountRequest.getEmail3() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email3 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail3(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail3() + "!");
             }
         }
@@ -333,17 +417,34 @@ public class AccountController {
             if (!accountValidator.checkEmail(createAndChangeAccountRequest.getEmail4(), account)
                     || createAndChangeAccountRequest.getEmail4().equals(createAndChangeAccountRequest.getEmail2())
                     || createAndChangeAccountRequest.getEmail4().equals(createAndChangeAccountRequest.getEmail3())) {
-                logger.error("Invalid email4 " + createAndChangeAccountRequest.getEmail4() + " for AccountUsers with ID " + accountUsers.getAccountUsersId());
+                logger.error("Invalid email4 {} for AccountUsers with ID {}", createAndChangeAccountRequest.getEmail4(), accountUsers.getAccountUsersId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email " + createAndChangeAccountRequest.getEmail4() + "!");
             }
         }
 
+        boolean updated = accountService.updateAccountNameIfVersionMatches(accountId, createAndChangeAccountRequest.getName(), createAndChangeAccountRequest.getVersion());
+        lookupContext.clear();
+        if (!updated) {
+            Account currentAccount = accountService.getCurrentAccountById(accountId);
+            if (currentAccount == null) {
+                logger.error("Account with ID {} was deleted", accountId);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
+            }
+            logger.error("Account with ID {} was changed since version {}", accountId, createAndChangeAccountRequest.getVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                    new AccountResponse(
+                            mapper.convertToDto(currentAccount),
+                            convertAccountUsersToDto(accountUsersService.getCurrentAccountUsersByAccountId(accountId))
+                    )
+            );
+        }
+
         if (createAndChangeAccountRequest.getEmail2() != null) {
-            User user2 = userService.getUserByEmail(createAndChangeAccountRequest.getEmail2());
-            List<Account> user2Accounts = accountService.getAccountsByUserId(user2.getUserId());
+            User user2 = lookupContext.getUserByEmail(createAndChangeAccountRequest.getEmail2());
+            List<Account> user2Accounts = lookupContext.getAccountsByUserId(user2.getUserId());
             if (!accountValidator.checkName(createAndChangeAccountRequest.getName(), user2Accounts)) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid name " + createAndChangeAccountRequest.getName() + " of account for user email " + user.getEmail());
+                logger.error("Invalid name {} of account for user email {}", createAndChangeAccountRequest.getName(), user.getEmail());
                 return ResponseEntity.status(HttpStatus.CONFLICT).body("Invalid name of account! User 2 already have account with this name");
             }
             accountUsers.setUser2Id(
@@ -354,11 +455,11 @@ public class AccountController {
         }
 
         if (createAndChangeAccountRequest.getEmail3() != null) {
-            User user3 = userService.getUserByEmail(createAndChangeAccountRequest.getEmail3());
-            List<Account> user3Accounts = accountService.getAccountsByUserId(user3.getUserId());
+            User user3 = lookupContext.getUserByEmail(createAndChangeAccountRequest.getEmail3());
+            List<Account> user3Accounts = lookupContext.getAccountsByUserId(user3.getUserId());
             if (!accountValidator.checkName(createAndChangeAccountRequest.getName(), user3Accounts)) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid name " + createAndChangeAccountRequest.getName() + " of account for user email " + user.getEmail());
+                logger.error("Invalid name {} of account for user email {}", createAndChangeAccountRequest.getName(), user.getEmail());
                 return ResponseEntity.status(HttpStatus.CONFLICT).body("Invalid name of account! User 3 already have account with this name");
             }
             accountUsers.setUser3Id(
@@ -369,11 +470,11 @@ public class AccountController {
         }
 
         if (createAndChangeAccountRequest.getEmail4() != null) {
-            User user4 = userService.getUserByEmail(createAndChangeAccountRequest.getEmail4());
-            List<Account> user4Accounts = accountService.getAccountsByUserId(user4.getUserId());
+            User user4 = lookupContext.getUserByEmail(createAndChangeAccountRequest.getEmail4());
+            List<Account> user4Accounts = lookupContext.getAccountsByUserId(user4.getUserId());
             if (!accountValidator.checkName(createAndChangeAccountRequest.getName(), user4Accounts)) {
                 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-                logger.error("Invalid name " + createAndChangeAccountRequest.getName() + " of account for user email " + user.getEmail());
+                logger.error("Invalid name {} of account for user email {}", createAndChangeAccountRequest.getName(), user.getEmail());
                 return ResponseEntity.status(HttpStatus.CONFLICT).body("Invalid name of account! User 4 already have account with this name");
             }
             accountUsers.setUser4Id(
@@ -383,32 +484,35 @@ public class AccountController {
             accountUsers.setUser4Id(null);
         }
 
-        Account updatedAccount = accountService.updateAccount(account);
-        logger.info("Account with ID " + updatedAccount.getAccountId() + " was updated");
+        Account updatedAccount = accountService.getAccountById(accountId);
+        logger.info("Account with ID {} was updated", updatedAccount.getAccountId());
 
         AccountUsers updatedAccountUsers = accountUsersService.updateAccountUsers(accountUsers);
-        logger.info("AccountUsers with ID " + updatedAccountUsers.getAccountUsersId() + " was updated");
+        logger.info("AccountUsers with ID {} was updated", updatedAccountUsers.getAccountUsersId());
 
         return ResponseEntity.status(HttpStatus.OK).body(
                 new AccountResponse(
                         mapper.convertToDto(updatedAccount),
-                        mapperAccountUsers.convertToDto(updatedAccountUsers)
+                        convertAccountUsersToDto(updatedAccountUsers)
                 )
         );
     }
 
     /**
      * Endpoint to delete an account based on the provided account ID.
+     * Transactions are deleted with set-based statements. If async is true or the account has too many transactions,
+     * the account is purged in the background after the commit and the response contains the status of the purge.
      *
      * @param id The ID of the account to delete.
-     * @return ResponseEntity with a success message or an error message and HttpStatus indicating the result.
+     * @param async Whether the account is purged in the background.
+     * @return ResponseEntity with a success message, the purge status or an error message and HttpStatus indicating the result.
      */
     @DeleteMapping("/delete")
     @Transactional
-    public ResponseEntity<String> deleteAccount(@RequestParam String id) {
+    public ResponseEntity<?> deleteAccount(@RequestParam String id, @RequestParam(defaultValue = "false") boolean async) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
@@ -416,68 +520,151 @@ public class AccountController {
         try {
             accountId = Long.parseLong(id);
         } catch (NumberFormatException e) {
-            logger.error("Invalid ID " + id + " of account");
+            logger.error("Invalid ID {} of account", id);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid id of account!");
         }
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        Account account = accountService.getAccountById(accountId);
+        Account account = lookupContext.getAccountById(accountId);
         if (account == null) {
-            logger.error("No account with ID " + accountId);
+            logger.error("No account with ID {}", accountId);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
         }
         if (account.getUser().getUserId() != user.getUserId()) {
-            logger.error("User with email " + user.getEmail() + " does not have permission to delete account with ID " + account.getAccountId());
+            logger.error("User with email {} does not have permission to delete account with ID {}", user.getEmail(), account.getAccountId());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to delete account with name + " + account.getName() + "!");
         }
-        AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
 
-        transactionService.deleteTransactionsByAccountId(account.getAccountId());
-        logger.info("Transactions of user " + user.getEmail() + " and account with ID " + account.getAccountId() + " were deleted");
+        List<Long> accountIds = List.of(account.getAccountId());
+        if (async || accountPurgeService.isTooLargeForRequest(accountIds)) {
+            return startPurge(user, accountIds);
+        }
+
+        long deletedTransactions = transactionService.bulkDeleteTransactionsByAccountIds(accountIds);
+        logger.info("{} transactions of user {} and account with ID {} were deleted", deletedTransactions, user.getEmail(), account.getAccountId());
 
-        accountUsersService.deleteAccountUsersById(accountUsers.getAccountUsersId());
-        logger.info("AccountUsers of user " + user.getEmail() + " with ID " + accountUsers.getAccountUsersId() + " was deleted");
+        accountUsersService.bulkDeleteAccountUsersByAccountIds(accountIds);
+        logger.info("AccountUsers of user {} and account with ID {} was deleted", user.getEmail(), account.getAccountId());
 
-        accountService.deleteAccountById(account.getAccountId());
-        logger.info("Account of user " + user.getEmail() + " with ID " + account.getAccountId() + " was deleted");
+        accountService.bulkDeleteAccountsByIds(accountIds);
+        lookupContext.clear();
+        logger.info("Account of user {} with ID {} was deleted", user.getEmail(), account.getAccountId());
 
         return ResponseEntity.status(HttpStatus.OK).body("Account was deleted!");
     }
 
     /**
      * Endpoint to delete all user accounts.
+     * Transactions are deleted with set-based statements. If async is true or the accounts have too many transactions,
+     * the accounts are purged in the background after the commit and the response contains the status of the purge.
      *
-     * @return ResponseEntity with a success message or an error message and HttpStatus indicating the result.
+     * @param async Whether the accounts are purged in the background.
+     * @return ResponseEntity with a success message, the purge status or an error message and HttpStatus indicating the result.
      */
     @DeleteMapping("/delete-all")
     @Transactional
-    public ResponseEntity<String> deleteAllAccounts() {
+    public ResponseEntity<?> deleteAllAccounts(@RequestParam(defaultValue = "false") boolean async) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
+
+        List<Long> accountIds = lookupContext.getAccountsByUserId(user.getUserId()).stream()
+                .map(Account::getAccountId)
+                .toList();
 
-        List<Account> accounts = accountService.getAccountsByUserId(user.getUserId());
-        for (Account account : accounts) {
-            transactionService.deleteTransactionsByAccountId(account.getAccountId());
-            logger.info("Transactions of user " + user.getEmail() + " and account with ID " + account.getAccountId() + " were deleted");
+        accountUsersService.bulkDeleteUserIdFromAccountUsers(user.getUserId());
+        logger.info("User with email {} was deleted from AccountUsers", user.getEmail());
 
-            AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
-            accountUsersService.deleteAccountUsersById(accountUsers.getAccountUsersId());
-            logger.info("AccountUsers with ID " + accountUsers.getAccountUsersId() + " of user " + user.getEmail() + " were deleted");
+        if (!accountIds.isEmpty() && (async || accountPurgeService.isTooLargeForRequest(accountIds))) {
+            lookupContext.clear();
+            return startPurge(user, accountIds);
         }
 
-        accountUsersService.deleteUserIdFromAccountUsers(user.getUserId());
-        logger.info("User with email " + user.getEmail() + " was deleted from AccountUsers");
+        long deletedTransactions = transactionService.bulkDeleteTransactionsByAccountIds(accountIds);
+        logger.info("{} transactions of user {} and accounts with IDs {} were deleted", deletedTransactions, user.getEmail(), accountIds);
 
-        accountService.deleteAccountsByUserId(user.getUserId());
-        logger.info("Accounts of user with email " + user.getEmail() + " were deleted");
+        accountUsersService.bulkDeleteAccountUsersByAccountIds(accountIds);
+        logger.info("AccountUsers of user {} and accounts with IDs {} were deleted", user.getEmail(), accountIds);
+
+        accountService.bulkDeleteAccountsByIds(accountIds);
+        lookupContext.clear();
+        logger.info("Accounts of user with email {} were deleted", user.getEmail());
 
         return ResponseEntity.status(HttpStatus.OK).body("All user accounts is deleted!");
     }
+
+    /**
+     * Endpoint to retrieve status of a purge, which was started by the currently authenticated user.
+     *
+     * @param id The ID of the purge.
+     * @return ResponseEntity with the status of the purge or an error message and HttpStatus indicating the result.
+     */
+    @GetMapping("/purge-status")
+    public ResponseEntity<?> getPurgeStatus(@RequestParam String id) {
+        CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!customUserDetails.isEnabled()) {
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
+        }
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = lookupContext.getUserByEmail(email);
+
+        PurgeStatusDto purgeStatus = accountPurgeService.getPurgeStatus(id, user.getUserId());
+        if (purgeStatus == null) {
+            logger.error("No purge with ID {} for user {}", id, user.getEmail());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No purge with given id!");
+        }
+
+        logger.info("Status of purge with ID {} was got successfully", id);
+        return ResponseEntity.status(HttpStatus.OK).body(purgeStatus);
+    }
+
+    /**
+     * Queues purge of the accounts, which is started in the background after the commit.
+     *
+     * @param user The owner of the accounts.
+     * @param accountIds The IDs of the accounts to purge.
+     * @return ResponseEntity with the status of the queued purge or an error message and HttpStatus indicating the result.
+     */
+    private ResponseEntity<?> startPurge(User user, List<Long> accountIds) {
+        PurgeStatusDto purgeStatus = accountPurgeService.startPurge(user.getUserId(), accountIds);
+        if (purgeStatus == null) {
+            logger.error("Accounts with IDs {} of user {} are already being purged", accountIds, user.getEmail());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Account is already being deleted!");
+        }
+
+        logger.info("Purge with ID {} of accounts with IDs {} of user {} was queued", purgeStatus.getPurgeId(), accountIds, user.getEmail());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/v1/accounts/purge-status?id=" + purgeStatus.getPurgeId()))
+                .body(purgeStatus);
+    }
+
+    /**
+     * Checks, whether sums of transactions are selected, so they have to be calculated.
+     *
+     * @param selection The selected fields of accounts.
+     * @return true if incomesSum or expensesSum is selected, otherwise false.
+     */
+    private boolean hasSums(FieldSelection selection) {
+        return selection.contains("incomesSum") || selection.contains("expensesSum");
+    }
+
+    /**
+     * Converts account users to AccountUsersDto. Emails of all users of the account are loaded with one query.
+     *
+     * @param accountUsers The account users.
+     * @return The AccountUsersDto or null, if there are no account users.
+     */
+    private AccountUsersDto convertAccountUsersToDto(AccountUsers accountUsers) {
+        if (accountUsers == null) {
+            return null;
+        }
+        return mapperAccountUsers.convertToDtos(List.of(accountUsers)).get(0);
+    }
 }
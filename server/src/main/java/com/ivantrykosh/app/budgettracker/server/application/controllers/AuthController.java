@@ -4,6 +4,7 @@ import com.ivantrykosh.app.budgettracker.server.infrastructure.email.EmailSender
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
 import com.ivantrykosh.app.budgettracker.server.domain.model.ConfirmationToken;
+import com.ivantrykosh.app.budgettracker.server.domain.model.OutboxEmail;
 import com.ivantrykosh.app.budgettracker.server.domain.model.User;
 import com.ivantrykosh.app.budgettracker.server.presentation.requests.RegisterAndLoginRequest;
 import com.ivantrykosh.app.budgettracker.server.presentation.responses.TokenResponse;
@@ -34,9 +35,7 @@ import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
-import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Auth REST controller
@@ -78,12 +77,12 @@ public class AuthController {
     @Transactional(rollbackOn = Exception.class)
     public ResponseEntity<String> registerUser(@RequestBody RegisterAndLoginRequest registerRequest) {
         if (!userValidator.checkEmail(registerRequest.getEmail())) {
-            logger.error("Invalid email format: " + registerRequest.getEmail());
+            logger.error("Invalid email format: {}", registerRequest.getEmail());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email format!");
         }
 
         if (userService.getUserByEmail(registerRequest.getEmail()) != null) {
-            logger.error("Email " + registerRequest.getEmail() + " is already used");
+            logger.error("Email {} is already used", registerRequest.getEmail());
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Email is already used!");
         }
 
@@ -95,7 +94,7 @@ public class AuthController {
 
         User savedUser = userService.saveUser(user);
 
-        logger.info("User with email " + registerRequest.getEmail() + " was created");
+        logger.info("User with email {} was created", registerRequest.getEmail());
 
         String token = UUID.randomUUID().toString();
 
@@ -107,22 +106,22 @@ public class AuthController {
 
         confirmationTokenService.saveConfirmationToken(confirmationToken);
 
-        logger.info("Confirmation token for email " + savedUser.getEmail() + " was created");
+        logger.info("Confirmation token for email {} was created", savedUser.getEmail());
 
-        emailSenderService.sendEmail(savedUser.getEmail(), SUBJECT, buildConfirmationEmail("http://" + SERVER_ADDRESS + LINK + token));
+        emailSenderService.sendEmailWithSecret(savedUser.getEmail(), SUBJECT, buildConfirmationEmail(OutboxEmail.SECRET_PLACEHOLDER), "http://" + SERVER_ADDRESS + LINK + token);
 
         Account account = new Account();
         account.setName("My wallet");
         account.setUser(savedUser);
         Account savedAccount = accountService.saveAccount(account);
 
-        logger.info("Account with name " + account.getName() + " of user " + user.getEmail() + " was saved");
+        logger.info("Account with name {} of user {} was saved", account.getName(), user.getEmail());
 
         AccountUsers accountUsers = new AccountUsers();
         accountUsers.setAccount(savedAccount);
         AccountUsers savedAccountUsers = accountUsersService.saveAccountUsers(accountUsers);
 
-        logger.info("AccountUsers with ID " + savedAccountUsers.getAccountUsersId() + " of user " + user.getEmail() + " was saved");
+        logger.info("AccountUsers with ID {} of user {} was saved", savedAccountUsers.getAccountUsersId(), user.getEmail());
 
         return ResponseEntity.status(HttpStatus.CREATED).body("User was created! Please, confirm the user email address!");
     }
@@ -139,22 +138,22 @@ public class AuthController {
             Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPasswordHash()));
 
             if (authentication.isAuthenticated()) {
-                logger.info("User with email " + loginRequest.getEmail() + " successfully logged in");
+                logger.info("User with email {} successfully logged in", loginRequest.getEmail());
                 return ResponseEntity.status(HttpStatus.OK).body(
                         new TokenResponse(
                                 jwtUtil.generateToken(loginRequest.getEmail())
                         )
                 );
             } else {
-                logger.error("Incorrect user data with email " + loginRequest.getEmail());
+                logger.error("Incorrect user data with email {}", loginRequest.getEmail());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Incorrect user data!");
             }
         } catch (DisabledException e) {
-            logger.error("Email " + loginRequest.getEmail() + " is not verified");
+            logger.error("Email {} is not verified", loginRequest.getEmail());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
         catch (AuthenticationException e) {
-            logger.error("Authentication failed: " + e.getMessage());
+            logger.error("Authentication failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication failed: " + e.getMessage());
         }
     }
@@ -171,16 +170,16 @@ public class AuthController {
         ConfirmationToken confirmationToken = confirmationTokenService.getConfirmationTokenByConfirmationToken(token);
 
         if (confirmationToken == null) {
-            logger.error("Invalid confirmation token " + token);
+            logger.error("Invalid confirmation token {}", token);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid confirmation token!");
         }
         if (confirmationToken.getConfirmedAt() != null) {
-            logger.error("Email is already confirmed. Confirmation token: " + token);
+            logger.error("Email is already confirmed. Confirmation token: {}", token);
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Email is already confirmed!");
         }
         Date dateNow = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
         if (dateNow.after(confirmationToken.getExpiresAt())) {
-            logger.error("Confirmation token " + token + " has expired");
+            logger.error("Confirmation token {} has expired", token);
             return ResponseEntity.status(HttpStatus.GONE).body("Confirmation token has expired! Please, login and click OK to send confirmation email!");
         }
 
@@ -191,7 +190,7 @@ public class AuthController {
         user.setIsVerified(true);
         userService.updateUser(user);
 
-        logger.info("User email " + user.getEmail() + " is confirmed");
+        logger.info("User email {} is confirmed", user.getEmail());
 
         return ResponseEntity.status(HttpStatus.OK).body("User email is confirmed. You can close this tab!");
     }
@@ -206,11 +205,11 @@ public class AuthController {
     public ResponseEntity<?> refreshToken() {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        logger.info("Token is refreshed for user email " + username);
+        logger.info("Token is refreshed for user email {}", username);
         return ResponseEntity.status(HttpStatus.OK).body(
                 new TokenResponse(
                         jwtUtil.generateToken(username)
@@ -230,24 +229,17 @@ public class AuthController {
             Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPasswordHash()));
 
             if (authentication.isAuthenticated()) {
-                logger.error("Email " + loginRequest.getEmail() + " is already verified");
+                logger.error("Email {} is already verified", loginRequest.getEmail());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User email is already verified!");
             } else {
-                logger.error("Incorrect user data for email " + loginRequest.getEmail());
+                logger.error("Incorrect user data for email {}", loginRequest.getEmail());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Incorrect user data!");
             }
         } catch (DisabledException e) {
             User user = userService.getUserByEmail(loginRequest.getEmail());
 
-            List<ConfirmationToken> confirmationTokens = confirmationTokenService.getConfirmationTokensByUserId(user.getUserId());
-            List<ConfirmationToken> newConfirmationTokens = confirmationTokens.stream()
-                    .filter(token -> token.getCreatedAt()
-                            .after(
-                                    Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(10))
-                            )
-                    ).collect(Collectors.toList());
-            if (!newConfirmationTokens.isEmpty()) {
-                logger.info("Confirmation token for " + loginRequest.getEmail() + " is already sent");
+            if (confirmationTokenService.hasConfirmationTokenCreatedAfter(user.getUserId(), Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(10)))) {
+                logger.info("Confirmation token for {} is already sent", loginRequest.getEmail());
                 return ResponseEntity.status(HttpStatus.ACCEPTED).body("Confirmation email is already sent!");
             }
 
@@ -261,14 +253,14 @@ public class AuthController {
 
             confirmationTokenService.saveConfirmationToken(confirmationToken);
 
-            logger.info("Confirmation token for email " + user.getEmail() + " was created");
+            logger.info("Confirmation token for email {} was created", user.getEmail());
 
-            emailSenderService.sendEmail(user.getEmail(), SUBJECT, buildConfirmationEmail("http://" + SERVER_ADDRESS + LINK + token));
+            emailSenderService.sendEmailWithSecret(user.getEmail(), SUBJECT, buildConfirmationEmail(OutboxEmail.SECRET_PLACEHOLDER), "http://" + SERVER_ADDRESS + LINK + token);
 
             return ResponseEntity.status(HttpStatus.CREATED).body("Email was sent. Confirm your email address!");
         }
         catch (AuthenticationException e) {
-            logger.error("Authentication failed: " + e.getMessage());
+            logger.error("Authentication failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication failed: " + e.getMessage());
         }
     }
@@ -276,7 +268,7 @@ public class AuthController {
     /**
      * Build a confirmation HTML email for activation.
      *
-     * @param link The activation link.
+     * @param link The activation link or its placeholder.
      * @return The confirmation HTML email content.
      */
     private String buildConfirmationEmail(String link) {
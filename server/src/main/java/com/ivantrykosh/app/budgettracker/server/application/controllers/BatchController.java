@@ -0,0 +1,288 @@
+package com.ivantrykosh.app.budgettracker.server.application.controllers;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.ivantrykosh.app.budgettracker.server.application.services.RequestLookupContext;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.batch.BatchDispatcher;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.concurrency.RequestTaskRunner;
+import com.ivantrykosh.app.budgettracker.server.presentation.requests.BatchOperation;
+import com.ivantrykosh.app.budgettracker.server.presentation.requests.BatchRequest;
+import com.ivantrykosh.app.budgettracker.server.presentation.responses.BatchOperationResponse;
+import com.ivantrykosh.app.budgettracker.server.presentation.responses.BatchResponse;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Batch REST controller. Executes an ordered list of operations on accounts, transactions and users with one request,
+ * so clients on high-latency links pay one round trip instead of many. The request is authenticated once.
+ * Consecutive reads run in parallel as request tasks, other operations run in order. Reads fork only while the batch request
+ * holds no connection of its own, i.e. before its first operation on the request thread; later reads run in order on that connection.
+ * A transactional batch resolves access of the user to their accounts once and runs all operations in order within one DB transaction,
+ * which is rolled back after the first failed operation.
+ */
+@RestController
+@RequestMapping("/api/v1/batch")
+public class BatchController {
+    private static final List<String> ALLOWED_PATHS = List.of("/api/v1/accounts/**", "/api/v1/transactions/**", "/api/v1/users/**"); // Paths of operations, which can be batched
+    private static final List<String> EXCLUDED_PATHS = List.of("/api/v1/accounts/events", "/api/v1/users/reset-password"); // Paths of streams and anonymous operations
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE"); // Methods of operations
+    private static final String OVERLOADED_MESSAGE = "Server is overloaded! Please, try again later!"; // Result of operations, which were rejected or timed out
+
+    @Autowired
+    private RequestLookupContext lookupContext;
+    @Autowired
+    private BatchDispatcher batchDispatcher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired(required = false)
+    private RequestTaskRunner requestTaskRunner; // Runner of parallel read operations, null if request tasks are disabled
+
+    @Value("${batch.max-operations:20}")
+    private int maxOperations; // Maximum number of operations in a batch
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher(); // Matcher of paths of operations
+    Logger logger = LoggerFactory.getLogger(BatchController.class); // Logger
+
+    /**
+     * Endpoint to execute a batch of operations of the currently authenticated user.
+     * Every operation gets its own status and body, so the batch itself succeeds even if some of its operations fail.
+     *
+     * @param batchRequest The BatchRequest containing the operations.
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @return ResponseEntity with the BatchResponse or an error message and HttpStatus indicating the result.
+     */
+    @PostMapping
+    public ResponseEntity<?> executeBatch(@RequestBody BatchRequest batchRequest, HttpServletRequest request, HttpServletResponse response) {
+        CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!customUserDetails.isEnabled()) {
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
+        }
+
+        List<BatchOperation> operations = batchRequest.getOperations();
+        if (operations == null || operations.isEmpty() || operations.size() > maxOperations) {
+            logger.error("Invalid number {} of operations of batch", operations == null ? null : operations.size());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid number of operations! Batch can contain from 1 to " + maxOperations + " operations!");
+        }
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            if (operation == null) {
+                logger.error("Operation {} of batch is null", i);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid operation!");
+            }
+            if (operation.getId() == null) {
+                operation.setId(String.valueOf(i));
+            }
+            if (!ids.add(operation.getId())) {
+                logger.error("Duplicate ID {} of operation of batch", operation.getId());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid id of operation " + operation.getId() + "! IDs must be unique!");
+            }
+            if (operation.getMethod() == null || !METHODS.contains(operation.getMethod().toUpperCase(Locale.ROOT))) {
+                logger.error("Invalid method {} of operation {} of batch", operation.getMethod(), operation.getId());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid method of operation " + operation.getId() + "!");
+            }
+            operation.setMethod(operation.getMethod().toUpperCase(Locale.ROOT));
+            if (!isAllowedPath(operation.getPath())) {
+                logger.error("Invalid path {} of operation {} of batch", operation.getPath(), operation.getId());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid path of operation " + operation.getId() + "!");
+            }
+        }
+
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        Map<String, Object> entities = getEntities(request);
+
+        BatchResponse batchResponse;
+        if (Boolean.TRUE.equals(batchRequest.getTransactional())) {
+            lookupContext.preloadAccessOfUser(email);
+            List<BatchOperationResponse> results = new ArrayList<>(operations.size());
+            Boolean committed = transactionTemplate.execute(status -> {
+                executeInOrder(request, response, operations, entities, results);
+                if (results.stream().anyMatch(result -> result.getStatus() >= 400)) {
+                    status.setRollbackOnly();
+                }
+                return !status.isRollbackOnly();
+            });
+            if (!Boolean.TRUE.equals(committed)) {
+                lookupContext.clear();
+            }
+            batchResponse = new BatchResponse(committed, results);
+        } else {
+            batchResponse = new BatchResponse(null, executeInGroups(request, response, operations, entities));
+        }
+
+        logger.info("Batch of {} operations of user {} was executed", operations.size(), email);
+
+        return ResponseEntity.status(HttpStatus.OK).body(batchResponse);
+    }
+
+    /**
+     * Executes operations in order on the current thread. Operations after the first failed one are not executed.
+     *
+     * @param request The batch request.
+     * @param response The batch response.
+     * @param operations The operations.
+     * @param entities The entities of the request lookup context.
+     * @param results The list, to which results of operations are added.
+     */
+    private void executeInOrder(HttpServletRequest request, HttpServletResponse response, List<BatchOperation> operations,
+                                Map<String, Object> entities, List<BatchOperationResponse> results) {
+        BatchOperation failedOperation = null;
+        for (BatchOperation operation : operations) {
+            if (failedOperation != null) {
+                results.add(new BatchOperationResponse(operation.getId(), HttpStatus.FAILED_DEPENDENCY.value(),
+                        TextNode.valueOf("Operation was not executed, because operation " + failedOperation.getId() + " failed!")));
+                continue;
+            }
+            BatchOperationResponse result = batchDispatcher.dispatch(request, response, operation, entities);
+            results.add(result);
+            if (result.getStatus() >= 400) {
+                logger.error("Operation {} of transactional batch failed with status {}", operation.getId(), result.getStatus());
+                failedOperation = operation;
+            }
+        }
+    }
+
+    /**
+     * Executes operations in groups. Consecutive reads form a group, whose operations run in parallel,
+     * and every other operation runs on the current thread after the previous group is finished.
+     *
+     * @param request The batch request.
+     * @param response The batch response.
+     * @param operations The operations.
+     * @param entities The entities of the request lookup context.
+     * @return The results of the operations in order of operations.
+     */
+    private List<BatchOperationResponse> executeInGroups(HttpServletRequest request, HttpServletResponse response,
+                                                         List<BatchOperation> operations, Map<String, Object> entities) {
+        List<BatchOperationResponse> results = new ArrayList<>(operations.size());
+        int start = 0;
+        while (start < operations.size()) {
+            int end = start + 1;
+            if (isRead(operations.get(start))) {
+                while (end < operations.size() && isRead(operations.get(end))) {
+                    end++;
+                }
+            }
+            if (end - start == 1) {
+                results.add(batchDispatcher.dispatch(request, response, operations.get(start), entities));
+            } else {
+                results.addAll(executeInParallel(request, response, operations.subList(start, end)));
+            }
+            start = end;
+        }
+        return results;
+    }
+
+    /**
+     * Executes read operations in parallel as request tasks. Every operation gets an empty lookup context, so it resolves
+     * its entities again, and entities managed by one thread are not used by another one.
+     * Operations, which were rejected or did not finish in time, get 503 status. If request tasks are disabled,
+     * operations run in order on the current thread.
+     *
+     * @param request The batch request.
+     * @param response The batch response.
+     * @param operations The read operations.
+     * @return The results of the operations in order of operations.
+     */
+    private List<BatchOperationResponse> executeInParallel(HttpServletRequest request, HttpServletResponse response,
+                                                           List<BatchOperation> operations) {
+        List<Supplier<BatchOperationResponse>> tasks = new ArrayList<>(operations.size());
+        for (BatchOperation operation : operations) {
+            tasks.add(() -> {
+                try {
+                    return batchDispatcher.dispatch(request, response, operation, new ConcurrentHashMap<>());
+                } catch (RuntimeException e) {
+                    logger.error("Operation {} of batch failed", operation.getId(), e);
+                    return new BatchOperationResponse(operation.getId(), HttpStatus.INTERNAL_SERVER_ERROR.value(), null);
+                }
+            });
+        }
+        if (requestTaskRunner == null) {
+            return tasks.stream().map(Supplier::get).toList();
+        }
+        return requestTaskRunner.invokeAll(tasks, i -> overloaded(operations.get(i)));
+    }
+
+    /**
+     * Checks, whether the path is a normalized path of an operation, which can be batched.
+     *
+     * @param path The path with the query string.
+     * @return true if the operation can be batched, otherwise false.
+     */
+    private boolean isAllowedPath(String path) {
+        if (path == null) {
+            return false;
+        }
+        URI uri;
+        try {
+            uri = new URI(path);
+        } catch (URISyntaxException e) {
+            return false;
+        }
+        if (uri.getScheme() != null || uri.getRawAuthority() != null || uri.getRawFragment() != null || uri.getRawPath() == null
+                || uri.getRawPath().contains("//") || !uri.normalize().getRawPath().equals(uri.getRawPath())) {
+            return false;
+        }
+        String decodedPath = uri.getPath();
+        return ALLOWED_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, decodedPath))
+                && EXCLUDED_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, decodedPath));
+    }
+
+    /**
+     * Checks, whether the operation only reads data.
+     *
+     * @param operation The operation.
+     * @return true if the operation is GET, otherwise false.
+     */
+    private boolean isRead(BatchOperation operation) {
+        return "GET".equals(operation.getMethod());
+    }
+
+    /**
+     * Gets entities of the request lookup context of the batch request.
+     *
+     * @param request The batch request.
+     * @return The map of entities.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getEntities(HttpServletRequest request) {
+        Object entities = request.getAttribute(RequestLookupContext.ENTITIES_ATTRIBUTE);
+        return entities instanceof Map ? (Map<String, Object>) entities : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates the result of the operation, which was rejected or did not finish in time.
+     *
+     * @param operation The operation.
+     * @return The result with 503 status.
+     */
+    private BatchOperationResponse overloaded(BatchOperation operation) {
+        return new BatchOperationResponse(operation.getId(), HttpStatus.SERVICE_UNAVAILABLE.value(), TextNode.valueOf(OVERLOADED_MESSAGE));
+    }
+}
@@ -0,0 +1,213 @@
+package com.ivantrykosh.app.budgettracker.server.application.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.dtos.AccountSumsDto;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.CategorySumsDto;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.DashboardDto;
+import com.ivantrykosh.app.budgettracker.server.application.mappers.AccountMapper;
+import com.ivantrykosh.app.budgettracker.server.application.mappers.TransactionMapper;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.RequestLookupContext;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.AccountSums;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.CategorySums;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.concurrency.RequestTaskRunner;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard REST controller. Returns everything the overview screen needs with one request:
+ * accounts with their sums, sums of every account within a period, categories with the largest expenses
+ * and the latest transactions. Accounts of the user are resolved once, and the four independent queries run in parallel.
+ * The endpoint is not open in view, so the request releases its connection after every lookup and holds none
+ * while its queries run.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboard")
+public class DashboardController {
+    private static final int MAX_LATEST_TRANSACTIONS = 100; // Maximum number of latest transactions
+    private static final int MAX_TOP_CATEGORIES = 20; // Maximum number of top categories
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountUsersService accountUsersService;
+    @Autowired
+    private RequestLookupContext lookupContext;
+    @Autowired
+    private AccountMapper accountMapper;
+    @Autowired
+    private TransactionMapper transactionMapper;
+    @Autowired(required = false)
+    private RequestTaskRunner requestTaskRunner; // Runner of parallel queries, null if request tasks are disabled
+    Logger logger = LoggerFactory.getLogger(DashboardController.class); // Logger
+
+    /**
+     * Endpoint to retrieve the dashboard of the currently authenticated user.
+     * If dates are not given, the period is the current month.
+     *
+     * @param startDate The start date of the period.
+     * @param endDate The end date of the period.
+     * @param latest The number of latest transactions.
+     * @param topCategories The number of categories with the largest expenses.
+     * @return ResponseEntity with the DashboardDto or an error message and HttpStatus indicating the result.
+     */
+    @GetMapping
+    public ResponseEntity<?> getDashboard(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date startDate,
+                                          @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date endDate,
+                                          @RequestParam(defaultValue = "10") Integer latest,
+                                          @RequestParam(defaultValue = "5") Integer topCategories) {
+        CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!customUserDetails.isEnabled()) {
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
+        }
+
+        if (latest == null || latest < 1 || latest > MAX_LATEST_TRANSACTIONS) {
+            logger.error("Invalid number {} of latest transactions", latest);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid number of latest transactions!");
+        }
+        if (topCategories == null || topCategories < 1 || topCategories > MAX_TOP_CATEGORIES) {
+            logger.error("Invalid number {} of top categories", topCategories);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid number of top categories!");
+        }
+        if ((startDate == null) != (endDate == null)) {
+            logger.error("Only one of startDate and endDate is given");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid period. Give both startDate and endDate or none of them!");
+        }
+        if (startDate != null && startDate.after(endDate)) {
+            logger.error("startDate is after endDate");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid startDate. It can't be after endDate!");
+        }
+
+        Calendar calendar = Calendar.getInstance();
+        if (startDate == null) {
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+            startOfDay(calendar);
+            startDate = calendar.getTime();
+            calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
+        } else {
+            calendar.setTime(endDate);
+        }
+        calendar.set(Calendar.HOUR_OF_DAY, 23);
+        calendar.set(Calendar.MINUTE, 59);
+        calendar.set(Calendar.SECOND, 59);
+        calendar.set(Calendar.MILLISECOND, 999);
+        endDate = calendar.getTime();
+
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = lookupContext.getUserByEmail(email);
+
+        List<Account> accounts = new ArrayList<>(lookupContext.getAccountsByUserId(user.getUserId()));
+        for (AccountUsers accountUsers : accountUsersService.getAccountsUsersByUserId(user.getUserId())) {
+            accounts.add(accountUsers.getAccount());
+        }
+        List<Long> accountIds = accounts.stream()
+                .map(Account::getAccountId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Date periodStart = startDate;
+        Date periodEnd = endDate;
+        List<Supplier<Object>> queries = List.of(
+                () -> transactionService.getSumsOfTransactionsByAccountIds(accountIds),
+                () -> transactionService.getSumsOfTransactionsByAccountIdsAndDateBetween(accountIds, periodStart, periodEnd),
+                () -> transactionService.getTopExpenseCategoriesByAccountIds(accountIds, periodStart, periodEnd, topCategories),
+                () -> transactionService.getLatestTransactionsByAccountIds(accountIds, latest)
+        );
+        List<Object> results = requestTaskRunner != null
+                ? requestTaskRunner.invokeAll(queries, i -> null)
+                : queries.stream().map(Supplier::get).toList();
+        if (results.contains(null)) {
+            logger.error("Queries of dashboard of user {} did not finish in time", user.getEmail());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Dashboard is temporarily unavailable!");
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, AccountSums> sums = (Map<Long, AccountSums>) results.get(0);
+        @SuppressWarnings("unchecked")
+        Map<Long, AccountSums> periodSums = (Map<Long, AccountSums>) results.get(1);
+        @SuppressWarnings("unchecked")
+        List<CategorySums> categorySums = (List<CategorySums>) results.get(2);
+        @SuppressWarnings("unchecked")
+        List<Transaction> latestTransactions = (List<Transaction>) results.get(3);
+
+        DashboardDto dashboard = new DashboardDto();
+        dashboard.setAccounts(accountMapper.convertToDtos(accounts, sums));
+        dashboard.setStartDate(startDate);
+        dashboard.setEndDate(endDate);
+        dashboard.setPeriodSums(accounts.stream()
+                .map(account -> createAccountSumsDto(account.getAccountId(), periodSums.get(account.getAccountId())))
+                .collect(Collectors.toList()));
+        dashboard.setTopCategories(categorySums.stream()
+                .map(this::createCategorySumsDto)
+                .collect(Collectors.toList()));
+        dashboard.setLatestTransactions(transactionMapper.convertToDtos(latestTransactions));
+
+        logger.info("Dashboard of user {} with {} accounts was got successfully", user.getEmail(), accounts.size());
+
+        return ResponseEntity.status(HttpStatus.OK).body(dashboard);
+    }
+
+    /**
+     * Sets the time of the calendar to the start of the day.
+     *
+     * @param calendar The calendar.
+     */
+    private static void startOfDay(Calendar calendar) {
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+    }
+
+    /**
+     * Create AccountSumsDto. Accounts without sums get zero sums.
+     *
+     * @param accountId The ID of the account.
+     * @param sums The sums of the account or null.
+     * @return The AccountSumsDto.
+     */
+    private AccountSumsDto createAccountSumsDto(Long accountId, AccountSums sums) {
+        AccountSumsDto accountSumsDto = new AccountSumsDto();
+        accountSumsDto.setAccountId(accountId);
+        accountSumsDto.setIncomesSum(sums != null && sums.getIncomesSum() != null ? sums.getIncomesSum() : 0.0);
+        accountSumsDto.setExpensesSum(sums != null && sums.getExpensesSum() != null ? sums.getExpensesSum() : 0.0);
+        return accountSumsDto;
+    }
+
+    /**
+     * Create CategorySumsDto.
+     *
+     * @param sums The sums of the category.
+     * @return The CategorySumsDto.
+     */
+    private CategorySumsDto createCategorySumsDto(CategorySums sums) {
+        CategorySumsDto categorySumsDto = new CategorySumsDto();
+        categorySumsDto.setCategory(sums.getCategory());
+        categorySumsDto.setExpensesSum(sums.getExpensesSum());
+        categorySumsDto.setTransactionCount(sums.getTransactionCount());
+        return categorySumsDto;
+    }
+}
@@ -0,0 +1,240 @@
+package com.ivantrykosh.app.budgettracker.server.application.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
+import com.ivantrykosh.app.budgettracker.server.application.services.ReactiveTransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.RequestLookupContext;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reactive read-only transaction REST controller.
+ * Transactions are read with R2DBC and streamed as newline-delimited JSON, one transaction per line, as soon as they are read.
+ * While rows are awaited, the request is suspended in servlet async mode and does not hold a request thread.
+ * Permissions are checked before streaming starts, so errors are returned as plain text like in version 1.
+ */
+@RestController
+@RequestMapping("/api/v2/transactions")
+@ConditionalOnProperty(name = "spring.r2dbc.url")
+public class ReactiveTransactionController {
+    @Autowired
+    private ReactiveTransactionService reactiveTransactionService;
+    @Autowired
+    private RequestLookupContext lookupContext;
+    Logger logger = LoggerFactory.getLogger(ReactiveTransactionController.class); // Logger
+
+    /**
+     * Endpoint to stream transactions by account ID.
+     *
+     * @param id The ID of the account.
+     * @return ResponseEntity with a flux of TransactionDto objects.
+     */
+    @GetMapping(value = "/get-all-by-account", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<TransactionDto>> getTransactionsByAccountId(@RequestParam String id) {
+        checkEmailIsVerified();
+
+        long accountId;
+        try {
+            accountId = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            logger.error("Invalid ID {} of account", id);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid id of account!");
+        }
+
+        checkPermissions(List.of(accountId));
+
+        logger.info("Transactions of account with ID {} are streamed", accountId);
+
+        return ResponseEntity.status(HttpStatus.OK).body(reactiveTransactionService.getTransactionsByAccountId(accountId));
+    }
+
+    /**
+     * Endpoint to stream transactions by account IDs.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @return ResponseEntity with a flux of TransactionDto objects.
+     */
+    @GetMapping(value = "/get-all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<TransactionDto>> getTransactionsByAllAccountIds(@RequestParam List<Long> accountIds) {
+        checkEmailIsVerified();
+
+        accountIds = checkAccountIds(accountIds);
+        checkPermissions(accountIds);
+
+        logger.info("Transactions for account IDs {} are streamed", accountIds);
+
+        return ResponseEntity.status(HttpStatus.OK).body(reactiveTransactionService.getTransactionsByAccountIds(accountIds));
+    }
+
+    /**
+     * Endpoint to stream transactions by account IDs and between dates. Both dates are inclusive.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @param startDate The start date.
+     * @param endDate The end date.
+     * @return ResponseEntity with a flux of TransactionDto objects.
+     */
+    @GetMapping(value = "/get-all-between-dates", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<TransactionDto>> getTransactionsByAllAccountIdsAndDateBetween(@RequestParam List<Long> accountIds,
+                                                                                            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                                                                                            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+        checkEmailIsVerified();
+
+        accountIds = checkAccountIds(accountIds);
+        if (startDate.isAfter(endDate)) {
+            logger.error("startDate is after endDate");
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid startDate. It can't be after endDate!");
+        }
+        checkPermissions(accountIds);
+
+        logger.info("Transactions for account IDs {} and between dates {} and {} are streamed", accountIds, startDate, endDate);
+
+        return ResponseEntity.status(HttpStatus.OK).body(
+                reactiveTransactionService.getTransactionsByAccountIdsAndDateBetween(accountIds, startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX))
+        );
+    }
+
+    /**
+     * Endpoint to stream a page of income transactions by account IDs.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @param page The number of page.
+     * @param size The number of transactions in page.
+     * @return ResponseEntity with a flux of TransactionDto objects.
+     */
+    @GetMapping(value = "/get-incomes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<TransactionDto>> getIncomeTransactions(@RequestParam List<Long> accountIds,
+                                                                     @RequestParam(defaultValue = "0") int page,
+                                                                     @RequestParam int size) {
+        checkEmailIsVerified();
+
+        accountIds = checkAccountIds(accountIds);
+        checkPage(page, size);
+        checkPermissions(accountIds);
+
+        logger.info("Page {} of income transactions for account IDs {} is streamed", page, accountIds);
+
+        return ResponseEntity.status(HttpStatus.OK).body(reactiveTransactionService.getIncomeTransactionsByAccountIds(accountIds, page, size));
+    }
+
+    /**
+     * Endpoint to stream a page of expense transactions by account IDs.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @param page The number of page.
+     * @param size The number of transactions in page.
+     * @return ResponseEntity with a flux of TransactionDto objects.
+     */
+    @GetMapping(value = "/get-expenses", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<TransactionDto>> getExpenseTransactions(@RequestParam List<Long> accountIds,
+                                                                      @RequestParam(defaultValue = "0") int page,
+                                                                      @RequestParam int size) {
+        checkEmailIsVerified();
+
+        accountIds = checkAccountIds(accountIds);
+        checkPage(page, size);
+        checkPermissions(accountIds);
+
+        logger.info("Page {} of expense transactions for account IDs {} is streamed", page, accountIds);
+
+        return ResponseEntity.status(HttpStatus.OK).body(reactiveTransactionService.getExpenseTransactionsByAccountIds(accountIds, page, size));
+    }
+
+    /**
+     * Handles requests rejected before streaming.
+     *
+     * @param e The exception with status and message.
+     * @return ResponseEntity with an error message and HttpStatus.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<String> handleRejectedRequest(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode()).contentType(MediaType.TEXT_PLAIN).body(e.getReason());
+    }
+
+    /**
+     * Checks that email of current user is verified.
+     */
+    private void checkEmailIsVerified() {
+        CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!customUserDetails.isEnabled()) {
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Email is not verified!");
+        }
+    }
+
+    /**
+     * Checks account IDs and removes duplicates.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @return The distinct IDs of the accounts.
+     */
+    private List<Long> checkAccountIds(List<Long> accountIds) {
+        if (accountIds == null || accountIds.isEmpty() || accountIds.contains(null)) {
+            logger.error("Invalid accountIDs {}", accountIds);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid accountIds!");
+        }
+        return accountIds.stream().distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * Checks number and size of page.
+     *
+     * @param page The number of page.
+     * @param size The number of transactions in page.
+     */
+    private void checkPage(int page, int size) {
+        if (page < 0) {
+            logger.error("Invalid page {}", page);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page!");
+        }
+        if (size <= 0) {
+            logger.error("Invalid size {}", size);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid size!");
+        }
+    }
+
+    /**
+     * Checks that current user is owner or one of users of every account.
+     *
+     * @param accountIds The IDs of the accounts.
+     */
+    private void checkPermissions(List<Long> accountIds) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = lookupContext.getUserByEmail(email);
+
+        for (Long accountId : accountIds) {
+            Account account = lookupContext.getAccountById(accountId);
+            if (account == null) {
+                logger.error("No account with ID {}", accountId);
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No account with given id!");
+            }
+            if (account.getUser().getUserId() != user.getUserId()) {
+                AccountUsers accountUsers = lookupContext.getAccountUsersByAccountId(account.getAccountId());
+                if (accountUsers.getUser2Id() != user.getUserId()
+                        && accountUsers.getUser3Id() != user.getUserId()
+                        && accountUsers.getUser4Id() != user.getUserId()) {
+                    logger.error("User with email {} does not have permission to account with ID {}", user.getEmail(), account.getAccountId());
+                    throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to account with name + " + account.getName() + "!");
+                }
+            }
+        }
+    }
+}
@@ -1,18 +1,19 @@
 package com.ivantrykosh.app.budgettracker.server.application.controllers;
 
 import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
-import com.ivantrykosh.app.budgettracker.server.application.mappers.Mapper;
 import com.ivantrykosh.app.budgettracker.server.application.mappers.TransactionMapper;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
 import com.ivantrykosh.app.budgettracker.server.domain.model.User;
-import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
-import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.TransactionField;
+import com.ivantrykosh.app.budgettracker.server.application.services.RequestLookupContext;
 import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
-import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.persistence.TransactionGroupCommitWriter;
+import com.ivantrykosh.app.budgettracker.server.presentation.FieldSelection;
 import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
 import com.ivantrykosh.app.budgettracker.server.validators.TransactionValidator;
+import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,11 +21,15 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -33,21 +38,22 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/v1/transactions")
 public class TransactionController {
-    @Autowired
-    private UserService userService;
-    @Autowired
-    private AccountService accountService;
-    @Autowired
-    private AccountUsersService accountUsersService;
     @Autowired
     private TransactionService transactionService;
-    private Mapper<Transaction, TransactionDto> mapper = new TransactionMapper();
+    @Autowired
+    private RequestLookupContext lookupContext;
+    private TransactionMapper mapper = new TransactionMapper();
     @Autowired
     private TransactionValidator transactionValidator;
+    @Autowired(required = false)
+    private TransactionGroupCommitWriter groupCommitWriter; // Writer of new transactions, if group commit is enabled
     Logger logger = LoggerFactory.getLogger(TransactionController.class); // Logger
 
     /**
      * Endpoint to create a new transaction based on the provided TransactionDto.
+     * If group commit is enabled, the transaction is inserted together with transactions of concurrent requests
+     * and the response is returned after they are committed. Within a DB transaction, e.g. of a transactional batch,
+     * the transaction is saved directly, so it is rolled back together with the DB transaction.
      *
      * @param transactionDto The TransactionDto containing the information for the new transaction.
      * @return ResponseEntity with a success message or an error message and HttpStatus indicating the result.
@@ -56,59 +62,77 @@ public class TransactionController {
     public ResponseEntity<String> createTransaction(@RequestBody TransactionDto transactionDto) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
         if (!transactionValidator.checkAccountId(transactionDto.getAccountId())) {
-            logger.error("Invalid account ID: " + transactionDto.getAccountId());
+            logger.error("Invalid account ID: {}", transactionDto.getAccountId());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid accountId!");
         }
         if (!transactionValidator.checkCategory(transactionDto.getCategory())) {
-            logger.error("Invalid category: " + transactionDto.getCategory());
+            logger.error("Invalid category: {}", transactionDto.getCategory());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid category!");
         }
         if (!transactionValidator.checkValue(transactionDto.getValue())) {
-            logger.error("Invalid value: " + transactionDto.getValue());
+            logger.error("Invalid value: {}", transactionDto.getValue());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid value!");
         }
         if (!transactionValidator.checkDate(transactionDto.getDate())) {
-            logger.error("Invalid date: " + transactionDto.getDate());
+            logger.error("Invalid date: {}", transactionDto.getDate());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid date!");
         }
         if (!transactionValidator.checkToFromWhom(transactionDto.getToFromWhom())) {
-            logger.error("Invalid toFromWhom: " + transactionDto.getToFromWhom());
+            logger.error("Invalid toFromWhom: {}", transactionDto.getToFromWhom());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid toFromWhom!");
         }
         if (!transactionValidator.checkNote(transactionDto.getNote())) {
-            logger.error("Invalid note: " + transactionDto.getNote());
+            logger.error("Invalid note: {}", transactionDto.getNote());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid note!");
         }
 
-        Account account = accountService.getAccountById(transactionDto.getAccountId());
+        Account account = lookupContext.getAccountById(transactionDto.getAccountId());
         if (account == null) {
-            logger.error("No account with ID " + transactionDto.getAccountId());
+            logger.error("No account with ID {}", transactionDto.getAccountId());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
         }
         if (account.getUser().getUserId() != user.getUserId()) {
-            AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
+            AccountUsers accountUsers = lookupContext.getAccountUsersByAccountId(account.getAccountId());
             if (accountUsers.getUser2Id() != user.getUserId()
                     && accountUsers.getUser3Id() != user.getUserId()
                     && accountUsers.getUser4Id() != user.getUserId()) {
-                logger.error("User with email " + user.getEmail() + " does not have permission to account with ID " + account.getAccountId());
+                logger.error("User with email {} does not have permission to account with ID {}", user.getEmail(), account.getAccountId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to account with name + " + account.getName() + "!");
             }
         }
 
         transactionDto.setTransactionId(null);
+        if (groupCommitWriter != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            Transaction transaction = mapper.convertToEntity(transactionDto);
+            transaction.setAccount(account);
+            try {
+                groupCommitWriter.submit(transaction).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    logger.error("Transaction for account with ID {} was rejected, because too many transactions are being saved", account.getAccountId());
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many transactions are being saved now! Please, try again later!");
+                }
+                throw e;
+            }
+
+            logger.info("Transaction was saved for account with ID {}", account.getAccountId());
+
+            return ResponseEntity.status(HttpStatus.CREATED).body("Transaction was saved!");
+        }
+
         Transaction savedTransaction = transactionService.saveTransaction(
                 mapper.convertToEntity(transactionDto)
         );
 
-        logger.info("Transaction was saved with ID " + savedTransaction);
+        logger.info("Transaction was saved with ID {}", savedTransaction.getTransactionId());
 
         return ResponseEntity.status(HttpStatus.CREATED).body("Transaction was saved!");
     }
@@ -117,13 +141,14 @@ public class TransactionController {
      * Endpoint to retrieve a transaction based on the provided transaction ID.
      *
      * @param id The ID of the transaction to retrieve.
+     * @param fields The comma-separated fields of transactions to return or null, if all fields are returned.
      * @return ResponseEntity with a TransactionDto object or an error message and HttpStatus indicating the result.
      */
     @GetMapping("/get")
-    public ResponseEntity<?> getTransactionById(@RequestParam String id) {
+    public ResponseEntity<?> getTransactionById(@RequestParam String id, @RequestParam(required = false) String fields) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
@@ -131,37 +156,45 @@ public class TransactionController {
         try {
             transactionId = Long.parseLong(id);
         } catch (NumberFormatException e) {
-            logger.error("Invalid ID " + id + " of transaction");
+            logger.error("Invalid ID {} of transaction", id);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid id of transaction!");
         }
 
-        Transaction transaction = transactionService.getTransactionById(transactionId);
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, TransactionField.fieldNames());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields {}", fields);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid fields!");
+        }
+
+        Transaction transaction = lookupContext.getTransactionById(transactionId);
         if (transaction == null) {
-            logger.error("No transaction with ID " + transactionId);
+            logger.error("No transaction with ID {}", transactionId);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No transaction with given id!");
         }
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        Account account = accountService.getAccountById(transaction.getAccount().getAccountId());
+        Account account = lookupContext.getAccountById(transaction.getAccount().getAccountId());
         if (account == null) {
-            logger.error("No account with ID " + transaction.getAccount().getAccountId());
+            logger.error("No account with ID {}", transaction.getAccount().getAccountId());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("No account with given id!");
         }
         if (account.getUser().getUserId() != user.getUserId()) {
-            AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
+            AccountUsers accountUsers = lookupContext.getAccountUsersByAccountId(account.getAccountId());
             if (accountUsers.getUser2Id() != user.getUserId()
                     && accountUsers.getUser3Id() != user.getUserId()
                     && accountUsers.getUser4Id() != user.getUserId()) {
-                logger.error("User with email " + user.getEmail() + " does not have permission to account with ID " + account.getAccountId());
+                logger.error("User with email {} does not have permission to account with ID {}", user.getEmail(), account.getAccountId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to account with name + " + account.getName() + "!");
             }
         }
 
-        logger.info("Transaction with ID " + transaction.getTransactionId() + " was got");
+        logger.info("Transaction with ID {} was got", transaction.getTransactionId());
 
         return ResponseEntity.status(HttpStatus.OK).body(
-                mapper.convertToDto(transaction)
+                selection.apply(mapper.convertToDto(transaction))
         );
     }
 
@@ -169,13 +202,14 @@ public class TransactionController {
      * Endpoint to retrieve transactions for a specific account based on the provided account ID.
      *
      * @param id The ID of the account for which transactions are requested.
+     * @param fields The comma-separated fields of transactions to return or null, if all fields are returned.
      * @return ResponseEntity with a list of TransactionDto objects or an error message and HttpStatus indicating the result.
      */
     @GetMapping("/get-all-by-account")
-    public ResponseEntity<?> getTransactionsByAccountId(@RequestParam String id) {
+    public ResponseEntity<?> getTransactionsByAccountId(@RequestParam String id, @RequestParam(required = false) String fields) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
@@ -183,95 +217,107 @@ public class TransactionController {
         try {
             accountId = Long.parseLong(id);
         } catch (NumberFormatException e) {
-            logger.error("Invalid ID " + id + " of account");
+            logger.error("Invalid ID {} of account", id);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid id of account!");
         }
 
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, TransactionField.fieldNames());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields {}", fields);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid fields!");
+        }
+
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        Account account = accountService.getAccountById(accountId);
+        Account account = lookupContext.getAccountById(accountId);
         if (account == null) {
-            logger.error("No account with ID " + accountId);
+            logger.error("No account with ID {}", accountId);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
         }
         if (account.getUser().getUserId() != user.getUserId()) {
-            AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
+            AccountUsers accountUsers = lookupContext.getAccountUsersByAccountId(account.getAccountId());
             if (accountUsers.getUser2Id() != user.getUserId()
                     && accountUsers.getUser3Id() != user.getUserId()
                     && accountUsers.getUser4Id() != user.getUserId()) {
-                logger.error("User with email " + user.getEmail() + " does not have permission to account with ID " + account.getAccountId());
+                logger.error("User with email {} does not have permission to account with ID {}", user.getEmail(), account.getAccountId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to account with name + " + account.getName() + "!");
             }
         }
 
-        List<Transaction> transactions = transactionService.getTransactionsByAccountId(account.getAccountId());
+        List<TransactionDto> transactionDtos;
+        if (selection.isAll()) {
+            transactionDtos = mapper.convertToDtos(transactionService.getTransactionsByAccountId(account.getAccountId()));
+        } else {
+            Set<TransactionField> selectedFields = TransactionField.fromFieldNames(selection.getFieldNames());
+            transactionDtos = mapper.convertToDtos(
+                    transactionService.getFieldsOfTransactionsByAccountIds(List.of(account.getAccountId()), selectedFields),
+                    selectedFields
+            );
+        }
 
-        logger.info("All transactions of account with ID " + account.getAccountId() + " were got");
+        logger.info("All transactions of account with ID {} were got", account.getAccountId());
 
-        return ResponseEntity.status(HttpStatus.OK).body(
-                transactions.stream()
-                        .map(transaction -> mapper.convertToDto(transaction))
-                        .collect(Collectors.toList())
-        );
+        return ResponseEntity.status(HttpStatus.OK).body(selection.apply(transactionDtos));
     }
 
     /**
      * Endpoint to retrieve transactions for multiple account IDs.
      *
      * @param accountIds The list of account IDs.
+     * @param fields The comma-separated fields of transactions to return or null, if all fields are returned.
      * @return ResponseEntity with a list of TransactionDto objects or an error message and HttpStatus indicating the result.
      */
     @GetMapping("/get-all")
-    public ResponseEntity<?> getTransactionByAllAccountIds(@RequestParam List<Long> accountIds) {
+    public ResponseEntity<?> getTransactionByAllAccountIds(@RequestParam List<Long> accountIds, @RequestParam(required = false) String fields) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
         if (accountIds == null || accountIds.isEmpty()) {
-            logger.error("Invalid accountIDs " + accountIds);
+            logger.error("Invalid accountIDs {}", accountIds);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid accountIds!");
         }
         for (Long accountId : accountIds) {
             if (accountId == null) {
-                logger.error("Invalid accountIDs " + accountIds);
+                logger.error("Invalid accountIDs {}", accountIds);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid accountIds!");
             }
         }
 
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, TransactionField.fieldNames());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields {}", fields);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid fields!");
+        }
+
         accountIds = accountIds.stream().distinct().collect(Collectors.toList());
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.preloadAccessOfUser(email);
 
-        for (Long accountId : accountIds) {
-            Account account = accountService.getAccountById(accountId);
-            if (account == null) {
-                logger.error("No account with ID " + accountId);
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
-            }
-            if (account.getUser().getUserId() != user.getUserId()) {
-                AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
-                if (accountUsers.getUser2Id() != user.getUserId()
-                        && accountUsers.getUser3Id() != user.getUserId()
-                        && accountUsers.getUser4Id() != user.getUserId()) {
-                    logger.error("User with email " + user.getEmail() + " does not have permission to account with ID " + account.getAccountId());
-                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to account with name + " + account.getName() + "!");
-                }
-            }
+        ResponseEntity<String> accessError = checkAccessToAccounts(user, accountIds);
+        if (accessError != null) {
+            return accessError;
         }
 
-        List<Transaction> transactions = transactionService.getTransactionsByAccountIds(accountIds);
+        List<TransactionDto> transactionDtos;
+        if (selection.isAll()) {
+            transactionDtos = mapper.convertToDtos(transactionService.getTransactionsByAccountIds(accountIds));
+        } else {
+            Set<TransactionField> selectedFields = TransactionField.fromFieldNames(selection.getFieldNames());
+            transactionDtos = mapper.convertToDtos(transactionService.getFieldsOfTransactionsByAccountIds(accountIds, selectedFields), selectedFields);
+        }
 
-        logger.info("All transaction for account IDs " + accountIds + " were got");
+        logger.info("All transaction for account IDs {} were got", accountIds);
 
-        return ResponseEntity.status(HttpStatus.OK).body(
-                transactions.stream()
-                        .map(transaction -> mapper.convertToDto(transaction))
-                        .collect(Collectors.toList())
-        );
+        return ResponseEntity.status(HttpStatus.OK).body(selection.apply(transactionDtos));
     }
 
     /**
@@ -280,28 +326,38 @@ public class TransactionController {
      * @param accountIds The list of account IDs.
      * @param startDate The start date.
      * @param endDate The end date.
+     * @param fields The comma-separated fields of transactions to return or null, if all fields are returned.
      * @return ResponseEntity with a list of TransactionDto objects or an error message and HttpStatus indicating the result.
      */
     @GetMapping("/get-all-between-dates")
     public ResponseEntity<?> getTransactionByAllAccountIdsAndDateBetween(@RequestParam List<Long> accountIds,
                                                                          @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date startDate,
-                                                                         @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date endDate) {
+                                                                         @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date endDate,
+                                                                         @RequestParam(required = false) String fields) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
         if (accountIds == null || accountIds.isEmpty()) {
-            logger.error("Invalid accountIDs " + accountIds);
+            logger.error("Invalid accountIDs {}", accountIds);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid accountIds!");
         }
         for (Long accountId : accountIds) {
             if (accountId == null) {
-                logger.error("Invalid accountIDs " + accountIds);
+                logger.error("Invalid accountIDs {}", accountIds);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid accountIds!");
             }
         }
+
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, TransactionField.fieldNames());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields {}", fields);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid fields!");
+        }
         if (startDate == null) {
             logger.error("Invalid startDate");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid startDate!");
@@ -318,23 +374,11 @@ public class TransactionController {
         accountIds = accountIds.stream().distinct().collect(Collectors.toList());
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.preloadAccessOfUser(email);
 
-        for (Long accountId : accountIds) {
-            Account account = accountService.getAccountById(accountId);
-            if (account == null) {
-                logger.error("No account with ID " + accountId);
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
-            }
-            if (account.getUser().getUserId() != user.getUserId()) {
-                AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
-                if (accountUsers.getUser2Id() != user.getUserId()
-                        && accountUsers.getUser3Id() != user.getUserId()
-                        && accountUsers.getUser4Id() != user.getUserId()) {
-                    logger.error("User with email " + user.getEmail() + " does not have permission to account with ID " + account.getAccountId());
-                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to account with name + " + account.getName() + "!");
-                }
-            }
+        ResponseEntity<String> accessError = checkAccessToAccounts(user, accountIds);
+        if (accessError != null) {
+            return accessError;
         }
 
         Calendar calendar = Calendar.getInstance();
@@ -344,82 +388,107 @@ public class TransactionController {
         calendar.set(Calendar.SECOND, 59);
         calendar.set(Calendar.MILLISECOND, 999);
 
-        List<Transaction> transactions = transactionService.getTransactionsByAccountIdsAndDateBetween(accountIds, startDate, calendar.getTime());
-        logger.info("All transactions for accountIDs " + accountIds + " and between dates " + startDate + " and " + calendar.getTime());
-
-        return ResponseEntity.status(HttpStatus.OK).body(
-                transactions.stream()
-                        .map(transaction -> mapper.convertToDto(transaction))
-                        .collect(Collectors.toList())
-        );
+        List<TransactionDto> transactionDtos;
+        if (selection.isAll()) {
+            transactionDtos = mapper.convertToDtos(
+                    transactionService.getTransactionsByAccountIdsAndDateBetween(accountIds, startDate, calendar.getTime())
+            );
+        } else {
+            Set<TransactionField> selectedFields = TransactionField.fromFieldNames(selection.getFieldNames());
+            transactionDtos = mapper.convertToDtos(
+                    transactionService.getFieldsOfTransactionsByAccountIdsAndDateBetween(accountIds, startDate, calendar.getTime(), selectedFields),
+                    selectedFields
+            );
+        }
+        logger.info("All transactions for accountIDs {} and between dates {} and {}", accountIds, startDate, calendar.getTime());
+
+        return ResponseEntity.status(HttpStatus.OK).body(selection.apply(transactionDtos));
     }
 
     /**
      * Endpoint to update a transaction based on the provided TransactionDto.
+     * The transaction is updated only if it was not changed since the version of the TransactionDto. Requests without version are rejected.
      *
      * @param transactionDto The TransactionDto containing the updated transaction information.
-     * @return ResponseEntity with a success message or an error message and HttpStatus indicating the result.
+     * @return ResponseEntity with a success message, the current TransactionDto on conflict, or an error message and HttpStatus indicating the result.
      */
     @PutMapping("/update")
-    public ResponseEntity<String> updateTransaction(@RequestBody TransactionDto transactionDto) {
+    @Transactional
+    public ResponseEntity<?> updateTransaction(@RequestBody TransactionDto transactionDto) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        if (!transactionValidator.checkTransactionId(transactionDto.getTransactionId())) {
-            logger.error("Invalid transaction ID: " + transactionDto.getTransactionId());
+        if (transactionDto.getTransactionId() == null) {
+            logger.error("Invalid transaction ID: {}", transactionDto.getTransactionId());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid transactionId!");
         }
+        if (transactionDto.getVersion() == null) {
+            logger.error("No version of transaction with ID {}", transactionDto.getTransactionId());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body("Version of transaction is required!");
+        }
         if (!transactionValidator.checkAccountId(transactionDto.getAccountId())) {
-            logger.error("Invalid account ID: " + transactionDto.getAccountId());
+            logger.error("Invalid account ID: {}", transactionDto.getAccountId());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid accountId!");
         }
         if (!transactionValidator.checkCategory(transactionDto.getCategory())) {
-            logger.error("Invalid category: " + transactionDto.getCategory());
+            logger.error("Invalid category: {}", transactionDto.getCategory());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid category!");
         }
         if (!transactionValidator.checkValue(transactionDto.getValue())) {
-            logger.error("Invalid value: " + transactionDto.getValue());
+            logger.error("Invalid value: {}", transactionDto.getValue());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid value!");
         }
         if (!transactionValidator.checkDate(transactionDto.getDate())) {
-            logger.error("Invalid date: " + transactionDto.getDate());
+            logger.error("Invalid date: {}", transactionDto.getDate());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid date!");
         }
         if (!transactionValidator.checkToFromWhom(transactionDto.getToFromWhom())) {
-            logger.error("Invalid toFromWhom: " + transactionDto.getToFromWhom());
+            logger.error("Invalid toFromWhom: {}", transactionDto.getToFromWhom());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid toFromWhom!");
         }
         if (!transactionValidator.checkNote(transactionDto.getNote())) {
-            logger.error("Invalid note: " + transactionDto.getNote());
+            logger.error("Invalid note: {}", transactionDto.getNote());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid note!");
         }
 
-        Account account = accountService.getAccountById(transactionDto.getAccountId());
-        if (account == null) {
-            logger.error("No account with ID " + transactionDto.getTransactionId());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
+        // The stored transaction is read only to check permission to its current account.
+        // Concurrent changes are detected by the version in the UPDATE statement, not by this read
+        Transaction storedTransaction = lookupContext.getTransactionById(transactionDto.getTransactionId());
+        if (storedTransaction == null) {
+            logger.error("Invalid transaction ID: {}", transactionDto.getTransactionId());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid transactionId!");
         }
-        if (account.getUser().getUserId() != user.getUserId()) {
-            AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
-            if (accountUsers.getUser2Id() != user.getUserId()
-                    && accountUsers.getUser3Id() != user.getUserId()
-                    && accountUsers.getUser4Id() != user.getUserId()) {
-                logger.error("User with email " + user.getEmail() + " does not have permission to account with ID " + account.getAccountId());
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to account with name + " + account.getName() + "!");
-            }
+
+        ResponseEntity<String> accessError = checkAccessToAccount(user, storedTransaction.getAccount().getAccountId());
+        if (accessError == null && !storedTransaction.getAccount().getAccountId().equals(transactionDto.getAccountId())) {
+            accessError = checkAccessToAccount(user, transactionDto.getAccountId());
+        }
+        if (accessError != null) {
+            return accessError;
         }
 
-        transactionService.updateTransaction(
-                mapper.convertToEntity(transactionDto)
-        );
+        Account account = lookupContext.getAccountById(transactionDto.getAccountId());
+        Transaction transaction = mapper.convertToEntity(transactionDto);
+        transaction.setAccount(account);
+        boolean updated = transactionService.updateTransactionIfVersionMatches(transaction, transactionDto.getVersion());
+        lookupContext.clear();
+        if (!updated) {
+            Transaction currentTransaction = transactionService.getCurrentTransactionById(transactionDto.getTransactionId());
+            if (currentTransaction == null) {
+                logger.error("Transaction with ID {} was deleted", transactionDto.getTransactionId());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid transactionId!");
+            }
+            logger.error("Transaction with ID {} was changed since version {}", transactionDto.getTransactionId(), transactionDto.getVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(mapper.convertToDto(currentTransaction));
+        }
 
-        logger.info("Transaction with ID " + transactionDto.getTransactionId() + " was updated");
+        logger.info("Transaction with ID {} was updated", transactionDto.getTransactionId());
 
         return ResponseEntity.status(HttpStatus.OK).body("Transaction was updated!");
     }
@@ -434,7 +503,7 @@ public class TransactionController {
     public ResponseEntity<String> deleteTransaction(@RequestParam String id) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
 
@@ -442,39 +511,84 @@ public class TransactionController {
         try {
             transactionId = Long.parseLong(id);
         } catch (NumberFormatException e) {
-            logger.error("Invalid ID " + id + " of transaction");
+            logger.error("Invalid ID {} of transaction", id);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid id of transaction!");
         }
 
         if (!transactionValidator.checkTransactionId(transactionId)) {
-            logger.error("Invalid transaction ID " + transactionId);
+            logger.error("Invalid transaction ID {}", transactionId);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid transactionId!");
         }
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
 
-        Transaction transaction = transactionService.getTransactionById(transactionId);
+        Transaction transaction = lookupContext.getTransactionById(transactionId);
 
-        Account account = accountService.getAccountById(transaction.getAccount().getAccountId());
+        Account account = lookupContext.getAccountById(transaction.getAccount().getAccountId());
         if (account == null) {
-            logger.error("No account with ID " + transaction.getAccount().getAccountId());
+            logger.error("No account with ID {}", transaction.getAccount().getAccountId());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("No account with given id!");
         }
         if (account.getUser().getUserId() != user.getUserId()) {
-            AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
+            AccountUsers accountUsers = lookupContext.getAccountUsersByAccountId(account.getAccountId());
             if (accountUsers.getUser2Id() != user.getUserId()
                     && accountUsers.getUser3Id() != user.getUserId()
                     && accountUsers.getUser4Id() != user.getUserId()) {
-                logger.error("User with email " + user.getEmail() + " does not have permission to account with ID " + account.getAccountId());
+                logger.error("User with email {} does not have permission to account with ID {}", user.getEmail(), account.getAccountId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to account with name + " + account.getName() + "!");
             }
         }
 
         transactionService.deleteTransactionById(transaction.getTransactionId());
+        lookupContext.clear();
 
-        logger.info("Transaction with ID " + transactionId + " was deleted");
+        logger.info("Transaction with ID {} was deleted", transactionId);
 
         return ResponseEntity.status(HttpStatus.OK).body("Transaction was deleted!");
     }
+
+    /**
+     * Checks access of the user to the accounts one after another. Accounts, which were already loaded within the request,
+     * are taken from the lookup context, so after access of the user was preloaded, only accounts, which are neither own
+     * nor shared with the user, are queried.
+     *
+     * @param user The user.
+     * @param accountIds The IDs of the accounts.
+     * @return ResponseEntity with an error message of the first account, which does not exist or can't be accessed, or null.
+     */
+    private ResponseEntity<String> checkAccessToAccounts(User user, List<Long> accountIds) {
+        for (Long accountId : accountIds) {
+            ResponseEntity<String> accessError = checkAccessToAccount(user, accountId);
+            if (accessError != null) {
+                return accessError;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks access of the user to the account.
+     *
+     * @param user The user.
+     * @param accountId The ID of the account.
+     * @return ResponseEntity with an error message, if the account does not exist or can't be accessed, otherwise null.
+     */
+    private ResponseEntity<String> checkAccessToAccount(User user, Long accountId) {
+        Account account = lookupContext.getAccountById(accountId);
+        if (account == null) {
+            logger.error("No account with ID {}", accountId);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No account with given id!");
+        }
+        if (account.getUser().getUserId() != user.getUserId()) {
+            AccountUsers accountUsers = lookupContext.getAccountUsersByAccountId(account.getAccountId());
+            if (accountUsers.getUser2Id() != user.getUserId()
+                    && accountUsers.getUser3Id() != user.getUserId()
+                    && accountUsers.getUser4Id() != user.getUserId()) {
+                logger.error("User with email {} does not have permission to account with ID {}", user.getEmail(), account.getAccountId());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to account with name + " + account.getName() + "!");
+            }
+        }
+        return null;
+    }
 }
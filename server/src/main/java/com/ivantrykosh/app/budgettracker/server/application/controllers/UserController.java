@@ -1,12 +1,13 @@
 package com.ivantrykosh.app.budgettracker.server.application.controllers;
 
+import com.ivantrykosh.app.budgettracker.server.application.dtos.PurgeStatusDto;
 import com.ivantrykosh.app.budgettracker.server.application.dtos.UserDto;
 import com.ivantrykosh.app.budgettracker.server.application.services.*;
 import com.ivantrykosh.app.budgettracker.server.infrastructure.email.EmailSenderService;
 import com.ivantrykosh.app.budgettracker.server.application.mappers.Mapper;
 import com.ivantrykosh.app.budgettracker.server.application.mappers.UserMapper;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
-import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.OutboxEmail;
 import com.ivantrykosh.app.budgettracker.server.domain.model.User;
 import com.ivantrykosh.app.budgettracker.server.presentation.requests.ChangePasswordRequest;
 import com.ivantrykosh.app.budgettracker.server.presentation.requests.RegisterAndLoginRequest;
@@ -28,6 +29,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -47,6 +49,8 @@ public class UserController {
     @Autowired
     private TransactionService transactionService;
     @Autowired
+    private AccountPurgeService accountPurgeService;
+    @Autowired
     private PasswordEncoder passwordEncoder;
     @Autowired
     private EmailSenderService emailSenderService;
@@ -66,68 +70,95 @@ public class UserController {
     public ResponseEntity<?> getUser() {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userService.getUserByEmail(email);
         UserDto userDto = mapper.convertToDto(user);
-        logger.info("User data for email " + userDto.getEmail() + " was got successfully");
+        logger.info("User data for email {} was got successfully", userDto.getEmail());
         return ResponseEntity.status(HttpStatus.OK).body(userDto);
     }
 
     /**
      * Endpoint to delete the currently authenticated user and their all data, including family accounts,
      * where the current user is the owner.
+     * If the accounts have too many transactions to be deleted within the request or async is true, the accounts are
+     * purged in the background and the user is deleted after them.
      *
-     * @return ResponseEntity with a success message and HttpStatus indicating the result.
+     * @param async Whether to delete the user in the background regardless of the number of transactions.
+     * @return ResponseEntity with a success message or the status of the queued purge and HttpStatus indicating the result.
      */
     @DeleteMapping("/delete")
     @Transactional
-    public ResponseEntity<String> deleteUser(@RequestBody RegisterAndLoginRequest loginRequest) {
+    public ResponseEntity<?> deleteUser(@RequestBody RegisterAndLoginRequest loginRequest, @RequestParam(defaultValue = "false") boolean async) {
         try {
             Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPasswordHash()));
 
             if (authentication.isAuthenticated()) {
                 User user = userService.getUserByEmail(loginRequest.getEmail());
 
-                confirmationTokenService.deleteConfirmationTokensByUserId(user.getUserId());
-                logger.info("Confirmation tokens for user " + user.getEmail() + " were deleted");
+                List<Long> accountIds = accountService.getAccountsByUserId(user.getUserId()).stream()
+                        .map(Account::getAccountId)
+                        .toList();
 
-                List<Account> accounts = accountService.getAccountsByUserId(user.getUserId());
-                for (Account account : accounts) {
-                    transactionService.deleteTransactionsByAccountId(account.getAccountId());
-                    logger.info("Transactions of user " + user.getEmail() + " and account with ID " + account.getAccountId() + " were deleted");
-
-                    AccountUsers accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
-                    accountUsersService.deleteAccountUsersById(accountUsers.getAccountUsersId());
-                    logger.info("AccountUsers with ID " + accountUsers.getAccountUsersId() + " of user " + user.getEmail() + " were deleted");
+                if (!accountIds.isEmpty() && (async || accountPurgeService.isTooLargeForRequest(accountIds))) {
+                    return startPurge(user, accountIds);
                 }
 
-                accountUsersService.deleteUserIdFromAccountUsers(user.getUserId());
-                logger.info("User with email " + user.getEmail() + " was deleted from AccountUsers");
+                confirmationTokenService.bulkDeleteConfirmationTokensByUserId(user.getUserId());
+                logger.info("Confirmation tokens for user {} were deleted", user.getEmail());
+
+                long deletedTransactions = transactionService.bulkDeleteTransactionsByAccountIds(accountIds);
+                logger.info("{} transactions of user {} and accounts with IDs {} were deleted", deletedTransactions, user.getEmail(), accountIds);
 
-                accountService.deleteAccountsByUserId(user.getUserId());
-                logger.info("Accounts of user with email " + user.getEmail() + " were deleted");
+                accountUsersService.bulkDeleteAccountUsersByAccountIds(accountIds);
+                logger.info("AccountUsers of user {} and accounts with IDs {} were deleted", user.getEmail(), accountIds);
+
+                accountUsersService.bulkDeleteUserIdFromAccountUsers(user.getUserId());
+                logger.info("User with email {} was deleted from AccountUsers", user.getEmail());
+
+                accountService.bulkDeleteAccountsByIds(accountIds);
+                logger.info("Accounts of user with email {} were deleted", user.getEmail());
 
                 userService.deleteUserById(user.getUserId());
-                logger.info("User with email " + user.getEmail() + " was deleted");
+                logger.info("User with email {} was deleted", user.getEmail());
 
                 return ResponseEntity.status(HttpStatus.OK).body("User is deleted!");
             } else {
-                logger.error("Incorrect user data with email " + loginRequest.getEmail());
+                logger.error("Incorrect user data with email {}", loginRequest.getEmail());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Incorrect user data!");
             }
         } catch (DisabledException e) {
-            logger.error("Email " + loginRequest.getEmail() + " is not verified");
+            logger.error("Email {} is not verified", loginRequest.getEmail());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
         catch (AuthenticationException e) {
-            logger.error("Authentication failed: " + e.getMessage());
+            logger.error("Authentication failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication failed: " + e.getMessage());
         }
     }
 
+    /**
+     * Queues purge of the accounts of the user, after which the user is deleted in the background.
+     *
+     * @param user The user to delete.
+     * @param accountIds The IDs of the accounts of the user.
+     * @return ResponseEntity with the status of the queued purge or an error message and HttpStatus indicating the result.
+     */
+    private ResponseEntity<?> startPurge(User user, List<Long> accountIds) {
+        PurgeStatusDto purgeStatus = accountPurgeService.startPurgeOfUser(user.getUserId(), accountIds);
+        if (purgeStatus == null) {
+            logger.error("Accounts with IDs {} of user {} are already being purged", accountIds, user.getEmail());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Account is already being deleted!");
+        }
+
+        logger.info("Purge with ID {} of user {} and accounts with IDs {} was queued", purgeStatus.getPurgeId(), user.getEmail(), accountIds);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/v1/accounts/purge-status?id=" + purgeStatus.getPurgeId()))
+                .body(purgeStatus);
+    }
+
     /**
      * Endpoint to change the password for authenticated user.
      *
@@ -138,14 +169,14 @@ public class UserController {
     public ResponseEntity<String> changeUserPassword(@RequestBody ChangePasswordRequest changePasswordRequest) {
         CustomUserDetails customUserDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!customUserDetails.isEnabled()) {
-            logger.error("Email " + customUserDetails.getUsername() + " is not verified");
+            logger.error("Email {} is not verified", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Email is not verified!");
         }
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userService.getUserByEmail(email);
 
         if (!passwordEncoder.matches(changePasswordRequest.getOldPassword(), user.getPasswordHash())) {
-            logger.error("Incorrect password for email " + customUserDetails.getUsername());
+            logger.error("Incorrect password for email {}", customUserDetails.getUsername());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Incorrect password!");
         }
 
@@ -153,7 +184,7 @@ public class UserController {
                 passwordEncoder.encode(changePasswordRequest.getNewPassword())
         );
         userService.updateUser(user);
-        logger.error("Password was changed for email " + user.getEmail());
+        logger.error("Password was changed for email {}", user.getEmail());
         return ResponseEntity.status(HttpStatus.OK).body("Password was changed!");
     }
 
@@ -167,16 +198,16 @@ public class UserController {
     @Transactional(rollbackOn = Exception.class)
     public ResponseEntity<String> resetUserPassword(@RequestParam String email) {
         if (!userValidator.checkEmail(email)) {
-            logger.error("Invalid email format for email" + email);
+            logger.error("Invalid email format for email{}", email);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid email format!");
         }
         User user = userService.getUserByEmail(email);
         if (user == null) {
-            logger.error("No user with email " + email);
+            logger.error("No user with email {}", email);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No user with this email!");
         }
         if (!user.getIsVerified()) {
-            logger.error("Email " + user.getEmail() + " is not verified");
+            logger.error("Email {} is not verified", user.getEmail());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("User email is not verified!");
         }
 
@@ -188,9 +219,9 @@ public class UserController {
         );
         userService.updateUser(user);
 
-        logger.info("User password for email " + user.getEmail() + " was reset");
+        logger.info("User password for email {} was reset", user.getEmail());
 
-        emailSenderService.sendEmail(user.getEmail(), SUBJECT, buildPasswordEmail(generatedPassword));
+        emailSenderService.sendEmailWithSecret(user.getEmail(), SUBJECT, buildPasswordEmail(OutboxEmail.SECRET_PLACEHOLDER), generatedPassword);
 
         return ResponseEntity.status(HttpStatus.OK).body("Password was changed. Check your email!");
     }
@@ -198,7 +229,7 @@ public class UserController {
     /**
      * Build an HTML email with a new password.
      *
-     * @param newPassword The new password to be included in the email.
+     * @param newPassword The new password or its placeholder to be included in the email.
      * @return The HTML email content.
      */
     private String buildPasswordEmail(String newPassword) {
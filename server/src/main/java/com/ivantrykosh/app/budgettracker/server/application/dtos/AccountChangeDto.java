@@ -0,0 +1,26 @@
+package com.ivantrykosh.app.budgettracker.server.application.dtos;
+
+import com.ivantrykosh.app.budgettracker.server.application.events.TransactionChangedEvent;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Account change dto, which is pushed to subscribers of account events
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class AccountChangeDto {
+    private TransactionChangedEvent.Type type; // Type of change of transaction
+
+    private Long accountId; // Account ID
+
+    private Long transactionId; // Transaction ID, null if several or unknown transactions were changed
+
+    private Double incomesSum; // Sum of incomes of account after the change
+
+    private Double expensesSum; // Sum of expenses of account after the change
+}
@@ -22,4 +22,6 @@ public class AccountDto {
     private Double incomesSum; // Sum of incomes
 
     private Double expensesSum; // Sum of expenses
+
+    private Long version; // Version of account
 }
@@ -0,0 +1,21 @@
+package com.ivantrykosh.app.budgettracker.server.application.dtos;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Account sums dto
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class AccountSumsDto {
+    private Long accountId; // Account ID
+
+    private Double incomesSum; // Sum of incomes
+
+    private Double expensesSum; // Sum of expenses
+}
@@ -0,0 +1,21 @@
+package com.ivantrykosh.app.budgettracker.server.application.dtos;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Category sums dto
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class CategorySumsDto {
+    private String category; // Category of transactions
+
+    private Double expensesSum; // Sum of expenses of category
+
+    private Long transactionCount; // Number of expenses of category
+}
@@ -0,0 +1,30 @@
+package com.ivantrykosh.app.budgettracker.server.application.dtos;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Dashboard dto with everything the overview screen needs
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class DashboardDto {
+    private List<AccountDto> accounts; // Own and shared accounts with sums of all their transactions
+
+    private Date startDate; // Start of the period of sums of period and top categories
+
+    private Date endDate; // End of the period of sums of period and top categories
+
+    private List<AccountSumsDto> periodSums; // Sums of incomes and expenses of every account within the period
+
+    private List<CategorySumsDto> topCategories; // Categories with the largest expenses within the period
+
+    private List<TransactionDto> latestTransactions; // Latest transactions of all accounts
+}
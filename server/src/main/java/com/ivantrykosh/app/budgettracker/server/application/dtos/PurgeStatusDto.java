@@ -0,0 +1,42 @@
+package com.ivantrykosh.app.budgettracker.server.application.dtos;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Purge status dto
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class PurgeStatusDto {
+    private String purgeId; // Purge ID
+
+    private List<Long> accountIds; // IDs of accounts, which are purged
+
+    private Status status; // Status of purge
+
+    private Long deletedTransactions; // Number of already deleted transactions
+
+    private Date startedAt; // Date the purge was started
+
+    private Date finishedAt; // Date the purge was finished
+
+    private String error; // Error message, if purge was failed
+
+    /**
+     * Status of purge
+     */
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -28,4 +28,6 @@ public class TransactionDto {
     private String toFromWhom; // Transaction from whom or to whom
 
     private String note; // Transaction note
+
+    private Long version; // Version of transaction. If set on update, the update fails when transaction was changed since this version
 }
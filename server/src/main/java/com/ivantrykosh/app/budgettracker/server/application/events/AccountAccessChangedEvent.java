@@ -0,0 +1,12 @@
+package com.ivantrykosh.app.budgettracker.server.application.events;
+
+import java.util.List;
+
+/**
+ * Change of users, who can access accounts. Published by AccountUsersService and delivered to listeners after the commit.
+ *
+ * @param accountIds The IDs of the accounts, whose users were changed.
+ * @param userId The ID of the user, who was removed from all shared accounts, or null.
+ */
+public record AccountAccessChangedEvent(List<Long> accountIds, Long userId) {
+}
@@ -0,0 +1,12 @@
+package com.ivantrykosh.app.budgettracker.server.application.events;
+
+import java.util.List;
+
+/**
+ * Queued purge of accounts. Published by AccountPurgeService and delivered to listeners after the commit.
+ *
+ * @param purgeId The ID of the purge.
+ * @param accountIds The IDs of the accounts to purge.
+ */
+public record AccountPurgeQueuedEvent(String purgeId, List<Long> accountIds) {
+}
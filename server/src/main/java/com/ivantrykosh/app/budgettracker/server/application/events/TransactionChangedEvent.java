@@ -0,0 +1,20 @@
+package com.ivantrykosh.app.budgettracker.server.application.events;
+
+/**
+ * Change of a transaction of an account. Published by TransactionService and delivered to listeners after the commit.
+ *
+ * @param type The type of the change.
+ * @param accountId The ID of the account of the transaction.
+ * @param transactionId The ID of the transaction, or null if several or unknown transactions of the account were changed.
+ */
+public record TransactionChangedEvent(Type type, Long accountId, Long transactionId) {
+
+    /**
+     * Type of change
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
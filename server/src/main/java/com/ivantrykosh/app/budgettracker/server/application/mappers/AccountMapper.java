@@ -4,8 +4,14 @@ import com.ivantrykosh.app.budgettracker.server.application.dtos.AccountDto;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.model.User;
 import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.AccountSums;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 /**
  * Mapper for Account
  */
@@ -45,13 +51,44 @@ public class AccountMapper implements Mapper<Account, AccountDto> {
             expensesSum = transactionService.getSumOfTransactionsWithAccountIdAndSpecifiedType(account.getAccountId(), false);
         }
 
-        AccountDto accountDto = new AccountDto();
-        accountDto.setAccountId(account.getAccountId());
-        accountDto.setName(account.getName());
-        accountDto.setIncomesSum(incomesSum);
-        accountDto.setExpensesSum(expensesSum);
-        accountDto.setUserId(userId);
-        return accountDto;
+        return createAccountDto(account, userId, incomesSum, expensesSum);
+    }
+
+    /**
+     * Convert list of Accounts to list of AccountDtos. Sums of all accounts are calculated with one query
+     * @param accounts accounts to convert
+     * @return AccountDtos of accounts
+     */
+    @Override
+    public List<AccountDto> convertToDtos(List<Account> accounts) {
+        List<Long> accountIds = accounts.stream()
+                .filter(Objects::nonNull)
+                .map(Account::getAccountId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        return convertToDtos(accounts, transactionService.getSumsOfTransactionsByAccountIds(accountIds));
+    }
+
+    /**
+     * Convert list of Accounts to list of AccountDtos with sums, which are already calculated
+     * @param accounts accounts to convert
+     * @param sums sums of accounts by their IDs. Accounts without sums get zero sums
+     * @return AccountDtos of accounts
+     */
+    public List<AccountDto> convertToDtos(List<Account> accounts, Map<Long, AccountSums> sums) {
+        return accounts.stream()
+                .map(account -> {
+                    if (account == null) {
+                        return null;
+                    }
+                    Long userId = account.getUser() != null ? account.getUser().getUserId() : null;
+                    AccountSums accountSums = sums.get(account.getAccountId());
+                    Double incomesSum = accountSums != null && accountSums.getIncomesSum() != null ? accountSums.getIncomesSum() : 0.0;
+                    Double expensesSum = accountSums != null && accountSums.getExpensesSum() != null ? accountSums.getExpensesSum() : 0.0;
+                    return createAccountDto(account, userId, incomesSum, expensesSum);
+                })
+                .collect(Collectors.toList());
     }
 
     /**
@@ -77,4 +114,23 @@ public class AccountMapper implements Mapper<Account, AccountDto> {
         account.setUser(user);
         return account;
     }
+
+    /**
+     * Create AccountDto
+     * @param account account to convert
+     * @param userId ID of user to whom account belongs
+     * @param incomesSum sum of incomes
+     * @param expensesSum sum of expenses
+     * @return AccountDto of account
+     */
+    private AccountDto createAccountDto(Account account, Long userId, Double incomesSum, Double expensesSum) {
+        AccountDto accountDto = new AccountDto();
+        accountDto.setAccountId(account.getAccountId());
+        accountDto.setName(account.getName());
+        accountDto.setIncomesSum(incomesSum);
+        accountDto.setExpensesSum(expensesSum);
+        accountDto.setUserId(userId);
+        accountDto.setVersion(account.getVersion());
+        return accountDto;
+    }
 }
@@ -7,6 +7,13 @@ import com.ivantrykosh.app.budgettracker.server.domain.model.User;
 import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Mapper for AccountUsers
  */
@@ -63,6 +70,38 @@ public class AccountUsersMapper implements Mapper<AccountUsers, AccountUsersDto>
         return accountUsersDto;
     }
 
+    /**
+     * Convert list of AccountUsers to list of AccountUsersDtos. Emails of all users are loaded with one query
+     * @param accountsUsers accountsUsers to convert
+     * @return AccountUsersDtos of accountsUsers
+     */
+    @Override
+    public List<AccountUsersDto> convertToDtos(List<AccountUsers> accountsUsers) {
+        List<Long> userIds = accountsUsers.stream()
+                .filter(Objects::nonNull)
+                .flatMap(accountUsers -> Stream.of(accountUsers.getUser2Id(), accountUsers.getUser3Id(), accountUsers.getUser4Id()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, String> emails = userService.getUsersByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getUserId, User::getEmail));
+
+        return accountsUsers.stream()
+                .map(accountUsers -> {
+                    if (accountUsers == null) {
+                        return null;
+                    }
+                    AccountUsersDto accountUsersDto = new AccountUsersDto();
+                    accountUsersDto.setAccountUsersId(accountUsers.getAccountUsersId());
+                    accountUsersDto.setEmail2(accountUsers.getUser2Id() != null ? emails.get(accountUsers.getUser2Id()) : null);
+                    accountUsersDto.setEmail3(accountUsers.getUser3Id() != null ? emails.get(accountUsers.getUser3Id()) : null);
+                    accountUsersDto.setEmail4(accountUsers.getUser4Id() != null ? emails.get(accountUsers.getUser4Id()) : null);
+                    accountUsersDto.setAccountId(accountUsers.getAccount() != null ? accountUsers.getAccount().getAccountId() : null);
+                    return accountUsersDto;
+                })
+                .collect(Collectors.toList());
+    }
+
     /**
      * Convert from AccountUsersDto to AccountUsers
      * @param accountUsersDto accountUsersDto to convert
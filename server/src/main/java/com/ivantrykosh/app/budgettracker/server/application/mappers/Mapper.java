@@ -2,6 +2,9 @@ package com.ivantrykosh.app.budgettracker.server.application.mappers;
 
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Generic Mapper interface for converting between entities and DTOs.
  *
@@ -26,4 +29,17 @@ public interface Mapper<Entity, Dto> {
      * @return Entity of the DTO
      */
     Entity convertToEntity(Dto dto);
+
+    /**
+     * Convert list of entities to list of DTOs.
+     * Mappers, that load additional data, override it to load the data for the whole list at once
+     *
+     * @param entities entities to convert
+     * @return DTOs of the entities in the same order
+     */
+    default List<Dto> convertToDtos(List<Entity> entities) {
+        return entities.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
 }
@@ -3,8 +3,15 @@ package com.ivantrykosh.app.budgettracker.server.application.mappers;
 import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.TransactionField;
+import jakarta.persistence.Tuple;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Mapper for Transaction
  */
@@ -35,9 +42,38 @@ public class TransactionMapper implements Mapper<Transaction, TransactionDto> {
         transactionDto.setToFromWhom(transaction.getToFromWhom());
         transactionDto.setNote(transaction.getNote());
         transactionDto.setAccountId(accountId);
+        transactionDto.setVersion(transaction.getVersion());
         return transactionDto;
     }
 
+    /**
+     * Convert tuples with selected fields of transactions to TransactionDtos. Fields, which are not selected, are null
+     * @param tuples tuples with selected fields, whose aliases are names of fields
+     * @param fields selected fields
+     * @return TransactionDtos with selected fields
+     */
+    public List<TransactionDto> convertToDtos(List<Tuple> tuples, Set<TransactionField> fields) {
+        List<TransactionDto> transactionDtos = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            TransactionDto transactionDto = new TransactionDto();
+            for (TransactionField field : fields) {
+                Object value = tuple.get(field.getFieldName());
+                switch (field) {
+                    case TRANSACTION_ID -> transactionDto.setTransactionId((Long) value);
+                    case ACCOUNT_ID -> transactionDto.setAccountId((Long) value);
+                    case CATEGORY -> transactionDto.setCategory((String) value);
+                    case VALUE -> transactionDto.setValue((Double) value);
+                    case DATE -> transactionDto.setDate((Date) value);
+                    case TO_FROM_WHOM -> transactionDto.setToFromWhom((String) value);
+                    case NOTE -> transactionDto.setNote((String) value);
+                    case VERSION -> transactionDto.setVersion(value != null ? ((Number) value).longValue() : null);
+                }
+            }
+            transactionDtos.add(transactionDto);
+        }
+        return transactionDtos;
+    }
+
     /**
      * Convert from TransactionDto to Transaction
      * @param transactionDto transactionDto to convert
@@ -0,0 +1,274 @@
+package com.ivantrykosh.app.budgettracker.server.application.services;
+
+import com.ivantrykosh.app.budgettracker.server.application.dtos.PurgeStatusDto;
+import com.ivantrykosh.app.budgettracker.server.application.events.AccountPurgeQueuedEvent;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountPurge;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountPurgeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for purging accounts with all their data in the background.
+ * Transactions are deleted in chunks and every chunk is committed in a separate transaction,
+ * so accounts of any size are deleted without long-running transactions.
+ * States of purges are saved in the database, so purges, which were interrupted by a restart, are resumed by any instance.
+ * A purge of all accounts of a user, who deletes themselves, deletes the user after the accounts.
+ */
+@Service
+public class AccountPurgeService {
+
+    private static final List<AccountPurge.Status> UNFINISHED_STATUSES = List.of(AccountPurge.Status.PENDING, AccountPurge.Status.RUNNING);
+    private static final List<AccountPurge.Status> FINISHED_STATUSES = List.of(AccountPurge.Status.COMPLETED, AccountPurge.Status.FAILED);
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountUsersService accountUsersService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ConfirmationTokenService confirmationTokenService;
+    @Autowired
+    private AccountPurgeRepository accountPurgeRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    @Qualifier("purgeExecutor")
+    private TaskExecutor purgeExecutor;
+    @Value("${accounts.purge.async-threshold:10000}")
+    private int asyncThreshold; // Accounts with more transactions are always purged in the background
+    @Value("${accounts.purge.retention-minutes:60}")
+    private long retentionMinutes; // How long statuses of finished purges are kept
+    @Value("${accounts.purge.stall-timeout-ms:300000}")
+    private long stallTimeoutMs; // How long an unfinished purge may make no progress, before it is resumed
+    Logger logger = LoggerFactory.getLogger(AccountPurgeService.class); // Logger
+
+    /**
+     * Checks, whether the accounts have too many transactions to be deleted within a request.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @return true if the accounts have to be purged in the background, otherwise false.
+     */
+    public boolean isTooLargeForRequest(List<Long> accountIds) {
+        return transactionService.hasMoreTransactionsThan(accountIds, asyncThreshold);
+    }
+
+    /**
+     * Queues purge of the accounts with their transactions and account users.
+     * The purge is saved in the current transaction and started after its commit, so it is not started, if the transaction is rolled back.
+     * The accounts are locked, so the same accounts are never purged twice at the same time.
+     * Must be called within a transaction.
+     *
+     * @param userId The ID of the user, who started the purge.
+     * @param accountIds The IDs of the accounts to purge.
+     * @return The status of the queued purge, or null if any of the accounts is already being purged.
+     */
+    public PurgeStatusDto startPurge(Long userId, List<Long> accountIds) {
+        return startPurge(userId, accountIds, false);
+    }
+
+    /**
+     * Queues purge of all accounts of the user, after which the user is deleted.
+     * Must be called within a transaction.
+     *
+     * @param userId The ID of the user, who deletes themselves.
+     * @param accountIds The IDs of the accounts of the user.
+     * @return The status of the queued purge, or null if any of the accounts is already being purged.
+     */
+    public PurgeStatusDto startPurgeOfUser(Long userId, List<Long> accountIds) {
+        return startPurge(userId, accountIds, true);
+    }
+
+    /**
+     * Queues purge of the accounts and, if needed, of the user, who started it.
+     *
+     * @param userId The ID of the user, who started the purge.
+     * @param accountIds The IDs of the accounts to purge.
+     * @param deleteUser Whether the user is deleted after the accounts.
+     * @return The status of the queued purge, or null if any of the accounts is already being purged.
+     */
+    private PurgeStatusDto startPurge(Long userId, List<Long> accountIds, boolean deleteUser) {
+        accountService.lockAccountsByIds(accountIds);
+        if (accountPurgeRepository.countByAccountIdsAndStatuses(accountIds, UNFINISHED_STATUSES) > 0) {
+            return null;
+        }
+
+        Date now = new Date();
+        AccountPurge accountPurge = new AccountPurge();
+        accountPurge.setPurgeId(UUID.randomUUID().toString());
+        accountPurge.setUserId(userId);
+        accountPurge.setAccountIds(new ArrayList<>(accountIds));
+        accountPurge.setStatus(AccountPurge.Status.PENDING);
+        accountPurge.setDeletedTransactions(0L);
+        accountPurge.setDeleteUser(deleteUser);
+        accountPurge.setCreatedAt(now);
+        accountPurge.setUpdatedAt(now);
+        AccountPurge savedAccountPurge = accountPurgeRepository.save(accountPurge);
+
+        eventPublisher.publishEvent(new AccountPurgeQueuedEvent(savedAccountPurge.getPurgeId(), List.copyOf(accountIds)));
+        return convertToDto(savedAccountPurge);
+    }
+
+    /**
+     * Retrieves status of a purge by its ID.
+     *
+     * @param purgeId The ID of the purge.
+     * @param userId The ID of the user, who requests the status.
+     * @return The status of the purge if found and started by the user, otherwise null.
+     */
+    public PurgeStatusDto getPurgeStatus(String purgeId, Long userId) {
+        return accountPurgeRepository.findById(purgeId)
+                .filter(accountPurge -> accountPurge.getUserId().equals(userId))
+                .map(this::convertToDto)
+                .orElse(null);
+    }
+
+    /**
+     * Starts a committed purge in the background.
+     * If too many purges are already running, the purge stays queued and is resumed later.
+     *
+     * @param event The queued purge.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurgeQueued(AccountPurgeQueuedEvent event) {
+        submit(event.purgeId(), event.accountIds());
+    }
+
+    /**
+     * Resumes unfinished purges, which made no progress for the stall timeout (e.g. the server was stopped while running them),
+     * and deletes statuses of purges, which were finished earlier than retention period.
+     */
+    @Scheduled(fixedDelayString = "${accounts.purge.resume-interval-ms:60000}", initialDelayString = "${accounts.purge.resume-initial-delay-ms:60000}")
+    public void resumeStalledPurges() {
+        Date now = new Date();
+        Date stalledBefore = new Date(now.getTime() - stallTimeoutMs);
+        for (AccountPurge accountPurge : accountPurgeRepository.findAllByStatusInAndUpdatedAtBefore(UNFINISHED_STATUSES, stalledBefore)) {
+            Integer claimed = transactionTemplate.execute(status -> accountPurgeRepository.claim(accountPurge.getPurgeId(), accountPurge.getUpdatedAt(), now));
+            if (claimed != null && claimed > 0) {
+                logger.info("Stalled purge {} of accounts {} is resumed", accountPurge.getPurgeId(), accountPurge.getAccountIds());
+                submit(accountPurge.getPurgeId(), List.copyOf(accountPurge.getAccountIds()));
+            }
+        }
+
+        Date retainedSince = new Date(now.getTime() - TimeUnit.MINUTES.toMillis(retentionMinutes));
+        transactionTemplate.executeWithoutResult(status ->
+                accountPurgeRepository.deleteAll(accountPurgeRepository.findAllByStatusInAndFinishedAtBefore(FINISHED_STATUSES, retainedSince)));
+    }
+
+    /**
+     * Submits a purge to the executor of purges.
+     *
+     * @param purgeId The ID of the purge.
+     * @param accountIds The IDs of the accounts to purge.
+     */
+    private void submit(String purgeId, List<Long> accountIds) {
+        try {
+            purgeExecutor.execute(() -> purge(purgeId, accountIds));
+        } catch (TaskRejectedException e) {
+            logger.warn("Purge {} of accounts {} stays queued, because too many purges are running: {}", purgeId, accountIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes transactions of the accounts chunk by chunk, then deletes account users and the accounts.
+     * Progress of the purge is saved in the transaction of every chunk.
+     *
+     * @param purgeId The ID of the purge.
+     * @param accountIds The IDs of the accounts to purge.
+     */
+    private void purge(String purgeId, List<Long> accountIds) {
+        transactionTemplate.execute(status -> accountPurgeRepository.markRunning(purgeId, AccountPurge.Status.RUNNING, new Date()));
+        logger.info("Purge {} of accounts {} was started", purgeId, accountIds);
+        try {
+            int deletedInChunk;
+            do {
+                deletedInChunk = transactionTemplate.execute(status -> {
+                    int deleted = transactionService.deleteChunkOfTransactionsByAccountIds(accountIds);
+                    accountPurgeRepository.addProgress(purgeId, deleted, new Date());
+                    return deleted;
+                });
+            } while (deletedInChunk > 0);
+
+            // Transactions, which were added during the purge, are deleted together with the accounts
+            transactionTemplate.executeWithoutResult(status -> {
+                long deleted = transactionService.bulkDeleteTransactionsByAccountIds(accountIds);
+                accountUsersService.bulkDeleteAccountUsersByAccountIds(accountIds);
+                accountService.bulkDeleteAccountsByIds(accountIds);
+                deleted += deleteUserOfPurge(purgeId);
+                accountPurgeRepository.addProgress(purgeId, deleted, new Date());
+                accountPurgeRepository.markFinished(purgeId, AccountPurge.Status.COMPLETED, null, new Date());
+            });
+            logger.info("Purge {} of accounts {} was completed", purgeId, accountIds);
+        } catch (RuntimeException e) {
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            transactionTemplate.execute(status -> accountPurgeRepository.markFinished(purgeId, AccountPurge.Status.FAILED,
+                    error.substring(0, Math.min(error.length(), 1000)), new Date()));
+            logger.error("Purge {} of accounts {} was failed: {}", purgeId, accountIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the user, who started the purge, if the purge deletes the user. Accounts, which the user created
+     * or was added to while the purge was running, are deleted or left in the same way as during deletion of the user in request.
+     *
+     * @param purgeId The ID of the purge.
+     * @return The number of deleted transactions of accounts created during the purge.
+     */
+    private long deleteUserOfPurge(String purgeId) {
+        AccountPurge accountPurge = accountPurgeRepository.findById(purgeId).orElse(null);
+        if (accountPurge == null || !Boolean.TRUE.equals(accountPurge.getDeleteUser())) {
+            return 0;
+        }
+        Long userId = accountPurge.getUserId();
+        List<Long> accountIds = accountService.getAccountsByUserId(userId).stream()
+                .map(Account::getAccountId)
+                .toList();
+        long deleted = transactionService.bulkDeleteTransactionsByAccountIds(accountIds);
+        accountUsersService.bulkDeleteAccountUsersByAccountIds(accountIds);
+        accountService.bulkDeleteAccountsByIds(accountIds);
+        accountUsersService.bulkDeleteUserIdFromAccountUsers(userId);
+        confirmationTokenService.bulkDeleteConfirmationTokensByUserId(userId);
+        userService.deleteUserById(userId);
+        logger.info("User with ID {} of purge {} was deleted", userId, purgeId);
+        return deleted;
+    }
+
+    /**
+     * Converts purge to its status.
+     *
+     * @param accountPurge The purge.
+     * @return The status of the purge.
+     */
+    private PurgeStatusDto convertToDto(AccountPurge accountPurge) {
+        PurgeStatusDto purgeStatusDto = new PurgeStatusDto();
+        purgeStatusDto.setPurgeId(accountPurge.getPurgeId());
+        purgeStatusDto.setAccountIds(List.copyOf(accountPurge.getAccountIds()));
+        purgeStatusDto.setStatus(PurgeStatusDto.Status.valueOf(accountPurge.getStatus().name()));
+        purgeStatusDto.setDeletedTransactions(accountPurge.getDeletedTransactions());
+        purgeStatusDto.setStartedAt(accountPurge.getStartedAt());
+        purgeStatusDto.setFinishedAt(accountPurge.getFinishedAt());
+        purgeStatusDto.setError(accountPurge.getError());
+        return purgeStatusDto;
+    }
+}
@@ -2,6 +2,7 @@ package com.ivantrykosh.app.budgettracker.server.application.services;
 
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -48,6 +49,30 @@ public class AccountService {
         return accountRepository.findAllByUserUserIdOrderByAccountIdDesc(userId);
     }
 
+    /**
+     * Retrieves the current state of an account by its ID.
+     * Unlike getAccountById, the latest committed state is read, so it can be returned after a conflicting update.
+     * It is read without locks in a new transaction, so the snapshot of a REPEATABLE READ transaction of the caller is not used.
+     *
+     * @param accountId The ID of the account to retrieve.
+     * @return The account if found, otherwise null.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public Account getCurrentAccountById(Long accountId) {
+        return accountRepository.findCurrentByAccountId(accountId).orElse(null);
+    }
+
+    /**
+     * Locks accounts by their IDs for update until the end of the current transaction.
+     * Must be called within a transaction.
+     *
+     * @param accountIds The IDs of the accounts to lock.
+     * @return The locked accounts.
+     */
+    public List<Account> lockAccountsByIds(List<Long> accountIds) {
+        return accountRepository.findAllForUpdateByAccountIds(accountIds);
+    }
+
     /**
      * Updates an account in the database.
      *
@@ -59,27 +84,32 @@ public class AccountService {
     }
 
     /**
-     * Deletes an account by their ID.
+     * Updates name of an account with one UPDATE statement, without loading it. The version of the account is incremented.
+     * The account is updated only if it was not changed since the given version.
+     * Must be called within a transaction.
      *
-     * @param accountId The ID of the account to delete.
-     * @return The deleted account if found, otherwise null.
+     * @param accountId The ID of the account to update.
+     * @param name The new name of the account.
+     * @param version The expected version of the account.
+     * @return True if the account was updated, false if it was changed since the given version or does not exist.
      */
-    public Account deleteAccountById(Long accountId) {
-        Optional<Account> account = accountRepository.findById(accountId);
-        accountRepository.deleteById(accountId);
-        return account.orElse(null);
+    public boolean updateAccountNameIfVersionMatches(Long accountId, String name, long version) {
+        int updated = accountRepository.updateNameIfVersionMatches(accountId, name, version);
+        return updated > 0;
     }
 
     /**
-     * Deletes accounts by their user ID.
+     * Deletes accounts by their IDs with one DELETE statement, without loading them.
+     * Transactions and account users of the accounts have to be deleted before.
+     * Must be called within a transaction.
      *
-     * @param userId The user ID by which accounts are deleted.
-     * @return The deleted accounts.
+     * @param accountIds The IDs of the accounts to delete.
+     * @return The number of deleted accounts.
      */
-    public List<Account> deleteAccountsByUserId(Long userId) {
-        List<Account> accounts = getAccountsByUserId(userId);
-        accountRepository.deleteAll(accounts);
-        accounts.sort((a1, a2) -> Long.compare(a2.getAccountId(), a1.getAccountId()));
-        return accounts;
+    public int bulkDeleteAccountsByIds(List<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return 0;
+        }
+        return accountRepository.deleteAllByAccountIds(accountIds);
     }
 }
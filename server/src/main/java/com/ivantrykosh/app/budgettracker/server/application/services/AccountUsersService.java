@@ -1,23 +1,27 @@
 package com.ivantrykosh.app.budgettracker.server.application.services;
 
+import com.ivantrykosh.app.budgettracker.server.application.events.AccountAccessChangedEvent;
 import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
 import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Service class for managing AccountUsers entities.
+ * Changes of users of accounts are published as AccountAccessChangedEvent.
  */
 @Service
 public class AccountUsersService {
 
     @Autowired
     private AccountUsersRepository accountUsersRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Saves account users to the database.
@@ -52,19 +56,25 @@ public class AccountUsersService {
     }
 
     /**
-     * Retrieves all accounts users by userId
+     * Retrieves the current state of account users by account ID.
+     * Unlike getAccountUsersByAccountId, the latest committed state is read, so it can be returned after a conflicting update.
+     * It is read without locks in a new transaction, so the snapshot of a REPEATABLE READ transaction of the caller is not used.
+     *
+     * @param accountId The ID of the account to retrieve.
+     * @return The account users if found, otherwise null.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public AccountUsers getCurrentAccountUsersByAccountId(Long accountId) {
+        return accountUsersRepository.findCurrentByAccountId(accountId).orElse(null);
+    }
+
+    /**
+     * Retrieves all accounts users by userId. Accounts and their owners are fetched with the same query
      * @param userId The ID of the user to retrieve
      * @return The list of account users
      */
     public List<AccountUsers> getAccountsUsersByUserId(Long userId) {
-        return Stream.of(
-                        accountUsersRepository.findAllByUser2Id(userId),
-                        accountUsersRepository.findAllByUser3Id(userId),
-                        accountUsersRepository.findAllByUser4Id(userId)
-                )
-                .flatMap(List::stream)
-                .sorted((a1, a2) -> Long.compare(a2.getAccount().getAccountId(), a1.getAccount().getAccountId()))
-                .collect(Collectors.toList());
+        return accountUsersRepository.findAllWithAccountByUserId(userId);
     }
 
     /**
@@ -74,49 +84,39 @@ public class AccountUsersService {
      * @return The updated account users.
      */
     public AccountUsers updateAccountUsers(AccountUsers accountUsers) {
-        return accountUsersRepository.save(accountUsers);
+        AccountUsers updatedAccountUsers = accountUsersRepository.save(accountUsers);
+        eventPublisher.publishEvent(new AccountAccessChangedEvent(List.of(updatedAccountUsers.getAccount().getAccountId()), null));
+        return updatedAccountUsers;
     }
 
     /**
-     * Deletes user ID from every account users.
+     * Deletes account users by account IDs with one DELETE statement, without loading them.
+     * Must be called within a transaction.
      *
-     * @param userId The user ID to delete.
-     * @return The updated account users.
+     * @param accountIds The IDs of the accounts whose account users are deleted.
+     * @return The number of deleted account users.
      */
-    public List<AccountUsers> deleteUserIdFromAccountUsers(Long userId) {
-        List<AccountUsers> updatedList = Stream.of(
-                        accountUsersRepository.findAllByUser2Id(userId),
-                        accountUsersRepository.findAllByUser3Id(userId),
-                        accountUsersRepository.findAllByUser4Id(userId)
-                )
-                .flatMap(List::stream)
-                .map(accountUsers -> {
-                    if (userId.equals(accountUsers.getUser2Id())) {
-                        accountUsers.setUser2Id(null);
-                    }
-                    if (userId.equals(accountUsers.getUser3Id())) {
-                        accountUsers.setUser3Id(null);
-                    }
-                    if (userId.equals(accountUsers.getUser4Id())) {
-                        accountUsers.setUser4Id(null);
-                    }
-                    return accountUsers;
-                })
-                .sorted((a1, a2) -> Long.compare(a2.getAccount().getAccountId(), a1.getAccount().getAccountId()))
-                .collect(Collectors.toList());
-
-        return accountUsersRepository.saveAll(updatedList);
+    public int bulkDeleteAccountUsersByAccountIds(List<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return 0;
+        }
+        int deleted = accountUsersRepository.deleteAllByAccountIds(accountIds);
+        eventPublisher.publishEvent(new AccountAccessChangedEvent(List.copyOf(accountIds), null));
+        return deleted;
     }
 
     /**
-     * Deletes account users by their ID.
+     * Deletes user ID from every account users with UPDATE statements, without loading them.
+     * Must be called within a transaction.
      *
-     * @param accountUsersId The ID of the account users to delete.
-     * @return The deleted account users if found, otherwise null.
+     * @param userId The user ID to delete.
+     * @return The number of updated account users.
      */
-    public AccountUsers deleteAccountUsersById(Long accountUsersId) {
-        Optional<AccountUsers> accountUsers = accountUsersRepository.findById(accountUsersId);
-        accountUsersRepository.deleteById(accountUsersId);
-        return accountUsers.orElse(null);
+    public int bulkDeleteUserIdFromAccountUsers(Long userId) {
+        int updated = accountUsersRepository.clearUser2Id(userId)
+                + accountUsersRepository.clearUser3Id(userId)
+                + accountUsersRepository.clearUser4Id(userId);
+        eventPublisher.publishEvent(new AccountAccessChangedEvent(List.of(), userId));
+        return updated;
     }
 }
@@ -3,8 +3,10 @@ package com.ivantrykosh.app.budgettracker.server.application.services;
 import com.ivantrykosh.app.budgettracker.server.domain.model.ConfirmationToken;
 import com.ivantrykosh.app.budgettracker.server.domain.repos.ConfirmationTokenRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,6 +60,17 @@ public class ConfirmationTokenService {
         return confirmationTokenRepository.findAllByUserUserIdOrderByConfirmationTokenIdDesc(userId);
     }
 
+    /**
+     * Checks if the user has a confirmation token created after the date. The check is done by the database.
+     *
+     * @param userId The ID of the user.
+     * @param date The date after which the token has to be created.
+     * @return True if such token exists, otherwise false.
+     */
+    public boolean hasConfirmationTokenCreatedAfter(Long userId, Date date) {
+        return confirmationTokenRepository.existsByUserUserIdAndCreatedAtAfter(userId, date);
+    }
+
     /**
      * Updates a confirmation token in the database.
      *
@@ -81,15 +94,29 @@ public class ConfirmationTokenService {
     }
 
     /**
-     * Deletes confirmation tokens by their user ID.
+     * Deletes confirmation tokens by their user ID with one DELETE statement, without loading them.
+     * Must be called within a transaction.
      *
      * @param userId The user ID, by which confirmation tokens are deleted.
-     * @return The deleted confirmation tokens.
+     * @return The number of deleted confirmation tokens.
+     */
+    public int bulkDeleteConfirmationTokensByUserId(Long userId) {
+        return confirmationTokenRepository.deleteAllByUserId(userId);
+    }
+
+    /**
+     * Deletes one chunk of unconfirmed confirmation tokens, which expired before the date, with one DELETE statement.
+     * Must be called within a transaction.
+     *
+     * @param date The date before which tokens expired.
+     * @param chunkSize The maximum number of tokens to delete.
+     * @return The number of deleted confirmation tokens. 0, if no expired tokens are left.
      */
-    public List<ConfirmationToken> deleteConfirmationTokensByUserId(Long userId) {
-        List<ConfirmationToken> confirmationTokens = getConfirmationTokensByUserId(userId);
-        confirmationTokenRepository.deleteAll(confirmationTokens);
-        confirmationTokens.sort((t1, t2) -> Long.compare(t2.getConfirmationTokenId(), t1.getConfirmationTokenId()));
-        return confirmationTokens;
+    public int deleteChunkOfExpiredConfirmationTokens(Date date, int chunkSize) {
+        List<Long> confirmationTokenIds = confirmationTokenRepository.findExpiredUnconfirmedTokenIds(date, PageRequest.of(0, chunkSize));
+        if (confirmationTokenIds.isEmpty()) {
+            return 0;
+        }
+        return confirmationTokenRepository.deleteAllByConfirmationTokenIds(confirmationTokenIds);
     }
 }
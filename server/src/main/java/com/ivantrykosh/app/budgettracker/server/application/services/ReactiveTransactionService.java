@@ -0,0 +1,120 @@
+package com.ivantrykosh.app.budgettracker.server.application.services;
+
+import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
+import com.ivantrykosh.app.budgettracker.server.domain.reactive.ReactiveTransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.reactive.TransactionRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service class for reading transactions with R2DBC.
+ * Every method returns a Flux, which requests rows from the database in chunks of prefetch size,
+ * so a slow client slows down reading instead of buffering the whole result in memory.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.r2dbc.url")
+public class ReactiveTransactionService {
+
+    @Autowired
+    private ReactiveTransactionRepository reactiveTransactionRepository;
+
+    @Value("${api.v2.transactions.prefetch:64}")
+    private int prefetch; // Number of rows requested from the database at once
+
+    /**
+     * Retrieves transactions by accountId.
+     *
+     * @param accountId The ID of the account to retrieve transactions.
+     * @return The flux of transactions.
+     */
+    public Flux<TransactionDto> getTransactionsByAccountId(Long accountId) {
+        return stream(reactiveTransactionRepository.findAllByAccountIdOrderByDateDescTransactionIdDesc(accountId));
+    }
+
+    /**
+     * Retrieves transactions by accountIds.
+     *
+     * @param accountIds The IDs of the accounts to retrieve transactions.
+     * @return The flux of transactions.
+     */
+    public Flux<TransactionDto> getTransactionsByAccountIds(List<Long> accountIds) {
+        return stream(reactiveTransactionRepository.findAllByAccountIdInOrderByDateDescTransactionIdDesc(accountIds));
+    }
+
+    /**
+     * Retrieves transactions by accountIds and between dates.
+     *
+     * @param accountIds The IDs of the accounts to retrieve transactions.
+     * @param startDate The start date.
+     * @param endDate The end date.
+     * @return The flux of transactions.
+     */
+    public Flux<TransactionDto> getTransactionsByAccountIdsAndDateBetween(List<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate) {
+        return stream(reactiveTransactionRepository.findAllByAccountIdInAndDateBetweenOrderByDateDescTransactionIdDesc(accountIds, startDate, endDate));
+    }
+
+    /**
+     * Retrieves income transactions by accountIds.
+     *
+     * @param accountIds The IDs of the accounts to retrieve transactions.
+     * @param pageNumber The number of page.
+     * @param numberOfTransaction The number of transactions to retrieve.
+     * @return The flux of transactions.
+     */
+    public Flux<TransactionDto> getIncomeTransactionsByAccountIds(List<Long> accountIds, Integer pageNumber, Integer numberOfTransaction) {
+        PageRequest pageRequest = PageRequest.of(pageNumber, numberOfTransaction);
+        return stream(reactiveTransactionRepository.findAllByAccountIdInAndValueGreaterThanOrderByDateDescTransactionIdDesc(accountIds, 0.0, pageRequest));
+    }
+
+    /**
+     * Retrieves expense transactions by accountIds.
+     *
+     * @param accountIds The IDs of the accounts to retrieve transactions.
+     * @param pageNumber The number of page.
+     * @param numberOfTransaction The number of transactions to retrieve.
+     * @return The flux of transactions.
+     */
+    public Flux<TransactionDto> getExpenseTransactionsByAccountIds(List<Long> accountIds, Integer pageNumber, Integer numberOfTransaction) {
+        PageRequest pageRequest = PageRequest.of(pageNumber, numberOfTransaction);
+        return stream(reactiveTransactionRepository.findAllByAccountIdInAndValueLessThanOrderByDateDescTransactionIdDesc(accountIds, 0.0, pageRequest));
+    }
+
+    /**
+     * Limits the demand of the flux to prefetch size and converts records to dtos.
+     *
+     * @param records The flux of transaction records.
+     * @return The flux of transaction dtos.
+     */
+    private Flux<TransactionDto> stream(Flux<TransactionRecord> records) {
+        return records
+                .limitRate(prefetch)
+                .map(this::convertToDto);
+    }
+
+    /**
+     * Converts transaction record to TransactionDto.
+     *
+     * @param transactionRecord The transaction record to convert.
+     * @return The TransactionDto of transaction record.
+     */
+    private TransactionDto convertToDto(TransactionRecord transactionRecord) {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setTransactionId(transactionRecord.getTransactionId());
+        transactionDto.setAccountId(transactionRecord.getAccountId());
+        transactionDto.setCategory(transactionRecord.getCategory());
+        transactionDto.setValue(transactionRecord.getValue());
+        transactionDto.setDate(transactionRecord.getDate() == null ? null : Timestamp.valueOf(transactionRecord.getDate()));
+        transactionDto.setToFromWhom(transactionRecord.getToFromWhom());
+        transactionDto.setNote(transactionRecord.getNote());
+        transactionDto.setVersion(transactionRecord.getVersion());
+        return transactionDto;
+    }
+}
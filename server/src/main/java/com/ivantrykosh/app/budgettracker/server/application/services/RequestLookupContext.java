@@ -0,0 +1,191 @@
+package com.ivantrykosh.app.budgettracker.server.application.services;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RequestTrace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Request-scoped lookup context shared by controllers, validators and services.
+ * Every entity is loaded at most once per HTTP request. Outside of a request the lookups go directly to the services.
+ */
+@Component
+public class RequestLookupContext {
+    public static final String ENTITIES_ATTRIBUTE = RequestLookupContext.class.getName() + ".ENTITIES"; // Request attribute with loaded entities
+    private static final Object NOT_FOUND = new Object(); // Marker of entity, that does not exist
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountUsersService accountUsersService;
+    @Autowired
+    private TransactionService transactionService;
+
+    /**
+     * Retrieves a user by their email.
+     *
+     * @param email The email of the user to retrieve.
+     * @return The user if found, otherwise null.
+     */
+    public User getUserByEmail(String email) {
+        return lookup(User.class, email, () -> userService.getUserByEmail(email));
+    }
+
+    /**
+     * Retrieves an account by its ID.
+     *
+     * @param accountId The ID of the account to retrieve.
+     * @return The account if found, otherwise null.
+     */
+    public Account getAccountById(Long accountId) {
+        return lookup(Account.class, accountId, () -> accountService.getAccountById(accountId));
+    }
+
+    /**
+     * Retrieves list of accounts by their userId.
+     *
+     * @param userId The ID of the account owner user to retrieve.
+     * @return The list of accounts.
+     */
+    public List<Account> getAccountsByUserId(Long userId) {
+        return lookup(List.class, "accounts-of-user-" + userId, () -> accountService.getAccountsByUserId(userId));
+    }
+
+    /**
+     * Retrieves account users by account ID.
+     *
+     * @param accountId The ID of the account to retrieve.
+     * @return The account users if found, otherwise null.
+     */
+    public AccountUsers getAccountUsersByAccountId(Long accountId) {
+        return lookup(AccountUsers.class, accountId, () -> accountUsersService.getAccountUsersByAccountId(accountId));
+    }
+
+    /**
+     * Retrieves a transaction by its ID.
+     *
+     * @param transactionId The ID of the transaction to retrieve.
+     * @return The transaction if found, otherwise null.
+     */
+    public Transaction getTransactionById(Long transactionId) {
+        return lookup(Transaction.class, transactionId, () -> transactionService.getTransactionById(transactionId));
+    }
+
+    /**
+     * Resolves access of the user once: loads the user, their own accounts and account users of accounts shared with them,
+     * together with the shared accounts, and keeps them in the context. Later access checks of these accounts within the request
+     * do not query the database.
+     *
+     * @param email The email of the user.
+     * @return The user if found, otherwise null.
+     */
+    public User preloadAccessOfUser(String email) {
+        User user = getUserByEmail(email);
+        Map<String, Object> entities = getEntities();
+        if (user == null || entities == null) {
+            return user;
+        }
+
+        for (Account account : getAccountsByUserId(user.getUserId())) {
+            entities.putIfAbsent(key(Account.class, account.getAccountId()), account);
+        }
+        List<AccountUsers> sharedAccountsUsers = lookup(List.class, "shared-account-users-of-user-" + user.getUserId(),
+                () -> accountUsersService.getAccountsUsersByUserId(user.getUserId()));
+        for (AccountUsers accountUsers : sharedAccountsUsers) {
+            Account account = accountUsers.getAccount();
+            entities.putIfAbsent(key(Account.class, account.getAccountId()), account);
+            entities.putIfAbsent(key(AccountUsers.class, account.getAccountId()), accountUsers);
+        }
+        return user;
+    }
+
+    /**
+     * Forgets all entities loaded during the current request. Must be called after entities were changed or deleted.
+     */
+    public void clear() {
+        Map<String, Object> entities = getEntities();
+        if (entities != null) {
+            entities.clear();
+        }
+    }
+
+    /**
+     * Finds an entity in the context or loads it with the given loader.
+     *
+     * @param type The type of the entity.
+     * @param id The key of the entity.
+     * @param loader The loader, which is used if the entity is not loaded yet.
+     * @param <T> The type of the entity.
+     * @return The found entity or null.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(Class<?> type, Object id, Supplier<T> loader) {
+        if (id == null) {
+            return null;
+        }
+        Map<String, Object> entities = getEntities();
+        if (entities == null) {
+            return loader.get();
+        }
+
+        String key = key(type, id);
+        Object entity = entities.get(key);
+        if (entity == null) {
+            RequestTrace trace = RequestTrace.current();
+            if (trace != null) {
+                trace.enter(RequestTrace.LOOKUP);
+            }
+            try {
+                entity = loader.get();
+            } finally {
+                if (trace != null) {
+                    trace.exit();
+                }
+            }
+            entities.put(key, entity == null ? NOT_FOUND : entity);
+        }
+        return entity == NOT_FOUND ? null : (T) entity;
+    }
+
+    /**
+     * Builds the key of the entity.
+     *
+     * @param type The type of the entity.
+     * @param id The key of the entity.
+     * @return The key.
+     */
+    private String key(Class<?> type, Object id) {
+        return type.getSimpleName() + ":" + id;
+    }
+
+    /**
+     * Gets the map of entities loaded during the current request.
+     *
+     * @return The map of entities or null, if there is no current request.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getEntities() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, Object> entities = (Map<String, Object>) attributes.getAttribute(ENTITIES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entities == null) {
+            entities = new ConcurrentHashMap<>();
+            attributes.setAttribute(ENTITIES_ATTRIBUTE, entities, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entities;
+    }
+}
@@ -1,23 +1,42 @@
 package com.ivantrykosh.app.budgettracker.server.application.services;
 
+import com.ivantrykosh.app.budgettracker.server.application.events.TransactionChangedEvent;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.AccountSums;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.CategorySums;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.TransactionField;
 import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import jakarta.persistence.Tuple;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing Transaction entities.
+ * Created, updated and deleted transactions are published as TransactionChangedEvent. Bulk deletes of transactions
+ * of accounts are not published, since they are followed by deletes of the accounts.
  */
 @Service
 public class TransactionService {
 
     @Autowired
     private TransactionRepository transactionRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${transactions.delete.batch-size:5000}")
+    private int deleteBatchSize; // Number of transactions deleted by one DELETE statement
 
     /**
      * Saves a transaction to the database.
@@ -26,7 +45,9 @@ public class TransactionService {
      * @return The saved transaction.
      */
     public Transaction saveTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        publishChange(TransactionChangedEvent.Type.CREATED, savedTransaction.getAccount().getAccountId(), savedTransaction.getTransactionId());
+        return savedTransaction;
     }
 
     /**
@@ -40,6 +61,19 @@ public class TransactionService {
         return transaction.orElse(null);
     }
 
+    /**
+     * Retrieves the current state of a transaction by its ID.
+     * Unlike getTransactionById, the latest committed state is read, so it can be returned after a conflicting update.
+     * It is read without locks in a new transaction, so the snapshot of a REPEATABLE READ transaction of the caller is not used.
+     *
+     * @param transactionId The ID of the transaction to retrieve.
+     * @return The transaction if found, otherwise null.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public Transaction getCurrentTransactionById(Long transactionId) {
+        return transactionRepository.findCurrentByTransactionId(transactionId).orElse(null);
+    }
+
     /**
      * Retrieves list of transactions by accountId.
      *
@@ -72,6 +106,30 @@ public class TransactionService {
         return transactionRepository.findAllByAccountAccountIdInAndDateBetweenOrderByDateDescTransactionIdDesc(accountIds, startDate, endDate);
     }
 
+    /**
+     * Retrieves selected fields of transactions by accountIds. Only columns of selected fields are read.
+     *
+     * @param accountIds The IDs of the accounts to retrieve transactions.
+     * @param fields The selected fields.
+     * @return The list of tuples with selected fields.
+     */
+    public List<Tuple> getFieldsOfTransactionsByAccountIds(List<Long> accountIds, Set<TransactionField> fields) {
+        return transactionRepository.findFieldsByAccountIds(accountIds, fields);
+    }
+
+    /**
+     * Retrieves selected fields of transactions by accountIds and month. Only columns of selected fields are read.
+     *
+     * @param accountIds The IDs of the accounts to retrieve transactions.
+     * @param startDate The start date to retrieve transactions.
+     * @param endDate The end date to retrieve transactions.
+     * @param fields The selected fields.
+     * @return The list of tuples with selected fields.
+     */
+    public List<Tuple> getFieldsOfTransactionsByAccountIdsAndDateBetween(List<Long> accountIds, Date startDate, Date endDate, Set<TransactionField> fields) {
+        return transactionRepository.findFieldsByAccountIdsAndDateBetween(accountIds, startDate, endDate, fields);
+    }
+
     /**
      * Retrieves list of income transactions by accountIds.
      *
@@ -110,6 +168,66 @@ public class TransactionService {
         return sum == null ? 0.0 : sum;
     }
 
+    /**
+     * Calculate sums of incomes and expenses for every specified account with one query.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @return The map from account ID to sums. Accounts without transactions are absent.
+     */
+    public Map<Long, AccountSums> getSumsOfTransactionsByAccountIds(List<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        return transactionRepository.calculateSumsByAccountIds(accountIds).stream()
+                .collect(Collectors.toMap(AccountSums::getAccountId, Function.identity()));
+    }
+
+    /**
+     * Calculate sums of incomes and expenses within a date range for every specified account with one query.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @param startDate The start of the range.
+     * @param endDate The end of the range.
+     * @return The map from account ID to sums. Accounts without transactions in the range are absent.
+     */
+    public Map<Long, AccountSums> getSumsOfTransactionsByAccountIdsAndDateBetween(List<Long> accountIds, Date startDate, Date endDate) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        return transactionRepository.calculateSumsByAccountIdsAndDateBetween(accountIds, startDate, endDate).stream()
+                .collect(Collectors.toMap(AccountSums::getAccountId, Function.identity()));
+    }
+
+    /**
+     * Calculate sums of expenses of categories with the largest expenses within a date range.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @param startDate The start of the range.
+     * @param endDate The end of the range.
+     * @param numberOfCategories The number of categories to retrieve.
+     * @return The sums of categories from the largest expenses.
+     */
+    public List<CategorySums> getTopExpenseCategoriesByAccountIds(List<Long> accountIds, Date startDate, Date endDate, Integer numberOfCategories) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        return transactionRepository.calculateExpenseSumsByCategory(accountIds, startDate, endDate, PageRequest.of(0, numberOfCategories));
+    }
+
+    /**
+     * Retrieves the latest transactions by accountIds.
+     *
+     * @param accountIds The IDs of the accounts to retrieve transactions.
+     * @param numberOfTransaction The number of transactions to retrieve.
+     * @return The list of transactions from the latest.
+     */
+    public List<Transaction> getLatestTransactionsByAccountIds(List<Long> accountIds, Integer numberOfTransaction) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        return transactionRepository.findAllByAccountAccountIdInOrderByDateDescTransactionIdDesc(accountIds, PageRequest.of(0, numberOfTransaction));
+    }
+
     /**
      * Updates a transaction in the database.
      *
@@ -117,7 +235,26 @@ public class TransactionService {
      * @return The updated transaction.
      */
     public Transaction updateTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        Transaction updatedTransaction = transactionRepository.save(transaction);
+        publishChange(TransactionChangedEvent.Type.UPDATED, updatedTransaction.getAccount().getAccountId(), updatedTransaction.getTransactionId());
+        return updatedTransaction;
+    }
+
+    /**
+     * Updates a transaction with one UPDATE statement, without loading it.
+     * The transaction is updated only if it was not changed since the given version.
+     * Must be called within a transaction.
+     *
+     * @param transaction The transaction with ID and new values. Its account must be loaded.
+     * @param version The expected version of the transaction.
+     * @return True if the transaction was updated, false if it was changed since the given version or does not exist.
+     */
+    public boolean updateTransactionIfVersionMatches(Transaction transaction, long version) {
+        int updated = transactionRepository.updateIfVersionMatches(transaction, version);
+        if (updated > 0) {
+            publishChange(TransactionChangedEvent.Type.UPDATED, transaction.getAccount().getAccountId(), transaction.getTransactionId());
+        }
+        return updated > 0;
     }
 
     /**
@@ -129,19 +266,71 @@ public class TransactionService {
     public Transaction deleteTransactionById(Long transactionId) {
         Optional<Transaction> transaction = transactionRepository.findById(transactionId);
         transactionRepository.deleteById(transactionId);
+        transaction.ifPresent(deletedTransaction ->
+                publishChange(TransactionChangedEvent.Type.DELETED, deletedTransaction.getAccount().getAccountId(), transactionId));
         return transaction.orElse(null);
     }
 
     /**
-     * Deletes transaction by their account ID.
+     * Deletes all transactions of the specified accounts with set-based DELETE statements.
+     * Transactions are not loaded into memory; they are deleted in chunks of IDs until no transaction is left.
+     * Must be called within a transaction.
+     *
+     * @param accountIds The IDs of the accounts whose transactions are deleted.
+     * @return The number of deleted transactions.
+     */
+    public long bulkDeleteTransactionsByAccountIds(List<Long> accountIds) {
+        long deleted = 0;
+        int deletedInChunk;
+        do {
+            deletedInChunk = deleteChunkOfTransactionsByAccountIds(accountIds);
+            deleted += deletedInChunk;
+        } while (deletedInChunk > 0);
+        return deleted;
+    }
+
+    /**
+     * Deletes one chunk of transactions of the specified accounts with one DELETE statement.
+     * Used by long-running purges, which commit every chunk in a separate transaction.
+     * Must be called within a transaction.
+     *
+     * @param accountIds The IDs of the accounts whose transactions are deleted.
+     * @return The number of deleted transactions. 0, if no transactions are left.
+     */
+    public int deleteChunkOfTransactionsByAccountIds(List<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> transactionIds = transactionRepository.findTransactionIdsByAccountIds(accountIds, PageRequest.of(0, deleteBatchSize));
+        if (transactionIds.isEmpty()) {
+            return 0;
+        }
+        return transactionRepository.deleteAllByTransactionIds(transactionIds);
+    }
+
+    /**
+     * Checks, whether the specified accounts have more transactions than the limit.
+     * At most limit + 1 IDs of transactions are read, so the check is bounded for accounts of any size.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @param limit The number of transactions.
+     * @return true if the accounts have more transactions than the limit, otherwise false.
+     */
+    public boolean hasMoreTransactionsThan(List<Long> accountIds, int limit) {
+        if (accountIds.isEmpty()) {
+            return false;
+        }
+        return !transactionRepository.findTransactionIdsByAccountIds(accountIds, PageRequest.of(limit, 1)).isEmpty();
+    }
+
+    /**
+     * Publishes a change of a transaction. Listeners get it after the commit of the current transaction.
      *
-     * @param accountId The account ID by which transaction is deleted.
-     * @return The deleted transactions
+     * @param type The type of the change.
+     * @param accountId The ID of the account of the transaction.
+     * @param transactionId The ID of the transaction, or null if several transactions were changed.
      */
-    public List<Transaction> deleteTransactionsByAccountId(Long accountId) {
-        List<Transaction> transactions = getTransactionsByAccountId(accountId);
-        transactionRepository.deleteAll(transactions);
-        transactions.sort((t1, t2) -> Long.compare(t2.getTransactionId(), t1.getTransactionId()));
-        return transactions;
+    private void publishChange(TransactionChangedEvent.Type type, Long accountId, Long transactionId) {
+        eventPublisher.publishEvent(new TransactionChangedEvent(type, accountId, transactionId));
     }
 }
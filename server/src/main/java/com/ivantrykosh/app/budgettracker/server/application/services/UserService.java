@@ -5,6 +5,8 @@ import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -48,6 +50,19 @@ public class UserService {
         return user.orElse(null);
     }
 
+    /**
+     * Retrieves users by their IDs with one query.
+     *
+     * @param userIds The IDs of the users to retrieve.
+     * @return The found users.
+     */
+    public List<User> getUsersByIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllByUserIdIn(userIds);
+    }
+
     /**
      * Updates a user in the database.
      *
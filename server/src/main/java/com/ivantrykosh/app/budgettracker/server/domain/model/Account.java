@@ -5,11 +5,15 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Account entity
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accounts")
 @Table(name = "accounts")
 @NoArgsConstructor
 @Getter
@@ -23,8 +27,13 @@ public class Account {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
     private User user; // User to whom account belongs
 
     @Column(name = "name", nullable = false)
     private String name; // Name of account
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version; // Version of account, incremented by every update of account or its users
 }
@@ -0,0 +1,71 @@
+package com.ivantrykosh.app.budgettracker.server.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Account purge entity. Stores the state of a background purge of accounts, so it survives restarts and is visible to every instance
+ */
+@Entity
+@Table(name = "account_purges", indexes = {
+        @Index(name = "idx_account_purges_status_updated_at", columnList = "status, updated_at")
+})
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class AccountPurge {
+    @Id
+    @Column(name = "purge_id", length = 36)
+    private String purgeId; // Purge ID
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // ID of user, who started the purge
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "account_purge_accounts", joinColumns = @JoinColumn(name = "purge_id"),
+            indexes = @Index(name = "idx_account_purge_accounts_account_id", columnList = "account_id"))
+    @Column(name = "account_id", nullable = false)
+    private List<Long> accountIds; // IDs of accounts to purge
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status; // Status of purge
+
+    @Column(name = "deleted_transactions", nullable = false)
+    private Long deletedTransactions; // Number of already deleted transactions
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt; // Date the purge was queued
+
+    @Column(name = "updated_at", nullable = false)
+    private Date updatedAt; // Date of the last progress of purge. Unfinished purges without progress are resumed
+
+    @Column(name = "started_at")
+    private Date startedAt; // Date the purge was started
+
+    @Column(name = "finished_at")
+    private Date finishedAt; // Date the purge was finished
+
+    @Column(name = "error", length = 1000)
+    private String error; // Error message, if purge was failed
+
+    @Column(name = "delete_user")
+    private Boolean deleteUser; // Whether the user, who started the purge, is deleted after their accounts
+
+    /**
+     * Status of account purge
+     */
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
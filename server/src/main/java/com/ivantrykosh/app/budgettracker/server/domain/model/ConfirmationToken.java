@@ -12,7 +12,10 @@ import java.util.Date;
  * Confirmation token entity
  */
 @Entity
-@Table(name = "confirmation_tokens")
+@Table(name = "confirmation_tokens", indexes = {
+        @Index(name = "idx_confirmation_tokens_user_id_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_confirmation_tokens_expires_at", columnList = "expires_at")
+})
 @NoArgsConstructor
 @Getter
 @Setter
@@ -25,9 +28,11 @@ public class ConfirmationToken {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
     private User user; // User to whom confirmation token belongs
 
-    @Column(name = "confirmationToken", nullable = false)
+    @Column(name = "confirmationToken", nullable = false, unique = true)
+    @ToString.Exclude
     private String confirmationToken; // Confirmation token
 
     @Column(name = "created_at", nullable = false)
@@ -0,0 +1,50 @@
+package com.ivantrykosh.app.budgettracker.server.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Date;
+
+/**
+ * Idempotency record entity. Stores the response of a request with an Idempotency-Key header, so retries of the request get the same response
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey; // SHA-256 of user and idempotency key
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash; // SHA-256 of method, URI and body of request
+
+    @Column(name = "response_status")
+    private Integer responseStatus; // Status of response, null while request is being processed
+
+    @Column(name = "response_content_type")
+    private String responseContentType; // Content type of response
+
+    @Lob
+    @Column(name = "response_headers")
+    private String responseHeaders; // Other headers of response in JSON
+
+    @Lob
+    @Column(name = "response_body")
+    @ToString.Exclude
+    private String responseBody; // Body of response
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt; // Date the request was received
+
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt; // Date after which the key can be used again
+}
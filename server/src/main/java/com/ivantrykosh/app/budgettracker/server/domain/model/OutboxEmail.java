@@ -0,0 +1,76 @@
+package com.ivantrykosh.app.budgettracker.server.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Date;
+
+/**
+ * Email outbox entity. Emails are saved in the transaction of the request and sent later by the outbox dispatcher
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt_at", columnList = "status, next_attempt_at")
+})
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class OutboxEmail {
+    public static final String SECRET_PLACEHOLDER = "{{secret}}"; // Placeholder of secret in body, replaced when email is sent
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_email_id")
+    private Long outboxEmailId; // Outbox email ID
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient; // Recipient's email address
+
+    @Column(name = "subject", nullable = false)
+    private String subject; // Subject of email
+
+    @Lob
+    @Column(name = "body", nullable = false)
+    @ToString.Exclude
+    private String body; // HTML body of email. Scrubbed, when email is sent or failed
+
+    @Column(name = "secret", length = 1024)
+    @ToString.Exclude
+    private String secret; // Encrypted secret of email (e.g. password or confirmation link), which replaces the placeholder in body when email is sent
+
+    @Column(name = "expires_at")
+    private Date expiresAt; // Date after which email with secret is not sent
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status; // Status of email
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts; // Number of failed attempts to send email
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt; // Date the email was queued
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Date nextAttemptAt; // Date of the next attempt to send email or end of the claim, if email is being sent
+
+    @Column(name = "sent_at")
+    private Date sentAt; // Date the email was sent
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError; // Error of the last failed attempt
+
+    /**
+     * Status of outbox email
+     */
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        FAILED
+    }
+}
@@ -25,6 +25,7 @@ public class Transaction {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
+    @ToString.Exclude
     private Account account; // Account to which transaction belongs
 
     @Column(name = "category", nullable = false)
@@ -41,4 +42,8 @@ public class Transaction {
 
     @Column(name = "note")
     private String note; // Transaction note
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version; // Version of transaction, incremented by every update
 }
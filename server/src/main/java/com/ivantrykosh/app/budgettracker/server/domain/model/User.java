@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Date;
 
@@ -12,6 +14,8 @@ import java.util.Date;
  * User entity
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 @NoArgsConstructor
 @Getter
@@ -27,6 +31,7 @@ public class User {
     private String email; // User email
 
     @Column(name = "user_password_hash", nullable = false)
+    @ToString.Exclude
     private String passwordHash; // Password hash
 
     @Column(name = "registration_date", nullable = false)
@@ -0,0 +1,25 @@
+package com.ivantrykosh.app.budgettracker.server.domain.projections;
+
+/**
+ * Projection with sums of incomes and expenses of account
+ */
+public interface AccountSums {
+
+    /**
+     * Get ID of account
+     * @return ID of account
+     */
+    Long getAccountId();
+
+    /**
+     * Get sum of incomes
+     * @return sum of incomes
+     */
+    Double getIncomesSum();
+
+    /**
+     * Get sum of expenses
+     * @return sum of expenses
+     */
+    Double getExpensesSum();
+}
@@ -0,0 +1,25 @@
+package com.ivantrykosh.app.budgettracker.server.domain.projections;
+
+/**
+ * Projection with sum and number of expenses of category
+ */
+public interface CategorySums {
+
+    /**
+     * Get category
+     * @return category
+     */
+    String getCategory();
+
+    /**
+     * Get sum of expenses
+     * @return sum of expenses
+     */
+    Double getExpensesSum();
+
+    /**
+     * Get number of expenses
+     * @return number of expenses
+     */
+    Long getTransactionCount();
+}
@@ -0,0 +1,83 @@
+package com.ivantrykosh.app.budgettracker.server.domain.projections;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fields of transactions, which can be selected by clients. Only selected fields are read from the database and returned
+ */
+public enum TransactionField {
+    TRANSACTION_ID("transactionId", "transactionId"),
+    ACCOUNT_ID("accountId", "account.accountId"),
+    CATEGORY("category", "category"),
+    VALUE("value", "value"),
+    DATE("date", "date"),
+    TO_FROM_WHOM("toFromWhom", "toFromWhom"),
+    NOTE("note", "note"),
+    VERSION("version", "version");
+
+    private final String fieldName; // Name of field in TransactionDto
+    private final String attributePath; // Path of attribute of Transaction, which is selected
+
+    TransactionField(String fieldName, String attributePath) {
+        this.fieldName = fieldName;
+        this.attributePath = attributePath;
+    }
+
+    /**
+     * Get name of field in TransactionDto
+     * @return name of field
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Get path of attribute of Transaction
+     * @return path of attribute, parts are separated by dots
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
+    /**
+     * Find field by its name in TransactionDto
+     * @param fieldName name of field
+     * @return found field or null
+     */
+    public static TransactionField fromFieldName(String fieldName) {
+        for (TransactionField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get names of all fields in TransactionDto
+     * @return names of fields
+     */
+    public static List<String> fieldNames() {
+        return Arrays.stream(values()).map(TransactionField::getFieldName).toList();
+    }
+
+    /**
+     * Find fields by their names in TransactionDto
+     * @param fieldNames names of fields
+     * @return found fields, unknown names are skipped
+     */
+    public static Set<TransactionField> fromFieldNames(Collection<String> fieldNames) {
+        Set<TransactionField> fields = EnumSet.noneOf(TransactionField.class);
+        for (String fieldName : fieldNames) {
+            TransactionField field = fromFieldName(fieldName);
+            if (field != null) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ivantrykosh.app.budgettracker.server.domain.reactive;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reactive repository interface for reading transactions with R2DBC.
+ * Mirrors the read queries of TransactionRepository, but emits rows as they are read from the connection.
+ */
+@Repository
+public interface ReactiveTransactionRepository extends ReactiveCrudRepository<TransactionRecord, Long> {
+
+    /**
+     * Find all transaction by account ID
+     * @param accountId accountId by which transactions are found
+     * @return Found transactions
+     */
+    Flux<TransactionRecord> findAllByAccountIdOrderByDateDescTransactionIdDesc(@NonNull Long accountId);
+
+    /**
+     * Find all transaction by accounts IDs
+     * @param accountIds accountIds by which transactions are found
+     * @return Found transactions
+     */
+    Flux<TransactionRecord> findAllByAccountIdInOrderByDateDescTransactionIdDesc(@NonNull Collection<Long> accountIds);
+
+    /**
+     * Find all transaction by account IDs and between start date and end date
+     * @param accountIds accountIds by which transactions are found
+     * @param startDate startDate by which transaction are found
+     * @param endDate endDate by which transaction are found
+     * @return Found transactions
+     */
+    Flux<TransactionRecord> findAllByAccountIdInAndDateBetweenOrderByDateDescTransactionIdDesc(@NonNull Collection<Long> accountIds, @NonNull LocalDateTime startDate, @NonNull LocalDateTime endDate);
+
+    /**
+     * Find page of transactions by account IDs, where the transaction value is greater than a specified threshold
+     * @param accountIds accountIds by which transactions are found
+     * @param value the minimum transaction value required
+     * @param pageable pagination information, specifying the page number and size
+     * @return Found transactions
+     */
+    Flux<TransactionRecord> findAllByAccountIdInAndValueGreaterThanOrderByDateDescTransactionIdDesc(@NonNull Collection<Long> accountIds, @NonNull Double value, Pageable pageable);
+
+    /**
+     * Find page of transactions by account IDs, where the transaction value is less than a specified threshold
+     * @param accountIds accountIds by which transactions are found
+     * @param value the maximum transaction value required
+     * @param pageable pagination information, specifying the page number and size
+     * @return Found transactions
+     */
+    Flux<TransactionRecord> findAllByAccountIdInAndValueLessThanOrderByDateDescTransactionIdDesc(@NonNull Collection<Long> accountIds, @NonNull Double value, Pageable pageable);
+}
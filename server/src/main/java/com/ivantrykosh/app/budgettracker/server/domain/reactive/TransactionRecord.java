@@ -0,0 +1,46 @@
+package com.ivantrykosh.app.budgettracker.server.domain.reactive;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of Transaction entity for R2DBC. Maps the same table, but the account is referenced only by its ID
+ */
+@Table("transactions")
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class TransactionRecord {
+    @Id
+    @Column("transaction_id")
+    private Long transactionId; // Transaction ID
+
+    @Column("account_id")
+    private Long accountId; // ID of account to which transaction belongs
+
+    @Column("category")
+    private String category; // Category of transaction
+
+    @Column("transaction_value")
+    private Double value; // Value of transaction
+
+    @Column("date")
+    private LocalDateTime date; // Date of transaction
+
+    @Column("to_from_whom")
+    private String toFromWhom; // Transaction from whom or to whom
+
+    @Column("note")
+    private String note; // Transaction note
+
+    @Column("version")
+    private long version; // Version of transaction
+}
@@ -0,0 +1,90 @@
+package com.ivantrykosh.app.budgettracker.server.domain.repos;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountPurge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for managing Account Purge entities.
+ * Extends JpaRepository, providing CRUD and pagination functionality.
+ */
+@Repository
+public interface AccountPurgeRepository extends JpaRepository<AccountPurge, String> {
+
+    /**
+     * Count purges with statuses, which purge any of the accounts
+     * @param accountIds IDs of accounts
+     * @param statuses statuses by which purges are counted
+     * @return Number of purges
+     */
+    @Query("SELECT COUNT(DISTINCT p) FROM AccountPurge p JOIN p.accountIds a WHERE a IN :accountIds AND p.status IN :statuses")
+    long countByAccountIdsAndStatuses(@NonNull @Param("accountIds") List<Long> accountIds, @NonNull @Param("statuses") List<AccountPurge.Status> statuses);
+
+    /**
+     * Find purges with statuses, which made no progress since date (e.g. the server was stopped while running them)
+     * @param statuses statuses by which purges are found
+     * @param date purges updated before this date are found
+     * @return Found purges
+     */
+    List<AccountPurge> findAllByStatusInAndUpdatedAtBefore(@NonNull List<AccountPurge.Status> statuses, @NonNull Date date);
+
+    /**
+     * Find purges with statuses, which were finished before date
+     * @param statuses statuses by which purges are found
+     * @param date purges finished before this date are found
+     * @return Found purges
+     */
+    List<AccountPurge> findAllByStatusInAndFinishedAtBefore(@NonNull List<AccountPurge.Status> statuses, @NonNull Date date);
+
+    /**
+     * Claim purge, if it was not updated since the expected date, so only one instance resumes it
+     * @param purgeId ID of purge to claim
+     * @param updatedAt expected date of the last update of purge
+     * @param date new date of the last update of purge
+     * @return Number of claimed purges
+     */
+    @Modifying
+    @Query("UPDATE AccountPurge p SET p.updatedAt = :date WHERE p.purgeId = :purgeId AND p.updatedAt = :updatedAt")
+    int claim(@NonNull @Param("purgeId") String purgeId, @NonNull @Param("updatedAt") Date updatedAt, @NonNull @Param("date") Date date);
+
+    /**
+     * Mark purge as running
+     * @param purgeId ID of purge
+     * @param running status of running purge
+     * @param date date the purge was started
+     * @return Number of updated purges
+     */
+    @Modifying
+    @Query("UPDATE AccountPurge p SET p.status = :running, p.startedAt = COALESCE(p.startedAt, :date), p.updatedAt = :date WHERE p.purgeId = :purgeId")
+    int markRunning(@NonNull @Param("purgeId") String purgeId, @NonNull @Param("running") AccountPurge.Status running, @NonNull @Param("date") Date date);
+
+    /**
+     * Add deleted transactions to progress of purge
+     * @param purgeId ID of purge
+     * @param deleted number of deleted transactions
+     * @param date date of progress
+     * @return Number of updated purges
+     */
+    @Modifying
+    @Query("UPDATE AccountPurge p SET p.deletedTransactions = p.deletedTransactions + :deleted, p.updatedAt = :date WHERE p.purgeId = :purgeId")
+    int addProgress(@NonNull @Param("purgeId") String purgeId, @Param("deleted") long deleted, @NonNull @Param("date") Date date);
+
+    /**
+     * Mark purge as finished
+     * @param purgeId ID of purge
+     * @param status status of finished purge
+     * @param error error message, if purge was failed
+     * @param date date the purge was finished
+     * @return Number of updated purges
+     */
+    @Modifying
+    @Query("UPDATE AccountPurge p SET p.status = :status, p.error = :error, p.finishedAt = :date, p.updatedAt = :date WHERE p.purgeId = :purgeId")
+    int markFinished(@NonNull @Param("purgeId") String purgeId, @NonNull @Param("status") AccountPurge.Status status, @Param("error") String error, @NonNull @Param("date") Date date);
+}
@@ -1,11 +1,21 @@
 package com.ivantrykosh.app.budgettracker.server.domain.repos;
 
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing Account entities.
@@ -15,9 +25,52 @@ import java.util.List;
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     /**
-     * Find all accounts by user ID
+     * Find all accounts by user ID. Owner of accounts is fetched in the same query
      * @param userId userId by which accounts are found
      * @return Found accounts
      */
+    @EntityGraph(attributePaths = "user")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "accounts-by-user")
+    })
     List<Account> findAllByUserUserIdOrderByAccountIdDesc(@NonNull Long userId);
+
+    /**
+     * Find account by ID. Rows are read without locks
+     * @param accountId accountId by which account is found
+     * @return Found account
+     */
+    @Query("SELECT a FROM Account a WHERE a.accountId = :accountId")
+    Optional<Account> findCurrentByAccountId(@NonNull @Param("accountId") Long accountId);
+
+    /**
+     * Find accounts by IDs and lock them for update, so concurrent changes of the accounts wait for the current transaction
+     * @param accountIds accountIds by which accounts are found
+     * @return Found accounts
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountId IN :accountIds")
+    List<Account> findAllForUpdateByAccountIds(@NonNull @Param("accountIds") List<Long> accountIds);
+
+    /**
+     * Update name of account with one UPDATE statement, if its version in the database equals the expected version.
+     * The version is incremented, so a concurrent update with the same expected version updates nothing
+     * @param accountId ID of account to update
+     * @param name new name of account
+     * @param version expected version of account
+     * @return Number of updated accounts
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.name = :name, a.version = a.version + 1 WHERE a.accountId = :accountId AND a.version = :version")
+    int updateNameIfVersionMatches(@NonNull @Param("accountId") Long accountId, @NonNull @Param("name") String name, @Param("version") long version);
+
+    /**
+     * Delete accounts by their IDs with one DELETE statement
+     * @param accountIds IDs of accounts to delete
+     * @return Number of deleted accounts
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Account a WHERE a.accountId IN :accountIds")
+    int deleteAllByAccountIds(@NonNull @Param("accountIds") List<Long> accountIds);
 }
@@ -1,7 +1,13 @@
 package com.ivantrykosh.app.budgettracker.server.domain.repos;
 
 import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
@@ -20,8 +26,20 @@ public interface AccountUsersRepository extends JpaRepository<AccountUsers, Long
      * @param accountId accountId by which account users are found
      * @return Found account users
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "account-users-by-account")
+    })
     Optional<AccountUsers> findByAccountAccountId(@NonNull Long accountId);
 
+    /**
+     * Find account users by account ID. Rows are read without locks
+     * @param accountId accountId by which account users are found
+     * @return Found account users
+     */
+    @Query("SELECT au FROM AccountUsers au WHERE au.account.accountId = :accountId")
+    Optional<AccountUsers> findCurrentByAccountId(@NonNull @Param("accountId") Long accountId);
+
     /**
      * Find all accounts users by user2Id
      * @param user2Id user2Id by which accounts users are found
@@ -42,4 +60,51 @@ public interface AccountUsersRepository extends JpaRepository<AccountUsers, Long
      * @return Found accounts users
      */
     List<AccountUsers> findAllByUser4Id(@NonNull Long user4Id);
+
+    /**
+     * Find all accounts users, where user is second, third or fourth user.
+     * Accounts and their owners are fetched in the same query
+     * @param userId userId by which accounts users are found
+     * @return Found accounts users ordered by account ID descending
+     */
+    @Query("SELECT au FROM AccountUsers au JOIN FETCH au.account a JOIN FETCH a.user " +
+            "WHERE au.user2Id = :userId OR au.user3Id = :userId OR au.user4Id = :userId " +
+            "ORDER BY a.accountId DESC")
+    List<AccountUsers> findAllWithAccountByUserId(@NonNull @Param("userId") Long userId);
+
+    /**
+     * Delete account users by account IDs with one DELETE statement
+     * @param accountIds accountIds by which account users are deleted
+     * @return Number of deleted account users
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AccountUsers au WHERE au.account.accountId IN :accountIds")
+    int deleteAllByAccountIds(@NonNull @Param("accountIds") List<Long> accountIds);
+
+    /**
+     * Set user2Id to null in every account users, where user is second user
+     * @param userId userId to remove
+     * @return Number of updated account users
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AccountUsers au SET au.user2Id = NULL WHERE au.user2Id = :userId")
+    int clearUser2Id(@NonNull @Param("userId") Long userId);
+
+    /**
+     * Set user3Id to null in every account users, where user is third user
+     * @param userId userId to remove
+     * @return Number of updated account users
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AccountUsers au SET au.user3Id = NULL WHERE au.user3Id = :userId")
+    int clearUser3Id(@NonNull @Param("userId") Long userId);
+
+    /**
+     * Set user4Id to null in every account users, where user is fourth user
+     * @param userId userId to remove
+     * @return Number of updated account users
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AccountUsers au SET au.user4Id = NULL WHERE au.user4Id = :userId")
+    int clearUser4Id(@NonNull @Param("userId") Long userId);
 }
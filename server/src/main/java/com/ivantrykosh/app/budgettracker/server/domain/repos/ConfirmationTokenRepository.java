@@ -1,10 +1,15 @@
 package com.ivantrykosh.app.budgettracker.server.domain.repos;
 
 import com.ivantrykosh.app.budgettracker.server.domain.model.ConfirmationToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +33,39 @@ public interface ConfirmationTokenRepository extends JpaRepository<ConfirmationT
      * @return Found confirmation token entity
      */
     Optional<ConfirmationToken> findByConfirmationToken(@NonNull String confirmationToken);
+
+    /**
+     * Check if user has confirmation token created after date
+     * @param userId userId by which tokens are found
+     * @param date date after which token has to be created
+     * @return True if such token exists, otherwise false
+     */
+    boolean existsByUserUserIdAndCreatedAtAfter(@NonNull Long userId, @NonNull Date date);
+
+    /**
+     * Find IDs of unconfirmed confirmation tokens, which expired before date
+     * @param date date before which tokens expired
+     * @param pageable pagination information, specifying the page number and size
+     * @return Found IDs of confirmation tokens
+     */
+    @Query("SELECT c.confirmationTokenId FROM ConfirmationToken c WHERE c.confirmedAt IS NULL AND c.expiresAt < :date ORDER BY c.expiresAt")
+    List<Long> findExpiredUnconfirmedTokenIds(@NonNull @Param("date") Date date, Pageable pageable);
+
+    /**
+     * Delete confirmation tokens by their IDs with one DELETE statement
+     * @param confirmationTokenIds IDs of confirmation tokens to delete
+     * @return Number of deleted confirmation tokens
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ConfirmationToken c WHERE c.confirmationTokenId IN :confirmationTokenIds")
+    int deleteAllByConfirmationTokenIds(@NonNull @Param("confirmationTokenIds") List<Long> confirmationTokenIds);
+
+    /**
+     * Delete all confirmation tokens by user ID with one DELETE statement
+     * @param userId userId by which tokens are deleted
+     * @return Number of deleted confirmation tokens
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ConfirmationToken c WHERE c.user.userId = :userId")
+    int deleteAllByUserId(@NonNull @Param("userId") Long userId);
 }
@@ -0,0 +1,43 @@
+package com.ivantrykosh.app.budgettracker.server.domain.repos;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+/**
+ * Repository interface for managing IdempotencyRecord entities.
+ * Extends JpaRepository, providing CRUD and pagination functionality.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Reset expired idempotency record for a new request
+     * @param idempotencyKey key of idempotency record
+     * @param requestHash hash of new request
+     * @param date current date
+     * @param expiresAt date until which new request is processed
+     * @return Number of updated records, 0 if record is not expired
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.responseStatus = NULL, r.responseContentType = NULL, " +
+            "r.responseBody = NULL, r.createdAt = :date, r.expiresAt = :expiresAt " +
+            "WHERE r.idempotencyKey = :idempotencyKey AND r.expiresAt < :date")
+    int resetExpired(@NonNull @Param("idempotencyKey") String idempotencyKey, @NonNull @Param("requestHash") String requestHash,
+                     @NonNull @Param("date") Date date, @NonNull @Param("expiresAt") Date expiresAt);
+
+    /**
+     * Delete idempotency records, which expired before date
+     * @param date date before which records expired
+     * @return Number of deleted records
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :date")
+    int deleteAllExpiredBefore(@NonNull @Param("date") Date date);
+}
@@ -0,0 +1,67 @@
+package com.ivantrykosh.app.budgettracker.server.domain.repos;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.OutboxEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for managing Outbox Email entities.
+ * Extends JpaRepository, providing CRUD and pagination functionality.
+ */
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    /**
+     * Find emails with status, which are due to be sent. Oldest emails are returned first
+     * @param status status by which emails are found
+     * @param date emails with next attempt before or at this date are found
+     * @param pageable pagination information, specifying the page number and size
+     * @return Found emails
+     */
+    List<OutboxEmail> findAllByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(@NonNull OutboxEmail.Status status, @NonNull Date date, Pageable pageable);
+
+    /**
+     * Count emails by status
+     * @param status status by which emails are counted
+     * @return Number of emails
+     */
+    long countByStatus(@NonNull OutboxEmail.Status status);
+
+    /**
+     * Find IDs of emails with statuses, which were created before date
+     * @param statuses statuses by which emails are found
+     * @param date date before which emails were created
+     * @param pageable pagination information, specifying the page number and size
+     * @return Found IDs of emails
+     */
+    @Query("SELECT e.outboxEmailId FROM OutboxEmail e WHERE e.status IN :statuses AND e.createdAt < :date ORDER BY e.createdAt")
+    List<Long> findIdsByStatusesAndCreatedAtBefore(@NonNull @Param("statuses") List<OutboxEmail.Status> statuses, @NonNull @Param("date") Date date, Pageable pageable);
+
+    /**
+     * Delete emails by their IDs with one DELETE statement
+     * @param outboxEmailIds IDs of emails to delete
+     * @return Number of deleted emails
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM OutboxEmail e WHERE e.outboxEmailId IN :outboxEmailIds")
+    int deleteAllByOutboxEmailIds(@NonNull @Param("outboxEmailIds") List<Long> outboxEmailIds);
+
+    /**
+     * Return emails, whose claim was expired (e.g. the server was stopped while sending them), to the queue
+     * @param pending status of queued emails
+     * @param sending status of claimed emails
+     * @param date emails claimed until this date are returned
+     * @return Number of returned emails
+     */
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = :pending WHERE e.status = :sending AND e.nextAttemptAt < :date")
+    int releaseExpiredClaims(@Param("pending") OutboxEmail.Status pending, @Param("sending") OutboxEmail.Status sending, @Param("date") Date date);
+}
@@ -0,0 +1,33 @@
+package com.ivantrykosh.app.budgettracker.server.domain.repos;
+
+import com.ivantrykosh.app.budgettracker.server.domain.projections.TransactionField;
+import jakarta.persistence.Tuple;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository fragment, which reads only selected fields of transactions.
+ * Every tuple contains the selected fields with names of fields as aliases
+ */
+public interface TransactionFieldsRepository {
+
+    /**
+     * Find selected fields of all transactions by account IDs
+     * @param accountIds accountIds by which transactions are found
+     * @param fields selected fields
+     * @return Found fields of transactions ordered from the latest
+     */
+    List<Tuple> findFieldsByAccountIds(List<Long> accountIds, Set<TransactionField> fields);
+
+    /**
+     * Find selected fields of all transactions by account IDs and between start date and end date
+     * @param accountIds accountIds by which transactions are found
+     * @param startDate startDate by which transaction are found
+     * @param endDate endDate by which transaction are found
+     * @param fields selected fields
+     * @return Found fields of transactions ordered from the latest
+     */
+    List<Tuple> findFieldsByAccountIdsAndDateBetween(List<Long> accountIds, Date startDate, Date endDate, Set<TransactionField> fields);
+}
@@ -0,0 +1,100 @@
+package com.ivantrykosh.app.budgettracker.server.domain.repos;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.TransactionField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of TransactionFieldsRepository with Criteria API. Only columns of selected fields are in the SELECT clause,
+ * and the account of transactions is not joined, since its ID is the foreign key of transactions
+ */
+public class TransactionFieldsRepositoryImpl implements TransactionFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Find selected fields of all transactions by account IDs
+     * @param accountIds accountIds by which transactions are found
+     * @param fields selected fields
+     * @return Found fields of transactions ordered from the latest
+     */
+    @Override
+    public List<Tuple> findFieldsByAccountIds(List<Long> accountIds, Set<TransactionField> fields) {
+        return findFields(accountIds, null, null, fields);
+    }
+
+    /**
+     * Find selected fields of all transactions by account IDs and between start date and end date
+     * @param accountIds accountIds by which transactions are found
+     * @param startDate startDate by which transaction are found
+     * @param endDate endDate by which transaction are found
+     * @param fields selected fields
+     * @return Found fields of transactions ordered from the latest
+     */
+    @Override
+    public List<Tuple> findFieldsByAccountIdsAndDateBetween(List<Long> accountIds, Date startDate, Date endDate, Set<TransactionField> fields) {
+        return findFields(accountIds, startDate, endDate, fields);
+    }
+
+    /**
+     * Find selected fields of transactions by account IDs and optionally between start date and end date
+     * @param accountIds accountIds by which transactions are found
+     * @param startDate startDate by which transaction are found or null
+     * @param endDate endDate by which transaction are found or null
+     * @param fields selected fields
+     * @return Found fields of transactions ordered from the latest
+     */
+    private List<Tuple> findFields(List<Long> accountIds, Date startDate, Date endDate, Set<TransactionField> fields) {
+        if (accountIds.isEmpty() || fields.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Transaction> transaction = query.from(Transaction.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (TransactionField field : fields) {
+            selections.add(path(transaction, field.getAttributePath()).alias(field.getFieldName()));
+        }
+
+        List<Predicate> predicates = new ArrayList<>(2);
+        predicates.add(transaction.get("account").get("accountId").in(accountIds));
+        if (startDate != null && endDate != null) {
+            predicates.add(criteriaBuilder.between(transaction.<Date>get("date"), startDate, endDate));
+        }
+
+        query.multiselect(selections)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(criteriaBuilder.desc(transaction.get("date")), criteriaBuilder.desc(transaction.get("transactionId")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Get path of attribute of transaction
+     * @param transaction root of query
+     * @param attributePath path of attribute, parts are separated by dots
+     * @return path of attribute
+     */
+    private static Path<?> path(Root<Transaction> transaction, String attributePath) {
+        Path<?> path = transaction;
+        for (String attribute : attributePath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+}
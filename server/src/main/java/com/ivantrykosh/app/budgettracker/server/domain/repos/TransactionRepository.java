@@ -1,8 +1,11 @@
 package com.ivantrykosh.app.budgettracker.server.domain.repos;
 
 import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.AccountSums;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.CategorySums;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
@@ -10,13 +13,14 @@ import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing Transaction entities.
- * Extends JpaRepository, providing CRUD and pagination functionality.
+ * Extends JpaRepository, providing CRUD and pagination functionality, and TransactionFieldsRepository, which reads selected fields.
  */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionFieldsRepository {
 
     /**
      * Find all transaction by account ID
@@ -63,6 +67,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     List<Transaction> findAllByAccountAccountIdInAndValueLessThanOrderByDateDescTransactionIdDesc(@NonNull List<Long> accountIds, @NonNull Double value, Pageable pageable);
 
+    /**
+     * Find transaction by ID. Rows are read without locks
+     * @param transactionId transactionId by which transaction is found
+     * @return Found transaction
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId = :transactionId")
+    Optional<Transaction> findCurrentByTransactionId(@NonNull @Param("transactionId") Long transactionId);
+
+    /**
+     * Update transaction with one UPDATE statement, if its version in the database equals the expected version.
+     * The version is incremented, so a concurrent update with the same expected version updates nothing
+     * @param transaction transaction with ID and new values
+     * @param version expected version of transaction
+     * @return Number of updated transactions
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.account = :#{#transaction.account}, t.category = :#{#transaction.category}, " +
+            "t.value = :#{#transaction.value}, t.date = :#{#transaction.date}, t.toFromWhom = :#{#transaction.toFromWhom}, " +
+            "t.note = :#{#transaction.note}, t.version = t.version + 1 " +
+            "WHERE t.transactionId = :#{#transaction.transactionId} AND t.version = :version")
+    int updateIfVersionMatches(@NonNull @Param("transaction") Transaction transaction, @Param("version") long version);
+
     /**
      * Calculates the sum of either incomes or expenses for a specified account ID.
      *
@@ -75,4 +101,78 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             "ELSE CASE WHEN t.value < 0 THEN t.value ELSE 0 END END) AS sumResult " +
             "FROM Transaction t WHERE t.account.id = :accountId")
     Double calculateSumByAccountIdAndType(@Param("accountId") Long accountId, @Param("isIncome") boolean isIncome);
+
+    /**
+     * Calculates the sums of incomes and expenses for every specified account ID in one query.
+     * Accounts without transactions are not returned.
+     *
+     * @param accountIds The IDs of the accounts for which to calculate the sums.
+     * @return The calculated sums.
+     */
+    @Query("SELECT t.account.id AS accountId, " +
+            "SUM(CASE WHEN t.value > 0 THEN t.value ELSE 0 END) AS incomesSum, " +
+            "SUM(CASE WHEN t.value < 0 THEN t.value ELSE 0 END) AS expensesSum " +
+            "FROM Transaction t WHERE t.account.id IN :accountIds GROUP BY t.account.id")
+    List<AccountSums> calculateSumsByAccountIds(@Param("accountIds") List<Long> accountIds);
+
+    /**
+     * Calculates the sums of incomes and expenses within a date range for every specified account ID in one query.
+     * Accounts without transactions in the range are not returned.
+     *
+     * @param accountIds The IDs of the accounts for which to calculate the sums.
+     * @param startDate The start of the range.
+     * @param endDate The end of the range.
+     * @return The calculated sums.
+     */
+    @Query("SELECT t.account.id AS accountId, " +
+            "SUM(CASE WHEN t.value > 0 THEN t.value ELSE 0 END) AS incomesSum, " +
+            "SUM(CASE WHEN t.value < 0 THEN t.value ELSE 0 END) AS expensesSum " +
+            "FROM Transaction t WHERE t.account.id IN :accountIds AND t.date BETWEEN :startDate AND :endDate GROUP BY t.account.id")
+    List<AccountSums> calculateSumsByAccountIdsAndDateBetween(@Param("accountIds") List<Long> accountIds,
+                                                              @Param("startDate") Date startDate,
+                                                              @Param("endDate") Date endDate);
+
+    /**
+     * Calculates the sums of expenses of every category within a date range for the specified account IDs,
+     * from the category with the largest expenses.
+     *
+     * @param accountIds The IDs of the accounts.
+     * @param startDate The start of the range.
+     * @param endDate The end of the range.
+     * @param pageable pagination information, specifying the number of categories
+     * @return The calculated sums of categories.
+     */
+    @Query("SELECT t.category AS category, SUM(t.value) AS expensesSum, COUNT(t) AS transactionCount " +
+            "FROM Transaction t WHERE t.account.id IN :accountIds AND t.value < 0 AND t.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY t.category ORDER BY SUM(t.value), t.category")
+    List<CategorySums> calculateExpenseSumsByCategory(@Param("accountIds") List<Long> accountIds,
+                                                      @Param("startDate") Date startDate,
+                                                      @Param("endDate") Date endDate,
+                                                      Pageable pageable);
+
+    /**
+     * Find the latest transactions by account IDs
+     * @param accountIds accountIds by which transactions are found
+     * @param pageable pagination information, specifying the number of transactions
+     * @return Found transactions ordered from the latest
+     */
+    List<Transaction> findAllByAccountAccountIdInOrderByDateDescTransactionIdDesc(@NonNull List<Long> accountIds, Pageable pageable);
+
+    /**
+     * Find IDs of transactions by account IDs. Only IDs are selected, so pages of any size can be read without loading entities
+     * @param accountIds accountIds by which transactions are found
+     * @param pageable pagination information, specifying the page number and size
+     * @return Found IDs of transactions
+     */
+    @Query("SELECT t.transactionId FROM Transaction t WHERE t.account.accountId IN :accountIds ORDER BY t.transactionId")
+    List<Long> findTransactionIdsByAccountIds(@NonNull @Param("accountIds") List<Long> accountIds, Pageable pageable);
+
+    /**
+     * Delete transactions by their IDs with one DELETE statement
+     * @param transactionIds IDs of transactions to delete
+     * @return Number of deleted transactions
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Transaction t WHERE t.transactionId IN :transactionIds")
+    int deleteAllByTransactionIds(@NonNull @Param("transactionIds") List<Long> transactionIds);
 }
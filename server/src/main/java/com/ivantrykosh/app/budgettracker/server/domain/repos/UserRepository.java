@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +22,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return found user
      */
     Optional<User> findByEmail(@NonNull String email);
+
+    /**
+     * Find all users by IDs
+     * @param userIds IDs by which users are found
+     * @return found users
+     */
+    List<User> findAllByUserIdIn(@NonNull Collection<Long> userIds);
 }
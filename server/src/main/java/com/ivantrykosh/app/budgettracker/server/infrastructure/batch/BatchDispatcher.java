@@ -0,0 +1,165 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RequestTrace;
+import com.ivantrykosh.app.budgettracker.server.presentation.requests.BatchOperation;
+import com.ivantrykosh.app.budgettracker.server.presentation.responses.BatchOperationResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatcher of operations of batches. An operation is handled by the same controllers, interceptors and exception handlers
+ * as a separate request, but without the filter chain, so the batch request is authenticated and rate limited only once.
+ * The status and body of the operation are captured and returned instead of being written to the batch response.
+ */
+@Component
+public class BatchDispatcher {
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping; // Mapping of controllers
+    @Autowired
+    @Qualifier("requestMappingHandlerAdapter")
+    private RequestMappingHandlerAdapter handlerAdapter; // Adapter, which invokes controllers and writes their responses
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver exceptionResolver; // Resolver of exceptions of controllers
+    @Autowired
+    private ObjectMapper objectMapper;
+    Logger logger = LoggerFactory.getLogger(BatchDispatcher.class); // Logger
+
+    /**
+     * Executes the operation within the batch request.
+     *
+     * @param request The batch request.
+     * @param response The batch response.
+     * @param operation The operation with validated method and path.
+     * @param entities The entities of the request lookup context, which are used by the operation.
+     * @return The result of the operation.
+     */
+    public BatchOperationResponse dispatch(HttpServletRequest request, HttpServletResponse response, BatchOperation operation, Map<String, Object> entities) {
+        byte[] body = null;
+        if (operation.getBody() != null && !operation.getBody().isNull()) {
+            try {
+                body = objectMapper.writeValueAsBytes(operation.getBody());
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid body of operation " + operation.getId(), e);
+            }
+        }
+        BatchServletRequest operationRequest = new BatchServletRequest(request, operation.getMethod(), URI.create(operation.getPath()), body, entities);
+        BatchServletResponse operationResponse = new BatchServletResponse(response);
+
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+        ServletRequestAttributes attributes = new ServletRequestAttributes(operationRequest, operationResponse);
+        RequestContextHolder.setRequestAttributes(attributes);
+        RequestTrace trace = RequestTrace.current();
+        try {
+            handle(operationRequest, operationResponse);
+        } finally {
+            attributes.requestCompleted();
+            RequestContextHolder.setRequestAttributes(previousAttributes);
+            if (trace != null && RequestTrace.SERIALIZATION.equals(trace.getCurrentPhase())) {
+                // The operation started serialization of its body, but the batch request is not serialized yet
+                trace.exit();
+            }
+        }
+
+        return new BatchOperationResponse(operation.getId(), operationResponse.getStatus(), readBody(operationResponse));
+    }
+
+    /**
+     * Handles the request of the operation like DispatcherServlet does: finds the controller, applies interceptors,
+     * invokes the controller and resolves its exceptions.
+     *
+     * @param request The request of the operation.
+     * @param response The response of the operation.
+     */
+    private void handle(BatchServletRequest request, BatchServletResponse response) {
+        ServletRequestPathUtils.parseAndCache(request);
+        Object handler = null;
+        List<HandlerInterceptor> interceptors = List.of();
+        int preHandled = 0;
+        Exception failure = null;
+        try {
+            HandlerExecutionChain chain = handlerMapping.getHandler(request);
+            if (chain == null) {
+                response.sendError(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+            handler = chain.getHandler();
+            interceptors = chain.getInterceptorList();
+            for (; preHandled < interceptors.size(); preHandled++) {
+                if (!interceptors.get(preHandled).preHandle(request, response, handler)) {
+                    return;
+                }
+            }
+            ModelAndView modelAndView = handlerAdapter.handle(request, response, handler);
+            for (int i = interceptors.size() - 1; i >= 0; i--) {
+                interceptors.get(i).postHandle(request, response, handler, modelAndView);
+            }
+        } catch (Exception e) {
+            failure = e;
+            if (exceptionResolver.resolveException(request, response, handler, e) == null) {
+                logger.error("Operation {} {} of batch failed", request.getMethod(), request.getRequestURI(), e);
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        } finally {
+            for (int i = preHandled - 1; i >= 0; i--) {
+                try {
+                    interceptors.get(i).afterCompletion(request, response, handler, failure);
+                } catch (Exception e) {
+                    logger.error("Completion of operation {} {} of batch failed", request.getMethod(), request.getRequestURI(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the body of the operation. JSON bodies are returned as they are, other bodies and messages of errors as JSON strings.
+     *
+     * @param response The response of the operation.
+     * @return The body or null, if the operation has no body.
+     */
+    private JsonNode readBody(BatchServletResponse response) {
+        byte[] content = response.getContentAsByteArray();
+        if (content.length == 0) {
+            return response.getErrorMessage() != null ? TextNode.valueOf(response.getErrorMessage()) : null;
+        }
+        if (response.getContentType() != null) {
+            MediaType contentType = MediaType.parseMediaType(response.getContentType());
+            if ("json".equals(contentType.getSubtype()) || contentType.getSubtype().endsWith("+json")) {
+                try {
+                    return objectMapper.readTree(content);
+                } catch (IOException e) {
+                    logger.warn("Body of operation of batch is not valid JSON");
+                }
+            }
+        }
+        return TextNode.valueOf(new String(content, response.getCharset()));
+    }
+}
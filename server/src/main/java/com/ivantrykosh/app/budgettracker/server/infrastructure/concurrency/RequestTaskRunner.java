@@ -0,0 +1,169 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.concurrency;
+
+import com.ivantrykosh.app.budgettracker.server.infrastructure.metrics.RequestQueryCounters;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RequestTrace;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs slow, independent queries of one request concurrently, e.g. read operations of a batch.
+ * The request thread forks all tasks to the bounded executor of request tasks and only waits for them, so the request
+ * never holds a database connection of its own, while its tasks hold theirs. If the request thread already holds
+ * a connection or runs a DB transaction, the tasks run on it one after another instead.
+ * Tasks see the security context and the logging context of the request, and their statements are counted and traced
+ * for the request. Tasks, which are rejected or do not finish in time, get the fallback result and are interrupted.
+ */
+@Component
+@ConditionalOnProperty(name = "request-tasks.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTaskRunner {
+    @Autowired
+    @Qualifier("requestTasksExecutor")
+    private ThreadPoolTaskExecutor requestTasksExecutor; // Executor of forked request tasks
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${request-tasks.timeout-ms:10000}")
+    private long timeoutMillis; // Time to wait for all tasks of a request
+    Logger logger = LoggerFactory.getLogger(RequestTaskRunner.class); // Logger
+
+    /**
+     * Runs the tasks concurrently, if the current thread holds no database connection, otherwise one after another.
+     * If a task fails, its exception is rethrown after the other tasks are cancelled.
+     *
+     * @param tasks The tasks.
+     * @param fallback The result of the task with the given index, which was rejected or did not finish in time.
+     * @return The results of the tasks in order of the tasks.
+     * @param <T> The type of results.
+     */
+    public <T> List<T> invokeAll(List<Supplier<T>> tasks, IntFunction<T> fallback) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.size() <= 1 || TransactionSynchronizationManager.isActualTransactionActive() || holdsConnection()) {
+            // Forked tasks would not see changes of the current thread and would take a second connection of the request
+            tasks.forEach(task -> results.add(task.get()));
+            return results;
+        }
+
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+        RequestTrace trace = RequestTrace.current();
+        RequestQueryCounters counters = RequestQueryCounters.current();
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Supplier<T> task : tasks) {
+            try {
+                futures.add(requestTasksExecutor.submit(() -> {
+                    SecurityContextHolder.setContext(securityContext);
+                    if (loggingContext != null) {
+                        MDC.setContextMap(loggingContext);
+                    }
+                    if (trace != null) {
+                        trace.startTask();
+                    }
+                    RequestQueryCounters.bind(counters);
+                    try {
+                        return task.get();
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        MDC.clear();
+                        RequestTrace.stop();
+                        RequestQueryCounters.stop();
+                    }
+                }));
+            } catch (TaskRejectedException e) {
+                logger.warn("Request task was rejected");
+                futures.add(null);
+            }
+        }
+
+        try {
+            await(futures, fallback, results);
+            return results;
+        } finally {
+            futures.stream()
+                    .filter(future -> future != null && !future.isDone())
+                    .forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Waits for forked tasks until the timeout and puts their results or fallback results to the results.
+     * Waiting is timed as db phase of the request.
+     *
+     * @param futures The futures of the tasks, null for rejected tasks.
+     * @param fallback The result of the task with the given index, which was rejected or did not finish in time.
+     * @param results The list, to which results are added.
+     * @param <T> The type of results.
+     */
+    private <T> void await(List<Future<T>> futures, IntFunction<T> fallback, List<T> results) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.enter(RequestTrace.DB);
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            for (int i = 0; i < futures.size(); i++) {
+                Future<T> future = futures.get(i);
+                if (future == null) {
+                    results.add(fallback.apply(i));
+                    continue;
+                }
+                try {
+                    results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    logger.warn("Request task did not finish in {} ms", timeoutMillis);
+                    future.cancel(true);
+                    results.add(fallback.apply(i));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.add(fallback.apply(i));
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (e.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            if (trace != null) {
+                trace.exit();
+            }
+        }
+    }
+
+    /**
+     * Checks, whether the entity manager bound to the current thread, e.g. by open session in view, holds a JDBC connection.
+     *
+     * @return true if the current thread holds a connection, otherwise false.
+     */
+    private boolean holdsConnection() {
+        Object resource = TransactionSynchronizationManager.getResource(entityManagerFactory);
+        return resource instanceof EntityManagerHolder holder
+                && holder.getEntityManager().unwrap(SessionImplementor.class).getJdbcCoordinator().getLogicalConnection().isPhysicallyConnected();
+    }
+}
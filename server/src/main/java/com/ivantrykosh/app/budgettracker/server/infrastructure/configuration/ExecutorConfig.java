@@ -0,0 +1,194 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for executors of background and scheduled jobs.
+ * The executors stay bounded in virtual threads mode, only their threads become virtual.
+ */
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    @Value("${accounts.purge.pool-size:2}")
+    private int purgePoolSize; // Number of purges running at the same time
+
+    @Value("${accounts.purge.queue-capacity:100}")
+    private int purgeQueueCapacity; // Number of purges waiting for a free thread
+
+    @Value("${email.outbox.pool-size:4}")
+    private int emailPoolSize; // Number of batches of emails sent at the same time
+
+    @Value("${spring.mvc.async.pool-size:8}")
+    private int streamingPoolSize; // Number of threads writing parts of asynchronous responses
+
+    @Value("${password.hashing.pool-size:0}")
+    private int passwordHashingPoolSize; // Number of passwords hashed at the same time, 0 for half of processors
+
+    @Value("${password.hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity; // Number of passwords waiting for a free thread
+
+    @Value("${account-events.pool-size:2}")
+    private int accountEventsPoolSize; // Number of threads calculating sums of changed accounts
+
+    @Value("${account-events.queue-capacity:1000}")
+    private int accountEventsQueueCapacity; // Number of changes waiting for a free thread
+
+    @Value("${account-events.send-pool-size:8}")
+    private int accountEventsSendPoolSize; // Number of threads sending events to subscribers
+
+    @Value("${account-events.send-queue-capacity:1000}")
+    private int accountEventsSendQueueCapacity; // Number of buffers of subscribers waiting for a free thread
+
+    @Value("${request-tasks.pool-size:0}")
+    private int requestTasksPoolSize; // Number of request tasks running at the same time, 0 for a quarter of the connection pool
+
+    @Value("${request-tasks.queue-capacity:200}")
+    private int requestTasksQueueCapacity; // Number of request tasks waiting for a free thread
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize; // Maximum number of database connections
+
+    @Value("${server.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled; // Whether bounded executors create virtual threads instead of platform threads
+
+    /**
+     * Defines the executor of account purges. The executor is bounded, so purges, which do not fit into the queue, are rejected.
+     *
+     * @return The executor of account purges.
+     */
+    @Bean(name = "purgeExecutor")
+    public ThreadPoolTaskExecutor purgeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(purgePoolSize);
+        executor.setMaxPoolSize(purgePoolSize);
+        executor.setQueueCapacity(purgeQueueCapacity);
+        executor.setThreadNamePrefix("account-purge-");
+        if (virtualThreadsEnabled) {
+            executor.setThreadFactory(Thread.ofVirtual().name("account-purge-", 1).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Defines the executor, which sends batches of emails from the email outbox.
+     * The dispatcher never claims more batches than there are threads, so the queue is never full.
+     *
+     * @return The executor of email batches.
+     */
+    @Bean(name = "emailExecutor")
+    public ThreadPoolTaskExecutor emailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(emailPoolSize);
+        executor.setMaxPoolSize(emailPoolSize);
+        executor.setQueueCapacity(emailPoolSize);
+        executor.setThreadNamePrefix("email-sender-");
+        if (virtualThreadsEnabled) {
+            executor.setThreadFactory(Thread.ofVirtual().name("email-sender-", 1).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Defines the executor of asynchronous MVC requests. It writes items of streamed responses, while the request itself
+     * waits for the next item without a thread.
+     *
+     * @return The executor of asynchronous requests.
+     */
+    @Bean(name = "streamingExecutor")
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamingPoolSize);
+        executor.setMaxPoolSize(streamingPoolSize);
+        executor.setThreadNamePrefix("mvc-async-");
+        if (virtualThreadsEnabled) {
+            executor.setThreadFactory(Thread.ofVirtual().name("mvc-async-", 1).factory());
+        }
+        return executor;
+    }
+
+    /**
+     * Defines the executor of password hashing. Hashing is bound by processors, so the executor uses platform threads
+     * even in virtual threads mode, and passwords, which do not fit into the queue, are rejected at once.
+     *
+     * @return The executor of password hashing.
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int poolSize = passwordHashingPoolSize > 0 ? passwordHashingPoolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(passwordHashingQueueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+
+    /**
+     * Defines the executor of account events. It calculates sums of changed accounts, so publishers are not blocked.
+     * The executor is bounded, subscribers of changes, which do not fit into the queue, are resynced.
+     *
+     * @return The executor of account events.
+     */
+    @Bean(name = "accountEventsExecutor")
+    public ThreadPoolTaskExecutor accountEventsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(accountEventsPoolSize);
+        executor.setMaxPoolSize(accountEventsPoolSize);
+        executor.setQueueCapacity(accountEventsQueueCapacity);
+        executor.setThreadNamePrefix("account-events-");
+        if (virtualThreadsEnabled) {
+            executor.setThreadFactory(Thread.ofVirtual().name("account-events-", 1).factory());
+        }
+        return executor;
+    }
+
+    /**
+     * Defines the executor, which sends buffered events to subscribers of account events. Sends block while clients
+     * do not read, so they do not share threads with calculation of sums. Buffers, which do not fit into the queue,
+     * are sent with the next heartbeat.
+     *
+     * @return The executor of senders of account events.
+     */
+    @Bean(name = "accountEventsSendExecutor")
+    public ThreadPoolTaskExecutor accountEventsSendExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(accountEventsSendPoolSize);
+        executor.setMaxPoolSize(accountEventsSendPoolSize);
+        executor.setQueueCapacity(accountEventsSendQueueCapacity);
+        executor.setThreadNamePrefix("account-events-send-");
+        if (virtualThreadsEnabled) {
+            executor.setThreadFactory(Thread.ofVirtual().name("account-events-send-", 1).factory());
+        }
+        return executor;
+    }
+
+    /**
+     * Defines the executor of tasks, which are forked by requests with slow, independent queries. Every task holds a database
+     * connection, while its request holds none, so by default the pool takes a quarter of the connection pool.
+     * Tasks, which do not fit into the queue, are rejected.
+     *
+     * @return The executor of request tasks.
+     */
+    @Bean(name = "requestTasksExecutor")
+    public ThreadPoolTaskExecutor requestTasksExecutor() {
+        int poolSize = requestTasksPoolSize > 0 ? requestTasksPoolSize : Math.max(1, connectionPoolSize / 4);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(requestTasksQueueCapacity);
+        executor.setThreadNamePrefix("request-tasks-");
+        if (virtualThreadsEnabled) {
+            executor.setThreadFactory(Thread.ofVirtual().name("request-tasks-", 1).factory());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.configuration;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.AccountDto;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
+import com.ivantrykosh.app.budgettracker.server.presentation.FieldSelection;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for JSON serialization of responses.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Adds the filter of selected fields to DTOs, which support selection. The filter is added with a mix-in,
+     * so DTOs stay plain for other mappers, and all fields are written, unless a response selects fields.
+     *
+     * @return The customizer of the ObjectMapper of responses.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionCustomizer() {
+        return builder -> builder
+                .mixIn(TransactionDto.class, FieldSelectionMixIn.class)
+                .mixIn(AccountDto.class, FieldSelectionMixIn.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * Mix-in, which adds the filter of selected fields
+     */
+    @JsonFilter(FieldSelection.FILTER_ID)
+    private interface FieldSelectionMixIn {
+    }
+}
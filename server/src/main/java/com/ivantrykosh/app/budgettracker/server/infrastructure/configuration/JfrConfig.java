@@ -0,0 +1,59 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.configuration;
+
+import com.ivantrykosh.app.budgettracker.server.application.mappers.Mapper;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.jfr.ControllerEvent;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.jfr.JfrEventInterceptor;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.jfr.MappingEvent;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.jfr.RepositoryQueryEvent;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.AdvisingPostProcessor;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RepositoryAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Configuration class for JDK Flight Recorder events of controllers, repositories and mappers.
+ * Events are committed only while a recording with them is running, e.g. the always-on recording of JfrRecording.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jfr.events.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfig {
+
+    /**
+     * Records calls of controller handlers as ControllerEvent.
+     *
+     * @param secretKey The secret key of the server, from which the key of user hashes is derived.
+     * @return The post-processor of controllers.
+     */
+    @Bean
+    public static AdvisingPostProcessor controllerJfrPostProcessor(@Value("${spring.security.secret-key}") String secretKey) {
+        return new AdvisingPostProcessor(new AnnotationMatchingPointcut(RestController.class, true), new JfrEventInterceptor(ControllerEvent::new, secretKey));
+    }
+
+    /**
+     * Records calls of blocking repositories as RepositoryQueryEvent.
+     *
+     * @param secretKey The secret key of the server, from which the key of user hashes is derived.
+     * @return The post-processor of repository factories.
+     */
+    @Bean
+    public static RepositoryAdvisingPostProcessor repositoryJfrPostProcessor(@Value("${spring.security.secret-key}") String secretKey) {
+        return new RepositoryAdvisingPostProcessor(new JfrEventInterceptor(RepositoryQueryEvent::new, secretKey));
+    }
+
+    /**
+     * Records calls of mappers as MappingEvent.
+     *
+     * @param secretKey The secret key of the server, from which the key of user hashes is derived.
+     * @return The post-processor of mappers.
+     */
+    @Bean
+    public static AdvisingPostProcessor mapperJfrPostProcessor(@Value("${spring.security.secret-key}") String secretKey) {
+        return new AdvisingPostProcessor(new ComposablePointcut(new RootClassFilter(Mapper.class)), new JfrEventInterceptor(MappingEvent::new, secretKey));
+    }
+}
@@ -0,0 +1,182 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.configuration;
+
+import com.ivantrykosh.app.budgettracker.server.infrastructure.email.EmailOutboxDispatcher;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.events.AccountEventBroadcaster;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency.InMemoryIdempotencyStore;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.metrics.HandlerObservationConvention;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.metrics.RequestStatisticsFactory;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.persistence.TransactionGroupCommitWriter;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit.AdaptiveConcurrencyLimiter;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit.RequestLimitFilter;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.security.password.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Configuration class for metrics exposed by Actuator.
+ * Latency of endpoints, Hikari pool and executors are measured by Spring Boot, this class adds the handler tag,
+ * database work per request, Hibernate statistics and counters of the server's own components.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Defines the convention of http.server.requests metrics, which tags every request with its controller method.
+     *
+     * @return The convention.
+     */
+    @Bean
+    public ServerRequestObservationConvention handlerObservationConvention() {
+        return new HandlerObservationConvention();
+    }
+
+    /**
+     * Makes Hibernate count statements, loaded entities and returned rows of the current request.
+     *
+     * @return The customizer of Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer() {
+        return properties -> properties.put("hibernate.stats.factory", new RequestStatisticsFactory());
+    }
+
+    /**
+     * Binds global Hibernate statistics.
+     *
+     * @param entityManagerFactory The entity manager factory.
+     * @return The binder of Hibernate metrics.
+     */
+    @Bean
+    public MeterBinder hibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            counter(registry, "hibernate.statements.prepared", statistics, Statistics::getPrepareStatementCount);
+            counter(registry, "hibernate.entities.loaded", statistics, Statistics::getEntityLoadCount);
+            counter(registry, "hibernate.entities.fetched", statistics, Statistics::getEntityFetchCount);
+            counter(registry, "hibernate.collections.fetched", statistics, Statistics::getCollectionFetchCount);
+            counter(registry, "hibernate.queries.executed", statistics, Statistics::getQueryExecutionCount);
+            counter(registry, "hibernate.transactions", statistics, Statistics::getTransactionCount);
+            counter(registry, "hibernate.second.level.cache.hits", statistics, Statistics::getSecondLevelCacheHitCount);
+            counter(registry, "hibernate.second.level.cache.misses", statistics, Statistics::getSecondLevelCacheMissCount);
+            counter(registry, "hibernate.query.cache.hits", statistics, Statistics::getQueryCacheHitCount);
+            counter(registry, "hibernate.query.cache.misses", statistics, Statistics::getQueryCacheMissCount);
+            Gauge.builder("hibernate.queries.max.time", statistics, Statistics::getQueryExecutionMaxTime)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Binds counters of the server's own components, which are enabled.
+     *
+     * @param groupCommitWriter The group-commit writer of transactions.
+     * @param emailOutboxDispatcher The dispatcher of the email outbox.
+     * @param requestLimitFilter The filter of rate limits.
+     * @param concurrencyLimiter The adaptive concurrency limiter.
+     * @param idempotencyStore The in-memory idempotency store.
+     * @param passwordEncoder The password encoder.
+     * @param accountEventBroadcaster The broadcaster of account events.
+     * @return The binder of the server's metrics.
+     */
+    @Bean
+    public MeterBinder componentMetrics(ObjectProvider<TransactionGroupCommitWriter> groupCommitWriter,
+                                        ObjectProvider<EmailOutboxDispatcher> emailOutboxDispatcher,
+                                        ObjectProvider<RequestLimitFilter> requestLimitFilter,
+                                        ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+                                        ObjectProvider<InMemoryIdempotencyStore> idempotencyStore,
+                                        ObjectProvider<PasswordEncoder> passwordEncoder,
+                                        ObjectProvider<AccountEventBroadcaster> accountEventBroadcaster) {
+        return registry -> {
+            groupCommitWriter.ifAvailable(writer -> {
+                FunctionCounter.builder("budgettracker.group.commit.transactions", writer, TransactionGroupCommitWriter::getInsertedTransactions)
+                        .tag("result", "inserted").register(registry);
+                FunctionCounter.builder("budgettracker.group.commit.transactions", writer, TransactionGroupCommitWriter::getFailedTransactions)
+                        .tag("result", "failed").register(registry);
+                FunctionCounter.builder("budgettracker.group.commit.transactions", writer, TransactionGroupCommitWriter::getRejectedTransactions)
+                        .tag("result", "rejected").register(registry);
+                counter(registry, "budgettracker.group.commit.batches", writer, TransactionGroupCommitWriter::getFlushedBatches);
+                Gauge.builder("budgettracker.group.commit.batch.size", writer, TransactionGroupCommitWriter::getLastBatchSize).register(registry);
+                Gauge.builder("budgettracker.group.commit.queued", writer, TransactionGroupCommitWriter::getQueuedTransactions).register(registry);
+            });
+
+            emailOutboxDispatcher.ifAvailable(dispatcher -> {
+                FunctionCounter.builder("budgettracker.email.outbox.emails", dispatcher, EmailOutboxDispatcher::getSentEmails)
+                        .tag("result", "sent").register(registry);
+                FunctionCounter.builder("budgettracker.email.outbox.emails", dispatcher, EmailOutboxDispatcher::getRetriedEmails)
+                        .tag("result", "retried").register(registry);
+                FunctionCounter.builder("budgettracker.email.outbox.emails", dispatcher, EmailOutboxDispatcher::getFailedEmails)
+                        .tag("result", "failed").register(registry);
+                counter(registry, "budgettracker.email.outbox.batches", dispatcher, EmailOutboxDispatcher::getSentBatches);
+                Gauge.builder("budgettracker.email.outbox.batch.time", dispatcher, EmailOutboxDispatcher::getLastBatchMillis)
+                        .baseUnit("milliseconds").register(registry);
+                Gauge.builder("budgettracker.email.outbox.pending", dispatcher, EmailOutboxDispatcher::getPendingEmails).register(registry);
+            });
+
+            requestLimitFilter.ifAvailable(filter -> {
+                FunctionCounter.builder("budgettracker.requests.rejected", filter, RequestLimitFilter::getRejectedByRateLimit)
+                        .tag("reason", "rate_limit").register(registry);
+                Gauge.builder("budgettracker.rate.limit.buckets", filter, RequestLimitFilter::getBucketCount).register(registry);
+            });
+
+            concurrencyLimiter.ifAvailable(limiter -> {
+                FunctionCounter.builder("budgettracker.requests.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedByLimit)
+                        .tag("reason", "concurrency_limit").register(registry);
+                FunctionCounter.builder("budgettracker.requests.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedByPool)
+                        .tag("reason", "pool_saturated").register(registry);
+                Gauge.builder("budgettracker.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).register(registry);
+                Gauge.builder("budgettracker.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight).register(registry);
+            });
+
+            idempotencyStore.ifAvailable(store ->
+                    Gauge.builder("budgettracker.idempotency.keys", store, InMemoryIdempotencyStore::size).register(registry));
+
+            passwordEncoder.ifAvailable(encoder -> {
+                if (encoder instanceof BoundedPasswordEncoder boundedEncoder) {
+                    FunctionTimer.builder("budgettracker.password.hashing", boundedEncoder,
+                                    BoundedPasswordEncoder::getHashes, BoundedPasswordEncoder::getHashNanos, TimeUnit.NANOSECONDS)
+                            .register(registry);
+                    FunctionTimer.builder("budgettracker.password.hashing.queue", boundedEncoder,
+                                    BoundedPasswordEncoder::getHashes, BoundedPasswordEncoder::getQueueNanos, TimeUnit.NANOSECONDS)
+                            .register(registry);
+                    Gauge.builder("budgettracker.password.hashing.max", boundedEncoder, e -> TimeUnit.NANOSECONDS.toMillis(e.getMaxHashNanos()))
+                            .baseUnit("milliseconds").register(registry);
+                    counter(registry, "budgettracker.password.hashing.rejected", boundedEncoder, BoundedPasswordEncoder::getRejected);
+                }
+            });
+
+            accountEventBroadcaster.ifAvailable(broadcaster -> {
+                Gauge.builder("budgettracker.account.events.subscribers", broadcaster, AccountEventBroadcaster::getSubscriberCount).register(registry);
+                counter(registry, "budgettracker.account.events.published", broadcaster, AccountEventBroadcaster::getPublishedChanges);
+                counter(registry, "budgettracker.account.events.overflows", broadcaster, AccountEventBroadcaster::getOverflowedBuffers);
+                counter(registry, "budgettracker.account.events.dropped", broadcaster, AccountEventBroadcaster::getDroppedSubscribers);
+            });
+        };
+    }
+
+    /**
+     * Registers a counter, whose value is read from the object.
+     *
+     * @param registry The meter registry.
+     * @param name The name of the counter.
+     * @param object The object, from which the value is read.
+     * @param value The function reading the value.
+     */
+    private static <T> void counter(MeterRegistry registry, String name, T object, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, object, value).register(registry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.configuration;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the reactive read stack. Enabled when spring.r2dbc.url is set.
+ * R2DBC repositories are looked up only in the domain.reactive package, JPA repositories and the JPA transaction manager stay as they are.
+ * Reads are single statements, so no reactive transaction manager is defined.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.r2dbc.url")
+@EnableR2dbcRepositories(basePackages = "com.ivantrykosh.app.budgettracker.server.domain.reactive")
+public class ReactiveDataConfig extends AbstractR2dbcConfiguration {
+
+    @Value("${spring.r2dbc.url}")
+    private String url; // R2DBC URL of the database
+
+    @Value("${spring.r2dbc.username:}")
+    private String username; // Username of the database
+
+    @Value("${spring.r2dbc.password:}")
+    private String password; // Password of the database
+
+    @Value("${spring.r2dbc.pool.max-size:10}")
+    private int poolMaxSize; // Number of connections shared by all streamed requests
+
+    @Value("${spring.r2dbc.pool.max-acquire-time-ms:5000}")
+    private long poolMaxAcquireTimeMs; // Time to wait for a free connection before the request fails
+
+    /**
+     * Defines the bounded pool of R2DBC connections.
+     *
+     * @return The connection factory.
+     */
+    @Bean(destroyMethod = "dispose")
+    @Override
+    public ConnectionFactory connectionFactory() {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("r2dbc-pool")
+                .initialSize(0)
+                .maxSize(poolMaxSize)
+                .maxAcquireTime(Duration.ofMillis(poolMaxAcquireTimeMs))
+                .build();
+        return new ConnectionPool(configuration);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.configuration;
+
+import com.ivantrykosh.app.budgettracker.server.application.mappers.Mapper;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.AdvisingPostProcessor;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.PhaseInterceptor;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RepositoryAdvisingPostProcessor;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RequestTrace;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.TracingStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for tracing of phases of requests.
+ * Repositories are timed as db and mappers as mapping, SQL statements are recorded by a Hibernate statement inspector.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    /**
+     * Makes Hibernate record SQL statements of the current request. An already configured inspector is kept.
+     *
+     * @return The customizer of Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer tracingStatementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new TracingStatementInspector(properties.get(AvailableSettings.STATEMENT_INSPECTOR)));
+    }
+
+    /**
+     * Times calls of blocking repositories as the db phase.
+     *
+     * @return The post-processor of repository factories.
+     */
+    @Bean
+    public static RepositoryAdvisingPostProcessor repositoryTracingPostProcessor() {
+        return new RepositoryAdvisingPostProcessor(new PhaseInterceptor(RequestTrace.DB));
+    }
+
+    /**
+     * Times calls of mappers as the mapping phase.
+     *
+     * @return The post-processor of mappers.
+     */
+    @Bean
+    public static AdvisingPostProcessor mapperTracingPostProcessor() {
+        return new AdvisingPostProcessor(new ComposablePointcut(new RootClassFilter(Mapper.class)), new PhaseInterceptor(RequestTrace.MAPPING));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration class for virtual threads mode. Enabled with server.virtual-threads.enabled=true and requires Java 21.
+ * Tomcat handles every request on a new virtual thread, so a request blocked on JDBC or SMTP does not hold a platform thread.
+ * Async tasks and scheduled jobs run on virtual threads too.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Value("${spring.task.scheduling.pool.size:2}")
+    private int schedulingPoolSize; // Number of scheduled jobs running at the same time
+
+    /**
+     * Replaces the thread pool of Tomcat with an executor, which starts a virtual thread per request.
+     *
+     * @return The customizer of Tomcat protocol handler.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Defines the executor of @Async methods and asynchronous MVC requests, which starts a virtual thread per task.
+     *
+     * @return The executor of async tasks.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Defines the scheduler of @Scheduled jobs, whose threads are virtual.
+     *
+     * @return The task scheduler.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulingPoolSize);
+        scheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-", 1).factory());
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+}
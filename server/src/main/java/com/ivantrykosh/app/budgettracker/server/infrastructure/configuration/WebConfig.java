@@ -0,0 +1,69 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.configuration;
+
+import com.ivantrykosh.app.budgettracker.server.infrastructure.logging.LogSamplingInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class for Spring MVC.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private static final String[] NOT_OPEN_IN_VIEW_PATHS = {"/api/v1/dashboard"}; // Endpoints, which fork their queries, so they must not hold a connection
+
+    @Autowired
+    @Qualifier("streamingExecutor")
+    private ThreadPoolTaskExecutor streamingExecutor; // Executor of asynchronous requests
+
+    @Autowired(required = false)
+    private LogSamplingInterceptor logSamplingInterceptor; // Sampling of logs per endpoint, null if it is disabled
+
+    @Autowired(required = false)
+    private OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor; // Open session in view, null if it is disabled
+
+    /**
+     * Defines the open session in view interceptor instead of the one of Spring Boot, so it can be registered without
+     * endpoints, which fork their queries.
+     *
+     * @return The open session in view interceptor.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.jpa.open-in-view", havingValue = "true", matchIfMissing = true)
+    public static OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    /**
+     * Uses the bounded executor for asynchronous requests instead of a new thread per streamed item.
+     *
+     * @param configurer The configurer of asynchronous requests.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+    }
+
+    /**
+     * Opens the persistence context for the whole request, except for endpoints, which fork their queries,
+     * and samples logs of requests to the API.
+     *
+     * @param registry The registry of interceptors.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (openEntityManagerInViewInterceptor != null) {
+            registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor).excludePathPatterns(NOT_OPEN_IN_VIEW_PATHS);
+        }
+        if (logSamplingInterceptor != null) {
+            registry.addInterceptor(logSamplingInterceptor).addPathPatterns("/api/**");
+        }
+    }
+}
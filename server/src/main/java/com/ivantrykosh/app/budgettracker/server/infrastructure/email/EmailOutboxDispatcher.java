@@ -0,0 +1,317 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.email;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.OutboxEmail;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.OutboxEmailRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends queued emails from the email outbox.
+ * Due emails are claimed periodically and sent in batches by a bounded pool of workers.
+ * Every batch is sent through one SMTP connection. Failed emails are retried with exponential backoff.
+ */
+@Component
+@ConditionalOnProperty(name = "email.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.HOURS.toMillis(1); // Maximum delay between attempts
+    private static final int MAX_ERROR_LENGTH = 1000; // Maximum length of saved error
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository; // Email outbox
+    @Autowired
+    private JavaMailSender mailSender; // Mail sender
+    @Autowired
+    private EmailSecretCipher emailSecretCipher; // Cipher of secrets of emails
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    @Qualifier("emailExecutor")
+    private ThreadPoolTaskExecutor emailExecutor; // Workers, which send batches
+
+    @Value("${spring.mail.username}")
+    private String from; // From email
+    @Value("${email.outbox.batch-size:20}")
+    private int batchSize; // Number of emails sent through one connection
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts; // Number of attempts before email is marked as failed
+    @Value("${email.outbox.retry-delay-ms:30000}")
+    private long retryDelayMillis; // Delay before the first retry, doubled for every next one
+    @Value("${email.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMillis; // Time after which emails of a stopped dispatcher are sent again
+
+    private final AtomicLong sentEmails = new AtomicLong(); // Number of sent emails
+    private final AtomicLong retriedEmails = new AtomicLong(); // Number of failed attempts, which will be retried
+    private final AtomicLong failedEmails = new AtomicLong(); // Number of emails, which were not sent after all attempts
+    private final AtomicLong sentBatches = new AtomicLong(); // Number of sent batches
+    private final AtomicLong lastBatchMillis = new AtomicLong(); // Duration of the last batch
+    Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class); // Logger
+
+    /**
+     * Claims due emails and sends them in batches. Returns after all batches are sent, so at most one
+     * claim per worker is in flight.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void dispatchPendingEmails() {
+        List<OutboxEmail> emails = claimPendingEmails();
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int i = 0; i < emails.size(); i += batchSize) {
+            List<OutboxEmail> batch = emails.subList(i, Math.min(i + batchSize, emails.size()));
+            batches.add(CompletableFuture.runAsync(() -> sendBatch(batch), emailExecutor));
+        }
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Gets number of sent emails.
+     *
+     * @return The number of sent emails.
+     */
+    public long getSentEmails() {
+        return sentEmails.get();
+    }
+
+    /**
+     * Gets number of failed attempts, which will be retried.
+     *
+     * @return The number of retried emails.
+     */
+    public long getRetriedEmails() {
+        return retriedEmails.get();
+    }
+
+    /**
+     * Gets number of emails, which were not sent after all attempts.
+     *
+     * @return The number of failed emails.
+     */
+    public long getFailedEmails() {
+        return failedEmails.get();
+    }
+
+    /**
+     * Gets number of sent batches.
+     *
+     * @return The number of sent batches.
+     */
+    public long getSentBatches() {
+        return sentBatches.get();
+    }
+
+    /**
+     * Gets duration of the last sent batch.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getLastBatchMillis() {
+        return lastBatchMillis.get();
+    }
+
+    /**
+     * Gets number of emails waiting in the outbox.
+     *
+     * @return The number of pending emails.
+     */
+    public long getPendingEmails() {
+        return outboxEmailRepository.countByStatus(OutboxEmail.Status.PENDING);
+    }
+
+    /**
+     * Claims due emails for sending. Claimed emails are not claimed again until the claim is expired.
+     *
+     * @return The claimed emails.
+     */
+    private List<OutboxEmail> claimPendingEmails() {
+        int claimSize = batchSize * emailExecutor.getMaxPoolSize();
+        return transactionTemplate.execute(status -> {
+            Date now = new Date();
+            outboxEmailRepository.releaseExpiredClaims(OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING, now);
+
+            List<OutboxEmail> emails = outboxEmailRepository.findAllByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                    OutboxEmail.Status.PENDING, now, PageRequest.of(0, claimSize));
+            Date claimedUntil = new Date(now.getTime() + claimTimeoutMillis);
+            for (OutboxEmail email : emails) {
+                email.setStatus(OutboxEmail.Status.SENDING);
+                email.setNextAttemptAt(claimedUntil);
+            }
+            return outboxEmailRepository.saveAll(emails);
+        });
+    }
+
+    /**
+     * Sends batch of emails through one connection and saves results.
+     *
+     * @param batch The emails to send.
+     */
+    private void sendBatch(List<OutboxEmail> batch) {
+        long start = System.nanoTime();
+        Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+        Map<OutboxEmail, String> errors = new HashMap<>();
+        Set<OutboxEmail> unsendable = new HashSet<>(); // Emails, which are failed without retries
+
+        Date now = new Date();
+        for (OutboxEmail email : batch) {
+            if (email.getExpiresAt() != null && email.getExpiresAt().before(now)) {
+                errors.put(email, "Email is expired");
+                unsendable.add(email);
+                continue;
+            }
+            try {
+                messages.put(createMimeMessage(email), email);
+            } catch (MessagingException e) {
+                errors.put(email, describe(e));
+            } catch (GeneralSecurityException e) {
+                errors.put(email, "Secret of email can not be decrypted: " + describe(e));
+                unsendable.add(email);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // Messages, which are not in failed messages, were sent
+                e.getFailedMessages().forEach((message, exception) -> {
+                    OutboxEmail email = messages.get(message);
+                    if (email != null) {
+                        errors.put(email, describe(exception));
+                    }
+                });
+            } catch (MailException e) {
+                messages.values().forEach(email -> errors.put(email, describe(e)));
+            }
+        }
+
+        try {
+            saveResults(batch, errors, unsendable);
+        } catch (RuntimeException e) {
+            // Emails will be sent again after the claim is expired
+            logger.error("Failed to save results of batch with {} emails: {}", batch.size(), e.getMessage());
+        }
+        sentBatches.incrementAndGet();
+        lastBatchMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Marks emails as sent, or schedules next attempts for failed ones.
+     * Bodies and secrets of sent and failed emails are scrubbed, so they are not kept at rest.
+     *
+     * @param batch The sent emails.
+     * @param errors The errors of failed emails.
+     * @param unsendable The failed emails, which are not retried.
+     */
+    private void saveResults(List<OutboxEmail> batch, Map<OutboxEmail, String> errors, Set<OutboxEmail> unsendable) {
+        Date now = new Date();
+        for (OutboxEmail email : batch) {
+            String error = errors.get(email);
+            if (error == null) {
+                email.setStatus(OutboxEmail.Status.SENT);
+                email.setSentAt(now);
+                scrub(email);
+                sentEmails.incrementAndGet();
+                logger.info("Email with subject {} was sent to {}", email.getSubject(), email.getRecipient());
+                continue;
+            }
+
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (attempts >= maxAttempts || unsendable.contains(email)) {
+                email.setStatus(OutboxEmail.Status.FAILED);
+                scrub(email);
+                failedEmails.incrementAndGet();
+                logger.error("Failed to send email with subject {} to {} after {} attempts: {}", email.getSubject(), email.getRecipient(), attempts, error);
+            } else {
+                email.setStatus(OutboxEmail.Status.PENDING);
+                email.setNextAttemptAt(new Date(now.getTime() + retryDelay(attempts)));
+                retriedEmails.incrementAndGet();
+                logger.warn("Failed to send email with subject {} to {}, attempt {}: {}", email.getSubject(), email.getRecipient(), attempts, error);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEmailRepository.saveAll(batch));
+    }
+
+    /**
+     * Creates MIME message of the email.
+     *
+     * @param email The email.
+     * @return The MIME message.
+     * @throws MessagingException If the message can not be created.
+     * @throws GeneralSecurityException If the secret of the email can not be decrypted.
+     */
+    private MimeMessage createMimeMessage(OutboxEmail email) throws MessagingException, GeneralSecurityException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, "utf-8");
+
+        String body = email.getSecret() == null
+                ? email.getBody()
+                : email.getBody().replace(OutboxEmail.SECRET_PLACEHOLDER, emailSecretCipher.decrypt(email.getSecret()));
+        mimeMessageHelper.setSubject(email.getSubject());
+        mimeMessageHelper.setText(body, true);
+        mimeMessageHelper.setTo(email.getRecipient());
+        mimeMessageHelper.setFrom(from);
+        return mimeMessage;
+    }
+
+    /**
+     * Deletes body and secret of the email, which will not be sent anymore.
+     *
+     * @param email The email.
+     */
+    private void scrub(OutboxEmail email) {
+        email.setBody("");
+        email.setSecret(null);
+    }
+
+    /**
+     * Calculates delay before the next attempt.
+     *
+     * @param attempts The number of failed attempts.
+     * @return The delay in milliseconds.
+     */
+    private long retryDelay(int attempts) {
+        long delay = retryDelayMillis << Math.min(attempts - 1, 20);
+        return Math.min(delay, MAX_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * Describes the exception.
+     *
+     * @param e The exception.
+     * @return The message of the exception or its name.
+     */
+    private String describe(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.email;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts secrets of queued emails (e.g. passwords and confirmation links) with AES-GCM, so they are never saved in plain text.
+ * The key is derived from the secret key of the server, so every instance can decrypt emails queued by other instances.
+ */
+@Component
+public class EmailSecretCipher {
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding"; // Cipher transformation
+    private static final int IV_LENGTH = 12; // Length of initialization vector in bytes
+    private static final int TAG_LENGTH = 128; // Length of authentication tag in bits
+
+    private final SecretKeySpec key; // Key of emails
+    private final SecureRandom secureRandom = new SecureRandom(); // Generator of initialization vectors
+
+    public EmailSecretCipher(@Value("${spring.security.secret-key}") String secretKey) throws GeneralSecurityException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(secretKey.getBytes(StandardCharsets.UTF_8));
+        digest.update("email-outbox".getBytes(StandardCharsets.UTF_8));
+        this.key = new SecretKeySpec(digest.digest(), "AES");
+    }
+
+    /**
+     * Encrypts the secret.
+     *
+     * @param secret The secret.
+     * @return The Base64 of initialization vector and encrypted secret.
+     */
+    public String encrypt(String secret) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+            byte[] encrypted = cipher.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Secret of email can not be encrypted", e);
+        }
+    }
+
+    /**
+     * Decrypts the secret.
+     *
+     * @param encryptedSecret The Base64 of initialization vector and encrypted secret.
+     * @return The secret.
+     * @throws GeneralSecurityException If the secret can not be decrypted (e.g. it was encrypted with another key).
+     */
+    public String decrypt(String encryptedSecret) throws GeneralSecurityException {
+        byte[] bytes = Base64.getDecoder().decode(encryptedSecret);
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, bytes, 0, IV_LENGTH));
+        return new String(cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH), StandardCharsets.UTF_8);
+    }
+}
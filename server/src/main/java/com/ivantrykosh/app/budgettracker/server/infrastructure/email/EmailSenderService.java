@@ -1,53 +1,86 @@
 package com.ivantrykosh.app.budgettracker.server.infrastructure.email;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.ivantrykosh.app.budgettracker.server.domain.model.OutboxEmail;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.OutboxEmailRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Service class for sending emails using JavaMailSender.
+ * Service class for sending emails through the email outbox.
  */
 @Service
 public class EmailSenderService {
     @Autowired
-    private JavaMailSender mailSender; // Mail sender
+    private OutboxEmailRepository outboxEmailRepository; // Email outbox
+    @Autowired
+    private EmailSecretCipher emailSecretCipher; // Cipher of secrets of emails
 
-    @Value("${spring.mail.username}")
-    private String from; // From email
+    @Value("${email.outbox.secret-ttl-minutes:15}")
+    private long secretTtlMinutes; // How long emails with secrets can be sent
 
     Logger logger = LoggerFactory.getLogger(EmailSenderService.class); // Logger
 
     /**
-     * Asynchronously sends an email.
+     * Queues an email to the outbox. The email is saved within the current transaction,
+     * so it is sent by EmailOutboxDispatcher only if the transaction is committed. The caller does not wait for the mail server.
      *
      * @param to      The recipient's email address.
      * @param subject The subject of the email.
      * @param body    The body/content of the email.
+     * @return The queued email.
+     */
+    public OutboxEmail sendEmail(String to, String subject, String body) {
+        return queueEmail(to, subject, body, null, null);
+    }
+
+    /**
+     * Queues an email with a secret (e.g. a password or a confirmation link) to the outbox.
+     * Only the encrypted secret is saved; it replaces OutboxEmail.SECRET_PLACEHOLDER in the body when the email is sent.
+     * The email is not sent after the secret TTL and the secret is deleted, when the email is sent or failed.
+     *
+     * @param to      The recipient's email address.
+     * @param subject The subject of the email.
+     * @param body    The body/content of the email with OutboxEmail.SECRET_PLACEHOLDER.
+     * @param secret  The secret.
+     * @return The queued email.
      */
-    @Async
-    public void sendEmail(String to, String subject, String body) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, "utf-8");
-
-            mimeMessageHelper.setSubject(subject);
-            mimeMessageHelper.setText(body, true);
-            mimeMessageHelper.setTo(to);
-            mimeMessageHelper.setFrom(from);
-
-            mailSender.send(mimeMessage);
-
-            logger.info("Email with subject " + subject + " was sent to " + to);
-        } catch (MessagingException e) {
-            logger.error("Failed to send email with subject " + subject + " to " + to);
-            throw new IllegalArgumentException("Failed to send email!");
-        }
+    public OutboxEmail sendEmailWithSecret(String to, String subject, String body, String secret) {
+        Date expiresAt = new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(secretTtlMinutes));
+        return queueEmail(to, subject, body, emailSecretCipher.encrypt(secret), expiresAt);
+    }
+
+    /**
+     * Saves an email to the outbox.
+     *
+     * @param to The recipient's email address.
+     * @param subject The subject of the email.
+     * @param body The body/content of the email.
+     * @param encryptedSecret The encrypted secret of the email, or null.
+     * @param expiresAt The date after which the email is not sent, or null.
+     * @return The queued email.
+     */
+    private OutboxEmail queueEmail(String to, String subject, String body, String encryptedSecret, Date expiresAt) {
+        Date now = new Date();
+
+        OutboxEmail outboxEmail = new OutboxEmail();
+        outboxEmail.setRecipient(to);
+        outboxEmail.setSubject(subject);
+        outboxEmail.setBody(body);
+        outboxEmail.setSecret(encryptedSecret);
+        outboxEmail.setExpiresAt(expiresAt);
+        outboxEmail.setStatus(OutboxEmail.Status.PENDING);
+        outboxEmail.setAttempts(0);
+        outboxEmail.setCreatedAt(now);
+        outboxEmail.setNextAttemptAt(now);
+        OutboxEmail savedOutboxEmail = outboxEmailRepository.save(outboxEmail);
+
+        logger.info("Email with subject {} was queued for {}", subject, to);
+        return savedOutboxEmail;
     }
 }
@@ -0,0 +1,377 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.events;
+
+import com.ivantrykosh.app.budgettracker.server.application.dtos.AccountChangeDto;
+import com.ivantrykosh.app.budgettracker.server.application.events.AccountAccessChangedEvent;
+import com.ivantrykosh.app.budgettracker.server.application.events.TransactionChangedEvent;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.AccountSums;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes changes of transactions of accounts to subscribed clients as server-sent events.
+ * A client subscribes to its own and shared accounts and gets a transaction-changed event with the ID of the transaction
+ * and new sums of the account after every committed change, so it does not have to poll accounts.
+ * <p>
+ * Publishers are never blocked by subscribers: events are handed to a bounded executor after the commit, which calculates
+ * sums of the account once and puts the change into a bounded buffer of every subscriber. Buffers are drained by a separate
+ * executor of senders, at most one task per subscriber, so clients, which read slowly, do not delay sums of accounts.
+ * When the buffer of a slow subscriber overflows, its changes are dropped and replaced with a resync event, after which
+ * the client reloads its accounts. A subscriber, whose event is not sent within the send timeout, is stalled: it is dropped
+ * and gets no more events, and its subscription is completed with a resync event as soon as the blocked send returns. When users of an account change, its subscribers get
+ * a resubscribe event and are closed, so access to accounts is checked again.
+ */
+@Component
+@ConditionalOnProperty(name = "account-events.enabled", havingValue = "true", matchIfMissing = true)
+public class AccountEventBroadcaster {
+    public static final String SUBSCRIBED_EVENT = "subscribed"; // First event with IDs of subscribed accounts
+    public static final String CHANGE_EVENT = "transaction-changed"; // Change of transaction with new sums of its account
+    public static final String RESYNC_EVENT = "resync"; // Changes were dropped, accounts must be reloaded
+    public static final String RESUBSCRIBE_EVENT = "resubscribe"; // Users of accounts were changed, the subscription is closed
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    @Qualifier("accountEventsExecutor")
+    private ThreadPoolTaskExecutor accountEventsExecutor; // Workers, which calculate sums
+    @Autowired
+    @Qualifier("accountEventsSendExecutor")
+    private ThreadPoolTaskExecutor accountEventsSendExecutor; // Workers, which send buffered events to subscribers
+
+    @Value("${account-events.buffer-size:64}")
+    private int bufferSize; // Number of events waiting to be sent to one subscriber
+    @Value("${account-events.timeout-ms:1800000}")
+    private long timeoutMillis; // Time after which a subscription is closed and the client reconnects
+    @Value("${account-events.send-timeout-ms:10000}")
+    private long sendTimeoutMillis; // Time, after which a subscriber, whose event is still being sent, is dropped
+
+    private final Map<Long, Set<Subscriber>> subscribersByAccount = new ConcurrentHashMap<>(); // Subscribers of every account
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet(); // All subscribers
+    private final AtomicLong publishedChanges = new AtomicLong(); // Number of changes sent to subscribers
+    private final AtomicLong overflowedBuffers = new AtomicLong(); // Number of overflows of buffers of slow subscribers
+    private final AtomicLong droppedSubscribers = new AtomicLong(); // Number of stalled subscribers, which were dropped
+    Logger logger = LoggerFactory.getLogger(AccountEventBroadcaster.class); // Logger
+
+    /**
+     * Subscribes a user to changes of accounts.
+     *
+     * @param userId The ID of the user.
+     * @param accountIds The IDs of own and shared accounts of the user.
+     * @return The emitter of events of the subscription.
+     */
+    public SseEmitter subscribe(Long userId, Collection<Long> accountIds) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, Set.copyOf(accountIds), emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        for (Long accountId : subscriber.accountIds) {
+            subscribersByAccount.compute(accountId, (id, accountSubscribers) -> {
+                Set<Subscriber> updatedSubscribers = accountSubscribers != null ? accountSubscribers : ConcurrentHashMap.newKeySet();
+                updatedSubscribers.add(subscriber);
+                return updatedSubscribers;
+            });
+        }
+        subscriber.offer(SseEmitter.event().name(SUBSCRIBED_EVENT).data(subscriber.accountIds, MediaType.APPLICATION_JSON));
+        return emitter;
+    }
+
+    /**
+     * Publishes a committed change of a transaction to subscribers of its account.
+     * Returns at once, if the account has no subscribers.
+     *
+     * @param event The change of the transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (!subscribersByAccount.containsKey(event.accountId())) {
+            return;
+        }
+        try {
+            accountEventsExecutor.execute(() -> publish(event));
+        } catch (TaskRejectedException e) {
+            logger.warn("Change of transaction of account with ID {} was not published, subscribers are resynced", event.accountId());
+            subscribersByAccount.getOrDefault(event.accountId(), Set.of()).forEach(Subscriber::resync);
+        }
+    }
+
+    /**
+     * Closes subscriptions of accounts, whose users were changed, and subscriptions of the removed user.
+     *
+     * @param event The change of users of accounts.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountAccessChanged(AccountAccessChangedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.userId.equals(event.userId()) || event.accountIds().stream().anyMatch(subscriber.accountIds::contains)) {
+                logger.info("Subscription of user with ID {} is closed, because users of accounts were changed", subscriber.userId);
+                unsubscribe(subscriber);
+                subscriber.close(SseEmitter.event().name(RESUBSCRIBE_EVENT).data("Users of accounts were changed"));
+            }
+        }
+    }
+
+    /**
+     * Sends a heartbeat to every subscriber, so idle connections are not closed by proxies and closed clients are detected.
+     * Heartbeats also send events, which were left in buffers because the executor was busy.
+     */
+    @Scheduled(fixedDelayString = "${account-events.heartbeat-interval-ms:30000}")
+    public void sendHeartbeats() {
+        subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat")));
+    }
+
+    /**
+     * Drops subscribers, whose event has been sent for longer than the send timeout, e.g. because the client stopped reading.
+     * The blocked send is released by the write timeout of the server, server.tomcat.connection-timeout, after which
+     * the subscription is completed.
+     */
+    @Scheduled(fixedDelayString = "${account-events.send-timeout-ms:10000}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                logger.warn("Subscription of user with ID {} is dropped, because its events were not sent in {} ms", subscriber.userId, sendTimeoutMillis);
+                droppedSubscribers.incrementAndGet();
+                unsubscribe(subscriber);
+                subscriber.close(SseEmitter.event().name(RESYNC_EVENT).data("Changes were not sent in time, accounts must be reloaded"));
+            }
+        }
+    }
+
+    /**
+     * Completes all subscriptions, so clients reconnect to another instance.
+     */
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(subscriber -> {
+            unsubscribe(subscriber);
+            subscriber.emitter.complete();
+        });
+    }
+
+    /**
+     * Gets number of subscribers.
+     *
+     * @return The number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Gets number of changes sent to subscribers. A change sent to several subscribers is counted once per subscriber.
+     *
+     * @return The number of published changes.
+     */
+    public long getPublishedChanges() {
+        return publishedChanges.get();
+    }
+
+    /**
+     * Gets number of overflows of buffers of slow subscribers.
+     *
+     * @return The number of overflowed buffers.
+     */
+    public long getOverflowedBuffers() {
+        return overflowedBuffers.get();
+    }
+
+    /**
+     * Gets number of stalled subscribers, which were dropped.
+     *
+     * @return The number of dropped subscribers.
+     */
+    public long getDroppedSubscribers() {
+        return droppedSubscribers.get();
+    }
+
+    /**
+     * Calculates new sums of the account of the change and puts the change into buffers of its subscribers.
+     *
+     * @param event The change of the transaction.
+     */
+    private void publish(TransactionChangedEvent event) {
+        Set<Subscriber> accountSubscribers = subscribersByAccount.get(event.accountId());
+        if (accountSubscribers == null) {
+            return;
+        }
+        AccountChangeDto change = new AccountChangeDto();
+        change.setType(event.type());
+        change.setAccountId(event.accountId());
+        change.setTransactionId(event.transactionId());
+        try {
+            AccountSums sums = transactionService.getSumsOfTransactionsByAccountIds(List.of(event.accountId())).get(event.accountId());
+            change.setIncomesSum(sums != null && sums.getIncomesSum() != null ? sums.getIncomesSum() : 0.0);
+            change.setExpensesSum(sums != null && sums.getExpensesSum() != null ? sums.getExpensesSum() : 0.0);
+        } catch (RuntimeException e) {
+            logger.error("Sums of account with ID {} were not calculated, subscribers are resynced", event.accountId(), e);
+            accountSubscribers.forEach(Subscriber::resync);
+            return;
+        }
+        accountSubscribers.forEach(subscriber -> {
+            subscriber.offer(SseEmitter.event().name(CHANGE_EVENT).data(change, MediaType.APPLICATION_JSON));
+            publishedChanges.incrementAndGet();
+        });
+    }
+
+    /**
+     * Removes the subscriber from all accounts.
+     *
+     * @param subscriber The subscriber.
+     */
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long accountId : subscriber.accountIds) {
+            subscribersByAccount.computeIfPresent(accountId, (id, accountSubscribers) -> {
+                accountSubscribers.remove(subscriber);
+                return accountSubscribers.isEmpty() ? null : accountSubscribers;
+            });
+        }
+    }
+
+    /**
+     * Subscription of a client with a bounded buffer of events, which are not sent yet
+     */
+    private final class Subscriber {
+        private final Long userId; // ID of the subscribed user
+        private final Set<Long> accountIds; // IDs of subscribed accounts
+        private final SseEmitter emitter; // Emitter of events
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize); // Events, which are not sent yet
+        private final AtomicBoolean draining = new AtomicBoolean(); // Whether a task sending the buffer is scheduled
+        private volatile boolean closing; // Whether the emitter is completed after the buffer is sent
+        private volatile long sendStartNanos; // Start of the current send
+        private volatile boolean sending; // Whether an event is being sent
+
+        private Subscriber(Long userId, Set<Long> accountIds, SseEmitter emitter) {
+            this.userId = userId;
+            this.accountIds = accountIds;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Puts the event into the buffer. If the buffer is full, its events are replaced with a resync event.
+         *
+         * @param event The event.
+         */
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closing) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                resync();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Replaces events in the buffer with a resync event.
+         */
+        private void resync() {
+            if (closing) {
+                return;
+            }
+            overflowedBuffers.incrementAndGet();
+            buffer.clear();
+            buffer.offer(SseEmitter.event().name(RESYNC_EVENT).data("Changes were dropped, accounts must be reloaded"));
+            scheduleDrain();
+        }
+
+        /**
+         * Puts the last event into the buffer and completes the emitter after the buffer is sent.
+         *
+         * @param event The last event.
+         */
+        private void close(SseEmitter.SseEventBuilder event) {
+            buffer.clear();
+            buffer.offer(event);
+            closing = true;
+            scheduleDrain();
+        }
+
+        /**
+         * Checks, whether an event has been sent for longer than the send timeout.
+         *
+         * @param now The current value of System.nanoTime().
+         * @return true if the subscriber is stalled, otherwise false.
+         */
+        private boolean isStalled(long now) {
+            return sending && now - sendStartNanos > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        }
+
+        /**
+         * Schedules sending of the buffer, unless it is already scheduled.
+         * If the executor is busy, the buffer is sent with the next heartbeat.
+         */
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    accountEventsSendExecutor.execute(this::drain);
+                } catch (TaskRejectedException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        /**
+         * Sends events from the buffer until it is empty.
+         */
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = buffer.poll()) != null) {
+                    sendStartNanos = System.nanoTime();
+                    sending = true;
+                    try {
+                        emitter.send(event);
+                    } finally {
+                        sending = false;
+                    }
+                }
+                if (closing) {
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client is disconnected or the emitter is completed
+                closing = true;
+                buffer.clear();
+                unsubscribe(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Events, which were put into the buffer after it was emptied
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
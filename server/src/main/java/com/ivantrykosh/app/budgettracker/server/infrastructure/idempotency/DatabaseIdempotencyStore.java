@@ -0,0 +1,189 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivantrykosh.app.budgettracker.server.domain.model.IdempotencyRecord;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotency store, which keeps keys in the idempotency_keys table, so they are shared by all servers and survive restarts.
+ * Every operation is committed in a separate transaction, independent of the transaction of the request.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+    private static final TypeReference<Map<String, List<String>>> HEADERS_TYPE = new TypeReference<>() {
+    }; // Type of stored headers
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl-minutes:1440}")
+    private long ttlMinutes; // How long responses are kept
+    @Value("${idempotency.in-progress-timeout-ms:60000}")
+    private long inProgressTimeoutMillis; // How long a key is claimed by a request, which has not completed yet
+
+    Logger logger = LoggerFactory.getLogger(DatabaseIdempotencyStore.class); // Logger
+
+    /**
+     * {@inheritDoc}
+     * Two requests, which claim the same key at the same time, are told apart by the primary key of the table.
+     */
+    @Override
+    public ExistingRequest claim(String key, String requestHash) {
+        String hashedKey = hash(key);
+        Date now = new Date();
+        Date claimedUntil = new Date(now.getTime() + inProgressTimeoutMillis);
+        try {
+            return transactionTemplate.execute(status -> {
+                IdempotencyRecord existing = idempotencyRecordRepository.findById(hashedKey).orElse(null);
+                if (existing == null) {
+                    IdempotencyRecord record = new IdempotencyRecord();
+                    record.setIdempotencyKey(hashedKey);
+                    record.setRequestHash(requestHash);
+                    record.setCreatedAt(now);
+                    record.setExpiresAt(claimedUntil);
+                    idempotencyRecordRepository.saveAndFlush(record);
+                    return null;
+                }
+                if (idempotencyRecordRepository.resetExpired(hashedKey, requestHash, now, claimedUntil) == 1) {
+                    return null;
+                }
+                return toExistingRequest(existing);
+            });
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = idempotencyRecordRepository.findById(hashedKey).orElse(null);
+            if (existing == null) {
+                logger.warn("Idempotency key was released while it was claimed: {}", e.getMessage());
+                return claim(key, requestHash);
+            }
+            return toExistingRequest(existing);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void complete(String key, StoredResponse response) {
+        String hashedKey = hash(key);
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.findById(hashedKey).ifPresent(record -> {
+            record.setResponseStatus(response.status());
+            record.setResponseContentType(response.contentType());
+            record.setResponseHeaders(writeHeaders(response.headers()));
+            record.setResponseBody(new String(response.body(), StandardCharsets.UTF_8));
+            record.setExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes)));
+            idempotencyRecordRepository.save(record);
+        }));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void release(String key) {
+        String hashedKey = hash(key);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (idempotencyRecordRepository.existsById(hashedKey)) {
+                idempotencyRecordRepository.deleteById(hashedKey);
+            }
+        });
+    }
+
+    /**
+     * Deletes expired keys.
+     *
+     * @return The number of deleted keys.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public int purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteAllExpiredBefore(new Date()));
+        if (deleted != null && deleted > 0) {
+            logger.debug("{} expired idempotency keys were deleted", deleted);
+        }
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Converts idempotency record to the request, which uses the key.
+     *
+     * @param record The idempotency record.
+     * @return The request, which uses the key.
+     */
+    private ExistingRequest toExistingRequest(IdempotencyRecord record) {
+        StoredResponse response = record.getResponseStatus() == null
+                ? null
+                : new StoredResponse(record.getResponseStatus(), record.getResponseContentType(), readHeaders(record.getResponseHeaders()),
+                        record.getResponseBody() == null ? new byte[0] : record.getResponseBody().getBytes(StandardCharsets.UTF_8));
+        return new ExistingRequest(record.getRequestHash(), response);
+    }
+
+    /**
+     * Converts headers of response to JSON.
+     *
+     * @param headers The headers of response.
+     * @return The headers in JSON.
+     */
+    private String writeHeaders(Map<String, List<String>> headers) {
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Converts headers of response from JSON. Records stored without headers have no headers.
+     *
+     * @param headers The headers in JSON, may be null.
+     * @return The headers of response.
+     */
+    private Map<String, List<String>> readHeaders(String headers) {
+        if (headers == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(headers, HEADERS_TYPE);
+        } catch (JsonProcessingException e) {
+            logger.warn("Stored headers of idempotency key are not readable: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Hashes the key, so keys of any length fit into the primary key.
+     *
+     * @param key The idempotency key scoped to the user.
+     * @return SHA-256 of the key in hex.
+     */
+    private static String hash(String key) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
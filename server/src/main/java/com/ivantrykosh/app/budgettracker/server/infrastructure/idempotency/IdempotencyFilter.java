@@ -0,0 +1,207 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency;
+
+import com.ivantrykosh.app.budgettracker.server.infrastructure.web.CachedBodyRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filter, which makes mutating requests with an Idempotency-Key header idempotent.
+ * The response of the first request with a key is stored, and retries with the same key get the stored response
+ * without running validation and writes again. Keys are scoped to the authenticated user.
+ * Responses with server errors are not stored, so such requests can be retried with the same key.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key"; // Header with idempotency key
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed"; // Header set on stored responses
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE"); // Methods, which can be made idempotent
+    private static final Set<String> NOT_STORED_HEADERS = Set.of(HttpHeaders.CONTENT_TYPE.toLowerCase(), HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(), HttpHeaders.CONNECTION.toLowerCase(), HttpHeaders.DATE.toLowerCase(),
+            HttpHeaders.SET_COOKIE.toLowerCase(), REPLAYED_HEADER.toLowerCase()); // Headers, which are not replayed with stored responses
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Value("${idempotency.paths:/api/v*/transactions/create,/api/v*/transactions/update,/api/v*/transactions/delete,/api/v*/batch}")
+    private List<String> paths; // Patterns of paths, which accept idempotency keys
+    @Value("${idempotency.max-key-length:255}")
+    private int maxKeyLength; // Maximum length of idempotency key
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher(); // Matcher of paths
+
+    Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class); // Logger
+
+    /**
+     * Skips requests without idempotency key, requests with other methods than POST, PUT, PATCH and DELETE
+     * and requests to other paths than the configured ones.
+     *
+     * @param request The HTTP request.
+     * @return true if the request is not filtered.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY_HEADER) == null || !MUTATING_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    /**
+     * Returns the stored response, if the key was already used, otherwise processes the request and stores its response.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain.
+     * @throws ServletException If a servlet-specific error occurs.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > maxKeyLength) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Invalid idempotency key!");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String key = authentication.getName() + ":" + idempotencyKey;
+        String requestHash = hashRequest(cachedRequest);
+
+        IdempotencyStore.ExistingRequest existingRequest = idempotencyStore.claim(key, requestHash);
+        if (existingRequest != null) {
+            if (!existingRequest.requestHash().equals(requestHash)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency key is already used for another request!");
+            } else if (existingRequest.response() == null) {
+                writeError(response, HttpStatus.CONFLICT, "Request with this idempotency key is still being processed!");
+            } else {
+                logger.info("Stored response is returned for idempotency key of user {}", authentication.getName());
+                writeStoredResponse(response, existingRequest.response());
+            }
+            return;
+        }
+
+        Set<String> outerHeaders = new HashSet<>(response.getHeaderNames());
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(cachedRequest, cachedResponse);
+            if (cachedResponse.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                try {
+                    idempotencyStore.complete(key, new IdempotencyStore.StoredResponse(cachedResponse.getStatus(),
+                            cachedResponse.getContentType(), storedHeaders(cachedResponse, outerHeaders), cachedResponse.getContentAsByteArray()));
+                    completed = true;
+                } catch (RuntimeException e) {
+                    logger.error("Response for idempotency key was not stored: {}", e.getMessage());
+                }
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.release(key);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Collects headers, which were set by the request. Headers set by outer filters, such as ID of request,
+     * are set again on every replay, so they are not stored.
+     *
+     * @param response The HTTP response.
+     * @param outerHeaders The names of headers, which were set before the request was processed.
+     * @return The headers to store.
+     */
+    private static Map<String, List<String>> storedHeaders(HttpServletResponse response, Set<String> outerHeaders) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!outerHeaders.contains(name) && !NOT_STORED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Writes the stored response.
+     *
+     * @param response The HTTP response.
+     * @param storedResponse The stored response.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeStoredResponse(HttpServletResponse response, IdempotencyStore.StoredResponse storedResponse) throws IOException {
+        response.setStatus(storedResponse.status());
+        if (storedResponse.contentType() != null) {
+            response.setContentType(storedResponse.contentType());
+        }
+        storedResponse.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(storedResponse.body().length);
+        response.getOutputStream().write(storedResponse.body());
+    }
+
+    /**
+     * Writes an error message.
+     *
+     * @param response The HTTP response.
+     * @param status The status of the response.
+     * @param message The error message.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    /**
+     * Hashes method, URI, query and body of the request, so a key reused for another request is detected.
+     *
+     * @param request The HTTP request with cached body.
+     * @return SHA-256 of the request in hex.
+     */
+    private static String hashRequest(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(request.getBody());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
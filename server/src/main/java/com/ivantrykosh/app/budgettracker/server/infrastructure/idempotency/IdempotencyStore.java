@@ -0,0 +1,55 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Store of responses of requests with idempotency keys.
+ * A key is claimed by the first request, which then either completes it with its response or releases it, if it failed.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims the key for a new request, unless the key is already used by a request, which is not expired.
+     *
+     * @param key The idempotency key scoped to the user.
+     * @param requestHash The hash of the request.
+     * @return null if the key is claimed, otherwise the request, which already uses the key.
+     */
+    ExistingRequest claim(String key, String requestHash);
+
+    /**
+     * Stores the response of the request, which claimed the key.
+     *
+     * @param key The idempotency key scoped to the user.
+     * @param response The response of the request.
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Releases the key, so the request can be retried with it.
+     *
+     * @param key The idempotency key scoped to the user.
+     */
+    void release(String key);
+
+    /**
+     * Response of a completed request
+     *
+     * @param status The status of response.
+     * @param contentType The content type of response, may be null.
+     * @param headers Other headers of response, which are replayed with it.
+     * @param body The body of response.
+     */
+    record StoredResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body) {
+    }
+
+    /**
+     * Request, which already uses a key
+     *
+     * @param requestHash The hash of the request.
+     * @param response The response of the request, null if the request is still being processed.
+     */
+    record ExistingRequest(String requestHash, StoredResponse response) {
+    }
+}
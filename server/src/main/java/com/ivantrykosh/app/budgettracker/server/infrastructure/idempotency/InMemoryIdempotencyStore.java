@@ -0,0 +1,146 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotency store, which keeps keys in memory of this server.
+ * The store is bounded: when it is full, the oldest keys are evicted, even if they are not expired yet.
+ * Every key is updated atomically on its own, so requests with different keys do not wait for each other.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    @Value("${idempotency.ttl-minutes:1440}")
+    private long ttlMinutes; // How long responses are kept
+    @Value("${idempotency.in-progress-timeout-ms:60000}")
+    private long inProgressTimeoutMillis; // How long a key is claimed by a request, which has not completed yet
+    @Value("${idempotency.max-entries:100000}")
+    private int maxEntries; // Maximum number of kept keys
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>(); // Kept keys
+    private final Queue<ClaimedKey> claimOrder = new ConcurrentLinkedQueue<>(); // Keys in order of claiming, used for eviction
+    private final AtomicLong claims = new AtomicLong(); // Number of claims, numbers the entries
+
+    Logger logger = LoggerFactory.getLogger(InMemoryIdempotencyStore.class); // Logger
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ExistingRequest claim(String key, String requestHash) {
+        long now = System.nanoTime();
+        Entry claimed = new Entry(requestHash, null, now + TimeUnit.MILLISECONDS.toNanos(inProgressTimeoutMillis), claims.incrementAndGet());
+        Entry entry = entries.compute(key, (k, existing) -> existing != null && existing.expiresAt - now > 0 ? existing : claimed);
+        if (entry != claimed) {
+            return new ExistingRequest(entry.requestHash, entry.response);
+        }
+        claimOrder.add(new ClaimedKey(key, claimed.number));
+        evictOldest();
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void complete(String key, StoredResponse response) {
+        long expiresAt = System.nanoTime() + TimeUnit.MINUTES.toNanos(ttlMinutes);
+        entries.computeIfPresent(key, (k, entry) -> new Entry(entry.requestHash, response, expiresAt, entry.number));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void release(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes expired keys and forgets keys, which are no longer kept, from the order of claiming.
+     *
+     * @return The number of removed keys.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public int purgeExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().expiresAt - now <= 0 && entries.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        claimOrder.removeIf(claimedKey -> !claimedKey.isKept(entries));
+        if (removed > 0) {
+            logger.debug("{} expired idempotency keys were removed", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of kept keys.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Evicts the oldest keys, while there are more keys than allowed.
+     * Keys in the order of claiming, which were released or claimed again since, are skipped.
+     */
+    private void evictOldest() {
+        while (entries.size() > maxEntries) {
+            ClaimedKey oldest = claimOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            entries.computeIfPresent(oldest.key, (k, entry) -> entry.number == oldest.number ? null : entry);
+        }
+    }
+
+    /**
+     * Key with the request, which uses it
+     *
+     * @param requestHash The hash of the request.
+     * @param response The response of the request, null while it is being processed.
+     * @param expiresAt The value of System.nanoTime(), after which the key can be used again.
+     * @param number The number of the claim, which created the entry.
+     */
+    private record Entry(String requestHash, StoredResponse response, long expiresAt, long number) {
+    }
+
+    /**
+     * Key in the order of claiming
+     *
+     * @param key The idempotency key scoped to the user.
+     * @param number The number of the claim.
+     */
+    private record ClaimedKey(String key, long number) {
+
+        /**
+         * Checks if the key is still kept for this claim.
+         *
+         * @param entries The kept keys.
+         * @return true if the key was not removed or claimed again since this claim.
+         */
+        boolean isKept(Map<String, Entry> entries) {
+            Entry entry = entries.get(key);
+            return entry != null && entry.number == number;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of JDK Flight Recorder events of the server. Every event has the endpoint and the user of the request,
+ * in which it happened, the timed operation and the number of rows, which it returned. Duration is recorded by JFR.
+ */
+@Category("Budget Tracker")
+@StackTrace(false)
+public abstract class BudgetTrackerEvent extends jdk.jfr.Event {
+    @Label("Endpoint")
+    @Description("Pattern of the endpoint of the request")
+    String endpoint; // Pattern of endpoint or null outside of requests
+
+    @Label("Operation")
+    @Description("Class and method, which were timed")
+    String operation; // Class and method
+
+    @Label("User Hash")
+    @Description("Keyed hash of the email of the authenticated user")
+    String userHash; // Hash of email or null for anonymous requests
+
+    @Label("Row Count")
+    @Description("Number of returned rows, entities or DTOs, -1 if unknown")
+    int rowCount; // Number of returned items
+}
@@ -0,0 +1,17 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of a call of a controller handler. The body of the response is written after the event.
+ */
+@Name("budgettracker.Controller")
+@Label("Controller Handler")
+@Description("Call of a controller handler")
+public class ControllerEvent extends BudgetTrackerEvent {
+    @Label("Status")
+    @Description("HTTP status returned by the handler, 0 if unknown")
+    int status; // Status of response
+}
@@ -0,0 +1,156 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Interceptor, which records calls of methods of a bean as JDK Flight Recorder events.
+ * When the event is disabled or not recorded, the call is passed through, and only the event object is created.
+ * Fields are filled only for events, which pass the threshold of the recording.
+ * Users are recorded as HMAC of their email with a key derived from the secret key of the server, so recordings
+ * can not be matched to emails without the secret key.
+ */
+public class JfrEventInterceptor implements MethodInterceptor {
+    private static final String USER_HASH_ATTRIBUTE = JfrEventInterceptor.class.getName() + ".USER_HASH"; // Request attribute with hash of user
+    private static final String USER_HASH_ALGORITHM = "HmacSHA256"; // Algorithm of user hashes
+
+    private final Supplier<? extends BudgetTrackerEvent> eventFactory; // Factory of events
+    private final SecretKeySpec userHashKey; // Key of user hashes
+
+    public JfrEventInterceptor(Supplier<? extends BudgetTrackerEvent> eventFactory, String secretKey) {
+        this.eventFactory = eventFactory;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(secretKey.getBytes(StandardCharsets.UTF_8));
+            digest.update("jfr-user-hash".getBytes(StandardCharsets.UTF_8));
+            this.userHashKey = new SecretKeySpec(digest.digest(), USER_HASH_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Records the call as an event.
+     *
+     * @param invocation The call of the method.
+     * @return The result of the method.
+     * @throws Throwable If the method throws.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        BudgetTrackerEvent event = eventFactory.get();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        Object result = null;
+        event.begin();
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operationClass(invocation).getSimpleName() + "." + invocation.getMethod().getName();
+                event.rowCount = rowCount(result);
+                RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+                if (attributes != null) {
+                    Object endpoint = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                    event.endpoint = endpoint == null ? null : endpoint.toString();
+                    event.userHash = userHash(attributes);
+                }
+                if (event instanceof ControllerEvent controllerEvent && result instanceof ResponseEntity<?> responseEntity) {
+                    controllerEvent.status = responseEntity.getStatusCode().value();
+                }
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Returns the class of the called bean: the interface of interface proxies, e.g. of repositories, or the class of the target.
+     *
+     * @param invocation The call of the method.
+     * @return The class.
+     */
+    private static Class<?> operationClass(MethodInvocation invocation) {
+        if (invocation instanceof ProxyMethodInvocation proxyInvocation && proxyInvocation.getProxy() instanceof Advised advised
+                && !advised.isProxyTargetClass() && advised.getProxiedInterfaces().length > 0) {
+            return advised.getProxiedInterfaces()[0];
+        }
+        Object target = invocation.getThis();
+        return target == null ? invocation.getMethod().getDeclaringClass() : AopUtils.getTargetClass(target);
+    }
+
+    /**
+     * Counts items of the result.
+     *
+     * @param result The result of the method.
+     * @return The number of items, -1 if it is unknown.
+     */
+    private static int rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof ResponseEntity<?> responseEntity) {
+            return rowCount(responseEntity.getBody());
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Iterable<?>) {
+            return -1;
+        }
+        return 1;
+    }
+
+    /**
+     * Returns the hash of the authenticated user of the request. The hash is computed once per request.
+     *
+     * @param attributes The attributes of the request.
+     * @return The first 8 bytes of HMAC-SHA256 of the email in hex, or null for anonymous requests.
+     */
+    private String userHash(RequestAttributes attributes) {
+        Object userHash = attributes.getAttribute(USER_HASH_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (userHash != null) {
+            return userHash.toString();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || authentication.getName() == null) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance(USER_HASH_ALGORITHM);
+            mac.init(userHashKey);
+            byte[] digest = mac.doFinal(authentication.getName().getBytes(StandardCharsets.UTF_8));
+            String hash = HexFormat.of().formatHex(digest, 0, 8);
+            attributes.setAttribute(USER_HASH_ATTRIBUTE, hash, RequestAttributes.SCOPE_REQUEST);
+            return hash;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
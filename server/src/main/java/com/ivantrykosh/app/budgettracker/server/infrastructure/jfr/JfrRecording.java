@@ -0,0 +1,89 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Always-on JDK Flight Recorder recording of the server. It uses the default JFR settings with the packaged profile
+ * on top of them, which enables events of the server and allocation sampling. The recording keeps a bounded window
+ * on disk, which can be dumped with jcmd &lt;pid&gt; JFR.dump name=budget-tracker, and is written to the directory on shutdown.
+ */
+@Component
+@ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+public class JfrRecording {
+    public static final String RECORDING_NAME = "budget-tracker"; // Name of recording
+
+    @Value("${jfr.recording.settings:jfr/budget-tracker.jfc}")
+    private String settings; // Classpath resource of profile
+    @Value("${jfr.recording.max-age-minutes:360}")
+    private long maxAgeMinutes; // Maximum age of kept data
+    @Value("${jfr.recording.max-size-mb:256}")
+    private long maxSizeMegabytes; // Maximum size of kept data
+    @Value("${jfr.recording.directory:jfr}")
+    private String directory; // Directory, to which the recording is written on shutdown
+
+    private Recording recording;
+
+    Logger logger = LoggerFactory.getLogger(JfrRecording.class); // Logger
+
+    /**
+     * Starts the recording.
+     *
+     * @throws IOException If the profile can't be read or the directory can't be created.
+     * @throws ParseException If the profile is invalid.
+     */
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        FlightRecorder.register(ControllerEvent.class);
+        FlightRecorder.register(RepositoryQueryEvent.class);
+        FlightRecorder.register(MappingEvent.class);
+
+        Map<String, String> recordingSettings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(new ClassPathResource(settings).getInputStream(), StandardCharsets.UTF_8)) {
+            recordingSettings.putAll(Configuration.create(reader).getSettings());
+        }
+
+        Path destination = Files.createDirectories(Path.of(directory))
+                .resolve(RECORDING_NAME + "-" + ProcessHandle.current().pid() + ".jfr");
+        recording = new Recording(recordingSettings);
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.setMaxSize(maxSizeMegabytes * 1024 * 1024);
+        recording.setDumpOnExit(true);
+        recording.setDestination(destination);
+        recording.start();
+        logger.info("JFR recording {} is started, it is written to {} on shutdown", RECORDING_NAME, destination);
+    }
+
+    /**
+     * Stops the recording and writes it to the directory.
+     */
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+        }
+    }
+}
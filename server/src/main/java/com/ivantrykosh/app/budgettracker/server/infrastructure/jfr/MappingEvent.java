@@ -0,0 +1,14 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of a conversion between entities and DTOs by a mapper.
+ */
+@Name("budgettracker.Mapping")
+@Label("Mapping")
+@Description("Conversion between entities and DTOs")
+public class MappingEvent extends BudgetTrackerEvent {
+}
@@ -0,0 +1,14 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of a call of a repository method.
+ */
+@Name("budgettracker.RepositoryQuery")
+@Label("Repository Query")
+@Description("Call of a repository method")
+public class RepositoryQueryEvent extends BudgetTrackerEvent {
+}
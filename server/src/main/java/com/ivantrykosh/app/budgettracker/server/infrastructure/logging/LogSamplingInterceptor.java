@@ -0,0 +1,111 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.logging;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interceptor, which samples logs of requests per endpoint. A request is sampled with the rate of its endpoint,
+ * and logs below WARN of requests, which are not sampled, are dropped by SampledLogTurboFilter.
+ * The decision is made once per request, so a sampled request keeps all its logs.
+ */
+@Component
+@ConditionalOnProperty(name = "logging.sampling.enabled", havingValue = "true", matchIfMissing = true)
+public class LogSamplingInterceptor implements AsyncHandlerInterceptor {
+    @Value("${logging.sampling.rates:}")
+    private List<String> rates; // Rates of endpoints as path pattern=rate, other endpoints have rate 1
+
+    private final Map<String, Double> rateByPattern = new LinkedHashMap<>(); // Parsed rates of endpoints
+    private final Map<String, Double> rateByEndpoint = new ConcurrentHashMap<>(); // Rates of matched endpoints
+    private final AntPathMatcher pathMatcher = new AntPathMatcher(); // Matcher of paths
+
+    /**
+     * Parses rates of endpoints.
+     */
+    @PostConstruct
+    public void init() {
+        for (String rate : rates) {
+            if (rate.isBlank()) {
+                continue;
+            }
+            int separator = rate.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid sampling rate of endpoint: " + rate);
+            }
+            rateByPattern.put(rate.substring(0, separator).trim(), Double.parseDouble(rate.substring(separator + 1).trim()));
+        }
+    }
+
+    /**
+     * Decides, whether logs of the request are kept.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param handler The handler of the request.
+     * @return true
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object endpoint = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (endpoint != null) {
+            double rate = rateByEndpoint.computeIfAbsent(endpoint.toString(), this::getRate);
+            if (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) {
+                MDC.put(SampledLogTurboFilter.SUPPRESSED_MDC_KEY, "true");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the decision after the request.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param handler The handler of the request.
+     * @param ex The exception of the handler or null.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(SampledLogTurboFilter.SUPPRESSED_MDC_KEY);
+    }
+
+    /**
+     * Removes the decision, when the request is continued asynchronously, so the thread does not keep it for the next request.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param handler The handler of the request.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        MDC.remove(SampledLogTurboFilter.SUPPRESSED_MDC_KEY);
+    }
+
+    /**
+     * Finds the rate of the endpoint.
+     *
+     * @param endpoint The pattern of the endpoint.
+     * @return The rate of the first matching pattern, otherwise 1.
+     */
+    private double getRate(String endpoint) {
+        for (Map.Entry<String, Double> rate : rateByPattern.entrySet()) {
+            if (pathMatcher.match(rate.getKey(), endpoint)) {
+                return rate.getValue();
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Logback filter, which drops logs below WARN of requests, which were not sampled by LogSamplingInterceptor.
+ * The filter runs before the message is formatted and before the event is created, so a dropped log costs one MDC lookup.
+ * Warnings and errors are always logged.
+ */
+public class SampledLogTurboFilter extends TurboFilter {
+    public static final String SUPPRESSED_MDC_KEY = "logSuppressed"; // Key of logging context, which is set in requests, that are not sampled
+
+    /**
+     * Decides, whether the log is dropped.
+     *
+     * @param marker The marker of the log.
+     * @param logger The logger.
+     * @param level The level of the log.
+     * @param format The message of the log.
+     * @param params The parameters of the message.
+     * @param t The exception of the log.
+     * @return DENY for logs below WARN of requests, which are not sampled, otherwise NEUTRAL.
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != null && level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(SUPPRESSED_MDC_KEY) == null ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
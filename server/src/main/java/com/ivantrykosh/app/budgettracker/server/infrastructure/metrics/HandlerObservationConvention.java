@@ -0,0 +1,29 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Convention of http.server.requests metrics, which adds the controller method handling the request as the handler tag.
+ */
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    /**
+     * Returns the default tags and the handler tag.
+     *
+     * @param context The context of the request.
+     * @return The tags of the request.
+     */
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        String value = handler instanceof HandlerMethod handlerMethod
+                ? handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName()
+                : "none";
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", value));
+    }
+}
@@ -0,0 +1,83 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Filter, which records SQL statements, loaded entities and returned rows of every request to the API.
+ * They are recorded as distributions per endpoint, so an endpoint, whose number of statements grows with data, shows an N+1 problem.
+ * The filter wraps the security filters, so queries of authentication are counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class QueryMetricsFilter extends OncePerRequestFilter {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Skips requests outside the API.
+     *
+     * @param request The HTTP request.
+     * @return true if the request is not filtered.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+    }
+
+    /**
+     * Counts database work of the request and records it after the request is processed.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain.
+     * @throws ServletException If a servlet-specific error occurs.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestQueryCounters counters = RequestQueryCounters.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryCounters.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            record("budgettracker.request.sql.statements", "statements", "SQL statements prepared by a request", uri, request, counters.getStatements());
+            record("budgettracker.request.entities.loaded", "entities", "Entities loaded from the database by a request", uri, request, counters.getEntitiesLoaded());
+            record("budgettracker.request.rows.returned", "rows", "Rows returned by queries of a request", uri, request, counters.getRowsReturned());
+        }
+    }
+
+    /**
+     * Records a value of the request.
+     *
+     * @param name The name of the distribution.
+     * @param baseUnit The unit of the value.
+     * @param description The description of the distribution.
+     * @param uri The pattern of the endpoint.
+     * @param request The HTTP request.
+     * @param value The value to record.
+     */
+    private void record(String name, String baseUnit, String description, String uri, HttpServletRequest request, long value) {
+        DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .description(description)
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .register(meterRegistry)
+                .record(value);
+    }
+}
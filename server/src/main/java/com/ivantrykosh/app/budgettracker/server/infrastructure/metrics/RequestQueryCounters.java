@@ -0,0 +1,114 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of database work done by the current request. The counters are bound to the thread of the request
+ * and to threads of tasks forked by it, so work done by other threads, e.g. by the group-commit writer, is not counted.
+ */
+public final class RequestQueryCounters {
+    private static final ThreadLocal<RequestQueryCounters> CURRENT = new ThreadLocal<>(); // Counters of the request of the current thread
+
+    private final AtomicLong statements = new AtomicLong(); // Number of prepared SQL statements
+    private final AtomicLong entitiesLoaded = new AtomicLong(); // Number of entities loaded from the database
+    private final AtomicLong rowsReturned = new AtomicLong(); // Number of rows returned by queries
+
+    private RequestQueryCounters() {
+    }
+
+    /**
+     * Starts counting for the request of the current thread.
+     *
+     * @return The counters of the request.
+     */
+    public static RequestQueryCounters start() {
+        RequestQueryCounters counters = new RequestQueryCounters();
+        CURRENT.set(counters);
+        return counters;
+    }
+
+    /**
+     * Returns the counters of the request of the current thread.
+     *
+     * @return The counters or null if the current thread does not process a request.
+     */
+    public static RequestQueryCounters current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Counts work of the current thread, which runs a task forked by a request, with the counters of the request.
+     * Must be followed by stop().
+     *
+     * @param counters The counters of the request.
+     */
+    public static void bind(RequestQueryCounters counters) {
+        CURRENT.set(counters);
+    }
+
+    /**
+     * Stops counting for the request of the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Counts a prepared SQL statement, if the current thread processes a request.
+     */
+    static void statementPrepared() {
+        RequestQueryCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.statements.incrementAndGet();
+        }
+    }
+
+    /**
+     * Counts a loaded entity, if the current thread processes a request.
+     */
+    static void entityLoaded() {
+        RequestQueryCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.entitiesLoaded.incrementAndGet();
+        }
+    }
+
+    /**
+     * Counts rows returned by a query, if the current thread processes a request.
+     *
+     * @param rows The number of rows.
+     */
+    static void rowsReturned(int rows) {
+        RequestQueryCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.rowsReturned.addAndGet(rows);
+        }
+    }
+
+    /**
+     * Returns the number of prepared SQL statements.
+     *
+     * @return The number of statements.
+     */
+    public long getStatements() {
+        return statements.get();
+    }
+
+    /**
+     * Returns the number of entities loaded from the database.
+     *
+     * @return The number of entities.
+     */
+    public long getEntitiesLoaded() {
+        return entitiesLoaded.get();
+    }
+
+    /**
+     * Returns the number of rows returned by queries.
+     *
+     * @return The number of rows.
+     */
+    public long getRowsReturned() {
+        return rowsReturned.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Factory of Hibernate statistics, which also count statements, loaded entities and returned rows of the current request.
+ * The global statistics stay the same as the default ones. Statistics must be enabled with hibernate.generate_statistics.
+ */
+public class RequestStatisticsFactory implements StatisticsFactory {
+
+    /**
+     * Builds statistics of the session factory.
+     *
+     * @param sessionFactory The session factory.
+     * @return The statistics.
+     */
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new RequestStatistics(sessionFactory);
+    }
+
+    /**
+     * Default Hibernate statistics, which pass events to the counters of the current request
+     */
+    private static class RequestStatistics extends StatisticsImpl {
+
+        RequestStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void prepareStatement() {
+            super.prepareStatement();
+            RequestQueryCounters.statementPrepared();
+        }
+
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            RequestQueryCounters.entityLoaded();
+        }
+
+        @Override
+        public void queryExecuted(String hql, int rows, long time) {
+            super.queryExecuted(hql, rows, time);
+            RequestQueryCounters.rowsReturned(rows);
+        }
+    }
+}
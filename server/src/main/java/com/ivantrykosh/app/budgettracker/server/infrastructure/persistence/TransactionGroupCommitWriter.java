@@ -0,0 +1,297 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.persistence;
+
+import com.ivantrykosh.app.budgettracker.server.application.events.TransactionChangedEvent;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes new transactions with group commit. Enabled with transactions.group-commit.enabled=true.
+ * Concurrent requests put validated transactions into a lock-free queue and wait for their futures.
+ * A single writer thread takes up to max-batch-size transactions from the queue and inserts them
+ * with one JDBC batch in one database transaction, so many requests share one commit.
+ * <p>
+ * After the first transaction arrives, the writer waits up to max-delay-ms for more of them, unless the batch is full earlier.
+ * A longer delay gives larger batches and higher throughput, a shorter one gives lower latency.
+ * With a delay of 0 the writer flushes at once and batches only the transactions, which arrived during the previous flush.
+ * <p>
+ * IDs of inserted transactions are not read back, so every account of a committed batch is published
+ * as one TransactionChangedEvent without transaction ID.
+ */
+@Component
+@ConditionalOnProperty(name = "transactions.group-commit.enabled", havingValue = "true")
+public class TransactionGroupCommitWriter {
+    private static final String INSERT_SQL = "INSERT INTO transactions (account_id, category, transaction_value, date, to_from_whom, note, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0)"; // Insert of one transaction
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100); // Time after which an idle writer checks whether it is stopped
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${transactions.group-commit.max-batch-size:500}")
+    private int maxBatchSize; // Number of transactions inserted with one commit at most
+    @Value("${transactions.group-commit.max-delay-ms:5}")
+    private long maxDelayMillis; // Time the writer waits for a full batch after the first transaction arrives
+    @Value("${transactions.group-commit.queue-capacity:50000}")
+    private int queueCapacity; // Number of transactions waiting for the writer, after which new ones are rejected
+
+    private final ConcurrentLinkedQueue<PendingInsert> queue = new ConcurrentLinkedQueue<>(); // Transactions waiting for the writer
+    private final AtomicInteger queueSize = new AtomicInteger(); // Size of the queue, which is not constant-time for ConcurrentLinkedQueue
+    private final AtomicLong insertedTransactions = new AtomicLong(); // Number of inserted transactions
+    private final AtomicLong failedTransactions = new AtomicLong(); // Number of transactions, which were not inserted
+    private final AtomicLong rejectedTransactions = new AtomicLong(); // Number of transactions rejected because of full queue
+    private final AtomicLong flushedBatches = new AtomicLong(); // Number of committed batches
+    private final AtomicLong lastBatchSize = new AtomicLong(); // Size of the last batch
+    private volatile boolean running; // Whether new transactions are accepted
+    private Thread writer; // Writer thread
+    Logger logger = LoggerFactory.getLogger(TransactionGroupCommitWriter.class); // Logger
+
+    /**
+     * Starts the writer thread.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("transaction-group-commit").daemon(true).start(this::run);
+    }
+
+    /**
+     * Stops accepting transactions and waits until the writer inserts the queued ones.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+
+        // Transactions queued while the writer was stopping
+        PendingInsert pendingInsert;
+        while ((pendingInsert = queue.poll()) != null) {
+            pendingInsert.future.completeExceptionally(new RejectedExecutionException("Group commit writer is stopped"));
+        }
+    }
+
+    /**
+     * Queues transaction for insert.
+     *
+     * @param transaction The transaction to insert. Its account must be set.
+     * @return The future, which is completed after the transaction is committed, or completed exceptionally
+     * with RejectedExecutionException if the queue is full.
+     */
+    public CompletableFuture<Void> submit(Transaction transaction) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new RejectedExecutionException("Group commit writer is stopped"));
+            return future;
+        }
+        int size = queueSize.incrementAndGet();
+        if (size > queueCapacity) {
+            queueSize.decrementAndGet();
+            rejectedTransactions.incrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("Queue of group commit writer is full"));
+            return future;
+        }
+        queue.offer(new PendingInsert(transaction, future));
+        // Wake up the writer when it waits for the first transaction or for a full batch
+        if (size == 1 || size >= maxBatchSize) {
+            LockSupport.unpark(writer);
+        }
+        return future;
+    }
+
+    /**
+     * Gets number of inserted transactions.
+     *
+     * @return The number of inserted transactions.
+     */
+    public long getInsertedTransactions() {
+        return insertedTransactions.get();
+    }
+
+    /**
+     * Gets number of transactions, which were not inserted because of an error.
+     *
+     * @return The number of failed transactions.
+     */
+    public long getFailedTransactions() {
+        return failedTransactions.get();
+    }
+
+    /**
+     * Gets number of transactions rejected because the queue was full.
+     *
+     * @return The number of rejected transactions.
+     */
+    public long getRejectedTransactions() {
+        return rejectedTransactions.get();
+    }
+
+    /**
+     * Gets number of committed batches.
+     *
+     * @return The number of committed batches.
+     */
+    public long getFlushedBatches() {
+        return flushedBatches.get();
+    }
+
+    /**
+     * Gets size of the last batch.
+     *
+     * @return The size of the last batch.
+     */
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    /**
+     * Gets number of transactions waiting for the writer.
+     *
+     * @return The number of queued transactions.
+     */
+    public int getQueuedTransactions() {
+        return queueSize.get();
+    }
+
+    /**
+     * Loop of the writer thread. Runs until the writer is stopped and the queue is empty.
+     */
+    private void run() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (running || queueSize.get() > 0) {
+            if (queueSize.get() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            awaitBatch();
+            drainTo(batch);
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits until the batch is full, the delay is over or the writer is stopped.
+     */
+    private void awaitBatch() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        long remaining;
+        while (running && queueSize.get() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * Takes up to max-batch-size transactions from the queue.
+     *
+     * @param batch The list to which transactions are added.
+     */
+    private void drainTo(List<PendingInsert> batch) {
+        PendingInsert pendingInsert;
+        while (batch.size() < maxBatchSize && (pendingInsert = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            batch.add(pendingInsert);
+        }
+    }
+
+    /**
+     * Inserts batch with one commit and completes futures of its callers.
+     * If the batch fails, transactions are inserted one by one, so one invalid transaction does not fail the others.
+     *
+     * @param batch The transactions to insert.
+     */
+    private void flush(List<PendingInsert> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pendingInsert) -> setParameters(ps, pendingInsert.transaction))
+            );
+            flushedBatches.incrementAndGet();
+            lastBatchSize.set(batch.size());
+            insertedTransactions.addAndGet(batch.size());
+            batch.forEach(pendingInsert -> pendingInsert.future.complete(null));
+            batch.stream()
+                    .map(pendingInsert -> pendingInsert.transaction.getAccount().getAccountId())
+                    .distinct()
+                    .forEach(this::publishCreated);
+        } catch (RuntimeException e) {
+            logger.warn("Batch of {} transactions was not inserted, transactions are inserted one by one", batch.size(), e);
+            for (PendingInsert pendingInsert : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.update(INSERT_SQL, ps -> setParameters(ps, pendingInsert.transaction))
+                    );
+                    insertedTransactions.incrementAndGet();
+                    pendingInsert.future.complete(null);
+                    publishCreated(pendingInsert.transaction.getAccount().getAccountId());
+                } catch (RuntimeException ex) {
+                    logger.error("Transaction for account with ID {} was not inserted", pendingInsert.transaction.getAccount().getAccountId(), ex);
+                    failedTransactions.incrementAndGet();
+                    pendingInsert.future.completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes committed transactions of the account. Errors of listeners are logged, so committed transactions are not inserted again.
+     *
+     * @param accountId The ID of the account.
+     */
+    private void publishCreated(Long accountId) {
+        try {
+            eventPublisher.publishEvent(new TransactionChangedEvent(TransactionChangedEvent.Type.CREATED, accountId, null));
+        } catch (RuntimeException e) {
+            logger.error("Created transactions of account with ID {} were not published", accountId, e);
+        }
+    }
+
+    /**
+     * Sets parameters of insert of transaction.
+     *
+     * @param ps The prepared statement.
+     * @param transaction The transaction to insert.
+     */
+    private static void setParameters(PreparedStatement ps, Transaction transaction) throws SQLException {
+        ps.setLong(1, transaction.getAccount().getAccountId());
+        ps.setString(2, transaction.getCategory());
+        ps.setDouble(3, transaction.getValue());
+        ps.setTimestamp(4, new Timestamp(transaction.getDate().getTime()));
+        ps.setObject(5, transaction.getToFromWhom(), Types.VARCHAR);
+        ps.setObject(6, transaction.getNote(), Types.VARCHAR);
+    }
+
+    /**
+     * Transaction waiting for insert with the future of its caller
+     */
+    private record PendingInsert(Transaction transaction, CompletableFuture<Void> future) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of requests processed at the same time. The limit follows the gradient of latency:
+ * while latency stays near its long-term average the limit grows, when latency rises the limit shrinks.
+ * Requests are also rejected, while too many threads wait for a connection of the database pool.
+ * Requests have costs, so an expensive request takes more of the limit than a cheap one.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyLimiter {
+    @Autowired(required = false)
+    private DataSource dataSource;
+
+    @Value("${rate-limit.concurrency.initial-limit:50}")
+    private int initialLimit; // Limit before latency is measured
+    @Value("${rate-limit.concurrency.min-limit:10}")
+    private int minLimit; // Minimum limit
+    @Value("${rate-limit.concurrency.max-limit:400}")
+    private int maxLimit; // Maximum limit
+    @Value("${rate-limit.concurrency.tolerance:2.0}")
+    private double tolerance; // How many times latency may exceed its long-term average before the limit shrinks
+    @Value("${rate-limit.concurrency.smoothing:0.2}")
+    private double smoothing; // Weight of a new limit against the current one
+    @Value("${rate-limit.concurrency.long-window:600}")
+    private int longWindow; // Number of samples of the long-term average of latency
+    @Value("${rate-limit.concurrency.max-pool-waiters:40}")
+    private int maxPoolWaiters; // Number of threads waiting for a database connection, above which requests are rejected
+
+    private final AtomicInteger inFlight = new AtomicInteger(); // Sum of costs of requests being processed
+    private final AtomicBoolean updating = new AtomicBoolean(); // Whether a thread is updating the limit
+    private final AtomicLong rejectedByLimit = new AtomicLong(); // Number of requests rejected by the limit
+    private final AtomicLong rejectedByPool = new AtomicLong(); // Number of requests rejected because of the database pool
+    private volatile double limit; // Current limit
+    private double longRttNanos; // Long-term average of latency per unit of cost, guarded by updating
+
+    /**
+     * Sets the initial limit.
+     */
+    @PostConstruct
+    public void init() {
+        limit = initialLimit;
+    }
+
+    /**
+     * Starts processing of a request, if it fits into the limit and the database pool is not saturated.
+     * At least one request is always allowed, so a request with cost above the limit is not rejected forever.
+     *
+     * @param cost The cost of the request.
+     * @return true if the request can be processed, otherwise false.
+     */
+    public boolean tryAcquire(int cost) {
+        if (isPoolSaturated()) {
+            rejectedByPool.incrementAndGet();
+            return false;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current > 0 && current + cost > limit) {
+                rejectedByLimit.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + cost)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Finishes processing of a request and updates the limit with its latency.
+     *
+     * @param cost The cost of the request.
+     * @param rttNanos The latency of the request in nanoseconds.
+     */
+    public void release(int cost, long rttNanos) {
+        int inFlightBefore = inFlight.getAndAdd(-cost);
+        update((double) rttNanos / cost, inFlightBefore);
+    }
+
+    /**
+     * Updates the limit with a sample of latency. If another thread is updating the limit, the sample is skipped.
+     *
+     * @param rttNanos The latency per unit of cost.
+     * @param inFlightBefore The sum of costs of requests, which were processed with the sampled one.
+     */
+    private void update(double rttNanos, int inFlightBefore) {
+        if (rttNanos <= 0 || !updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+            } else {
+                longRttNanos += (rttNanos - longRttNanos) / longWindow;
+            }
+            if (longRttNanos / rttNanos > 2) {
+                // Latency dropped a lot, so the long-term average recovers faster
+                longRttNanos *= 0.95;
+            }
+
+            double currentLimit = limit;
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+            double newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+            if (newLimit > currentLimit && inFlightBefore < currentLimit / 2) {
+                // The limit was not reached, so latency says nothing about a higher limit
+                return;
+            }
+            newLimit = currentLimit * (1 - smoothing) + newLimit * smoothing;
+            limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    /**
+     * Checks, whether too many threads wait for a connection of the database pool.
+     *
+     * @return true if the pool is saturated.
+     */
+    private boolean isPoolSaturated() {
+        if (!(dataSource instanceof HikariDataSource hikariDataSource)) {
+            return false;
+        }
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        return pool != null && pool.getThreadsAwaitingConnection() > maxPoolWaiters;
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return The limit.
+     */
+    public double getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the sum of costs of requests being processed.
+     *
+     * @return The sum of costs.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of requests rejected by the limit.
+     *
+     * @return The number of rejected requests.
+     */
+    public long getRejectedByLimit() {
+        return rejectedByLimit.get();
+    }
+
+    /**
+     * Returns the number of requests rejected because of the database pool.
+     *
+     * @return The number of rejected requests.
+     */
+    public long getRejectedByPool() {
+        return rejectedByPool.get();
+    }
+}
@@ -0,0 +1,259 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.web.CachedBodyRequest;
+import com.ivantrykosh.app.budgettracker.server.presentation.requests.BatchOperation;
+import com.ivantrykosh.app.budgettracker.server.presentation.requests.BatchRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filter, which limits requests to the API.
+ * Every user, or IP address for anonymous requests, has a token bucket, and requests over it are rejected with 429.
+ * Requests, which do not fit into the adaptive concurrency limit of the server, are rejected with 503.
+ * Both limits use costs of endpoints, so expensive endpoints take more tokens and more of the concurrency limit.
+ * A batch costs the sum of costs of its operations, so batching does not make expensive operations cheaper.
+ */
+@Component
+public class RequestLimitFilter extends OncePerRequestFilter {
+    private static final String BATCH_PATH = "/api/v*/batch"; // Pattern of path of batches
+
+    @Autowired(required = false)
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean rateLimitEnabled; // Whether requests are limited per user
+    @Value("${rate-limit.burst:60}")
+    private double burst; // Number of tokens of every bucket
+    @Value("${rate-limit.refill-per-second:20}")
+    private double refillPerSecond; // Number of tokens added to every bucket every second
+    @Value("${rate-limit.costs:}")
+    private List<String> costs; // Costs of endpoints as path pattern=cost, other endpoints cost 1
+
+    private final Map<String, Integer> costByPattern = new LinkedHashMap<>(); // Parsed costs of endpoints
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>(); // Token buckets of users and IP addresses
+    private final AntPathMatcher pathMatcher = new AntPathMatcher(); // Matcher of paths
+    private final AtomicLong rejectedByRateLimit = new AtomicLong(); // Number of requests rejected by token buckets
+
+    Logger logger = LoggerFactory.getLogger(RequestLimitFilter.class); // Logger
+
+    /**
+     * Parses costs of endpoints.
+     */
+    @PostConstruct
+    public void init() {
+        for (String cost : costs) {
+            if (cost.isBlank()) {
+                continue;
+            }
+            int separator = cost.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cost of endpoint: " + cost);
+            }
+            costByPattern.put(cost.substring(0, separator).trim(), Integer.parseInt(cost.substring(separator + 1).trim()));
+        }
+    }
+
+    /**
+     * Skips requests outside the API and filter without limits.
+     *
+     * @param request The HTTP request.
+     * @return true if the request is not filtered.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return (!rateLimitEnabled && concurrencyLimiter == null) || !getPath(request).startsWith("/api/");
+    }
+
+    /**
+     * Rejects the request, if it is over the limit of the user or the server, otherwise processes it.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain.
+     * @throws ServletException If a servlet-specific error occurs.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = getPath(request);
+        int cost;
+        if (pathMatcher.match(BATCH_PATH, path)) {
+            CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+            cost = getBatchCost(cachedRequest.getBody());
+            request = cachedRequest;
+        } else {
+            cost = getCost(path);
+        }
+
+        if (rateLimitEnabled) {
+            String client = getClient(request);
+            TokenBucket bucket = buckets.computeIfAbsent(client, key -> new TokenBucket(burst, refillPerSecond));
+            if (!bucket.tryConsume(cost)) {
+                rejectedByRateLimit.incrementAndGet();
+                logger.debug("Request of {} to {} is over the rate limit", client, request.getRequestURI());
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilAvailable(cost) + TimeUnit.SECONDS.toNanos(1) - 1));
+                writeError(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "Too many requests! Please, try again later!");
+                return;
+            }
+        }
+
+        if (concurrencyLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire(cost)) {
+            logger.debug("Request to {} is over the concurrency limit", request.getRequestURI());
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is overloaded! Please, try again later!");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(cost, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Drops full token buckets, because a full bucket is the same as a new one.
+     *
+     * @return The number of dropped buckets.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.cleanup-interval-ms:60000}")
+    public int dropFullBuckets() {
+        int sizeBefore = buckets.size();
+        buckets.values().removeIf(TokenBucket::isFull);
+        return sizeBefore - buckets.size();
+    }
+
+    /**
+     * Returns the number of requests rejected by token buckets.
+     *
+     * @return The number of rejected requests.
+     */
+    public long getRejectedByRateLimit() {
+        return rejectedByRateLimit.get();
+    }
+
+    /**
+     * Returns the number of token buckets.
+     *
+     * @return The number of buckets.
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Returns the cost of the endpoint.
+     *
+     * @param path The path of the request.
+     * @return The cost of the first matching pattern, otherwise 1.
+     */
+    private int getCost(String path) {
+        for (Map.Entry<String, Integer> cost : costByPattern.entrySet()) {
+            if (pathMatcher.match(cost.getKey(), path)) {
+                return cost.getValue();
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Returns the cost of the batch: the sum of costs of its operations.
+     * A body, which is not a batch, costs 1, because the batch is rejected before any of its operations is executed.
+     *
+     * @param body The body of the batch request.
+     * @return The cost of the batch.
+     */
+    private int getBatchCost(byte[] body) {
+        BatchRequest batchRequest;
+        try {
+            batchRequest = objectMapper.readValue(body, BatchRequest.class);
+        } catch (IOException e) {
+            return 1;
+        }
+        if (batchRequest == null || batchRequest.getOperations() == null) {
+            return 1;
+        }
+        int cost = 0;
+        for (BatchOperation operation : batchRequest.getOperations()) {
+            if (operation == null || operation.getPath() == null) {
+                cost++;
+                continue;
+            }
+            int queryStart = operation.getPath().indexOf('?');
+            cost += getCost(queryStart < 0 ? operation.getPath() : operation.getPath().substring(0, queryStart));
+        }
+        return Math.max(1, cost);
+    }
+
+    /**
+     * Returns the client, whose bucket is used: the authenticated user or the IP address of an anonymous request.
+     *
+     * @param request The HTTP request.
+     * @return The client.
+     */
+    private String getClient(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Returns the path of the request without the context path.
+     *
+     * @param request The HTTP request.
+     * @return The path.
+     */
+    private String getPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Writes an error message.
+     *
+     * @param response The HTTP response.
+     * @param status The status of the response.
+     * @param retryAfterSeconds The number of seconds after which the request can be retried.
+     * @param message The error message.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeError(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket, which is refilled continuously. Tokens are taken with compare-and-set, so threads never block each other.
+ */
+public class TokenBucket {
+    private final double capacity; // Maximum number of tokens
+    private final double tokensPerNano; // Number of tokens added every nanosecond
+    private final AtomicReference<State> state; // Tokens at the time of the last refill
+
+    /**
+     * Creates full token bucket.
+     *
+     * @param capacity The maximum number of tokens.
+     * @param tokensPerSecond The number of tokens added every second.
+     */
+    public TokenBucket(double capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    /**
+     * Takes tokens, if there are enough of them.
+     *
+     * @param tokens The number of tokens to take. Costs above the capacity are treated as the capacity.
+     * @return true if tokens were taken, otherwise false.
+     */
+    public boolean tryConsume(double tokens) {
+        double cost = Math.min(tokens, capacity);
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double available = availableAt(current, now);
+            if (available < cost) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(available - cost, now))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns time until the bucket has enough tokens.
+     *
+     * @param tokens The number of tokens.
+     * @return The time in nanoseconds, 0 if there are enough tokens now.
+     */
+    public long nanosUntilAvailable(double tokens) {
+        double missing = Math.min(tokens, capacity) - availableAt(state.get(), System.nanoTime());
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+    }
+
+    /**
+     * Checks, whether the bucket is full. A full bucket is the same as a new one, so it can be dropped.
+     *
+     * @return true if the bucket is full.
+     */
+    public boolean isFull() {
+        return availableAt(state.get(), System.nanoTime()) >= capacity;
+    }
+
+    /**
+     * Returns number of tokens at the given time.
+     *
+     * @param state The state of the bucket.
+     * @param now The current value of System.nanoTime().
+     * @return The number of tokens.
+     */
+    private double availableAt(State state, long now) {
+        return Math.min(capacity, state.tokens + Math.max(0, now - state.refilledAt) * tokensPerNano);
+    }
+
+    /**
+     * Number of tokens at the time of the last refill
+     *
+     * @param tokens The number of tokens.
+     * @param refilledAt The value of System.nanoTime() of the last refill.
+     */
+    private record State(double tokens, long refilledAt) {
+    }
+}
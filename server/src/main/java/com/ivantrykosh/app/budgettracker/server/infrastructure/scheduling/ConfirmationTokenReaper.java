@@ -0,0 +1,66 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.scheduling;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.ConfirmationTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Periodically deletes unconfirmed confirmation tokens, which are expired.
+ * Tokens are deleted in bounded chunks and every chunk is committed in a separate transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "confirmation-tokens.reaper.enabled", havingValue = "true", matchIfMissing = true)
+public class ConfirmationTokenReaper {
+    @Autowired
+    private ConfirmationTokenService confirmationTokenService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${confirmation-tokens.reaper.batch-size:1000}")
+    private int batchSize; // Number of tokens deleted by one DELETE statement
+    @Value("${confirmation-tokens.reaper.max-batches:100}")
+    private int maxBatches; // Maximum number of batches deleted by one run
+    @Value("${confirmation-tokens.reaper.grace-period-minutes:1440}")
+    private long gracePeriodMinutes; // How long expired tokens are kept, so users are told that their token is expired
+
+    Logger logger = LoggerFactory.getLogger(ConfirmationTokenReaper.class); // Logger
+
+    /**
+     * Deletes expired unconfirmed tokens.
+     *
+     * @return The number of deleted tokens.
+     */
+    @Scheduled(fixedDelayString = "${confirmation-tokens.reaper.interval-ms:3600000}", initialDelayString = "${confirmation-tokens.reaper.initial-delay-ms:60000}")
+    public long deleteExpiredConfirmationTokens() {
+        Date expiredBefore = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(gracePeriodMinutes));
+
+        long deleted = 0;
+        int deletedInBatch = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            deletedInBatch = transactionTemplate.execute(status -> confirmationTokenService.deleteChunkOfExpiredConfirmationTokens(expiredBefore, batchSize));
+            deleted += deletedInBatch;
+            if (deletedInBatch < batchSize) {
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            logger.info("{} expired confirmation tokens were deleted", deleted);
+        }
+        if (deletedInBatch == batchSize) {
+            logger.warn("Not all expired confirmation tokens were deleted, the rest will be deleted by the next run");
+        }
+        return deleted;
+    }
+}
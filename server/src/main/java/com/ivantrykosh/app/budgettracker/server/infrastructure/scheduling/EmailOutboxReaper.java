@@ -0,0 +1,72 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.scheduling;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.OutboxEmail;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.OutboxEmailRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically deletes sent and failed emails from the email outbox, which are older than the retention period.
+ * Emails are deleted in bounded chunks and every chunk is committed in a separate transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "email.outbox.reaper.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxReaper {
+    private static final List<OutboxEmail.Status> FINISHED_STATUSES = List.of(OutboxEmail.Status.SENT, OutboxEmail.Status.FAILED);
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${email.outbox.reaper.batch-size:1000}")
+    private int batchSize; // Number of emails deleted by one DELETE statement
+    @Value("${email.outbox.reaper.max-batches:100}")
+    private int maxBatches; // Maximum number of batches deleted by one run
+    @Value("${email.outbox.reaper.retention-minutes:10080}")
+    private long retentionMinutes; // How long sent and failed emails are kept
+
+    Logger logger = LoggerFactory.getLogger(EmailOutboxReaper.class); // Logger
+
+    /**
+     * Deletes sent and failed emails, which are older than the retention period.
+     *
+     * @return The number of deleted emails.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.reaper.interval-ms:3600000}", initialDelayString = "${email.outbox.reaper.initial-delay-ms:60000}")
+    public long deleteFinishedEmails() {
+        Date createdBefore = new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes));
+
+        long deleted = 0;
+        int deletedInBatch = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            deletedInBatch = transactionTemplate.execute(status -> {
+                List<Long> outboxEmailIds = outboxEmailRepository.findIdsByStatusesAndCreatedAtBefore(FINISHED_STATUSES, createdBefore, PageRequest.of(0, batchSize));
+                return outboxEmailIds.isEmpty() ? 0 : outboxEmailRepository.deleteAllByOutboxEmailIds(outboxEmailIds);
+            });
+            deleted += deletedInBatch;
+            if (deletedInBatch < batchSize) {
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            logger.info("{} sent and failed emails were deleted from the outbox", deleted);
+        }
+        if (deletedInBatch == batchSize) {
+            logger.warn("Not all sent and failed emails were deleted from the outbox, the rest will be deleted by the next run");
+        }
+        return deleted;
+    }
+}
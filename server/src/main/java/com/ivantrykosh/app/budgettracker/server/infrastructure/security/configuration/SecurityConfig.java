@@ -1,25 +1,41 @@
 package com.ivantrykosh.app.budgettracker.server.infrastructure.security.configuration;
 
+import com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency.IdempotencyFilter;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit.RequestLimitFilter;
 import com.ivantrykosh.app.budgettracker.server.infrastructure.security.filter.JwtAuthFilter;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.security.password.BoundedPasswordEncoder;
 import com.ivantrykosh.app.budgettracker.server.util.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configuration class for Spring Security.
  */
@@ -27,10 +43,41 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
+    private static final String ACTUATOR_ROLE = "ACTUATOR"; // Role of the user, who scrapes metrics
 
     @Autowired
     JwtAuthFilter jwtAuthFilter;
 
+    @Autowired
+    RequestLimitFilter requestLimitFilter;
+
+    @Autowired(required = false)
+    IdempotencyFilter idempotencyFilter;
+
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    @Value("${password.bcrypt.min-strength:10}")
+    private int minStrength; // Minimum work factor of BCrypt
+
+    @Value("${password.bcrypt.max-strength:14}")
+    private int maxStrength; // Maximum work factor of BCrypt
+
+    @Value("${password.bcrypt.target-millis:250}")
+    private long targetMillis; // Time of one hash, for which the work factor is chosen
+
+    @Value("${password.hashing.timeout-ms:10000}")
+    private long hashingTimeoutMillis; // Maximum time of waiting for hashing
+
+    @Value("${metrics.scrape.username:prometheus}")
+    private String scrapeUsername; // Username of the user, who scrapes metrics
+
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword; // Password of the user, who scrapes metrics. If it is empty, nobody can read metrics
+
+    Logger logger = LoggerFactory.getLogger(SecurityConfig.class); // Logger
+
     /**
      * Defines the user details service bean.
      *
@@ -41,17 +88,43 @@ public class SecurityConfig {
         return new UserDetailsServiceImpl();
     }
 
+    /**
+     * Configures the security filter chain of actuator endpoints. Health is public; all other endpoints, e.g. metrics,
+     * need HTTP basic authentication of the user, who scrapes metrics.
+     *
+     * @param http The HttpSecurity object.
+     * @return The SecurityFilterChain bean.
+     * @throws Exception If an error occurs during configuration.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/actuator/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().hasRole(ACTUATOR_ROLE))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .httpBasic(Customizer.withDefaults())
+                .authenticationProvider(actuatorAuthenticationProvider());
+        return http.build();
+    }
+
     /**
      * Configures the security filter chain.
+     * Async dispatches of streamed responses are permitted, because the request was authorized before streaming started.
+     * The request limit filter and then the idempotency filter run after the JWT filter, because both of them work per authenticated user.
      *
      * @param http The HttpSecurity object.
      * @return The SecurityFilterChain bean.
      * @throws Exception If an error occurs during configuration.
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        return http.csrf(AbstractHttpConfigurer::disable)
+        http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v*/auth/login", "/api/v*/auth/register", "/api/v*/auth/confirm", "/api/v*/auth/send-confirmation-email").anonymous()
                         .requestMatchers("/api/v*/users/reset-password").permitAll()
                         .requestMatchers("/api/v*/**").authenticated()
@@ -59,21 +132,51 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
-                .build();
+                .addFilterAfter(requestLimitFilter, JwtAuthFilter.class);
+        if (idempotencyFilter != null) {
+            http.addFilterAfter(idempotencyFilter, RequestLimitFilter.class);
+        }
+        return http.build();
     }
 
     /**
-     * Defines the password encoder bean.
+     * Defines the password encoder bean. Passwords are hashed with BCrypt in the bounded password hashing executor.
+     * The work factor is the highest one between the minimum and maximum, whose hash takes at most the target time on this server.
      *
      * @return The PasswordEncoder bean.
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = calibrateStrength();
+        logger.info("BCrypt work factor is {}", strength);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), passwordHashingExecutor, hashingTimeoutMillis);
+    }
+
+    /**
+     * Measures time of hashing with the minimum work factor and chooses the work factor for the target time.
+     * Every next work factor doubles the time of hashing.
+     *
+     * @return The work factor of BCrypt.
+     */
+    private int calibrateStrength() {
+        if (minStrength >= maxStrength) {
+            return minStrength;
+        }
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        double ratio = (double) TimeUnit.MILLISECONDS.toNanos(targetMillis) / Math.max(1, bestNanos);
+        int extra = ratio < 1 ? 0 : (int) Math.floor(Math.log(ratio) / Math.log(2));
+        return Math.min(maxStrength, minStrength + extra);
     }
 
     /**
      * Defines the authentication provider bean.
+     * After a successful login, passwords hashed with a lower work factor than the current one are hashed again.
      *
      * @return The AuthenticationProvider bean.
      */
@@ -82,10 +185,33 @@ public class SecurityConfig {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailsService());
         authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setUserDetailsPasswordService((UserDetailsPasswordService) userDetailsService());
         return authenticationProvider;
 
     }
 
+    /**
+     * Creates the authentication provider of actuator endpoints with the only user, who scrapes metrics.
+     * It is not a bean, so users of the application can't authenticate as this user and this user can't log in to the application.
+     *
+     * @return The AuthenticationProvider of actuator endpoints.
+     */
+    private AuthenticationProvider actuatorAuthenticationProvider() {
+        InMemoryUserDetailsManager userDetailsManager = new InMemoryUserDetailsManager();
+        if (!scrapePassword.isEmpty()) {
+            userDetailsManager.createUser(User.withUsername(scrapeUsername)
+                    .password(passwordEncoder().encode(scrapePassword))
+                    .roles(ACTUATOR_ROLE)
+                    .build());
+        } else {
+            logger.warn("metrics.scrape.password is not set, so metrics can't be scraped");
+        }
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(userDetailsManager);
+        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        return authenticationProvider;
+    }
+
     /**
      * Defines the authentication manager bean.
      *
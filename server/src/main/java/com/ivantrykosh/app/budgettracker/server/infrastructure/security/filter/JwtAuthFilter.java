@@ -1,5 +1,6 @@
 package com.ivantrykosh.app.budgettracker.server.infrastructure.security.filter;
 
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RequestTrace;
 import com.ivantrykosh.app.budgettracker.server.util.JwtUtil;
 import com.ivantrykosh.app.budgettracker.server.util.UserDetailsServiceImpl;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -48,6 +49,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String token = null;
         String username = null;
 
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.enter(RequestTrace.AUTH);
+        }
         try {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 token = authHeader.substring(7);
@@ -63,12 +68,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 }
             }
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token expired: " + token);
+            logger.error("JWT token expired: {}", token);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         } catch (Exception e) {
-            logger.error("Exception during JWT processing: " + e.getMessage());
+            logger.error("Exception during JWT processing: {}", e.getMessage());
             return;
+        } finally {
+            if (trace != null) {
+                trace.exit();
+            }
         }
 
         filterChain.doFilter(request, response);
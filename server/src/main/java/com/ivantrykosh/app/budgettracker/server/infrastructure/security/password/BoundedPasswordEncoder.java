@@ -0,0 +1,169 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.security.password;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password encoder, which hashes and verifies passwords in a bounded executor.
+ * Only as many passwords as the executor has threads are hashed at the same time, so a burst of logins cannot take
+ * all processors from other requests. When the queue of the executor is full, hashing is rejected at once.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate; // Encoder, which hashes passwords
+    private final AsyncTaskExecutor executor; // Bounded executor of hashing
+    private final long timeoutMillis; // Maximum time of waiting for hashing
+
+    private final LongAdder hashes = new LongAdder(); // Number of hashed and verified passwords
+    private final LongAdder hashNanos = new LongAdder(); // Total time of hashing
+    private final AtomicLong maxHashNanos = new AtomicLong(); // Maximum time of hashing
+    private final LongAdder queueNanos = new LongAdder(); // Total time of waiting in the queue of the executor
+    private final LongAdder rejected = new LongAdder(); // Number of rejected passwords
+
+    /**
+     * Constructs the encoder.
+     *
+     * @param delegate The encoder, which hashes passwords.
+     * @param executor The bounded executor of hashing.
+     * @param timeoutMillis The maximum time of waiting for hashing.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, AsyncTaskExecutor executor, long timeoutMillis) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Hashes the password in the executor.
+     *
+     * @param rawPassword The password to hash.
+     * @return The hashed password.
+     * @throws PasswordHashingRejectedException If the executor is full or hashing takes too long.
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Verifies the password in the executor.
+     *
+     * @param rawPassword The password to verify.
+     * @param encodedPassword The hashed password.
+     * @return true if the password matches the hash.
+     * @throws PasswordHashingRejectedException If the executor is full or verification takes too long.
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Checks, whether the hash is weaker than the current work factor. It does not hash anything, so it runs on the calling thread.
+     *
+     * @param encodedPassword The hashed password.
+     * @return true if the password should be hashed again.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Runs hashing in the executor and waits for it.
+     *
+     * @param hashing The hashing to run.
+     * @return The result of hashing.
+     */
+    private <T> T execute(Callable<T> hashing) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueNanos.add(startedAt - submittedAt);
+                try {
+                    return hashing.call();
+                } finally {
+                    long duration = System.nanoTime() - startedAt;
+                    hashes.increment();
+                    hashNanos.add(duration);
+                    maxHashNanos.accumulateAndGet(duration, Math::max);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many passwords are being hashed", e);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password was not hashed in " + timeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Waiting for password hashing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the number of hashed and verified passwords.
+     *
+     * @return The number of passwords.
+     */
+    public long getHashes() {
+        return hashes.sum();
+    }
+
+    /**
+     * Returns the total time of hashing.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getHashNanos() {
+        return hashNanos.sum();
+    }
+
+    /**
+     * Returns the maximum time of hashing.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getMaxHashNanos() {
+        return maxHashNanos.get();
+    }
+
+    /**
+     * Returns the total time of waiting in the queue of the executor.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getQueueNanos() {
+        return queueNanos.sum();
+    }
+
+    /**
+     * Returns the number of rejected passwords.
+     *
+     * @return The number of passwords.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,31 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.security.password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Handler of rejected password hashing, which is common for all endpoints checking passwords.
+ */
+@RestControllerAdvice
+public class PasswordHashingExceptionHandler {
+    Logger logger = LoggerFactory.getLogger(PasswordHashingExceptionHandler.class); // Logger
+
+    /**
+     * Answers with 503, so the client retries later.
+     *
+     * @param e The exception of rejected hashing.
+     * @return ResponseEntity with an error message and HttpStatus SERVICE_UNAVAILABLE.
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<String> handlePasswordHashingRejected(PasswordHashingRejectedException e) {
+        logger.warn("Password hashing was rejected: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many logins now! Please, try again later!");
+    }
+}
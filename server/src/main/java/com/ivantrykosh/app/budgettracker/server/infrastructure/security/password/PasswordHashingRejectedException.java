@@ -0,0 +1,17 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.security.password;
+
+/**
+ * Exception thrown when a password cannot be hashed or verified, because the hashing executor is full or too slow.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    /**
+     * Constructs the exception.
+     *
+     * @param message The detail message.
+     * @param cause The cause of rejection.
+     */
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.tracing;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+/**
+ * Post-processor, which applies an advice to beans matched by a pointcut.
+ * Beans, which are already proxied, e.g. transactional controllers, get the advice in their proxy, other beans get a class proxy.
+ * The advice is the outermost one, so it also times the work of other advices, e.g. commits of transactions.
+ */
+public class AdvisingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    public AdvisingPostProcessor(Pointcut pointcut, Advice advice) {
+        this.advisor = new DefaultPointcutAdvisor(pointcut, advice);
+        this.beforeExistingAdvisors = true;
+        setProxyTargetClass(true);
+    }
+}
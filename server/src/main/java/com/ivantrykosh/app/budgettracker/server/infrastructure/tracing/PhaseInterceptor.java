@@ -0,0 +1,37 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Interceptor, which times calls of methods of a bean as a phase of the current request.
+ * Calls outside of traced requests are passed through.
+ */
+public class PhaseInterceptor implements MethodInterceptor {
+    private final String phase; // Name of the phase
+
+    public PhaseInterceptor(String phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Times the call as the phase.
+     *
+     * @param invocation The call of the method.
+     * @return The result of the method.
+     * @throws Throwable If the method throws.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return invocation.proceed();
+        }
+        trace.enter(phase);
+        try {
+            return invocation.proceed();
+        } finally {
+            trace.exit();
+        }
+    }
+}
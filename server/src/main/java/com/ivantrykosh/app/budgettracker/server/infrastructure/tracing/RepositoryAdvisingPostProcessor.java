@@ -0,0 +1,36 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.tracing;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Post-processor, which applies an advice to proxies of blocking repositories.
+ * Reactive repositories are skipped, because their methods return before queries are executed.
+ */
+public class RepositoryAdvisingPostProcessor implements BeanPostProcessor {
+    private final Advice advice; // Advice of repositories
+
+    public RepositoryAdvisingPostProcessor(Advice advice) {
+        this.advice = advice;
+    }
+
+    /**
+     * Adds the advice to the repository created by the factory bean.
+     *
+     * @param bean The bean.
+     * @param beanName The name of the bean.
+     * @return The same bean.
+     */
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                if (!repositoryInformation.isReactiveRepository()) {
+                    proxyFactory.addAdvice(advice);
+                }
+            }));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,244 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.tracing;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timing of phases of the current request to the API. The trace is bound to the thread of the request,
+ * so work done by other threads is not timed. Tasks forked by the request get traces of their own, whose SQL statements
+ * are added to the trace of the request, while the request times waiting for them.
+ * Phases are timed exclusively: when a phase starts inside another one, the outer phase is paused, so durations
+ * of all phases add up to the total time of the request. Time outside of all phases is counted as app.
+ * Authentication and lookups keep the time of queries made by them, all other queries are counted as db.
+ * SQL statements prepared by the request are recorded with the phase, in which they were prepared. Statements of tasks
+ * are recorded without locks, so tasks on virtual threads are not pinned to their carrier threads.
+ */
+public final class RequestTrace {
+    public static final String APP = "app"; // Filters, controllers and validators
+    public static final String AUTH = "auth"; // Parsing of JWT and loading of the authenticated user
+    public static final String LOOKUP = "lookup"; // Authorization lookups of users, accounts and transactions
+    public static final String DB = "db"; // Queries of repositories
+    public static final String MAPPING = "mapping"; // Conversion between entities and DTOs
+    public static final String SERIALIZATION = "serialization"; // Writing of the response body
+    private static final Set<String> ABSORBING_PHASES = Set.of(AUTH, LOOKUP); // Phases, which keep the time of phases started inside them
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>(); // Trace of the request of the current thread
+
+    private final String requestId; // ID of the request
+    private final RequestTrace parent; // Trace of the request, which forked the task of this trace, null for the request itself
+    private final int maxStatements; // Maximum number of recorded SQL statements
+    private final long startNanos; // Start of the request
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>(); // Time of every phase
+    private final Deque<String> phases = new ArrayDeque<>(); // Open phases, the current one is on top
+    private final Queue<String> statements = new ConcurrentLinkedQueue<>(); // Recorded SQL statements with their phases
+    private final AtomicInteger statementCount = new AtomicInteger(); // Number of prepared SQL statements
+    private long sliceStartNanos; // Start of the current slice of the current phase
+    private long endNanos = -1; // End of the request, -1 if the request is not finished
+
+    private RequestTrace(String requestId, int maxStatements, RequestTrace parent) {
+        this.requestId = requestId;
+        this.parent = parent;
+        this.maxStatements = maxStatements;
+        this.startNanos = System.nanoTime();
+        this.sliceStartNanos = startNanos;
+        phases.push(APP);
+    }
+
+    /**
+     * Starts tracing of the request of the current thread.
+     *
+     * @param requestId The ID of the request.
+     * @param maxStatements The maximum number of recorded SQL statements.
+     * @return The trace of the request.
+     */
+    public static RequestTrace start(String requestId, int maxStatements) {
+        RequestTrace trace = new RequestTrace(requestId, maxStatements, null);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Starts tracing of a task, which was forked by the request of this trace, on the current thread.
+     * Statements of the task are added to this trace. Must be followed by stop().
+     *
+     * @return The trace of the task.
+     */
+    public RequestTrace startTask() {
+        RequestTrace trace = new RequestTrace(requestId, 0, this);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Returns the trace of the request of the current thread.
+     *
+     * @return The trace or null, if the current thread does not process a traced request.
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops tracing of the request of the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Starts a phase inside the current one. Must be followed by exit().
+     *
+     * @param phase The name of the phase.
+     */
+    public void enter(String phase) {
+        String currentPhase = phases.peek();
+        if (endNanos < 0 && !ABSORBING_PHASES.contains(currentPhase)) {
+            closeSlice();
+            currentPhase = phase;
+        }
+        phases.push(currentPhase);
+    }
+
+    /**
+     * Ends the current phase and resumes the outer one.
+     */
+    public void exit() {
+        if (phases.size() > 1) {
+            closeSlice();
+            phases.pop();
+        }
+    }
+
+    /**
+     * Returns the current phase.
+     *
+     * @return The name of the phase.
+     */
+    public String getCurrentPhase() {
+        return phases.peek();
+    }
+
+    /**
+     * Records a prepared SQL statement with the current phase.
+     *
+     * @param sql The SQL statement.
+     */
+    void statementPrepared(String sql) {
+        (parent != null ? parent : this).recordStatement(phases.peek(), sql);
+    }
+
+    /**
+     * Records a prepared SQL statement of the request or of one of its tasks.
+     *
+     * @param phase The phase, in which the statement was prepared.
+     * @param sql The SQL statement.
+     */
+    private void recordStatement(String phase, String sql) {
+        if (statementCount.getAndIncrement() < maxStatements) {
+            statements.add(phase + ": " + sql);
+        }
+    }
+
+    /**
+     * Finishes the request. Open phases are ended, and later phases are not timed.
+     */
+    public void finish() {
+        if (endNanos < 0) {
+            closeSlice();
+            while (phases.size() > 1) {
+                phases.pop();
+            }
+            endNanos = sliceStartNanos;
+        }
+    }
+
+    /**
+     * Builds the value of the Server-Timing header with durations of phases so far, the number of SQL statements and the total time.
+     *
+     * @return The value of the header.
+     */
+    public String toServerTiming() {
+        closeSlice();
+        StringJoiner serverTiming = new StringJoiner(", ");
+        phaseNanos.forEach((phase, nanos) -> serverTiming.add(phase + ";dur=" + millis(nanos)));
+        serverTiming.add("sql;desc=\"" + getStatementCount() + " statements\"");
+        serverTiming.add("total;dur=" + millis(getTotalNanos()));
+        return serverTiming.toString();
+    }
+
+    /**
+     * Returns the ID of the request.
+     *
+     * @return The ID.
+     */
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Returns the total time of the request, or the time so far, if it is not finished.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return (endNanos < 0 ? System.nanoTime() : endNanos) - startNanos;
+    }
+
+    /**
+     * Returns the time of every phase, which was entered, in the order of their first start.
+     *
+     * @return The time of phases in nanoseconds.
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(phaseNanos);
+    }
+
+    /**
+     * Returns the number of prepared SQL statements.
+     *
+     * @return The number of statements.
+     */
+    public int getStatementCount() {
+        return statementCount.get();
+    }
+
+    /**
+     * Returns recorded SQL statements with their phases. Only the first maxStatements statements are recorded.
+     *
+     * @return The statements.
+     */
+    public List<String> getStatements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * Adds the time since the start of the current slice to the current phase.
+     */
+    private void closeSlice() {
+        if (endNanos >= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        phaseNanos.merge(phases.peek(), now - sliceStartNanos, Long::sum);
+        sliceStartNanos = now;
+    }
+
+    /**
+     * Formats nanoseconds as milliseconds.
+     *
+     * @param nanos The time in nanoseconds.
+     * @return The time in milliseconds with two decimals.
+     */
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
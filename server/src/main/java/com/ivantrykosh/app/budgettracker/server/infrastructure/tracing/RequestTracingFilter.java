@@ -0,0 +1,127 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Filter, which traces phases of every request to the API.
+ * Every request gets an ID: the X-Request-ID header of the request, if it is valid, or a generated one.
+ * The ID is returned in the X-Request-ID header and put into the logging context, so all logs of the request have it.
+ * Durations of phases are returned in the Server-Timing header. Requests slower than the threshold are logged
+ * as one JSON line with durations of all phases and SQL statements.
+ * The filter wraps the security filters, so authentication is timed too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTracingFilter extends OncePerRequestFilter {
+    public static final String REQUEST_ID_HEADER = "X-Request-ID"; // Header with ID of request
+    public static final String SERVER_TIMING_HEADER = "Server-Timing"; // Header with durations of phases
+    public static final String REQUEST_ID_MDC_KEY = "requestId"; // Key of ID of request in logging context
+    private static final Pattern REQUEST_ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}"); // Pattern of accepted IDs of requests
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tracing.slow-request.threshold-ms:500}")
+    private long slowRequestThresholdMillis; // Requests, which take at least this time, are logged
+    @Value("${tracing.slow-request.max-statements:100}")
+    private int maxStatements; // Maximum number of SQL statements in log of slow request
+
+    Logger logger = LoggerFactory.getLogger(RequestTracingFilter.class); // Logger
+
+    /**
+     * Skips requests outside the API.
+     *
+     * @param request The HTTP request.
+     * @return true if the request is not filtered.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+    }
+
+    /**
+     * Traces the request, adds Server-Timing header, if the body did not add it, and logs the request, if it is slow.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain.
+     * @throws ServletException If a servlet-specific error occurs.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !REQUEST_ID_PATTERN.matcher(requestId).matches()) {
+            requestId = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+        }
+        RequestTrace trace = RequestTrace.start(requestId, maxStatements);
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            trace.finish();
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING_HEADER)) {
+                response.setHeader(SERVER_TIMING_HEADER, trace.toServerTiming());
+            }
+            if (!request.isAsyncStarted() && TimeUnit.NANOSECONDS.toMillis(trace.getTotalNanos()) >= slowRequestThresholdMillis) {
+                logSlowRequest(request, response, trace);
+            }
+            RequestTrace.stop();
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    /**
+     * Logs the slow request as one JSON line.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param trace The trace of the request.
+     */
+    private void logSlowRequest(HttpServletRequest request, HttpServletResponse response, RequestTrace trace) {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        trace.getPhaseNanos().forEach((phase, nanos) -> phases.put(phase, nanos / 1_000_000.0));
+
+        Map<String, Object> slowRequest = new LinkedHashMap<>();
+        slowRequest.put("requestId", trace.getRequestId());
+        slowRequest.put("method", request.getMethod());
+        slowRequest.put("uri", request.getRequestURI());
+        slowRequest.put("endpoint", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        slowRequest.put("status", response.getStatus());
+        slowRequest.put("totalMillis", trace.getTotalNanos() / 1_000_000.0);
+        slowRequest.put("phaseMillis", phases);
+        slowRequest.put("statementCount", trace.getStatementCount());
+        slowRequest.put("statements", trace.getStatements());
+        try {
+            logger.warn("Slow request {}", objectMapper.writeValueAsString(slowRequest));
+        } catch (JsonProcessingException e) {
+            logger.error("Slow request {} can't be logged: {}", trace.getRequestId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Advice, which adds the Server-Timing header right before the response body is written, and starts the serialization phase.
+ * Headers can't be changed after the body is written, so the header contains phases until serialization,
+ * and the time of serialization is only written to slow-request logs.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * Applies to all responses with a body.
+     *
+     * @param returnType The return type of the handler.
+     * @param converterType The type of the message converter.
+     * @return true
+     */
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    /**
+     * Adds the Server-Timing header and starts the serialization phase.
+     *
+     * @param body The body of the response.
+     * @param returnType The return type of the handler.
+     * @param selectedContentType The content type of the response.
+     * @param selectedConverterType The type of the message converter.
+     * @param request The request.
+     * @param response The response.
+     * @return The body without changes.
+     */
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null && !RequestTrace.SERIALIZATION.equals(trace.getCurrentPhase())) {
+            response.getHeaders().set(RequestTracingFilter.SERVER_TIMING_HEADER, trace.toServerTiming());
+            trace.enter(RequestTrace.SERIALIZATION);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ivantrykosh.app.budgettracker.server.infrastructure.tracing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector, which records SQL statements of the current request for slow-request logs.
+ * An inspector, which was already configured with hibernate.session_factory.statement_inspector, keeps working:
+ * statements are passed to it first, and the statement returned by it is recorded.
+ */
+public class TracingStatementInspector implements StatementInspector {
+    private final StatementInspector delegate; // Configured inspector or null
+
+    /**
+     * Creates the inspector.
+     *
+     * @param configured The configured inspector as an instance, a class or a class name, or null.
+     */
+    public TracingStatementInspector(Object configured) {
+        this.delegate = resolve(configured);
+    }
+
+    /**
+     * Records the statement, if the current thread processes a traced request.
+     *
+     * @param sql The SQL statement.
+     * @return The SQL statement returned by the configured inspector.
+     */
+    @Override
+    public String inspect(String sql) {
+        String inspectedSql = delegate == null ? sql : delegate.inspect(sql);
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.statementPrepared(inspectedSql);
+        }
+        return inspectedSql;
+    }
+
+    /**
+     * Creates the configured inspector.
+     *
+     * @param configured The configured inspector as an instance, a class or a class name, or null.
+     * @return The inspector or null.
+     */
+    private static StatementInspector resolve(Object configured) {
+        if (configured == null || configured instanceof StatementInspector) {
+            return (StatementInspector) configured;
+        }
+        try {
+            Class<?> type = configured instanceof Class<?> configuredClass
+                    ? configuredClass
+                    : Class.forName(configured.toString().trim(), true, Thread.currentThread().getContextClassLoader());
+            return (StatementInspector) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Statement inspector " + configured + " can't be created", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ivantrykosh.app.budgettracker.server.presentation;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Fields of DTOs selected by the fields parameter of read endpoints, e.g. fields=transactionId,category,value,date.
+ * DTOs, which support selection, are serialized with the filter FILTER_ID, so fields, which are not selected, are not written.
+ */
+public final class FieldSelection {
+    public static final String FILTER_ID = "fieldSelection"; // ID of Jackson filter of DTOs, which support selection
+    private static final FieldSelection ALL = new FieldSelection(null); // Selection of all fields
+
+    private final Set<String> fieldNames; // Names of selected fields, null if all fields are selected
+
+    private FieldSelection(Set<String> fieldNames) {
+        this.fieldNames = fieldNames;
+    }
+
+    /**
+     * Parses the fields parameter.
+     *
+     * @param fields The comma-separated names of fields or null, if all fields are selected.
+     * @param allowedFieldNames The names of fields, which can be selected.
+     * @return The selection.
+     * @throws IllegalArgumentException If no field or an unknown field is selected.
+     */
+    public static FieldSelection parse(String fields, Collection<String> allowedFieldNames) {
+        if (fields == null) {
+            return ALL;
+        }
+        Set<String> fieldNames = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String fieldName = field.trim();
+            if (!allowedFieldNames.contains(fieldName)) {
+                throw new IllegalArgumentException("Unknown field " + fieldName);
+            }
+            fieldNames.add(fieldName);
+        }
+        return new FieldSelection(Collections.unmodifiableSet(fieldNames));
+    }
+
+    /**
+     * Checks, whether all fields are selected.
+     *
+     * @return true if the fields parameter is not given, otherwise false.
+     */
+    public boolean isAll() {
+        return fieldNames == null;
+    }
+
+    /**
+     * Checks, whether the field is selected.
+     *
+     * @param fieldName The name of the field.
+     * @return true if the field is selected, otherwise false.
+     */
+    public boolean contains(String fieldName) {
+        return fieldNames == null || fieldNames.contains(fieldName);
+    }
+
+    /**
+     * Returns names of selected fields.
+     *
+     * @return The names of selected fields, empty if all fields are selected.
+     */
+    public Set<String> getFieldNames() {
+        return fieldNames == null ? Set.of() : fieldNames;
+    }
+
+    /**
+     * Applies the selection to the body of a response.
+     *
+     * @param body The body with DTOs, which support selection.
+     * @return The body itself if all fields are selected, otherwise the body, which is serialized only with selected fields.
+     */
+    public Object apply(Object body) {
+        if (fieldNames == null) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fieldNames))
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ivantrykosh.app.budgettracker.server.presentation.requests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Operation of batch request class
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BatchOperation {
+    private String id; // ID of operation, which is returned with its result
+    private String method; // HTTP method of operation
+    private String path; // Path of operation with query string, e.g. /api/v1/transactions/get?id=1
+    private JsonNode body; // JSON body of operation or null
+}
@@ -0,0 +1,20 @@
+package com.ivantrykosh.app.budgettracker.server.presentation.requests;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Batch request class
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BatchRequest {
+    private List<BatchOperation> operations; // Operations in order of execution
+    private Boolean transactional; // Whether all operations are executed in one DB transaction, which is rolled back after the first failed operation
+}
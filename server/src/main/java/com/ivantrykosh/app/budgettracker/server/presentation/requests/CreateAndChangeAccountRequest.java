@@ -17,4 +17,5 @@ public class CreateAndChangeAccountRequest {
     private String email2; // User 2 email
     private String email3; // User 3 email
     private String email4; // User 4 email
+    private Long version; // Version of account. If set on update, the update fails when account was changed since this version
 }
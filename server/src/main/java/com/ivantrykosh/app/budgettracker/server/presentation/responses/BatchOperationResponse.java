@@ -0,0 +1,17 @@
+package com.ivantrykosh.app.budgettracker.server.presentation.responses;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+/**
+ * Result of operation of batch response class
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BatchOperationResponse {
+    private String id; // ID of operation
+    private Integer status; // HTTP status of operation
+    private JsonNode body; // JSON body of operation, text body as JSON string or null
+}
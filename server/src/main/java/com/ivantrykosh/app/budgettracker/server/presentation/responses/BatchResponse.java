@@ -0,0 +1,17 @@
+package com.ivantrykosh.app.budgettracker.server.presentation.responses;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Batch response class
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BatchResponse {
+    private Boolean committed; // Whether changes of transactional batch were committed, null if batch is not transactional
+    private List<BatchOperationResponse> results; // Results of operations in order of operations
+}
@@ -43,7 +43,7 @@ public class PasswordManager {
             byte[] passwordWithSalt = (password + salt).getBytes();
             hashedPassword = Base64.getEncoder().encodeToString(md.digest(passwordWithSalt));
         } catch (NoSuchAlgorithmException e) {
-            logger.error("Error: " + e.getMessage());
+            logger.error("Error: {}", e.getMessage());
         }
         return hashedPassword;
     }
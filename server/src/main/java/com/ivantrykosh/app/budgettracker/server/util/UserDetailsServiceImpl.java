@@ -6,15 +6,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
 /**
- * Custom implementation of Spring Security's UserDetailsService.
+ * Custom implementation of Spring Security's UserDetailsService and UserDetailsPasswordService.
  */
 @Component
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserService userService;
@@ -31,9 +32,28 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userService.getUserByEmail(username);
         if (user == null) {
-            logger.error("Could not find user with email " + username +  "!");
+            logger.error("Could not find user with email {}!", username);
             throw new UsernameNotFoundException("Could not find user with email " + username +  "!");
         }
         return new CustomUserDetails(user);
     }
+
+    /**
+     * Saves the password hashed again with the current work factor after a successful login.
+     *
+     * @param userDetails The user, who logged in.
+     * @param newPassword The password hashed with the current work factor.
+     * @return UserDetails object with the new password.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userService.getUserByEmail(userDetails.getUsername());
+        if (user == null) {
+            return userDetails;
+        }
+        user.setPasswordHash(newPassword);
+        User updatedUser = userService.updateUser(user);
+        logger.info("Password of user with email {} was hashed again with the current work factor", user.getEmail());
+        return new CustomUserDetails(updatedUser);
+    }
 }
@@ -2,7 +2,7 @@ package com.ivantrykosh.app.budgettracker.server.validators;
 
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.model.User;
-import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.application.services.RequestLookupContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -14,7 +14,7 @@ import java.util.List;
 @Component
 public class AccountValidator {
     @Autowired
-    private UserService userService;
+    private RequestLookupContext lookupContext;
 
     /**
      * Checks whether the given name is valid.
@@ -40,7 +40,7 @@ public class AccountValidator {
      * @return True if the email is valid, false otherwise.
      */
     public boolean checkEmail(String email, Account account) {
-        User user = userService.getUserByEmail(email);
+        User user = lookupContext.getUserByEmail(email);
         if (user == null) {
             return false;
         }
@@ -1,7 +1,6 @@
 package com.ivantrykosh.app.budgettracker.server.validators;
 
-import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
-import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.RequestLookupContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -13,9 +12,7 @@ import java.util.Date;
 @Component
 public class TransactionValidator {
     @Autowired
-    private AccountService accountService;
-    @Autowired
-    private TransactionService transactionService;
+    private RequestLookupContext lookupContext;
 
     /**
      * Checks whether the given transactionId is valid.
@@ -27,7 +24,7 @@ public class TransactionValidator {
         if (transactionId == null) {
             return false;
         }
-        return transactionService.getTransactionById(transactionId) != null;
+        return lookupContext.getTransactionById(transactionId) != null;
     }
 
     /**
@@ -40,7 +37,7 @@ public class TransactionValidator {
         if (accountId == null) {
             return false;
         }
-        return accountService.getAccountById(accountId) != null;
+        return lookupContext.getAccountById(accountId) != null;
     }
 
     /**
@@ -0,0 +1,165 @@
+package com.ivantrykosh.app.budgettracker.server.concurrency;
+
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.concurrency.RequestTaskRunner;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RequestTrace;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test RequestTaskRunner
+ */
+@SpringBootTest(properties = {
+        "request-tasks.pool-size=4",
+        "request-tasks.timeout-ms=500"
+})
+class RequestTaskRunnerTest {
+
+    @Autowired
+    private RequestTaskRunner requestTaskRunner;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Clear security context and trace of the test thread
+     */
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+        RequestTrace.stop();
+    }
+
+    /**
+     * Test forking all tasks with the security context of the caller and results in order of tasks
+     */
+    @Test
+    void forkTasks() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("testemail@gmail.com", null, List.of()));
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Supplier<String>> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            int number = i;
+            tasks.add(() -> {
+                threads.add(Thread.currentThread().getName());
+                return number + ":" + SecurityContextHolder.getContext().getAuthentication().getName();
+            });
+        }
+
+        List<String> results = requestTaskRunner.invokeAll(tasks, i -> null);
+
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i + ":testemail@gmail.com", results.get(i), "Results are not equals!");
+        }
+        assertFalse(threads.contains(Thread.currentThread().getName()), "Task ran on the caller thread!");
+        assertTrue(threads.size() > 1, "Tasks did not run concurrently!");
+    }
+
+    /**
+     * Test running all tasks on the caller thread within a DB transaction
+     */
+    @Test
+    void runInTransactionOnCallerThread() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        transactionTemplate.executeWithoutResult(status -> requestTaskRunner.invokeAll(threadRecordingTasks(threads, 3), i -> null));
+
+        assertEquals(Set.of(Thread.currentThread().getName()), threads, "Tasks did not run on the caller thread!");
+    }
+
+    /**
+     * Test running all tasks on the caller thread, which holds a database connection of its entity manager
+     */
+    @Test
+    void runOnCallerThreadHoldingConnection() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            entityManager.createNativeQuery("SELECT 1").getSingleResult();
+
+            requestTaskRunner.invokeAll(threadRecordingTasks(threads, 3), i -> null);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+
+        assertEquals(Set.of(Thread.currentThread().getName()), threads, "Tasks did not run on the caller thread!");
+    }
+
+    /**
+     * Test the fallback result and interrupting of tasks, which do not finish in time
+     */
+    @Test
+    void timeOut() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        List<Supplier<String>> tasks = List.of(() -> "fast", () -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "slow";
+        });
+
+        List<String> results = requestTaskRunner.invokeAll(tasks, i -> "fallback " + i);
+
+        assertEquals(List.of("fast", "fallback 1"), results, "Results are not equals!");
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "Task was not interrupted!");
+    }
+
+    /**
+     * Test adding SQL statements of forked tasks to the trace of the caller
+     */
+    @Test
+    void traceStatementsOfTasks() {
+        RequestTrace trace = RequestTrace.start("request", 10);
+
+        requestTaskRunner.invokeAll(List.<Supplier<Long>>of(userRepository::count, userRepository::count), i -> null);
+
+        assertEquals(2, trace.getStatementCount(), "Numbers of statements are not equals!");
+    }
+
+    /**
+     * Creates tasks, which record the thread they run on.
+     *
+     * @param threads The set, to which names of threads are added.
+     * @param count The number of tasks.
+     * @return The tasks.
+     */
+    private List<Supplier<String>> threadRecordingTasks(Set<String> threads, int count) {
+        List<Supplier<String>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(() -> {
+                threads.add(Thread.currentThread().getName());
+                return Thread.currentThread().getName();
+            });
+        }
+        return tasks;
+    }
+}
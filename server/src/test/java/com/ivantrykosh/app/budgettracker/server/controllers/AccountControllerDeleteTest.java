@@ -0,0 +1,313 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountPurgeService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountPurge;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountPurgeRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test deleting accounts with AccountController and UserController
+ */
+@SpringBootTest(properties = {"transactions.delete.batch-size=2", "accounts.purge.async-threshold=5"})
+@AutoConfigureMockMvc
+class AccountControllerDeleteTest {
+
+    private static final String PASSWORD = "password"; // Password of saved user
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountPurgeRepository accountPurgeRepository;
+
+    @Autowired
+    private AccountPurgeService accountPurgeService;
+
+    private User user;
+    private Account account;
+
+    /**
+     * Save user, account and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash(passwordEncoder.encode(PASSWORD));
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        for (int i = 0; i < 5; i++) {
+            saveTransaction();
+        }
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        accountPurgeRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test deleting Account in request
+     */
+    @Test
+    void deleteAccount() throws Exception {
+        MvcResult result = mockMvc.perform(delete("/api/v1/accounts/delete")
+                        .param("id", account.getAccountId().toString())
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Status is not 200!");
+        assertAccountIsDeleted();
+    }
+
+    /**
+     * Test deleting Account with background purge
+     */
+    @Test
+    void deleteAccountAsync() throws Exception {
+        MvcResult result = mockMvc.perform(delete("/api/v1/accounts/delete")
+                        .param("id", account.getAccountId().toString())
+                        .param("async", "true")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(202, result.getResponse().getStatus(), "Status is not 202!");
+        String purgeId = JsonPath.read(result.getResponse().getContentAsString(), "$.purgeId");
+        assertNotNull(result.getResponse().getHeader("Location"), "Location is null!");
+
+        assertEquals("COMPLETED", waitForPurge(purgeId), "Purge is not completed!");
+        assertAccountIsDeleted();
+    }
+
+    /**
+     * Test deleting Account with more transactions than async threshold, which is purged in the background without async
+     */
+    @Test
+    void deleteLargeAccount() throws Exception {
+        saveTransaction();
+
+        MvcResult result = mockMvc.perform(delete("/api/v1/accounts/delete")
+                        .param("id", account.getAccountId().toString())
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(202, result.getResponse().getStatus(), "Status is not 202!");
+        String purgeId = JsonPath.read(result.getResponse().getContentAsString(), "$.purgeId");
+
+        assertEquals("COMPLETED", waitForPurge(purgeId), "Purge is not completed!");
+        assertAccountIsDeleted();
+    }
+
+    /**
+     * Test deleting Account, which is already being purged
+     */
+    @Test
+    void deleteAccountAlreadyBeingPurged() throws Exception {
+        saveAccountPurge(new Date());
+
+        MvcResult result = mockMvc.perform(delete("/api/v1/accounts/delete")
+                        .param("id", account.getAccountId().toString())
+                        .param("async", "true")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(409, result.getResponse().getStatus(), "Status is not 409!");
+        assertNotNull(accountService.getAccountById(account.getAccountId()), "Account is deleted!");
+    }
+
+    /**
+     * Test resuming purge, which made no progress (e.g. the server was stopped while running it)
+     */
+    @Test
+    void resumeStalledPurge() throws Exception {
+        AccountPurge accountPurge = saveAccountPurge(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusDays(1)));
+
+        accountPurgeService.resumeStalledPurges();
+
+        assertEquals("COMPLETED", waitForPurge(accountPurge.getPurgeId()), "Purge is not completed!");
+        assertAccountIsDeleted();
+    }
+
+    /**
+     * Test deleting User, whose account has more transactions than async threshold, so the account is purged
+     * in the background and the user is deleted after it
+     */
+    @Test
+    void deleteUserWithLargeAccount() throws Exception {
+        saveTransaction();
+
+        MvcResult result = mockMvc.perform(delete("/api/v1/users/delete")
+                        .with(user(new CustomUserDetails(user)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email": "%s", "passwordHash": "%s"}
+                                """.formatted(user.getEmail(), PASSWORD)))
+                .andReturn();
+
+        assertEquals(202, result.getResponse().getStatus(), "Status is not 202!");
+        String purgeId = JsonPath.read(result.getResponse().getContentAsString(), "$.purgeId");
+        assertEquals("/api/v1/accounts/purge-status?id=" + purgeId, result.getResponse().getHeader("Location"), "Locations are not equals!");
+        assertTrue(userRepository.findById(user.getUserId()).isPresent(), "User is deleted before the purge!");
+
+        AccountPurge.Status status = null;
+        for (int i = 0; i < 100 && status != AccountPurge.Status.COMPLETED && status != AccountPurge.Status.FAILED; i++) {
+            Thread.sleep(100);
+            status = accountPurgeRepository.findById(purgeId).map(AccountPurge::getStatus).orElse(null);
+        }
+
+        assertEquals(AccountPurge.Status.COMPLETED, status, "Purge is not completed!");
+        assertAccountIsDeleted();
+        assertTrue(userRepository.findById(user.getUserId()).isEmpty(), "User is not deleted!");
+    }
+
+    /**
+     * Test getting status of not existing purge
+     */
+    @Test
+    void getPurgeStatusByInvalidId() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/accounts/purge-status")
+                        .param("id", "invalid")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(400, result.getResponse().getStatus(), "Status is not 400!");
+    }
+
+    /**
+     * Save transaction of saved account
+     */
+    private void saveTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setCategory("testCategory");
+        transaction.setValue(100.0);
+        transaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        transaction.setAccount(account);
+        transactionService.saveTransaction(transaction);
+    }
+
+    /**
+     * Save pending purge of saved account
+     * @param updatedAt date of the last progress of purge
+     * @return saved purge
+     */
+    private AccountPurge saveAccountPurge(Date updatedAt) {
+        AccountPurge accountPurge = new AccountPurge();
+        accountPurge.setPurgeId(UUID.randomUUID().toString());
+        accountPurge.setUserId(user.getUserId());
+        accountPurge.setAccountIds(new ArrayList<>(List.of(account.getAccountId())));
+        accountPurge.setStatus(AccountPurge.Status.PENDING);
+        accountPurge.setDeletedTransactions(0L);
+        accountPurge.setCreatedAt(updatedAt);
+        accountPurge.setUpdatedAt(updatedAt);
+        return accountPurgeRepository.save(accountPurge);
+    }
+
+    /**
+     * Wait for purge to finish
+     * @param purgeId ID of purge
+     * @return status of purge
+     */
+    private String waitForPurge(String purgeId) throws Exception {
+        String status = null;
+        for (int i = 0; i < 100 && !"COMPLETED".equals(status) && !"FAILED".equals(status); i++) {
+            Thread.sleep(100);
+            MvcResult statusResult = mockMvc.perform(get("/api/v1/accounts/purge-status")
+                            .param("id", purgeId)
+                            .with(user(new CustomUserDetails(user))))
+                    .andReturn();
+            status = JsonPath.read(statusResult.getResponse().getContentAsString(), "$.status");
+            System.out.println(statusResult.getResponse().getContentAsString());
+        }
+        return status;
+    }
+
+    /**
+     * Assert account, its account users and transactions are deleted
+     */
+    private void assertAccountIsDeleted() {
+        assertNull(accountService.getAccountById(account.getAccountId()), "Account is not deleted!");
+        assertNull(accountUsersService.getAccountUsersByAccountId(account.getAccountId()), "AccountUsers are not deleted!");
+        assertEquals(0, transactionService.getTransactionsByAccountId(account.getAccountId()).size(), "Transactions are not deleted!");
+    }
+}
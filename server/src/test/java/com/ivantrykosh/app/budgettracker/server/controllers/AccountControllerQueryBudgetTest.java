@@ -0,0 +1,210 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.fixtures.TestFixtures;
+import com.ivantrykosh.app.budgettracker.server.querybudget.QueryBudget;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Test query budgets of AccountController endpoints.
+ * User has several own accounts and one shared account, so statements executed per account exceed the budgets
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccountControllerQueryBudgetTest {
+
+    private static final int NUMBER_OF_ACCOUNTS = 3; // Number of own accounts of user
+    private static final int MANY_ACCOUNTS = 6; // Number of own accounts of user in tests of many accounts
+    private static final int GET_ALL_BUDGET = 4; // user, accounts of user, shared accounts with their owners and sums of all accounts
+    private static final int TRANSACTIONS_PER_ACCOUNT = 2; // Number of transactions of every account
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private final List<Account> accounts = new ArrayList<>();
+
+    /**
+     * Save users, own and shared accounts and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        user = fixtures.saveUser("testemail@gmail.com");
+        User otherUser = fixtures.saveUser("testemail2@gmail.com");
+
+        accounts.clear();
+        for (int i = 0; i < NUMBER_OF_ACCOUNTS; i++) {
+            accounts.add(saveAccount("test account " + i, user, null));
+        }
+        saveAccount("shared account", otherUser, user.getUserId());
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test query budget of creating Account
+     */
+    @Test
+    @QueryBudget(6) // user, accounts of user, insert of account, insert of account users, sums of incomes and expenses
+    void createAccount() throws Exception {
+        assertEquals(201, perform(post("/api/v1/accounts/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"new account\"}")), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of getting Account
+     */
+    @Test
+    @QueryBudget(5) // user, account, account users, sums of incomes and expenses
+    void getAccount() throws Exception {
+        assertEquals(200, perform(get("/api/v1/accounts/get")
+                .param("id", accounts.get(0).getAccountId().toString())), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of getting all Accounts
+     */
+    @Test
+    @QueryBudget(GET_ALL_BUDGET)
+    void getAllAccounts() throws Exception {
+        assertEquals(200, perform(get("/api/v1/accounts/get-all")), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of updating Account
+     */
+    @Test
+    @QueryBudget(9) // user, account, accounts of user, account users, update of name, updated account, merge of account users, sums of incomes and expenses
+    void updateAccount() throws Exception {
+        assertEquals(200, perform(patch("/api/v1/accounts/update")
+                .param("id", accounts.get(0).getAccountId().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"updated account\", \"version\": " + accounts.get(0).getVersion() + "}")), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of deleting Account
+     */
+    @Test
+    @QueryBudget(8) // user, account, check of number of transactions, IDs of transactions, delete of transactions, no IDs left, delete of account users and account
+    void deleteAccount() throws Exception {
+        assertEquals(200, perform(delete("/api/v1/accounts/delete")
+                .param("id", accounts.get(0).getAccountId().toString())), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of deleting all Accounts
+     */
+    @Test
+    @QueryBudget(11) // user, accounts of user, 3 updates of shared account users, check of number of transactions, IDs of transactions, delete of transactions, no IDs left, delete of account users and accounts
+    void deleteAllAccounts() throws Exception {
+        assertEquals(200, perform(delete("/api/v1/accounts/delete-all")), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of getting status of unknown purge
+     */
+    @Test
+    @QueryBudget(2) // user, purge
+    void getPurgeStatus() throws Exception {
+        assertEquals(400, perform(get("/api/v1/accounts/purge-status")
+                .param("id", "unknown")), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budgets of requests of user with many accounts
+     */
+    @Nested
+    class ManyAccounts {
+
+        /**
+         * Save more own accounts of user to db
+         */
+        @BeforeEach
+        public void saveMoreAccounts() {
+            for (int i = NUMBER_OF_ACCOUNTS; i < MANY_ACCOUNTS; i++) {
+                accounts.add(saveAccount("test account " + i, user, null));
+            }
+        }
+
+        /**
+         * Test query budget of getting all Accounts, whose sums are calculated by one query for any number of accounts
+         */
+        @Test
+        @QueryBudget(GET_ALL_BUDGET)
+        void getAllAccounts() throws Exception {
+            assertEquals(200, perform(get("/api/v1/accounts/get-all")), "Statuses are not equals!");
+        }
+    }
+
+    /**
+     * Perform request as saved user
+     * @param request request to perform
+     * @return status of response
+     */
+    private int perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user(new CustomUserDetails(user)))).andReturn().getResponse().getStatus();
+    }
+
+    /**
+     * Save account with its account users and transactions
+     * @param name name of account
+     * @param owner owner of account
+     * @param user2Id ID of second user of account, can be null
+     * @return saved account
+     */
+    private Account saveAccount(String name, User owner, Long user2Id) {
+        Account account = fixtures.saveAccount(owner, name, user2Id);
+        for (int i = 0; i < TRANSACTIONS_PER_ACCOUNT; i++) {
+            fixtures.saveTransaction(account, i % 2 == 0 ? 100.0 : -50.0);
+        }
+        return account;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.ConfirmationTokenService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.ConfirmationToken;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.ConfirmationTokenRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.OutboxEmailRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.fixtures.TestFixtures;
+import com.ivantrykosh.app.budgettracker.server.querybudget.QueryBudget;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Test query budgets of AuthController endpoints
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerQueryBudgetTest {
+
+    private static final String PASSWORD = "password"; // Password of saved users
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ConfirmationTokenService confirmationTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private ConfirmationTokenRepository confirmationTokenRepository;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    private User verifiedUser;
+    private User unverifiedUser;
+    private ConfirmationToken confirmationToken;
+
+    /**
+     * Save verified user, unverified user and confirmation token of unverified user to db
+     */
+    @BeforeEach
+    public void saveData() {
+        verifiedUser = fixtures.saveUser("testemail@gmail.com", PASSWORD, true);
+        unverifiedUser = fixtures.saveUser("testemail2@gmail.com", PASSWORD, false);
+
+        ConfirmationToken newConfirmationToken = new ConfirmationToken();
+        newConfirmationToken.setConfirmationToken(UUID.randomUUID().toString());
+        newConfirmationToken.setCreatedAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(20)));
+        newConfirmationToken.setExpiresAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).plusMinutes(15)));
+        newConfirmationToken.setUser(unverifiedUser);
+        confirmationToken = confirmationTokenService.saveConfirmationToken(newConfirmationToken);
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        outboxEmailRepository.deleteAll();
+        confirmationTokenRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test query budget of registering User
+     */
+    @Test
+    @QueryBudget(6) // user with email, inserts of user, confirmation token, outbox email, account and account users
+    void registerUser() throws Exception {
+        assertEquals(201, mockMvc.perform(post("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginJson("newemail@gmail.com")))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of login
+     */
+    @Test
+    @QueryBudget(1) // user
+    void login() throws Exception {
+        assertEquals(200, mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginJson(verifiedUser.getEmail())))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of confirming email
+     */
+    @Test
+    @QueryBudget(4) // confirmation token, user, updates of confirmation token and user
+    void confirmToken() throws Exception {
+        assertEquals(200, mockMvc.perform(get("/api/v1/auth/confirm")
+                .param("token", confirmationToken.getConfirmationToken()))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of refreshing token
+     */
+    @Test
+    @QueryBudget(0) // token is created from authenticated user
+    void refreshToken() throws Exception {
+        assertEquals(200, mockMvc.perform(get("/api/v1/auth/refresh")
+                .with(user(new CustomUserDetails(verifiedUser))))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of sending confirmation email
+     */
+    @Test
+    @QueryBudget(5) // user of authentication, user, recent confirmation tokens, inserts of confirmation token and outbox email
+    void sendConfirmationEmail() throws Exception {
+        assertEquals(201, mockMvc.perform(post("/api/v1/auth/send-confirmation-email")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginJson(unverifiedUser.getEmail())))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Create JSON of login request
+     * @param email email of user
+     * @return JSON of login request
+     */
+    private String loginJson(String email) {
+        return """
+                {"email": "%s", "passwordHash": "%s"}
+                """.formatted(email, PASSWORD);
+    }
+}
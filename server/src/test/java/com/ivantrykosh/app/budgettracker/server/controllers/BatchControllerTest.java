@@ -0,0 +1,302 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.fixtures.TestFixtures;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency.IdempotencyFilter;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Test BatchController
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @SpyBean
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+    private Account sharedAccount;
+    private Account otherAccount;
+    private Transaction transaction;
+
+    /**
+     * Save users, own, shared and other accounts and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        user = fixtures.saveUser("testemail@gmail.com");
+        User owner = fixtures.saveUser("testemail2@gmail.com");
+
+        account = fixtures.saveAccount(user, null);
+        sharedAccount = fixtures.saveAccount(owner, user.getUserId());
+        otherAccount = fixtures.saveAccount(owner, null);
+
+        transaction = fixtures.saveTransaction(account, 100.0);
+        fixtures.saveTransaction(sharedAccount, -10.0);
+        fixtures.saveTransaction(otherAccount, -20.0);
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test executing reads of own and shared accounts in parallel, and returning results in order of operations
+     */
+    @Test
+    void executeReads() throws Exception {
+        String json = """
+                {"operations": [
+                    {"id": "accounts", "method": "GET", "path": "/api/v1/accounts/get-all"},
+                    {"id": "transaction", "method": "GET", "path": "/api/v1/transactions/get?id=%d"},
+                    {"id": "shared", "method": "GET", "path": "/api/v1/transactions/get-all-by-account?id=%d"},
+                    {"id": "other", "method": "GET", "path": "/api/v1/transactions/get-all-by-account?id=%d"}
+                ]}
+                """.formatted(transaction.getTransactionId(), sharedAccount.getAccountId(), otherAccount.getAccountId());
+        MvcResult result = mockMvc.perform(batch(json)).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+
+        assertEquals(4, (int) JsonPath.read(body, "$.results.length()"), "Numbers of results are not equals!");
+        assertEquals("accounts", JsonPath.read(body, "$.results[0].id"), "Results are not in order of operations!");
+        assertEquals(200, (int) JsonPath.read(body, "$.results[0].status"), "Statuses of accounts are not equals!");
+        assertEquals(2, (int) JsonPath.read(body, "$.results[0].body.length()"), "Numbers of accounts are not equals!");
+
+        assertEquals(200, (int) JsonPath.read(body, "$.results[1].status"), "Statuses of transaction are not equals!");
+        assertEquals(100.0, ((Number) JsonPath.read(body, "$.results[1].body.value")).doubleValue(), "Values of transaction are not equals!");
+
+        assertEquals(200, (int) JsonPath.read(body, "$.results[2].status"), "Statuses of shared account are not equals!");
+        assertEquals(1, (int) JsonPath.read(body, "$.results[2].body.length()"), "Numbers of transactions are not equals!");
+
+        assertEquals(403, (int) JsonPath.read(body, "$.results[3].status"), "Access to other account is not denied!");
+        assertNull(JsonPath.read(body, "$.committed"), "Batch is not transactional!");
+    }
+
+    /**
+     * Test forking reads at the start of batch to request tasks: both reads run on threads of request tasks,
+     * and every read waits until the other one is started
+     */
+    @Test
+    void forkReads() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            started.countDown();
+            started.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(transactionService).getTransactionsByAccountId(any());
+
+        String json = """
+                {"operations": [
+                    {"id": "own", "method": "GET", "path": "/api/v1/transactions/get-all-by-account?id=%d"},
+                    {"id": "shared", "method": "GET", "path": "/api/v1/transactions/get-all-by-account?id=%d"}
+                ]}
+                """.formatted(account.getAccountId(), sharedAccount.getAccountId());
+        MvcResult result = mockMvc.perform(batch(json)).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+        assertEquals(200, (int) JsonPath.read(body, "$.results[0].status"), "Statuses of own account are not equals!");
+        assertEquals(200, (int) JsonPath.read(body, "$.results[1].status"), "Statuses of shared account are not equals!");
+        assertEquals(0, started.getCount(), "Reads did not run in parallel!");
+        assertEquals(2, threads.size(), "Reads did not run on different threads!");
+        assertTrue(threads.stream().allMatch(thread -> thread.startsWith("request-tasks-")), "Reads did not run as request tasks!");
+    }
+
+    /**
+     * Test executing a write before a read, which sees it
+     */
+    @Test
+    void executeWriteBeforeRead() throws Exception {
+        String json = """
+                {"operations": [
+                    {"id": "create", "method": "POST", "path": "/api/v1/transactions/create", "body": %s},
+                    {"id": "read", "method": "GET", "path": "/api/v1/transactions/get-all-by-account?id=%d"}
+                ]}
+                """.formatted(transactionJson(account.getAccountId()), account.getAccountId());
+        MvcResult result = mockMvc.perform(batch(json)).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+        assertEquals(201, (int) JsonPath.read(body, "$.results[0].status"), "Transaction is not created!");
+        assertEquals("Transaction was saved!", JsonPath.read(body, "$.results[0].body"), "Bodies are not equals!");
+        assertEquals(2, (int) JsonPath.read(body, "$.results[1].body.length()"), "Created transaction is not read!");
+    }
+
+    /**
+     * Test rolling back a transactional batch after the first failed operation
+     */
+    @Test
+    void rollBackTransactionalBatch() throws Exception {
+        String json = """
+                {"transactional": true, "operations": [
+                    {"id": "own", "method": "POST", "path": "/api/v1/transactions/create", "body": %s},
+                    {"id": "other", "method": "POST", "path": "/api/v1/transactions/create", "body": %s},
+                    {"id": "shared", "method": "POST", "path": "/api/v1/transactions/create", "body": %s}
+                ]}
+                """.formatted(transactionJson(account.getAccountId()), transactionJson(otherAccount.getAccountId()),
+                transactionJson(sharedAccount.getAccountId()));
+        MvcResult result = mockMvc.perform(batch(json)).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+        assertFalse(JsonPath.read(body, "$.committed"), "Batch is committed!");
+        assertEquals(201, (int) JsonPath.read(body, "$.results[0].status"), "Statuses of first operation are not equals!");
+        assertEquals(403, (int) JsonPath.read(body, "$.results[1].status"), "Statuses of failed operation are not equals!");
+        assertEquals(424, (int) JsonPath.read(body, "$.results[2].status"), "Operation after failed operation is executed!");
+        assertEquals(3, transactionRepository.count(), "Transaction of rolled back batch is saved!");
+    }
+
+    /**
+     * Test committing a transactional batch, whose operations succeeded
+     */
+    @Test
+    void commitTransactionalBatch() throws Exception {
+        String json = """
+                {"transactional": true, "operations": [
+                    {"method": "POST", "path": "/api/v1/transactions/create", "body": %s},
+                    {"method": "POST", "path": "/api/v1/transactions/create", "body": %s}
+                ]}
+                """.formatted(transactionJson(account.getAccountId()), transactionJson(sharedAccount.getAccountId()));
+        MvcResult result = mockMvc.perform(batch(json)).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+        assertTrue(JsonPath.read(body, "$.committed"), "Batch is not committed!");
+        assertEquals("1", JsonPath.read(body, "$.results[1].id"), "Index is not used as ID of operation!");
+        assertEquals(5, transactionRepository.count(), "Transactions of batch are not saved!");
+    }
+
+    /**
+     * Test rejecting operations, which can't be batched
+     */
+    @Test
+    void rejectOperationsOutsideOfApi() throws Exception {
+        String[] paths = {"/api/v1/auth/login", "/api/v1/accounts/events", "/api/v1/accounts/../auth/login", "/api/v1/batch"};
+        for (String path : paths) {
+            String json = """
+                    {"operations": [{"method": "GET", "path": "%s"}]}
+                    """.formatted(path);
+            MvcResult result = mockMvc.perform(batch(json)).andReturn();
+
+            assertEquals(400, result.getResponse().getStatus(), "Operation " + path + " is not rejected!");
+        }
+    }
+
+    /**
+     * Test rejecting a batch with too many operations
+     */
+    @Test
+    void rejectTooManyOperations() throws Exception {
+        StringBuilder operations = new StringBuilder();
+        for (int i = 0; i < 21; i++) {
+            operations.append(i == 0 ? "" : ",").append("{\"method\": \"GET\", \"path\": \"/api/v1/users/get\"}");
+        }
+        MvcResult result = mockMvc.perform(batch("{\"operations\": [" + operations + "]}")).andReturn();
+
+        assertEquals(400, result.getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test replaying a batch with an idempotency key without executing its operations again
+     */
+    @Test
+    void replayBatchWithIdempotencyKey() throws Exception {
+        String json = """
+                {"operations": [
+                    {"method": "POST", "path": "/api/v1/transactions/create", "body": %s}
+                ]}
+                """.formatted(transactionJson(account.getAccountId()));
+        String idempotencyKey = UUID.randomUUID().toString();
+        MvcResult result = mockMvc.perform(batch(json).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey)).andReturn();
+        MvcResult retryResult = mockMvc.perform(batch(json).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey)).andReturn();
+
+        assertEquals(200, retryResult.getResponse().getStatus(), "Statuses are not equals!");
+        assertEquals("true", retryResult.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER), "Response is not replayed!");
+        assertEquals(result.getResponse().getContentAsString(), retryResult.getResponse().getContentAsString(), "Bodies are not equals!");
+        assertEquals(4, transactionRepository.count(), "Transaction of batch is saved twice!");
+    }
+
+    /**
+     * Create batch request of the user
+     * @param json JSON of batch
+     * @return batch request
+     */
+    private MockHttpServletRequestBuilder batch(String json) {
+        return post("/api/v1/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json)
+                .with(user(new CustomUserDetails(user)));
+    }
+
+    /**
+     * Create JSON of transaction
+     * @param accountId ID of account of transaction
+     * @return JSON of transaction
+     */
+    private String transactionJson(Long accountId) {
+        return """
+                {"accountId": %d, "category": "testCategory", "value": 50.0, "date": %d}
+                """.formatted(accountId, System.currentTimeMillis() - 1000).trim();
+    }
+}
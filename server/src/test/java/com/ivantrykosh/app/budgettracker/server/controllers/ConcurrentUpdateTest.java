@@ -0,0 +1,221 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Test concurrent updates of transactions and accounts with expected versions
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConcurrentUpdateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+    private Transaction transaction;
+
+    /**
+     * Save user, account and transaction to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        Transaction newTransaction = new Transaction();
+        newTransaction.setCategory("testCategory");
+        newTransaction.setValue(100.0);
+        newTransaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newTransaction.setAccount(account);
+        transaction = transactionService.saveTransaction(newTransaction);
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test that the second of two updates of Transaction with the same version gets conflict with current state
+     */
+    @Test
+    void updateTransactionWithStaleVersion() throws Exception {
+        long version = transaction.getVersion();
+
+        MvcResult firstResult = perform(put("/api/v1/transactions/update")
+                .content(transactionJson("firstCategory", version)));
+        MvcResult secondResult = perform(put("/api/v1/transactions/update")
+                .content(transactionJson("secondCategory", version)));
+
+        System.out.println(secondResult.getResponse().getContentAsString());
+
+        assertEquals(200, firstResult.getResponse().getStatus(), "Status is not 200!");
+        assertEquals(409, secondResult.getResponse().getStatus(), "Status is not 409!");
+        String body = secondResult.getResponse().getContentAsString();
+        assertEquals("firstCategory", JsonPath.read(body, "$.category"), "Categories are not equals!");
+        assertEquals(version + 1, ((Number) JsonPath.read(body, "$.version")).longValue(), "Versions are not equals!");
+        assertEquals("firstCategory", transactionService.getTransactionById(transaction.getTransactionId()).getCategory(), "Transaction is overwritten!");
+    }
+
+    /**
+     * Test that update of Transaction without version is rejected
+     */
+    @Test
+    void updateTransactionWithoutVersion() throws Exception {
+        MvcResult result = perform(put("/api/v1/transactions/update")
+                .content(transactionJson("secondCategory", null)));
+
+        assertEquals(428, result.getResponse().getStatus(), "Status is not 428!");
+        assertEquals(transaction.getCategory(), transactionService.getTransactionById(transaction.getTransactionId()).getCategory(), "Transaction is updated!");
+    }
+
+    /**
+     * Test that the second of two updates of Account with the same version gets conflict with current state
+     */
+    @Test
+    void updateAccountWithStaleVersion() throws Exception {
+        long version = account.getVersion();
+
+        MvcResult firstResult = perform(patch("/api/v1/accounts/update")
+                .param("id", account.getAccountId().toString())
+                .content(accountJson("first name", version)));
+        MvcResult secondResult = perform(patch("/api/v1/accounts/update")
+                .param("id", account.getAccountId().toString())
+                .content(accountJson("second name", version)));
+
+        System.out.println(secondResult.getResponse().getContentAsString());
+
+        assertEquals(200, firstResult.getResponse().getStatus(), "Status is not 200!");
+        assertEquals(409, secondResult.getResponse().getStatus(), "Status is not 409!");
+        String body = secondResult.getResponse().getContentAsString();
+        assertEquals("first name", JsonPath.read(body, "$.accountDto.name"), "Names are not equals!");
+        assertEquals(version + 1, ((Number) JsonPath.read(body, "$.accountDto.version")).longValue(), "Versions are not equals!");
+        assertEquals("first name", accountService.getAccountById(account.getAccountId()).getName(), "Account is overwritten!");
+    }
+
+    /**
+     * Test that update of Account without version is rejected
+     */
+    @Test
+    void updateAccountWithoutVersion() throws Exception {
+        MvcResult result = perform(patch("/api/v1/accounts/update")
+                .param("id", account.getAccountId().toString())
+                .content(accountJson("second name", null)));
+
+        assertEquals(428, result.getResponse().getStatus(), "Status is not 428!");
+        assertEquals(account.getName(), accountService.getAccountById(account.getAccountId()).getName(), "Account is updated!");
+    }
+
+    /**
+     * Perform request with JSON body as user
+     * @param request request to perform
+     * @return result of request
+     */
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+    }
+
+    /**
+     * Create JSON of transaction
+     * @param category category of transaction
+     * @param version expected version of transaction
+     * @return JSON of transaction
+     */
+    private String transactionJson(String category, Long version) {
+        return """
+                {"transactionId": %d, "accountId": %d, "category": "%s", "value": 50.0, "date": %d, "version": %s}
+                """.formatted(transaction.getTransactionId(), account.getAccountId(), category, System.currentTimeMillis(), version);
+    }
+
+    /**
+     * Create JSON of account update request
+     * @param name name of account
+     * @param version expected version of account
+     * @return JSON of account update request
+     */
+    private String accountJson(String name, Long version) {
+        return """
+                {"name": "%s", "version": %s}
+                """.formatted(name, version);
+    }
+}
@@ -0,0 +1,199 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.fixtures.TestFixtures;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test DashboardController
+ */
+@SpringBootTest(properties = "request-tasks.pool-size=4")
+@AutoConfigureMockMvc
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @SpyBean
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+    private Account sharedAccount;
+
+    /**
+     * Save users, own and shared accounts and transactions of this and previous month to db
+     */
+    @BeforeEach
+    public void saveData() {
+        user = fixtures.saveUser("testemail@gmail.com");
+        User owner = fixtures.saveUser("testemail2@gmail.com");
+
+        account = fixtures.saveAccount(user, null);
+        sharedAccount = fixtures.saveAccount(owner, user.getUserId());
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime previousMonth = LocalDate.now().withDayOfMonth(1).minusDays(1).atTime(12, 0);
+        fixtures.saveTransaction(account, "Salary", 100.0, now);
+        fixtures.saveTransaction(account, "Food", -30.0, now);
+        fixtures.saveTransaction(account, "Food", -20.0, now);
+        fixtures.saveTransaction(account, "Transport", -40.0, now);
+        fixtures.saveTransaction(sharedAccount, "Food", -10.0, now);
+        fixtures.saveTransaction(account, "Rent", -500.0, previousMonth);
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test getting dashboard of the current month with own and shared accounts
+     */
+    @Test
+    void getDashboardOfCurrentMonth() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/dashboard")
+                        .param("latest", "2")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+
+        assertEquals(2, (int) JsonPath.read(body, "$.accounts.length()"), "Numbers of accounts are not equals!");
+        assertEquals(account.getAccountId(), ((Number) JsonPath.read(body, "$.accounts[0].accountId")).longValue(), "Own account is not first!");
+        assertEquals(-590.0, ((Number) JsonPath.read(body, "$.accounts[0].expensesSum")).doubleValue(), "Expenses of account are not equals!");
+        assertEquals(sharedAccount.getAccountId(), ((Number) JsonPath.read(body, "$.accounts[1].accountId")).longValue(), "Shared account is not returned!");
+
+        assertEquals(account.getAccountId(), ((Number) JsonPath.read(body, "$.periodSums[0].accountId")).longValue(), "Accounts of sums are not equals!");
+        assertEquals(100.0, ((Number) JsonPath.read(body, "$.periodSums[0].incomesSum")).doubleValue(), "Incomes of month are not equals!");
+        assertEquals(-90.0, ((Number) JsonPath.read(body, "$.periodSums[0].expensesSum")).doubleValue(), "Expenses of month are not equals!");
+
+        assertEquals(2, (int) JsonPath.read(body, "$.topCategories.length()"), "Numbers of categories are not equals!");
+        assertEquals("Food", JsonPath.read(body, "$.topCategories[0].category"), "Top categories are not equals!");
+        assertEquals(-60.0, ((Number) JsonPath.read(body, "$.topCategories[0].expensesSum")).doubleValue(), "Expenses of category are not equals!");
+        assertEquals(3, ((Number) JsonPath.read(body, "$.topCategories[0].transactionCount")).intValue(), "Numbers of expenses are not equals!");
+
+        assertEquals(2, (int) JsonPath.read(body, "$.latestTransactions.length()"), "Numbers of transactions are not equals!");
+    }
+
+    /**
+     * Test getting dashboard of the given period
+     */
+    @Test
+    void getDashboardOfPeriod() throws Exception {
+        LocalDate previousMonth = LocalDate.now().withDayOfMonth(1).minusMonths(1);
+        MvcResult result = mockMvc.perform(get("/api/v1/dashboard")
+                        .param("startDate", previousMonth.toString())
+                        .param("endDate", previousMonth.withDayOfMonth(previousMonth.lengthOfMonth()).toString())
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+        assertEquals(1, (int) JsonPath.read(body, "$.topCategories.length()"), "Numbers of categories are not equals!");
+        assertEquals("Rent", JsonPath.read(body, "$.topCategories[0].category"), "Top categories are not equals!");
+        assertEquals(6, (int) JsonPath.read(body, "$.latestTransactions.length()"), "Numbers of transactions are not equals!");
+    }
+
+    /**
+     * Test running the four queries of dashboard in parallel: every query waits until all of them are started
+     */
+    @Test
+    void getDashboardWithParallelQueries() throws Exception {
+        CountDownLatch started = new CountDownLatch(4);
+        Answer<Object> awaitOtherQueries = invocation -> {
+            started.countDown();
+            started.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        };
+        doAnswer(awaitOtherQueries).when(transactionService).getSumsOfTransactionsByAccountIds(anyList());
+        doAnswer(awaitOtherQueries).when(transactionService).getSumsOfTransactionsByAccountIdsAndDateBetween(anyList(), any(), any());
+        doAnswer(awaitOtherQueries).when(transactionService).getTopExpenseCategoriesByAccountIds(anyList(), any(), any(), any());
+        doAnswer(awaitOtherQueries).when(transactionService).getLatestTransactionsByAccountIds(anyList(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/dashboard")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        assertEquals(0, started.getCount(), "Queries did not run in parallel!");
+        assertEquals(2, (int) JsonPath.read(result.getResponse().getContentAsString(), "$.accounts.length()"), "Numbers of accounts are not equals!");
+    }
+
+    /**
+     * Test getting dashboard with invalid number of latest transactions
+     */
+    @Test
+    void getDashboardWithInvalidLatest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/dashboard")
+                        .param("latest", "0")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(400, result.getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test getting dashboard with only one date of period
+     */
+    @Test
+    void getDashboardWithOnlyStartDate() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/dashboard")
+                        .param("startDate", LocalDate.now().toString())
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(400, result.getResponse().getStatus(), "Statuses are not equals!");
+    }
+}
@@ -0,0 +1,232 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test selection of fields by read endpoints of TransactionController and AccountController
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class FieldSelectionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+    private Transaction transaction;
+
+    /**
+     * Save user, account and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        user = new User();
+        user.setEmail("testemail@gmail.com");
+        user.setPasswordHash("hash");
+        user.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        user.setIsVerified(true);
+        user = userService.saveUser(user);
+
+        account = new Account();
+        account.setName("test account");
+        account.setUser(user);
+        account = accountService.saveAccount(account);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        transaction = saveTransaction(100.0, "first note");
+        saveTransaction(-20.0, "second note");
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test returning only selected fields of transactions of account
+     */
+    @Test
+    void selectFieldsOfTransactionsByAccount() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/transactions/get-all-by-account")
+                        .param("id", account.getAccountId().toString())
+                        .param("fields", "transactionId,value")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+        assertEquals(2, (int) JsonPath.read(body, "$.length()"), "Numbers of transactions are not equals!");
+        Map<String, Object> first = JsonPath.read(body, "$[0]");
+        assertEquals(2, first.size(), "Not only selected fields are returned!");
+        assertTrue(first.containsKey("transactionId"), "Field transactionId is not returned!");
+        assertFalse(first.containsKey("note"), "Field note is returned!");
+        assertEquals(-20.0, ((Number) first.get("value")).doubleValue(), "Values are not equals!");
+    }
+
+    /**
+     * Test returning only selected fields of transactions of the month
+     */
+    @Test
+    void selectFieldsOfTransactionsBetweenDates() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        MvcResult result = mockMvc.perform(get("/api/v1/transactions/get-all-between-dates")
+                        .param("accountIds", account.getAccountId().toString())
+                        .param("startDate", today.minusDays(1).toString())
+                        .param("endDate", today.plusDays(1).toString())
+                        .param("fields", "category, date, note")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+        assertEquals(2, (int) JsonPath.read(body, "$.length()"), "Numbers of transactions are not equals!");
+        Map<String, Object> second = JsonPath.read(body, "$[1]");
+        assertEquals(3, second.size(), "Not only selected fields are returned!");
+        assertEquals("first note", second.get("note"), "Notes are not equals!");
+        assertNotNull(second.get("date"), "Date is not returned!");
+    }
+
+    /**
+     * Test returning all fields of transaction without selection and only selected fields with selection
+     */
+    @Test
+    void selectFieldsOfTransaction() throws Exception {
+        MvcResult all = mockMvc.perform(get("/api/v1/transactions/get")
+                        .param("id", transaction.getTransactionId().toString())
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+        MvcResult selected = mockMvc.perform(get("/api/v1/transactions/get")
+                        .param("id", transaction.getTransactionId().toString())
+                        .param("fields", "value")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(200, all.getResponse().getStatus(), "Statuses are not equals!");
+        Map<String, Object> allFields = JsonPath.read(all.getResponse().getContentAsString(), "$");
+        assertEquals(8, allFields.size(), "Not all fields are returned!");
+
+        assertEquals(200, selected.getResponse().getStatus(), "Statuses are not equals!");
+        Map<String, Object> selectedFields = JsonPath.read(selected.getResponse().getContentAsString(), "$");
+        assertEquals(Map.of("value", 100.0), selectedFields, "Not only selected fields are returned!");
+    }
+
+    /**
+     * Test returning only selected fields of accounts
+     */
+    @Test
+    void selectFieldsOfAccounts() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/accounts/get-all")
+                        .param("fields", "accountId,name")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        String body = result.getResponse().getContentAsString();
+        Map<String, Object> first = JsonPath.read(body, "$[0]");
+        assertEquals(2, first.size(), "Not only selected fields are returned!");
+        assertEquals("test account", first.get("name"), "Names are not equals!");
+        assertFalse(first.containsKey("incomesSum"), "Sums are returned!");
+    }
+
+    /**
+     * Test rejecting unknown fields
+     */
+    @Test
+    void rejectUnknownFields() throws Exception {
+        MvcResult transactions = mockMvc.perform(get("/api/v1/transactions/get-all-by-account")
+                        .param("id", account.getAccountId().toString())
+                        .param("fields", "value,password")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+        MvcResult accounts = mockMvc.perform(get("/api/v1/accounts/get")
+                        .param("id", account.getAccountId().toString())
+                        .param("fields", "")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(400, transactions.getResponse().getStatus(), "Statuses of transactions are not equals!");
+        assertEquals("Invalid fields!", transactions.getResponse().getContentAsString(), "Messages are not equals!");
+        assertEquals(400, accounts.getResponse().getStatus(), "Statuses of accounts are not equals!");
+    }
+
+    /**
+     * Save transaction to db
+     * @param value value of transaction
+     * @param note note of transaction
+     * @return saved transaction
+     */
+    private Transaction saveTransaction(Double value, String note) {
+        Transaction newTransaction = new Transaction();
+        newTransaction.setCategory("testCategory");
+        newTransaction.setValue(value);
+        newTransaction.setNote(note);
+        newTransaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(value > 0 ? 2 : 1)));
+        newTransaction.setAccount(account);
+        return transactionService.saveTransaction(newTransaction);
+    }
+}
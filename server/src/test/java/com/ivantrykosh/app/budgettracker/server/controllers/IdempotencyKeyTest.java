@@ -0,0 +1,230 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency.IdempotencyFilter;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Test requests with idempotency keys to TransactionController
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyKeyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+    private String keyPrefix; // Prefix of idempotency keys, keys are kept between tests
+
+    /**
+     * Save user and account to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        keyPrefix = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test retry of creating Transaction with the same idempotency key
+     */
+    @Test
+    void retryCreateTransactionWithSameKey() throws Exception {
+        String json = transactionJson("category");
+
+        MockHttpServletResponse first = perform(createRequest(json).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key("create-1")));
+        MockHttpServletResponse retry = perform(createRequest(json).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key("create-1")));
+
+        assertEquals(201, first.getStatus(), "Statuses are not equals!");
+        assertEquals(201, retry.getStatus(), "Statuses are not equals!");
+        assertEquals(first.getContentAsString(), retry.getContentAsString(), "Bodies are not equals!");
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER), "First response is replayed!");
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER), "Retry is not replayed!");
+        assertEquals(1, transactionRepository.count(), "Numbers of transactions are not equals!");
+    }
+
+    /**
+     * Test creating Transactions with different idempotency keys and without keys
+     */
+    @Test
+    void createTransactionsWithDifferentKeys() throws Exception {
+        String json = transactionJson("category");
+
+        perform(createRequest(json).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key("create-1")));
+        perform(createRequest(json).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key("create-2")));
+        perform(createRequest(json));
+        perform(createRequest(json));
+
+        assertEquals(4, transactionRepository.count(), "Numbers of transactions are not equals!");
+    }
+
+    /**
+     * Test reusing idempotency key for another request
+     */
+    @Test
+    void reuseKeyForAnotherRequest() throws Exception {
+        perform(createRequest(transactionJson("category")).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key("create-1")));
+        MockHttpServletResponse response = perform(createRequest(transactionJson("anotherCategory")).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key("create-1")));
+
+        assertEquals(422, response.getStatus(), "Statuses are not equals!");
+        assertEquals(1, transactionRepository.count(), "Numbers of transactions are not equals!");
+    }
+
+    /**
+     * Test retry of deleting Transaction, which is already deleted
+     */
+    @Test
+    void retryDeleteTransactionWithSameKey() throws Exception {
+        Transaction newTransaction = new Transaction();
+        newTransaction.setCategory("category");
+        newTransaction.setValue(100.0);
+        newTransaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newTransaction.setAccount(account);
+        Transaction transaction = transactionService.saveTransaction(newTransaction);
+
+        MockHttpServletResponse first = perform(delete("/api/v1/transactions/delete")
+                .param("id", transaction.getTransactionId().toString())
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key("delete-1")));
+        MockHttpServletResponse retry = perform(delete("/api/v1/transactions/delete")
+                .param("id", transaction.getTransactionId().toString())
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key("delete-1")));
+
+        assertEquals(200, first.getStatus(), "Statuses are not equals!");
+        assertEquals(200, retry.getStatus(), "Statuses are not equals!");
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER), "Retry is not replayed!");
+    }
+
+    /**
+     * Test request with blank idempotency key
+     */
+    @Test
+    void createTransactionWithBlankKey() throws Exception {
+        MockHttpServletResponse response = perform(createRequest(transactionJson("category")).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, " "));
+
+        assertEquals(400, response.getStatus(), "Statuses are not equals!");
+        assertEquals(0, transactionRepository.count(), "Numbers of transactions are not equals!");
+    }
+
+    /**
+     * Perform request as saved user
+     * @param requestBuilder request to perform
+     * @return response
+     */
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        return mockMvc.perform(requestBuilder.with(user(new CustomUserDetails(user)))).andReturn().getResponse();
+    }
+
+    /**
+     * Create idempotency key, which is not used by other tests
+     * @param name name of key
+     * @return idempotency key
+     */
+    private String key(String name) {
+        return keyPrefix + "-" + name;
+    }
+
+    /**
+     * Create request of creating transaction
+     * @param json JSON of transaction
+     * @return request
+     */
+    private MockHttpServletRequestBuilder createRequest(String json) {
+        return post("/api/v1/transactions/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+    }
+
+    /**
+     * Create JSON of transaction
+     * @param category category of transaction
+     * @return JSON of transaction
+     */
+    private String transactionJson(String category) {
+        return """
+                {"accountId": %d, "category": "%s", "value": 50.0, "date": %d}
+                """.formatted(account.getAccountId(), category, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,155 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.security.password.BoundedPasswordEncoder;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.security.password.PasswordHashingRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Test password hashing in the bounded executor and upgrade of password hashes on login
+ */
+@SpringBootTest(properties = {
+        "password.bcrypt.min-strength=5",
+        "password.bcrypt.max-strength=5",
+        "password.hashing.pool-size=1",
+        "password.hashing.queue-capacity=0"
+})
+@AutoConfigureMockMvc
+class PasswordHashingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    private User user;
+
+    /**
+     * Save user, whose password is hashed with lower work factor, to db
+     */
+    @BeforeEach
+    public void saveUser() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash(new BCryptPasswordEncoder(4).encode("password"));
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+    }
+
+    /**
+     * Delete saved user from db
+     */
+    @AfterEach
+    public void deleteUser() {
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test login, which hashes password again with the current work factor
+     */
+    @Test
+    void loginUpgradesPasswordHash() throws Exception {
+        long hashesBefore = ((BoundedPasswordEncoder) passwordEncoder).getHashes();
+
+        MockHttpServletResponse response = login("password");
+
+        assertEquals(200, response.getStatus(), "Statuses are not equals!");
+        String passwordHash = userService.getUserById(user.getUserId()).getPasswordHash();
+        assertTrue(passwordHash.startsWith("$2a$05$"), "Password hash is not upgraded: " + passwordHash);
+        assertTrue(passwordEncoder.matches("password", passwordHash), "Upgraded password hash does not match!");
+        assertTrue(((BoundedPasswordEncoder) passwordEncoder).getHashes() >= hashesBefore + 2, "Hashes are not counted!");
+    }
+
+    /**
+     * Test login with incorrect password, which does not change password hash
+     */
+    @Test
+    void loginWithIncorrectPassword() throws Exception {
+        MockHttpServletResponse response = login("incorrect");
+
+        assertEquals(401, response.getStatus(), "Statuses are not equals!");
+        assertTrue(userService.getUserById(user.getUserId()).getPasswordHash().startsWith("$2a$04$"), "Password hash is changed!");
+    }
+
+    /**
+     * Test login, while the hashing executor is full
+     */
+    @Test
+    void loginIsRejectedWhenExecutorIsFull() throws Exception {
+        // The first login hashes a dummy password of the authentication provider, which must not be rejected
+        login("incorrect");
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        passwordHashingExecutor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            assertTrue(started.await(10, TimeUnit.SECONDS), "Blocking task is not started!");
+            long rejectedBefore = ((BoundedPasswordEncoder) passwordEncoder).getRejected();
+
+            assertThrows(PasswordHashingRejectedException.class, () -> passwordEncoder.matches("password", user.getPasswordHash()), "Exception was not thrown!");
+            MockHttpServletResponse response = login("password");
+
+            assertEquals(503, response.getStatus(), "Statuses are not equals!");
+            assertNotNull(response.getHeader("Retry-After"), "Retry-After is not set!");
+            assertEquals(rejectedBefore + 2, ((BoundedPasswordEncoder) passwordEncoder).getRejected(), "Numbers of rejected passwords are not equals!");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Log in as saved user
+     * @param password password of user
+     * @return response
+     */
+    private MockHttpServletResponse login(String password) throws Exception {
+        return mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email": "%s", "passwordHash": "%s"}
+                                """.formatted(user.getEmail(), password)))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,192 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivantrykosh.app.budgettracker.server.application.dtos.TransactionDto;
+import com.ivantrykosh.app.budgettracker.server.application.services.ReactiveTransactionService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.fixtures.TestFixtures;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Test streaming transactions with ReactiveTransactionController against H2 R2DBC
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReactiveTransactionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReactiveTransactionService reactiveTransactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+    private Account foreignAccount;
+
+    /**
+     * Save users, accounts and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        user = fixtures.saveUser("testemail@gmail.com");
+        account = fixtures.saveAccount(user, "test account", null);
+        foreignAccount = fixtures.saveAccount(fixtures.saveUser("foreignemail@gmail.com"), "foreign account", null);
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        fixtures.saveTransaction(account, "testCategory", 100.0, now.minusDays(2));
+        fixtures.saveTransaction(account, "testCategory", -50.0, now.minusDays(1));
+        fixtures.saveTransaction(account, "testCategory", 25.0, now);
+        fixtures.saveTransaction(foreignAccount, "testCategory", 10.0, now);
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test streaming transactions of account
+     */
+    @Test
+    void getTransactionsByAccountId() throws Exception {
+        List<TransactionDto> transactions = stream(get("/api/v2/transactions/get-all-by-account")
+                .param("id", account.getAccountId().toString()));
+
+        assertEquals(3, transactions.size(), "Sizes are not equals!");
+        assertEquals(25.0, transactions.get(0).getValue(), "Values are not equals!");
+        assertEquals(-50.0, transactions.get(1).getValue(), "Values are not equals!");
+        assertEquals(100.0, transactions.get(2).getValue(), "Values are not equals!");
+        transactions.forEach(transaction -> assertEquals(account.getAccountId(), transaction.getAccountId(), "Account IDs are not equals!"));
+    }
+
+    /**
+     * Test streaming transactions between dates
+     */
+    @Test
+    void getTransactionsByAccountIdsAndDateBetween() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<TransactionDto> transactions = stream(get("/api/v2/transactions/get-all-between-dates")
+                .param("accountIds", account.getAccountId().toString())
+                .param("startDate", today.minusDays(1).toString())
+                .param("endDate", today.toString()));
+
+        assertEquals(2, transactions.size(), "Sizes are not equals!");
+    }
+
+    /**
+     * Test streaming page of income transactions
+     */
+    @Test
+    void getIncomeTransactions() throws Exception {
+        List<TransactionDto> transactions = stream(get("/api/v2/transactions/get-incomes")
+                .param("accountIds", account.getAccountId().toString())
+                .param("page", "0")
+                .param("size", "1"));
+
+        assertEquals(1, transactions.size(), "Sizes are not equals!");
+        assertEquals(25.0, transactions.get(0).getValue(), "Values are not equals!");
+    }
+
+    /**
+     * Test that transactions of foreign account are not streamed
+     */
+    @Test
+    void getTransactionsOfForeignAccount() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v2/transactions/get-all")
+                        .param("accountIds", account.getAccountId().toString(), foreignAccount.getAccountId().toString())
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(403, result.getResponse().getStatus(), "Statuses are not equals!");
+        assertTrue(result.getResponse().getContentAsString().startsWith("You do not have permission"), "Messages are not equals!");
+    }
+
+    /**
+     * Test that flux of transactions is read only as far as it is requested
+     */
+    @Test
+    void getTransactionsByAccountIdsPartially() {
+        List<TransactionDto> transactions = reactiveTransactionService.getTransactionsByAccountIds(List.of(account.getAccountId(), foreignAccount.getAccountId()))
+                .take(2)
+                .collectList()
+                .block();
+
+        assertNotNull(transactions, "Transactions are null!");
+        assertEquals(2, transactions.size(), "Sizes are not equals!");
+    }
+
+    /**
+     * Perform streaming request and read transactions from newline-delimited JSON
+     * @param requestBuilder request to perform
+     * @return read transactions
+     */
+    private List<TransactionDto> stream(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder.with(user(new CustomUserDetails(user))))
+                .andExpect(request().asyncStarted())
+                .andDo(mvcResult -> mvcResult.getAsyncResult())
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), "Statuses are not equals!");
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(result.getResponse().getContentType())), "Content types are not equals!");
+
+        List<TransactionDto> transactions = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (!line.isBlank()) {
+                transactions.add(objectMapper.readValue(line, TransactionDto.class));
+            }
+        }
+        System.out.println(transactions);
+        return transactions;
+    }
+}
@@ -0,0 +1,284 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.querybudget.QueryBudget;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Test query budgets of TransactionController endpoints.
+ * Lists are requested for several accounts and transactions, so statements executed per item exceed the budgets
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionControllerQueryBudgetTest {
+
+    private static final int NUMBER_OF_ACCOUNTS = 3; // Number of accounts of user
+    private static final int MANY_ACCOUNTS = 6; // Number of accounts of user in tests of many accounts
+    private static final int TRANSACTIONS_PER_ACCOUNT = 5; // Number of transactions of every account
+    private static final int ALL_ACCOUNTS_BUDGET = 4; // user, own accounts, shared accounts and transactions
+    private static final int MANY_ACCOUNTS_BUDGET = ALL_ACCOUNTS_BUDGET; // access is preloaded, so the budget does not grow with accounts
+    private static final int BATCH_BUDGET = 3 * NUMBER_OF_ACCOUNTS; // user, account and transactions of every operation
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private final List<Account> accounts = new ArrayList<>();
+    private Transaction transaction;
+
+    /**
+     * Save user, accounts and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        accounts.clear();
+        saveAccounts(NUMBER_OF_ACCOUNTS);
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test query budget of creating Transaction
+     */
+    @Test
+    @QueryBudget(3) // user, account and insert of transaction
+    void createTransaction() throws Exception {
+        assertEquals(201, perform(post("/api/v1/transactions/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transactionJson(null, "newCategory", null))), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of getting Transaction
+     */
+    @Test
+    @QueryBudget(3) // transaction, user and account
+    void getTransactionById() throws Exception {
+        assertEquals(200, perform(get("/api/v1/transactions/get")
+                .param("id", transaction.getTransactionId().toString())), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of getting Transactions of account
+     */
+    @Test
+    @QueryBudget(3) // user, account and transactions
+    void getTransactionsByAccountId() throws Exception {
+        assertEquals(200, perform(get("/api/v1/transactions/get-all-by-account")
+                .param("id", accounts.get(0).getAccountId().toString())), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of getting Transactions of all accounts
+     */
+    @Test
+    @QueryBudget(ALL_ACCOUNTS_BUDGET)
+    void getTransactionsByAllAccountIds() throws Exception {
+        assertEquals(200, perform(get("/api/v1/transactions/get-all")
+                .param("accountIds", accountIds())), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of getting Transactions of all accounts between dates
+     */
+    @Test
+    @QueryBudget(ALL_ACCOUNTS_BUDGET)
+    void getTransactionsByAllAccountIdsAndDateBetween() throws Exception {
+        assertEquals(200, perform(get("/api/v1/transactions/get-all-between-dates")
+                .param("accountIds", accountIds())
+                .param("startDate", LocalDate.now(ZoneOffset.UTC).minusDays(2).toString())
+                .param("endDate", LocalDate.now(ZoneOffset.UTC).toString())), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of updating Transaction
+     */
+    @Test
+    @QueryBudget(4) // user, transaction, account and update of transaction
+    void updateTransaction() throws Exception {
+        assertEquals(200, perform(put("/api/v1/transactions/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transactionJson(transaction.getTransactionId(), "updatedCategory", transaction.getVersion()))), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of deleting Transaction
+     */
+    @Test
+    @QueryBudget(4) // transaction, user, account and delete of transaction
+    void deleteTransaction() throws Exception {
+        assertEquals(200, perform(delete("/api/v1/transactions/delete")
+                .param("id", transaction.getTransactionId().toString())), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of a batch, whose reads of transactions of every account run as request tasks
+     */
+    @Test
+    @QueryBudget(BATCH_BUDGET)
+    void getTransactionsOfAccountsWithBatch() throws Exception {
+        String operations = accounts.stream()
+                .map(account -> "{\"method\": \"GET\", \"path\": \"/api/v1/transactions/get-all-by-account?id=" + account.getAccountId() + "\"}")
+                .collect(Collectors.joining(",", "{\"operations\": [", "]}"));
+        assertEquals(200, perform(post("/api/v1/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(operations)), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budgets of requests of user with many accounts
+     */
+    @Nested
+    class ManyAccounts {
+
+        /**
+         * Save more accounts and transactions to db
+         */
+        @BeforeEach
+        public void saveMoreAccounts() {
+            saveAccounts(MANY_ACCOUNTS - NUMBER_OF_ACCOUNTS);
+        }
+
+        /**
+         * Test query budget of getting Transactions of many accounts
+         */
+        @Test
+        @QueryBudget(MANY_ACCOUNTS_BUDGET)
+        void getTransactionsByAllAccountIds() throws Exception {
+            assertEquals(200, perform(get("/api/v1/transactions/get-all")
+                    .param("accountIds", accountIds())), "Statuses are not equals!");
+        }
+    }
+
+    /**
+     * Save accounts of user with their account users and transactions
+     * @param count number of accounts
+     */
+    private void saveAccounts(int count) {
+        for (int i = 0; i < count; i++) {
+            Account newAccount = new Account();
+            newAccount.setName("test account " + accounts.size());
+            newAccount.setUser(user);
+            Account account = accountService.saveAccount(newAccount);
+            accounts.add(account);
+
+            AccountUsers accountUsers = new AccountUsers();
+            accountUsers.setAccount(account);
+            accountUsersService.saveAccountUsers(accountUsers);
+
+            for (int j = 0; j < TRANSACTIONS_PER_ACCOUNT; j++) {
+                Transaction newTransaction = new Transaction();
+                newTransaction.setCategory("testCategory");
+                newTransaction.setValue(j % 2 == 0 ? 100.0 : -50.0);
+                newTransaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusDays(j)));
+                newTransaction.setAccount(account);
+                transaction = transactionService.saveTransaction(newTransaction);
+            }
+        }
+    }
+
+    /**
+     * Perform request as saved user
+     * @param request request to perform
+     * @return status of response
+     */
+    private int perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user(new CustomUserDetails(user)))).andReturn().getResponse().getStatus();
+    }
+
+    /**
+     * Get IDs of saved accounts
+     * @return IDs of accounts
+     */
+    private String[] accountIds() {
+        return accounts.stream()
+                .map(account -> account.getAccountId().toString())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Create JSON of transaction
+     * @param transactionId ID of transaction
+     * @param category category of transaction
+     * @param version expected version of transaction
+     * @return JSON of transaction
+     */
+    private String transactionJson(Long transactionId, String category, Long version) {
+        return """
+                {"transactionId": %s, "accountId": %d, "category": "%s", "value": 50.0, "date": %d, "version": %s}
+                """.formatted(transactionId, transaction.getAccount().getAccountId(), category, System.currentTimeMillis(), version);
+    }
+}
@@ -0,0 +1,200 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Test number of SQL statements executed by TransactionController endpoints
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+    private Transaction transaction;
+
+    /**
+     * Save user, account and transaction to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        Transaction newTransaction = new Transaction();
+        newTransaction.setCategory("testCategory");
+        newTransaction.setValue(100.0);
+        newTransaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newTransaction.setAccount(account);
+        transaction = transactionService.saveTransaction(newTransaction);
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test number of statements of creating Transaction
+     */
+    @Test
+    void createTransaction() throws Exception {
+        long statements = countStatements(post("/api/v1/transactions/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transactionJson(null, "newCategory", null)));
+
+        // user, account and insert of transaction
+        assertTrue(statements <= 3, "Too many statements: " + statements);
+    }
+
+    /**
+     * Test number of statements of getting Transaction
+     */
+    @Test
+    void getTransactionById() throws Exception {
+        long statements = countStatements(get("/api/v1/transactions/get")
+                .param("id", transaction.getTransactionId().toString()));
+
+        // transaction, user and account
+        assertTrue(statements <= 3, "Too many statements: " + statements);
+    }
+
+    /**
+     * Test number of statements of updating Transaction
+     */
+    @Test
+    void updateTransaction() throws Exception {
+        long statements = countStatements(put("/api/v1/transactions/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transactionJson(transaction.getTransactionId(), "updatedCategory", transaction.getVersion())));
+
+        // user, transaction, account and update of transaction
+        assertTrue(statements <= 4, "Too many statements: " + statements);
+        assertEquals("updatedCategory", transactionService.getTransactionById(transaction.getTransactionId()).getCategory(), "Transaction is not updated!");
+    }
+
+    /**
+     * Test number of statements of deleting Transaction
+     */
+    @Test
+    void deleteTransaction() throws Exception {
+        long statements = countStatements(delete("/api/v1/transactions/delete")
+                .param("id", transaction.getTransactionId().toString()));
+
+        // transaction, user, account and delete of transaction
+        assertTrue(statements <= 4, "Too many statements: " + statements);
+        assertNull(transactionService.getTransactionById(transaction.getTransactionId()), "Transaction is not deleted!");
+    }
+
+    /**
+     * Perform request with cold caches and count executed SQL statements
+     * @param request request to perform
+     * @return number of executed statements
+     */
+    private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(request.with(user(new CustomUserDetails(user))));
+
+        long statements = statistics.getPrepareStatementCount();
+        System.out.println("Statements: " + statements);
+        return statements;
+    }
+
+    /**
+     * Create JSON of transaction
+     * @param transactionId ID of transaction
+     * @param category category of transaction
+     * @param version expected version of transaction
+     * @return JSON of transaction
+     */
+    private String transactionJson(Long transactionId, String category, Long version) {
+        return """
+                {"transactionId": %s, "accountId": %d, "category": "%s", "value": 50.0, "date": %d, "version": %s}
+                """.formatted(transactionId, account.getAccountId(), category, System.currentTimeMillis(), version);
+    }
+}
@@ -0,0 +1,180 @@
+package com.ivantrykosh.app.budgettracker.server.controllers;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.ConfirmationTokenRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.OutboxEmailRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.querybudget.QueryBudget;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Test query budgets of UserController endpoints
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerQueryBudgetTest {
+
+    private static final String PASSWORD = "password"; // Password of saved user
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ConfirmationTokenRepository confirmationTokenRepository;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    private User user;
+
+    /**
+     * Save user, account and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash(passwordEncoder.encode(PASSWORD));
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        Account account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        for (int i = 0; i < 2; i++) {
+            Transaction newTransaction = new Transaction();
+            newTransaction.setCategory("testCategory");
+            newTransaction.setValue(100.0);
+            newTransaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+            newTransaction.setAccount(account);
+            transactionService.saveTransaction(newTransaction);
+        }
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        outboxEmailRepository.deleteAll();
+        confirmationTokenRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test query budget of getting User
+     */
+    @Test
+    @QueryBudget(1) // user
+    void getUser() throws Exception {
+        assertEquals(200, mockMvc.perform(get("/api/v1/users/get")
+                .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of deleting User
+     */
+    @Test
+    @QueryBudget(15) // user of authentication, user, accounts of user, count of transactions, delete of confirmation tokens, IDs of transactions, delete of transactions,
+                     // no IDs left, delete of account users, 3 updates of shared account users, delete of accounts, user and delete of user
+    void deleteUser() throws Exception {
+        assertEquals(200, mockMvc.perform(delete("/api/v1/users/delete")
+                .with(user(new CustomUserDetails(user)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "%s", "passwordHash": "%s"}
+                        """.formatted(user.getEmail(), PASSWORD)))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of changing password
+     */
+    @Test
+    @QueryBudget(2) // user and update of user
+    void changeUserPassword() throws Exception {
+        assertEquals(200, mockMvc.perform(patch("/api/v1/users/change-password")
+                .with(user(new CustomUserDetails(user)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"oldPassword": "%s", "newPassword": "newPassword"}
+                        """.formatted(PASSWORD)))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test query budget of resetting password
+     */
+    @Test
+    @QueryBudget(3) // user, update of user and insert of outbox email
+    void resetUserPassword() throws Exception {
+        assertEquals(200, mockMvc.perform(patch("/api/v1/users/reset-password")
+                .param("email", user.getEmail()))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+    }
+}
@@ -0,0 +1,167 @@
+package com.ivantrykosh.app.budgettracker.server.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.ivantrykosh.app.budgettracker.server.domain.model.OutboxEmail;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.OutboxEmailRepository;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.email.EmailOutboxDispatcher;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.email.EmailSenderService;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test sending emails from the email outbox to in-process SMTP server
+ */
+@SpringBootTest(properties = {
+        "email.outbox.enabled=true",
+        "email.outbox.poll-interval-ms=100",
+        "email.outbox.batch-size=2",
+        "spring.mail.port=3025"
+})
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailSenderService emailSenderService;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    /**
+     * Delete emails from outbox
+     */
+    @AfterEach
+    public void deleteEmails() {
+        outboxEmailRepository.deleteAll();
+    }
+
+    /**
+     * Test sending queued emails in batches
+     */
+    @Test
+    void sendQueuedEmails() throws Exception {
+        long sentEmails = emailOutboxDispatcher.getSentEmails();
+
+        // Queue emails
+        for (int i = 0; i < 5; i++) {
+            emailSenderService.sendEmail("test" + i + "@gmail.com", "Test subject", "<p>Test body</p>");
+        }
+
+        // Wait for emails
+        assertTrue(greenMail.waitForIncomingEmail(5000, 5), "Emails were not received!");
+        waitFor(() -> outboxEmailRepository.countByStatus(OutboxEmail.Status.SENT) == 5);
+
+        MimeMessage[] receivedMessages = greenMail.getReceivedMessages();
+        System.out.println(outboxEmailRepository.findAll());
+
+        // Assertions
+        assertEquals(5, receivedMessages.length, "Number of received emails is not 5!");
+        assertEquals("Test subject", receivedMessages[0].getSubject(), "Subjects are not equals!");
+        assertEquals(5, outboxEmailRepository.countByStatus(OutboxEmail.Status.SENT), "Emails are not marked as sent!");
+        assertEquals(sentEmails + 5, emailOutboxDispatcher.getSentEmails(), "Number of sent emails is not 5!");
+    }
+
+    /**
+     * Test sending email with secret, which is saved only encrypted and deleted after the email is sent
+     */
+    @Test
+    void sendQueuedEmailWithSecret() throws Exception {
+        // Queue email
+        OutboxEmail outboxEmail = emailSenderService.sendEmailWithSecret("test@gmail.com", "Test subject", "<p>Password: " + OutboxEmail.SECRET_PLACEHOLDER + "</p>", "secret-password");
+        OutboxEmail queuedOutboxEmail = outboxEmailRepository.findById(outboxEmail.getOutboxEmailId()).orElseThrow();
+
+        // Wait for email
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1), "Email was not received!");
+        waitFor(() -> outboxEmailRepository.countByStatus(OutboxEmail.Status.SENT) == 1);
+
+        OutboxEmail sentOutboxEmail = outboxEmailRepository.findById(outboxEmail.getOutboxEmailId()).orElseThrow();
+        System.out.println(sentOutboxEmail);
+
+        // Assertions
+        assertFalse(queuedOutboxEmail.getBody().contains("secret-password"), "Secret is saved in body!");
+        assertFalse(queuedOutboxEmail.getSecret().contains("secret-password"), "Secret is not encrypted!");
+        assertTrue(GreenMailUtil.getBody(greenMail.getReceivedMessages()[0]).contains("secret-password"), "Secret is not sent!");
+        assertEquals(OutboxEmail.Status.SENT, sentOutboxEmail.getStatus(), "Email is not marked as sent!");
+        assertEquals("", sentOutboxEmail.getBody(), "Body is not scrubbed!");
+        assertNull(sentOutboxEmail.getSecret(), "Secret is not deleted!");
+    }
+
+    /**
+     * Test failing email with secret, which is expired, without sending it
+     */
+    @Test
+    void failExpiredEmailWithSecret() throws Exception {
+        // Queue expired email
+        Date now = new Date();
+        OutboxEmail outboxEmail = new OutboxEmail();
+        outboxEmail.setRecipient("test@gmail.com");
+        outboxEmail.setSubject("Test subject");
+        outboxEmail.setBody("<p>" + OutboxEmail.SECRET_PLACEHOLDER + "</p>");
+        outboxEmail.setSecret("encrypted secret");
+        outboxEmail.setExpiresAt(new Date(now.getTime() - 1000));
+        outboxEmail.setStatus(OutboxEmail.Status.PENDING);
+        outboxEmail.setAttempts(0);
+        outboxEmail.setCreatedAt(now);
+        outboxEmail.setNextAttemptAt(now);
+        outboxEmail = outboxEmailRepository.save(outboxEmail);
+        Long outboxEmailId = outboxEmail.getOutboxEmailId();
+
+        // Wait for failed email
+        waitFor(() -> outboxEmailRepository.countByStatus(OutboxEmail.Status.FAILED) == 1);
+        OutboxEmail failedOutboxEmail = outboxEmailRepository.findById(outboxEmailId).orElseThrow();
+
+        System.out.println(failedOutboxEmail);
+
+        // Assertions
+        assertEquals(OutboxEmail.Status.FAILED, failedOutboxEmail.getStatus(), "Email is not failed!");
+        assertNull(failedOutboxEmail.getSecret(), "Secret is not deleted!");
+        assertEquals(0, greenMail.getReceivedMessages().length, "Expired email was sent!");
+    }
+
+    /**
+     * Test scheduling retry of email, when the mail server is not available
+     */
+    @Test
+    void retryEmailWhenMailServerIsNotAvailable() throws Exception {
+        greenMail.stop();
+
+        // Queue email
+        OutboxEmail outboxEmail = emailSenderService.sendEmail("test@gmail.com", "Test subject", "<p>Test body</p>");
+
+        // Wait for failed attempt
+        waitFor(() -> outboxEmailRepository.findById(outboxEmail.getOutboxEmailId()).orElseThrow().getAttempts() == 1);
+        OutboxEmail retrievedOutboxEmail = outboxEmailRepository.findById(outboxEmail.getOutboxEmailId()).orElseThrow();
+
+        System.out.println(retrievedOutboxEmail);
+
+        // Assertions
+        assertEquals(OutboxEmail.Status.PENDING, retrievedOutboxEmail.getStatus(), "Email is not pending!");
+        assertNotNull(retrievedOutboxEmail.getLastError(), "Error is null!");
+        assertTrue(retrievedOutboxEmail.getNextAttemptAt().after(new Date()), "Next attempt is not scheduled!");
+    }
+
+    /**
+     * Wait until the condition is true, but not longer than 5 seconds
+     * @param condition condition to wait for
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ivantrykosh.app.budgettracker.server.events;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.fixtures.TestFixtures;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test pushing changes of transactions of shared accounts to subscribers as server-sent events
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccountEventsTest {
+    private static final long TIMEOUT_MILLIS = 5000; // Time to wait for an event
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User owner;
+    private User sharedUser;
+    private User otherUser;
+    private Account account;
+    private AccountUsers accountUsers;
+    private final List<MvcResult> subscriptions = new ArrayList<>();
+
+    /**
+     * Save users and account, which is shared with the second user, to db
+     */
+    @BeforeEach
+    public void saveData() {
+        owner = fixtures.saveUser("testemail@gmail.com");
+        sharedUser = fixtures.saveUser("testemail2@gmail.com");
+        otherUser = fixtures.saveUser("testemail3@gmail.com");
+
+        account = fixtures.saveAccount(owner, sharedUser.getUserId());
+        accountUsers = accountUsersService.getAccountUsersByAccountId(account.getAccountId());
+    }
+
+    /**
+     * Close subscriptions and delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        subscriptions.forEach(subscription -> subscription.getRequest().getAsyncContext().complete());
+        subscriptions.clear();
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test pushing created transaction with new sums of the account to the user, with whom the account is shared
+     */
+    @Test
+    void pushCreatedTransactionToSharedUser() throws Exception {
+        MvcResult subscription = subscribe(sharedUser);
+        awaitEvent(subscription, "event:subscribed");
+
+        Transaction transaction = fixtures.saveTransaction(account, 100.0);
+
+        String events = awaitEvent(subscription, "event:transaction-changed");
+        assertTrue(events.contains("\"type\":\"CREATED\""), "Type of change is not pushed!");
+        assertTrue(events.contains("\"transactionId\":" + transaction.getTransactionId()), "ID of transaction is not pushed!");
+        assertTrue(events.contains("\"incomesSum\":100.0"), "Sum of account is not pushed!");
+    }
+
+    /**
+     * Test pushing deleted transaction to the owner of the account, but not to the user without access to it
+     */
+    @Test
+    void pushDeletedTransactionOnlyToUsersOfAccount() throws Exception {
+        Transaction transaction = fixtures.saveTransaction(account, 100.0);
+        MvcResult ownerSubscription = subscribe(owner);
+        MvcResult otherSubscription = subscribe(otherUser);
+        awaitEvent(ownerSubscription, "event:subscribed");
+        awaitEvent(otherSubscription, "event:subscribed");
+
+        transactionService.deleteTransactionById(transaction.getTransactionId());
+
+        String events = awaitEvent(ownerSubscription, "event:transaction-changed");
+        assertTrue(events.contains("\"type\":\"DELETED\""), "Type of change is not pushed!");
+        assertTrue(events.contains("\"incomesSum\":0.0"), "Sum of account is not pushed!");
+        assertFalse(otherSubscription.getResponse().getContentAsString().contains("event:transaction-changed"), "Change is pushed to user without access!");
+    }
+
+    /**
+     * Test closing subscriptions of the account, whose users were changed
+     */
+    @Test
+    void closeSubscriptionAfterChangeOfAccountUsers() throws Exception {
+        MvcResult subscription = subscribe(sharedUser);
+        awaitEvent(subscription, "event:subscribed");
+
+        accountUsers.setUser2Id(null);
+        accountUsersService.updateAccountUsers(accountUsers);
+        awaitEvent(subscription, "event:resubscribe");
+
+        fixtures.saveTransaction(account, 100.0);
+        MvcResult ownerSubscription = subscribe(owner);
+        awaitEvent(ownerSubscription, "event:subscribed");
+        fixtures.saveTransaction(account, 50.0);
+        awaitEvent(ownerSubscription, "event:transaction-changed");
+
+        assertFalse(subscription.getResponse().getContentAsString().contains("event:transaction-changed"), "Change is pushed after users were changed!");
+    }
+
+    /**
+     * Subscribe user to events of accounts
+     * @param user subscribed user
+     * @return result of the started request
+     */
+    private MvcResult subscribe(User user) throws Exception {
+        MvcResult subscription = mockMvc.perform(get("/api/v1/accounts/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+        assertEquals(200, subscription.getResponse().getStatus(), "Statuses are not equals!");
+        assertTrue(subscription.getRequest().isAsyncStarted(), "Stream is not started!");
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Wait until the stream contains the event
+     * @param subscription result of the started request
+     * @param event text of the event
+     * @return events of the stream
+     */
+    private String awaitEvent(MvcResult subscription, String event) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        String events = subscription.getResponse().getContentAsString();
+        while (!events.contains(event) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            events = subscription.getResponse().getContentAsString();
+        }
+        assertTrue(events.contains(event), "Event " + event + " is not pushed!");
+        return events;
+    }
+}
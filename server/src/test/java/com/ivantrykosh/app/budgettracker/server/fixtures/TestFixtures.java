@@ -0,0 +1,126 @@
+package com.ivantrykosh.app.budgettracker.server.fixtures;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Saves users, accounts and transactions of tests to db
+ */
+@Component
+public class TestFixtures {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    /**
+     * Save verified user to db
+     * @param email email of user
+     * @return saved user
+     */
+    public User saveUser(String email) {
+        User newUser = new User();
+        newUser.setEmail(email);
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        return userService.saveUser(newUser);
+    }
+
+    /**
+     * Save user, who can log in with the password, to db
+     * @param email email of user
+     * @param password password of user
+     * @param isVerified whether email of user is verified
+     * @return saved user
+     */
+    public User saveUser(String email, String password, boolean isVerified) {
+        User newUser = new User();
+        newUser.setEmail(email);
+        newUser.setPasswordHash(passwordEncoder.encode(password));
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(isVerified);
+        return userService.saveUser(newUser);
+    }
+
+    /**
+     * Save account named "test account" with its account users to db
+     * @param owner owner of account
+     * @param sharedUserId ID of user, with whom account is shared, or null
+     * @return saved account
+     */
+    public Account saveAccount(User owner, Long sharedUserId) {
+        return saveAccount(owner, "test account", sharedUserId);
+    }
+
+    /**
+     * Save account with its account users to db
+     * @param owner owner of account
+     * @param name name of account
+     * @param sharedUserId ID of user, with whom account is shared, or null
+     * @return saved account
+     */
+    public Account saveAccount(User owner, String name, Long sharedUserId) {
+        Account newAccount = new Account();
+        newAccount.setName(name);
+        newAccount.setUser(owner);
+        Account savedAccount = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(savedAccount);
+        accountUsers.setUser2Id(sharedUserId);
+        accountUsersService.saveAccountUsers(accountUsers);
+        return savedAccount;
+    }
+
+    /**
+     * Save transaction of "testCategory" made a minute ago, so it is never in the future, to db
+     * @param account account of transaction
+     * @param value value of transaction
+     * @return saved transaction
+     */
+    public Transaction saveTransaction(Account account, Double value) {
+        return saveTransaction(account, "testCategory", value, LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+    }
+
+    /**
+     * Save transaction to db
+     * @param account account of transaction
+     * @param category category of transaction
+     * @param value value of transaction
+     * @param date date of transaction
+     * @return saved transaction
+     */
+    public Transaction saveTransaction(Account account, String category, Double value, LocalDateTime date) {
+        Transaction newTransaction = new Transaction();
+        newTransaction.setCategory(category);
+        newTransaction.setValue(value);
+        newTransaction.setDate(Timestamp.valueOf(date));
+        newTransaction.setAccount(account);
+        return transactionService.saveTransaction(newTransaction);
+    }
+}
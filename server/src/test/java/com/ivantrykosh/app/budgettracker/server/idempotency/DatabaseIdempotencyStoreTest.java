@@ -0,0 +1,102 @@
+package com.ivantrykosh.app.budgettracker.server.idempotency;
+
+import com.ivantrykosh.app.budgettracker.server.domain.repos.IdempotencyRecordRepository;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency.DatabaseIdempotencyStore;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency.IdempotencyStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test DatabaseIdempotencyStore
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "idempotency.store=database")
+@AutoConfigureJson
+@Import(DatabaseIdempotencyStore.class)
+class DatabaseIdempotencyStoreTest {
+
+    @Autowired
+    private DatabaseIdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    /**
+     * Delete saved keys from db
+     */
+    @AfterEach
+    public void deleteKeys() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    /**
+     * Test claiming key, which is being processed
+     */
+    @Test
+    void claimKeyInProgress() {
+        assertNull(idempotencyStore.claim("user:key", "hash"), "Key is not claimed!");
+
+        IdempotencyStore.ExistingRequest existingRequest = idempotencyStore.claim("user:key", "hash");
+
+        assertNotNull(existingRequest, "Key is claimed twice!");
+        assertEquals("hash", existingRequest.requestHash(), "Hashes are not equals!");
+        assertNull(existingRequest.response(), "Response of request in progress is not null!");
+    }
+
+    /**
+     * Test claiming key, which is completed
+     */
+    @Test
+    void claimCompletedKey() {
+        idempotencyStore.claim("user:key", "hash");
+        idempotencyStore.complete("user:key", new IdempotencyStore.StoredResponse(201, "text/plain",
+                Map.of("Location", List.of("/api/v1/transactions/get/1")), "Transaction was saved!".getBytes(StandardCharsets.UTF_8)));
+
+        IdempotencyStore.ExistingRequest existingRequest = idempotencyStore.claim("user:key", "hash");
+
+        assertNotNull(existingRequest, "Key is claimed twice!");
+        assertEquals(201, existingRequest.response().status(), "Statuses are not equals!");
+        assertEquals("text/plain", existingRequest.response().contentType(), "Content types are not equals!");
+        assertEquals(Map.of("Location", List.of("/api/v1/transactions/get/1")), existingRequest.response().headers(), "Headers are not equals!");
+        assertEquals("Transaction was saved!", new String(existingRequest.response().body(), StandardCharsets.UTF_8), "Bodies are not equals!");
+    }
+
+    /**
+     * Test claiming key, which is released
+     */
+    @Test
+    void claimReleasedKey() {
+        idempotencyStore.claim("user:key", "hash");
+        idempotencyStore.release("user:key");
+
+        assertNull(idempotencyStore.claim("user:key", "anotherHash"), "Released key is not claimed!");
+        assertEquals(1, idempotencyRecordRepository.count(), "Numbers of keys are not equals!");
+    }
+
+    /**
+     * Test purging keys, which are not expired
+     */
+    @Test
+    void purgeNotExpiredKeys() {
+        idempotencyStore.claim("user:key", "hash");
+
+        assertEquals(0, idempotencyStore.purgeExpired(), "Numbers of purged keys are not equals!");
+    }
+}
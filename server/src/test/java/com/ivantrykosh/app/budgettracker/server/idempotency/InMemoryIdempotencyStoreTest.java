@@ -0,0 +1,109 @@
+package com.ivantrykosh.app.budgettracker.server.idempotency;
+
+import com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency.IdempotencyStore;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.idempotency.InMemoryIdempotencyStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test InMemoryIdempotencyStore
+ */
+@SpringJUnitConfig(InMemoryIdempotencyStore.class)
+@TestPropertySource(properties = "idempotency.max-entries=2")
+class InMemoryIdempotencyStoreTest {
+
+    @Autowired
+    private InMemoryIdempotencyStore idempotencyStore;
+
+    /**
+     * Release used keys
+     */
+    @AfterEach
+    public void releaseKeys() {
+        idempotencyStore.release("user:key");
+        idempotencyStore.release("user:anotherKey");
+        idempotencyStore.release("user:thirdKey");
+    }
+
+    /**
+     * Test claiming key, which is completed
+     */
+    @Test
+    void claimCompletedKey() {
+        idempotencyStore.claim("user:key", "hash");
+        idempotencyStore.complete("user:key", new IdempotencyStore.StoredResponse(201, "text/plain",
+                Map.of("Location", List.of("/api/v1/transactions/get/1")), "Transaction was saved!".getBytes(StandardCharsets.UTF_8)));
+
+        IdempotencyStore.ExistingRequest existingRequest = idempotencyStore.claim("user:key", "hash");
+
+        assertNotNull(existingRequest, "Key is claimed twice!");
+        assertEquals(201, existingRequest.response().status(), "Statuses are not equals!");
+        assertEquals(Map.of("Location", List.of("/api/v1/transactions/get/1")), existingRequest.response().headers(), "Headers are not equals!");
+        assertEquals("Transaction was saved!", new String(existingRequest.response().body(), StandardCharsets.UTF_8), "Bodies are not equals!");
+    }
+
+    /**
+     * Test claiming the same key by concurrent requests
+     */
+    @Test
+    void claimKeyConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotencyStore.ExistingRequest>> claims = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                claims.add(executor.submit(() -> idempotencyStore.claim("user:key", "hash")));
+            }
+            int claimed = 0;
+            for (Future<IdempotencyStore.ExistingRequest> claim : claims) {
+                if (claim.get() == null) {
+                    claimed++;
+                }
+            }
+            assertEquals(1, claimed, "Key is claimed more than once!");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test evicting the oldest key, when the store is full
+     */
+    @Test
+    void evictOldestKey() {
+        idempotencyStore.claim("user:key", "hash");
+        idempotencyStore.claim("user:anotherKey", "hash");
+        idempotencyStore.claim("user:thirdKey", "hash");
+
+        assertEquals(2, idempotencyStore.size(), "Numbers of keys are not equals!");
+        assertNull(idempotencyStore.claim("user:key", "hash"), "Oldest key is not evicted!");
+    }
+
+    /**
+     * Test that a key claimed again after release is not evicted by its earlier claim
+     */
+    @Test
+    void evictReleasedKey() {
+        idempotencyStore.claim("user:key", "hash");
+        idempotencyStore.release("user:key");
+        idempotencyStore.claim("user:anotherKey", "hash");
+        idempotencyStore.claim("user:key", "hash");
+        idempotencyStore.claim("user:thirdKey", "hash");
+
+        assertEquals(2, idempotencyStore.size(), "Numbers of keys are not equals!");
+        assertNotNull(idempotencyStore.claim("user:key", "hash"), "Key claimed again is evicted!");
+        assertNull(idempotencyStore.claim("user:anotherKey", "hash"), "Oldest key is not evicted!");
+    }
+}
@@ -0,0 +1,159 @@
+package com.ivantrykosh.app.budgettracker.server.jfr;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test JFR events of controllers, repositories and mappers
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class JfrEventsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+
+    /**
+     * Save user, account and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setCategory("category" + i);
+            transaction.setValue(100.0);
+            transaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+            transaction.setAccount(account);
+            transactionService.saveTransaction(transaction);
+        }
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test events of getting Transactions by account
+     */
+    @Test
+    void recordEventsOfEndpoint(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : new String[]{"budgettracker.Controller", "budgettracker.RepositoryQuery", "budgettracker.Mapping"}) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            assertEquals(200, mockMvc.perform(get("/api/v1/transactions/get-all-by-account")
+                            .param("id", account.getAccountId().toString())
+                            .with(user(new CustomUserDetails(user))))
+                    .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent controllerEvent = events.stream()
+                .filter(event -> event.getEventType().getName().equals("budgettracker.Controller"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("/api/v1/transactions/get-all-by-account", controllerEvent.getString("endpoint"), "Endpoints are not equals!");
+        assertEquals("TransactionController.getTransactionsByAccountId", controllerEvent.getString("operation"), "Operations are not equals!");
+        assertEquals(3, controllerEvent.getInt("rowCount"), "Row counts are not equals!");
+        assertEquals(200, controllerEvent.getInt("status"), "Statuses are not equals!");
+        assertNotNull(controllerEvent.getString("userHash"), "User hash is not recorded!");
+        assertFalse(controllerEvent.getString("userHash").contains(user.getEmail()), "Email is recorded!");
+        byte[] unkeyedHash = MessageDigest.getInstance("SHA-256").digest(user.getEmail().getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(HexFormat.of().formatHex(unkeyedHash, 0, 8), controllerEvent.getString("userHash"), "User hash is not keyed!");
+
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("budgettracker.RepositoryQuery")
+                && event.getInt("rowCount") == 3), "Query of transactions is not recorded!");
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("budgettracker.Mapping")
+                && event.getInt("rowCount") == 3), "Mapping of transactions is not recorded!");
+    }
+}
@@ -0,0 +1,103 @@
+package com.ivantrykosh.app.budgettracker.server.logging;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test sampling of logs per endpoint. Logs of getting User are never sampled, logs of other endpoints are always kept
+ */
+@SpringBootTest(properties = "logging.sampling.rates=/api/v*/users/get=0")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class LogSamplingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    /**
+     * Save user to db
+     */
+    @BeforeEach
+    public void saveUser() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+    }
+
+    /**
+     * Delete saved user from db
+     */
+    @AfterEach
+    public void deleteUser() {
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test dropping info logs of endpoint, which is not sampled
+     */
+    @Test
+    void dropInfoLogsOfEndpoint(CapturedOutput output) throws Exception {
+        assertEquals(200, mockMvc.perform(get("/api/v1/users/get")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+
+        assertFalse(output.getOut().contains("User data for email " + user.getEmail() + " was got successfully"), "Info log is not dropped!");
+    }
+
+    /**
+     * Test keeping error logs of endpoint, which is not sampled
+     */
+    @Test
+    void keepErrorLogsOfEndpoint(CapturedOutput output) throws Exception {
+        user.setIsVerified(false);
+
+        assertEquals(403, mockMvc.perform(get("/api/v1/users/get")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+
+        assertTrue(output.getOut().contains("Email " + user.getEmail() + " is not verified"), "Error log is dropped!");
+    }
+
+    /**
+     * Test keeping info logs of other endpoints
+     */
+    @Test
+    void keepInfoLogsOfOtherEndpoints(CapturedOutput output) throws Exception {
+        assertEquals(200, mockMvc.perform(get("/api/v1/accounts/get-all")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse().getStatus(), "Statuses are not equals!");
+
+        assertTrue(output.getOut().contains("All Accounts and AccountUsers for user with email " + user.getEmail() + " were got successfully"), "Info log is dropped!");
+    }
+}
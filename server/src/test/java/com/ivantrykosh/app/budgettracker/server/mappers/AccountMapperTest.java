@@ -6,8 +6,12 @@ import com.ivantrykosh.app.budgettracker.server.application.mappers.Mapper;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.model.User;
 import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.AccountSums;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -116,6 +120,61 @@ class AccountMapperTest {
         assertNull(account, "AccountDto is not null!");
     }
 
+    /**
+     * Test converting list of Accounts to list of AccountDtos
+     */
+    @Test
+    void convertAccountsToAccountDtos() {
+        // Arrange
+        TransactionService transactionService = mock(TransactionService.class);
+        when(transactionService.getSumsOfTransactionsByAccountIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, createAccountSums(1L, 100.0, -100.0)));
+
+        Account account1 = createAccount();
+        Account account2 = createAccount();
+        account2.setAccountId(2L);
+
+        Mapper<Account, AccountDto> mapper = new AccountMapper(transactionService);
+
+        // Convert to DTOs
+        List<AccountDto> accountDtos = mapper.convertToDtos(List.of(account1, account2));
+
+        // Assertions
+        assertEquals(2, accountDtos.size(), "Size of list is not 2!");
+        assertEquals(account1.getAccountId(), accountDtos.get(0).getAccountId(), "Account IDs are not equals!");
+        assertEquals(Double.valueOf(100.0), accountDtos.get(0).getIncomesSum(), "Incomes sum is not 100.0!");
+        assertEquals(Double.valueOf(-100.0), accountDtos.get(0).getExpensesSum(), "Expenses sum is not -100.0!");
+        assertEquals(account2.getAccountId(), accountDtos.get(1).getAccountId(), "Account IDs are not equals!");
+        assertEquals(Double.valueOf(0.0), accountDtos.get(1).getIncomesSum(), "Incomes sum is not 0.0!");
+        assertEquals(Double.valueOf(0.0), accountDtos.get(1).getExpensesSum(), "Expenses sum is not 0.0!");
+    }
+
+    /**
+     * Create sums of account
+     * @param accountId ID of account
+     * @param incomesSum sum of incomes
+     * @param expensesSum sum of expenses
+     * @return sums of account
+     */
+    private AccountSums createAccountSums(Long accountId, Double incomesSum, Double expensesSum) {
+        return new AccountSums() {
+            @Override
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public Double getIncomesSum() {
+                return incomesSum;
+            }
+
+            @Override
+            public Double getExpensesSum() {
+                return expensesSum;
+            }
+        };
+    }
+
     /**
      * Create new valid Account
      * @return new valid Account
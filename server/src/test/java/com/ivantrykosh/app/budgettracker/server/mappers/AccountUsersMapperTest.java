@@ -9,6 +9,8 @@ import com.ivantrykosh.app.budgettracker.server.domain.model.User;
 import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -126,6 +128,41 @@ class AccountUsersMapperTest {
         assertNull(accountUsers, "AccountUsers is not null!");
     }
 
+    /**
+     * Test converting list of AccountUsers to list of AccountUsersDtos
+     */
+    @Test
+    void convertAccountsUsersToAccountUsersDtos() {
+        // Arrange
+        UserService userService = mock(UserService.class);
+        when(userService.getUsersByIds(List.of(2L, 3L, 4L))).thenReturn(List.of(
+                createUser(2L, "test2@gmail.com"),
+                createUser(3L, "test3@gmail.com"),
+                createUser(4L, "test4@gmail.com")
+        ));
+
+        AccountUsers accountUsers1 = createAccountUsers();
+        AccountUsers accountUsers2 = createAccountUsers();
+        accountUsers2.setAccountUsersId(2L);
+        accountUsers2.setUser3Id(null);
+        accountUsers2.setUser4Id(null);
+
+        Mapper<AccountUsers, AccountUsersDto> mapper = new AccountUsersMapper(userService);
+
+        // Convert to DTOs
+        List<AccountUsersDto> accountUsersDtos = mapper.convertToDtos(List.of(accountUsers1, accountUsers2));
+
+        // Assertions
+        assertEquals(2, accountUsersDtos.size(), "Size of list is not 2!");
+        assertEquals("test2@gmail.com", accountUsersDtos.get(0).getEmail2(), "Emails are not equals!");
+        assertEquals("test3@gmail.com", accountUsersDtos.get(0).getEmail3(), "Emails are not equals!");
+        assertEquals("test4@gmail.com", accountUsersDtos.get(0).getEmail4(), "Emails are not equals!");
+        assertEquals("test2@gmail.com", accountUsersDtos.get(1).getEmail2(), "Emails are not equals!");
+        assertNull(accountUsersDtos.get(1).getEmail3(), "Email is not null!");
+        assertNull(accountUsersDtos.get(1).getEmail4(), "Email is not null!");
+        assertEquals(accountUsers2.getAccount().getAccountId(), accountUsersDtos.get(1).getAccountId(), "Account IDs are not equals!");
+    }
+
     /**
      * Create new valid User
      * @param userId User Id
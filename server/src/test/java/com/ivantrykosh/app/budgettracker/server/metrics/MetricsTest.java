@@ -0,0 +1,190 @@
+package com.ivantrykosh.app.budgettracker.server.metrics;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test metrics of endpoints and their database work
+ */
+@SpringBootTest(properties = "metrics.scrape.password=" + MetricsTest.SCRAPE_PASSWORD)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsTest {
+
+    static final String SCRAPE_PASSWORD = "scrape-password"; // Password of the user, who scrapes metrics
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+
+    /**
+     * Save user, account and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setCategory("category" + i);
+            transaction.setValue(100.0);
+            transaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+            transaction.setAccount(account);
+            transactionService.saveTransaction(transaction);
+        }
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test metrics of getting Transactions by account
+     */
+    @Test
+    void recordMetricsOfEndpoint() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/transactions/get-all-by-account")
+                        .param("id", account.getAccountId().toString())
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse();
+        assertEquals(200, response.getStatus(), "Statuses are not equals!");
+
+        Timer timer = meterRegistry.find("http.server.requests")
+                .tag("uri", "/api/v1/transactions/get-all-by-account")
+                .tag("handler", "TransactionController.getTransactionsByAccountId")
+                .timer();
+        assertNotNull(timer, "Timer of endpoint is not registered!");
+        assertTrue(timer.count() >= 1, "Request is not timed!");
+
+        DistributionSummary statements = meterRegistry.find("budgettracker.request.sql.statements")
+                .tag("uri", "/api/v1/transactions/get-all-by-account")
+                .summary();
+        assertNotNull(statements, "Statements of endpoint are not registered!");
+        assertTrue(statements.totalAmount() >= 1, "Statements are not counted!");
+
+        DistributionSummary rows = meterRegistry.find("budgettracker.request.rows.returned")
+                .tag("uri", "/api/v1/transactions/get-all-by-account")
+                .summary();
+        assertNotNull(rows, "Rows of endpoint are not registered!");
+        assertTrue(rows.totalAmount() >= 3, "Rows are not counted!");
+    }
+
+    /**
+     * Test Prometheus endpoint
+     */
+    @Test
+    void scrapePrometheusEndpoint() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/actuator/prometheus")
+                        .with(httpBasic("prometheus", SCRAPE_PASSWORD)))
+                .andReturn().getResponse();
+
+        assertEquals(200, response.getStatus(), "Statuses are not equals!");
+        String body = response.getContentAsString();
+        assertTrue(body.contains("hikaricp_connections"), "Hikari pool metrics are not exposed!");
+        assertTrue(body.contains("hibernate_statements_prepared_total"), "Hibernate metrics are not exposed!");
+    }
+
+    /**
+     * Test rejecting anonymous request to Prometheus endpoint
+     */
+    @Test
+    void scrapePrometheusEndpointAnonymously() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/actuator/prometheus")).andReturn().getResponse();
+
+        assertEquals(401, response.getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test rejecting request of a user of the application to Prometheus endpoint
+     */
+    @Test
+    void scrapePrometheusEndpointAsUser() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/actuator/prometheus")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse();
+
+        assertEquals(403, response.getStatus(), "Statuses are not equals!");
+    }
+}
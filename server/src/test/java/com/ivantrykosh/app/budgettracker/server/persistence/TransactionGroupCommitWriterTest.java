@@ -0,0 +1,183 @@
+package com.ivantrykosh.app.budgettracker.server.persistence;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.persistence.TransactionGroupCommitWriter;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Test TransactionGroupCommitWriter
+ */
+@SpringBootTest(properties = {
+        "transactions.group-commit.enabled=true",
+        "transactions.group-commit.max-batch-size=50",
+        "transactions.group-commit.max-delay-ms=20"
+})
+@AutoConfigureMockMvc
+class TransactionGroupCommitWriterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionGroupCommitWriter groupCommitWriter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+
+    /**
+     * Save user and account to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test inserting concurrently submitted transactions in batches
+     */
+    @Test
+    void submitTransactions() {
+        long batchesBefore = groupCommitWriter.getFlushedBatches();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(groupCommitWriter.submit(createNewValidTransaction(account)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).orTimeout(30, TimeUnit.SECONDS).join();
+
+        long batches = groupCommitWriter.getFlushedBatches() - batchesBefore;
+        System.out.println("Batches: " + batches);
+
+        assertEquals(200, transactionService.getTransactionsByAccountId(account.getAccountId()).size(), "Transactions are not inserted!");
+        assertTrue(batches >= 4 && batches < 200, "Transactions are not batched: " + batches);
+    }
+
+    /**
+     * Test that invalid transaction fails only its own future
+     */
+    @Test
+    void submitInvalidTransaction() {
+        Account notExistingAccount = new Account();
+        notExistingAccount.setAccountId(Long.MAX_VALUE);
+
+        CompletableFuture<Void> validFuture = groupCommitWriter.submit(createNewValidTransaction(account));
+        CompletableFuture<Void> invalidFuture = groupCommitWriter.submit(createNewValidTransaction(notExistingAccount));
+
+        assertDoesNotThrow(() -> validFuture.orTimeout(30, TimeUnit.SECONDS).join(), "Valid transaction is not inserted!");
+        assertThrows(CompletionException.class, () -> invalidFuture.orTimeout(30, TimeUnit.SECONDS).join(), "Exception was not thrown!");
+        assertEquals(1, transactionService.getTransactionsByAccountId(account.getAccountId()).size(), "Valid transaction is not inserted!");
+    }
+
+    /**
+     * Test creating Transaction through controller with group commit
+     */
+    @Test
+    void createTransaction() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/transactions/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"accountId": %d, "category": "testCategory", "value": 50.0, "date": %d}
+                                """.formatted(account.getAccountId(), System.currentTimeMillis()))
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn();
+
+        assertEquals(201, result.getResponse().getStatus(), "Status is not 201!");
+        assertEquals(1, transactionService.getTransactionsByAccountId(account.getAccountId()).size(), "Transaction is not inserted!");
+    }
+
+    /**
+     * Create new valid transaction
+     * @param account account of transaction
+     * @return new transaction
+     */
+    private Transaction createNewValidTransaction(Account account) {
+        Transaction transaction = new Transaction();
+        transaction.setCategory("testCategory");
+        transaction.setValue(100.0);
+        transaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        transaction.setAccount(account);
+        return transaction;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ivantrykosh.app.budgettracker.server.querybudget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements, which a test method may execute.
+ * Statements of @BeforeEach and @AfterEach methods are not counted, so the test method should only perform the request.
+ * The test fails with the list of executed statements, if the budget is exceeded.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    /**
+     * @return maximum number of statements
+     */
+    int value();
+
+    /**
+     * @return whether second-level and query caches are cleared before the test method, so statements of a cold cache are counted
+     */
+    boolean coldCache() default true;
+}
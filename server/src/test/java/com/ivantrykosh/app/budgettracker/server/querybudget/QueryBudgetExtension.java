@@ -0,0 +1,56 @@
+package com.ivantrykosh.app.budgettracker.server.querybudget;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit extension, which counts SQL statements of test methods annotated with QueryBudget and checks them against the budget
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    /**
+     * Clear caches, if needed, and start recording statements
+     * @param context context of the test method
+     */
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        if (budget.coldCache()) {
+            SpringExtension.getApplicationContext(context)
+                    .getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class)
+                    .getCache()
+                    .evictAllRegions();
+        }
+        QueryCountingStatementInspector.start();
+    }
+
+    /**
+     * Stop recording statements and check their number
+     * @param context context of the test method
+     */
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        List<String> statements = QueryCountingStatementInspector.stop();
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        assertTrue(statements.size() <= budget.value(), "Too many statements: " + statements.size() + " > " + budget.value()
+                + "!\n" + String.join("\n", statements));
+    }
+}
@@ -0,0 +1,53 @@
+package com.ivantrykosh.app.budgettracker.server.querybudget;
+
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RequestTrace;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hibernate StatementInspector, which records SQL statements prepared by the recording thread and by threads of traced requests,
+ * e.g. request tasks forked by a request of the recording thread.
+ * Registered with the hibernate.session_factory.statement_inspector property of tests.
+ * Statements are recorded only between start and stop, so data of tests is saved and checked without counting.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static volatile Thread recordingThread; // Thread, which started recording, null if not recording
+    private static volatile List<String> recordedStatements; // Recorded statements of all threads, null if not recording
+
+    /**
+     * Record SQL statement, if the current thread is recording or processes a traced request
+     * @param sql SQL statement to be prepared
+     * @return the same SQL statement
+     */
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = recordedStatements;
+        if (statements != null && (Thread.currentThread() == recordingThread || RequestTrace.current() != null)) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Start recording statements of the current thread and of traced requests. Previously recorded statements are dropped
+     */
+    public static void start() {
+        recordedStatements = Collections.synchronizedList(new ArrayList<>());
+        recordingThread = Thread.currentThread();
+    }
+
+    /**
+     * Stop recording statements
+     * @return statements recorded since start, empty list if recording was not started
+     */
+    public static List<String> stop() {
+        List<String> statements = recordedStatements;
+        recordedStatements = null;
+        recordingThread = null;
+        return statements != null ? List.copyOf(statements) : List.of();
+    }
+}
@@ -0,0 +1,156 @@
+package com.ivantrykosh.app.budgettracker.server.ratelimit;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit.AdaptiveConcurrencyLimiter;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit.RequestLimitFilter;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Test rate limiting and load shedding of RequestLimitFilter
+ */
+@SpringBootTest(properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.burst=5",
+        "rate-limit.refill-per-second=0.001",
+        "rate-limit.costs=/api/v*/transactions/get-all=5",
+        "rate-limit.concurrency.enabled=true",
+        "rate-limit.concurrency.initial-limit=2",
+        "rate-limit.concurrency.min-limit=2"
+})
+@AutoConfigureMockMvc
+class RequestLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RequestLimitFilter requestLimitFilter;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private User user;
+
+    /**
+     * Save user to db. Every test has its own user, so it has its own token bucket
+     */
+    @BeforeEach
+    public void saveUser() {
+        User newUser = new User();
+        newUser.setEmail(UUID.randomUUID() + "@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+    }
+
+    /**
+     * Delete saved user from db
+     */
+    @AfterEach
+    public void deleteUser() {
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test requests over token bucket of user
+     */
+    @Test
+    void rejectRequestsOverRateLimit() throws Exception {
+        long rejectedBefore = requestLimitFilter.getRejectedByRateLimit();
+        for (int i = 0; i < 5; i++) {
+            assertNotEquals(429, perform("/api/v1/users/get").getStatus(), "Request within rate limit is rejected!");
+        }
+
+        MockHttpServletResponse response = perform("/api/v1/users/get");
+
+        assertEquals(429, response.getStatus(), "Statuses are not equals!");
+        assertNotNull(response.getHeader("Retry-After"), "Retry-After is not set!");
+        assertEquals(rejectedBefore + 1, requestLimitFilter.getRejectedByRateLimit(), "Numbers of rejected requests are not equals!");
+    }
+
+    /**
+     * Test cost of expensive endpoint
+     */
+    @Test
+    void rejectRequestAfterExpensiveRequest() throws Exception {
+        assertNotEquals(429, perform("/api/v1/transactions/get-all").getStatus(), "Request within rate limit is rejected!");
+
+        assertEquals(429, perform("/api/v1/users/get").getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test cost of batch, which is the sum of costs of its operations
+     */
+    @Test
+    void rejectRequestAfterExpensiveBatch() throws Exception {
+        String json = """
+                {"operations": [
+                    {"method": "GET", "path": "/api/v1/users/get"},
+                    {"method": "GET", "path": "/api/v1/transactions/get-all?accountIds=1"}
+                ]}
+                """;
+        MockHttpServletResponse response = mockMvc.perform(post("/api/v1/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json)
+                .with(user(new CustomUserDetails(user)))).andReturn().getResponse();
+        assertNotEquals(429, response.getStatus(), "Batch within rate limit is rejected!");
+
+        assertEquals(429, perform("/api/v1/users/get").getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Test request over concurrency limit
+     */
+    @Test
+    void rejectRequestOverConcurrencyLimit() throws Exception {
+        long rejectedBefore = concurrencyLimiter.getRejectedByLimit();
+        assertTrue(concurrencyLimiter.tryAcquire(2), "Concurrency limit is not acquired!");
+        try {
+            MockHttpServletResponse response = perform("/api/v1/users/get");
+
+            assertEquals(503, response.getStatus(), "Statuses are not equals!");
+            assertEquals(rejectedBefore + 1, concurrencyLimiter.getRejectedByLimit(), "Numbers of rejected requests are not equals!");
+        } finally {
+            concurrencyLimiter.release(2, 1_000_000);
+        }
+
+        assertEquals(200, perform("/api/v1/users/get").getStatus(), "Statuses are not equals!");
+    }
+
+    /**
+     * Perform GET request as saved user
+     * @param path path of request
+     * @return response
+     */
+    private MockHttpServletResponse perform(String path) throws Exception {
+        return mockMvc.perform(get(path).with(user(new CustomUserDetails(user)))).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ivantrykosh.app.budgettracker.server.ratelimit;
+
+import com.ivantrykosh.app.budgettracker.server.infrastructure.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test TokenBucket
+ */
+class TokenBucketTest {
+
+    /**
+     * Test consuming tokens of full bucket
+     */
+    @Test
+    void consumeTokens() {
+        TokenBucket bucket = new TokenBucket(5, 0.001);
+
+        assertTrue(bucket.tryConsume(3), "Tokens are not consumed!");
+        assertTrue(bucket.tryConsume(2), "Tokens are not consumed!");
+        assertFalse(bucket.tryConsume(1), "Tokens of empty bucket are consumed!");
+        assertFalse(bucket.isFull(), "Empty bucket is full!");
+        assertTrue(bucket.nanosUntilAvailable(1) > TimeUnit.SECONDS.toNanos(100), "Time until tokens are available is too short!");
+    }
+
+    /**
+     * Test refilling bucket
+     */
+    @Test
+    void refillTokens() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 100);
+        assertTrue(bucket.tryConsume(2), "Tokens are not consumed!");
+
+        Thread.sleep(50);
+
+        assertTrue(bucket.tryConsume(2), "Tokens are not refilled!");
+    }
+
+    /**
+     * Test consuming cost above capacity
+     */
+    @Test
+    void consumeCostAboveCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 0.001);
+
+        assertTrue(bucket.tryConsume(10), "Cost above capacity is not consumed from full bucket!");
+        assertFalse(bucket.tryConsume(1), "Tokens of empty bucket are consumed!");
+    }
+
+    /**
+     * Test consuming tokens from many threads
+     */
+    @Test
+    void consumeTokensConcurrently() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    int consumed = 0;
+                    for (int j = 0; j < 500; j++) {
+                        if (bucket.tryConsume(1)) {
+                            consumed++;
+                        }
+                    }
+                    return consumed;
+                }));
+            }
+        }
+
+        int consumed = 0;
+        for (Future<Integer> future : futures) {
+            consumed += future.get();
+        }
+        assertEquals(1000, consumed, "Numbers of consumed tokens are not equals!");
+    }
+}
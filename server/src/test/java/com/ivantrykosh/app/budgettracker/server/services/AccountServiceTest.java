@@ -175,24 +175,27 @@ class AccountServiceTest {
     }
 
     /**
-     * Test deleting Account
+     * Test updating name of Account with expected version
      */
     @Test
-    void deleteAccountById() {
-        Account account = createNewValidAccount();
+    void updateAccountNameIfVersionMatches() {
+        Account savedAccount = accountService.saveAccount(createNewValidAccount());
+        long version = savedAccount.getVersion();
 
-        // Save account
-        Account savedAccount = accountService.saveAccount(account);
+        // Two updates with the same expected version
+        boolean firstUpdated = accountService.updateAccountNameIfVersionMatches(savedAccount.getAccountId(), "first name", version);
+        boolean secondUpdated = accountService.updateAccountNameIfVersionMatches(savedAccount.getAccountId(), "second name", version);
 
-        // Delete account
-        Account deletedAccount = accountService.deleteAccountById(savedAccount.getAccountId());
+        Account currentAccount = accountService.getCurrentAccountById(savedAccount.getAccountId());
 
-        // Print account and deleted account
-        System.out.println(savedAccount + "\n" + deletedAccount);
+        // Print current account
+        System.out.println(currentAccount);
 
-        // Assert parameters are equals
-        assertEquals(savedAccount.getName(), deletedAccount.getName(), "Names are not equals!");
-        assertNull(accountService.getAccountById(savedAccount.getAccountId()), "Account is not deleted!");
+        // Assert only first update is applied
+        assertTrue(firstUpdated, "First account is not updated!");
+        assertFalse(secondUpdated, "Second account is updated!");
+        assertEquals("first name", currentAccount.getName(), "Names are not equals!");
+        assertEquals(version + 1, currentAccount.getVersion(), "Versions are not equals!");
     }
 
     /**
@@ -209,10 +212,10 @@ class AccountServiceTest {
     }
 
     /**
-     * Test deleting Accounts with user ID
+     * Test bulk deleting Accounts by IDs
      */
     @Test
-    void deleteAccountsByUserId() {
+    void bulkDeleteAccountsByIds() {
         Account account1 = createNewValidAccount();
 
         Account account2 = createNewValidAccount();
@@ -222,30 +225,14 @@ class AccountServiceTest {
         Account savedAccount1 = accountService.saveAccount(account1);
         Account savedAccount2 = accountService.saveAccount(account2);
 
-        // Delete accounts
-        List<Account> retrievedAccounts = accountService.deleteAccountsByUserId(user.getUserId());
-
-        // Print saved and retrieved accounts
-        System.out.println(savedAccount1 + "\n" + savedAccount2 + "\n" + retrievedAccounts);
-
-        // Assert parameters are equals
-        assertEquals(2, retrievedAccounts.size(), "Size of account's list is not 2!");
-        assertEquals(savedAccount1.getName(), retrievedAccounts.get(0).getName(), "Names are not equals!");
-        assertEquals(savedAccount2.getName(), retrievedAccounts.get(1).getName(), "Names are not equals!");
-        assertEquals(0, accountService.getAccountsByUserId(user.getUserId()).size(), "Accounts are not deleted!");
-    }
-
-    /**
-     * Test deleting Account with invalid user ID
-     */
-    @Test
-    void deleteAccountsByInvalidUserId() {
-        Account account = createNewValidAccount();
-
-        // Save account
-        Account savedAccount = accountService.saveAccount(account);
+        // Delete first account
+        int deletedAccounts = accountService.bulkDeleteAccountsByIds(List.of(savedAccount1.getAccountId()));
 
-        assertEquals(0, accountService.deleteAccountsByUserId(Long.MAX_VALUE).size(), "List is not empty!");
+        // Assert only first account is deleted
+        assertEquals(1, deletedAccounts, "Number of deleted accounts is not 1!");
+        assertNull(accountService.getAccountById(savedAccount1.getAccountId()), "Account is not deleted!");
+        assertNotNull(accountService.getAccountById(savedAccount2.getAccountId()), "Account is deleted!");
+        assertEquals(0, accountService.bulkDeleteAccountsByIds(List.of()), "Accounts are deleted by empty list!");
     }
 
     /**
@@ -225,73 +225,61 @@ class AccountUsersServiceTest {
     }
 
     /**
-     * Test deleting AccountUsers
+     * Test deleting not existing AccountUsers
      */
     @Test
-    void deleteAccountUsersById() {
+    void deleteNotExistingAccountUsersById() {
         AccountUsers accountUsers = createNewValidAccountUsers();
 
         // Save account users
         AccountUsers savedAccountUsers = accountUsersService.saveAccountUsers(accountUsers);
 
-        // Delete account users
-        AccountUsers deletedAccountUsers = accountUsersService.deleteAccountUsersById(savedAccountUsers.getAccountUsersId());
-
-        // Print account and deleted account
-        System.out.println(savedAccountUsers + "\n" + deletedAccountUsers);
-
-        // Assert parameters are equals
-        assertEquals(savedAccountUsers.getUser2Id(), deletedAccountUsers.getUser2Id(), "User2Ids are not equals!");
-        assertNull(accountUsersService.getAccountUsersById(savedAccountUsers.getAccountUsersId()), "Account users is not deleted!");
+        assertNull(accountUsersService.getAccountUsersById(Long.MAX_VALUE), "Account users is deleted!");
     }
 
     /**
-     * Test deleting not existing AccountUsers
+     * Test bulk deleting AccountUsers by AccountIDs
      */
     @Test
-    void deleteNotExistingAccountUsersById() {
+    void bulkDeleteAccountUsersByAccountIds() {
         AccountUsers accountUsers = createNewValidAccountUsers();
 
         // Save account users
         AccountUsers savedAccountUsers = accountUsersService.saveAccountUsers(accountUsers);
 
-        assertNull(accountUsersService.getAccountUsersById(Long.MAX_VALUE), "Account users is deleted!");
+        // Delete account users
+        int deletedAccountUsers = accountUsersService.bulkDeleteAccountUsersByAccountIds(List.of(account.getAccountId()));
+
+        // Assert account users are deleted
+        assertEquals(1, deletedAccountUsers, "Number of deleted account users is not 1!");
+        assertNull(accountUsersService.getAccountUsersById(savedAccountUsers.getAccountUsersId()), "Account users are not deleted!");
     }
 
     /**
-     * Test deleting user IDs in AccountUsers
+     * Test bulk deleting UserID from AccountUsers
      */
     @Test
-    void deleteUserIdFromAccountUsers() {
+    void bulkDeleteUserIdFromAccountUsers() {
         AccountUsers accountUsers = createNewValidAccountUsers();
+        accountUsers.setUser4Id(user2.getUserId());
 
         // Save account users
         AccountUsers savedAccountUsers = accountUsersService.saveAccountUsers(accountUsers);
 
         // Delete user IDs from account users
-        List<AccountUsers> retrievedAccountUsers = accountUsersService.deleteUserIdFromAccountUsers(user2.getUserId());
+        int updatedAccountUsers = accountUsersService.bulkDeleteUserIdFromAccountUsers(user2.getUserId());
+        AccountUsers retrievedAccountUsers = accountUsersService.getAccountUsersById(savedAccountUsers.getAccountUsersId());
 
         // Print saved and retrieved account users
         System.out.println(savedAccountUsers + "\n" + retrievedAccountUsers);
 
-        // Assert parameters are equals
-        assertNull(retrievedAccountUsers.get(0).getUser2Id(), "User2Id is not null!");
+        // Assert user IDs are deleted
+        assertEquals(2, updatedAccountUsers, "Number of updates is not 2!");
+        assertNull(retrievedAccountUsers.getUser2Id(), "User2Id is not null!");
+        assertNull(retrievedAccountUsers.getUser4Id(), "User4Id is not null!");
         assertEquals(0, accountUsersService.getAccountsUsersByUserId(user2.getUserId()).size(), "User IDs are not deleted!");
     }
 
-    /**
-     * Test deleting invalid user IDs in AccountUsers
-     */
-    @Test
-    void deleteInvalidUserIdFromAccountUsers() {
-        AccountUsers accountUsers = createNewValidAccountUsers();
-
-        // Save account users
-        AccountUsers savedAccountUsers = accountUsersService.saveAccountUsers(accountUsers);
-
-        assertEquals(0, accountUsersService.deleteUserIdFromAccountUsers(Long.MAX_VALUE).size(), "List is not empty!");
-    }
-
     /**
      * Create new valid AccountUsers
      * @return new valid AccountUsers
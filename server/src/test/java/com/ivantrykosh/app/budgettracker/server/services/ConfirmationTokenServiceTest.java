@@ -15,7 +15,9 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -242,43 +244,74 @@ class ConfirmationTokenServiceTest {
     }
 
     /**
-     * Test deleting confirmation tokens by user ID
+     * Test bulk deleting ConfirmationTokens by UserID
      */
     @Test
-    void deleteConfirmationTokenByUserId() {
-        ConfirmationToken confirmationToken1 = createNewValidConfirmationToken();
-
-        ConfirmationToken confirmationToken2 = createNewValidConfirmationToken();
-        confirmationToken2.setConfirmedAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
-
+    void bulkDeleteConfirmationTokensByUserId() {
         // Save confirmation tokens
-        ConfirmationToken savedConfirmationToken1 = confirmationTokenService.saveConfirmationToken(confirmationToken1);
-        ConfirmationToken savedConfirmationToken2 = confirmationTokenService.saveConfirmationToken(confirmationToken2);
+        confirmationTokenService.saveConfirmationToken(createNewValidConfirmationToken());
+        confirmationTokenService.saveConfirmationToken(createNewValidConfirmationToken());
 
         // Delete confirmation tokens
-        List<ConfirmationToken> retrievedConfirmationTokens = confirmationTokenService.deleteConfirmationTokensByUserId(user.getUserId());
-
-        // Print saved and retrieved confirmation tokens
-        System.out.println(savedConfirmationToken1 + "\n" + savedConfirmationToken2 + "\n" + retrievedConfirmationTokens);
+        int deletedConfirmationTokens = confirmationTokenService.bulkDeleteConfirmationTokensByUserId(user.getUserId());
 
-        // Assert parameters are equals
-        assertEquals(2, retrievedConfirmationTokens.size(), "Size of token's list is not 2!");
-        assertEquals(confirmationToken1.getConfirmationToken(), retrievedConfirmationTokens.get(0).getConfirmationToken(), "Tokens are not equals!");
-        assertEquals(confirmationToken2.getConfirmationToken(), retrievedConfirmationTokens.get(1).getConfirmationToken(), "Tokens are not equals!");
+        // Assert tokens are deleted
+        assertEquals(2, deletedConfirmationTokens, "Number of deleted tokens is not 2!");
         assertEquals(0, confirmationTokenService.getConfirmationTokensByUserId(user.getUserId()).size(), "Tokens are not deleted!");
+        assertEquals(0, confirmationTokenService.bulkDeleteConfirmationTokensByUserId(Long.MAX_VALUE), "Tokens of not existing user are deleted!");
     }
 
     /**
-     * Test deleting tokens by invalid user ID
+     * Test checking ConfirmationToken created after date
      */
     @Test
-    void deleteConfirmationTokensByInvalidUserId() {
+    void hasConfirmationTokenCreatedAfter() {
         ConfirmationToken confirmationToken = createNewValidConfirmationToken();
+        confirmationToken.setCreatedAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(20)));
 
         // Save token
-        ConfirmationToken savedConfirmationToken = confirmationTokenService.saveConfirmationToken(confirmationToken);
+        confirmationTokenService.saveConfirmationToken(confirmationToken);
 
-        assertEquals(0, confirmationTokenService.deleteConfirmationTokensByUserId(Long.MAX_VALUE).size(), "List is not empty!");
+        // Assertions
+        assertTrue(confirmationTokenService.hasConfirmationTokenCreatedAfter(user.getUserId(), Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(30))), "Token is not found!");
+        assertFalse(confirmationTokenService.hasConfirmationTokenCreatedAfter(user.getUserId(), Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(10))), "Old token is found!");
+        assertFalse(confirmationTokenService.hasConfirmationTokenCreatedAfter(Long.MAX_VALUE, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(30))), "Token of not existing user is found!");
+    }
+
+    /**
+     * Test deleting expired unconfirmed ConfirmationTokens in chunks
+     */
+    @Test
+    void deleteChunkOfExpiredConfirmationTokens() {
+        // Expired tokens
+        for (int i = 0; i < 3; i++) {
+            ConfirmationToken expiredConfirmationToken = createNewValidConfirmationToken();
+            expiredConfirmationToken.setExpiresAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusDays(2)));
+            confirmationTokenService.saveConfirmationToken(expiredConfirmationToken);
+        }
+
+        // Expired, but confirmed token
+        ConfirmationToken confirmedConfirmationToken = createNewValidConfirmationToken();
+        confirmedConfirmationToken.setExpiresAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusDays(2)));
+        confirmedConfirmationToken.setConfirmedAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusDays(3)));
+        ConfirmationToken savedConfirmedConfirmationToken = confirmationTokenService.saveConfirmationToken(confirmedConfirmationToken);
+
+        // Not expired token
+        ConfirmationToken savedConfirmationToken = confirmationTokenService.saveConfirmationToken(createNewValidConfirmationToken());
+
+        // Delete expired tokens in chunks of 2
+        Date now = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+        int deletedInFirstChunk = confirmationTokenService.deleteChunkOfExpiredConfirmationTokens(now, 2);
+        int deletedInSecondChunk = confirmationTokenService.deleteChunkOfExpiredConfirmationTokens(now, 2);
+        int deletedInThirdChunk = confirmationTokenService.deleteChunkOfExpiredConfirmationTokens(now, 2);
+
+        // Assertions
+        assertEquals(2, deletedInFirstChunk, "Number of deleted tokens in first chunk is not 2!");
+        assertEquals(1, deletedInSecondChunk, "Number of deleted tokens in second chunk is not 1!");
+        assertEquals(0, deletedInThirdChunk, "Number of deleted tokens in third chunk is not 0!");
+        assertEquals(2, confirmationTokenService.getConfirmationTokensByUserId(user.getUserId()).size(), "Size of token's list is not 2!");
+        assertNotNull(confirmationTokenService.getConfirmationTokenById(savedConfirmedConfirmationToken.getConfirmationTokenId()), "Confirmed token is deleted!");
+        assertNotNull(confirmationTokenService.getConfirmationTokenById(savedConfirmationToken.getConfirmationTokenId()), "Not expired token is deleted!");
     }
 
     /**
@@ -288,7 +321,7 @@ class ConfirmationTokenServiceTest {
     private ConfirmationToken createNewValidConfirmationToken() {
         // Confirmation token
         ConfirmationToken confirmationToken = new ConfirmationToken();
-        confirmationToken.setConfirmationToken("token");
+        confirmationToken.setConfirmationToken(UUID.randomUUID().toString());
         confirmationToken.setCreatedAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
         confirmationToken.setExpiresAt(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).plusDays(15L)));
         confirmationToken.setConfirmedAt(null);
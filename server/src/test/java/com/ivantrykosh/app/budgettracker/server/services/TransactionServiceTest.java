@@ -6,6 +6,7 @@ import com.ivantrykosh.app.budgettracker.server.application.services.UserService
 import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
 import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
 import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.projections.AccountSums;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +20,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,7 +28,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Test TransactionService
  */
 @ExtendWith(SpringExtension.class)
-@DataJpaTest
+@DataJpaTest(properties = "transactions.delete.batch-size=2")
 @Import({TransactionService.class, AccountService.class, UserService.class})
 class TransactionServiceTest {
 
@@ -359,6 +361,32 @@ class TransactionServiceTest {
         assertEquals(Double.valueOf(-150.0), sum, "Sum is not -150.0!");
     }
 
+    /**
+     * Test getting sums of transactions by AccountIDs
+     */
+    @Test
+    void getSumsOfTransactionsByAccountIds() {
+        Transaction transaction1 = createNewValidTransaction(100.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account1);
+        Transaction transaction2 = createNewValidTransaction(-40.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMonths(1)), account1);
+        Transaction transaction3 = createNewValidTransaction(-50.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account2);
+
+        // Save transactions
+        transactionService.saveTransaction(transaction1);
+        transactionService.saveTransaction(transaction2);
+        transactionService.saveTransaction(transaction3);
+
+        // Get sums by AccountIds
+        Map<Long, AccountSums> sums = transactionService.getSumsOfTransactionsByAccountIds(List.of(account1.getAccountId(), account2.getAccountId(), Long.MAX_VALUE));
+
+        // Assert parameters are equals
+        assertEquals(2, sums.size(), "Size of map is not 2!");
+        assertEquals(Double.valueOf(100.0), sums.get(account1.getAccountId()).getIncomesSum(), "Incomes sum is not 100.0!");
+        assertEquals(Double.valueOf(-40.0), sums.get(account1.getAccountId()).getExpensesSum(), "Expenses sum is not -40.0!");
+        assertEquals(Double.valueOf(0.0), sums.get(account2.getAccountId()).getIncomesSum(), "Incomes sum is not 0.0!");
+        assertEquals(Double.valueOf(-50.0), sums.get(account2.getAccountId()).getExpensesSum(), "Expenses sum is not -50.0!");
+        assertNull(sums.get(Long.MAX_VALUE), "Sums of not existing account are not null!");
+    }
+
     /**
      * Test updating Transaction
      */
@@ -383,6 +411,52 @@ class TransactionServiceTest {
         assertEquals(savedTransaction.getValue(), updatedTransaction.getValue(), "Values are not equals!");
     }
 
+    /**
+     * Test updating Transaction with expected version
+     */
+    @Test
+    void updateTransactionIfVersionMatches() {
+        Transaction savedTransaction = transactionService.saveTransaction(
+                createNewValidTransaction(100.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account1)
+        );
+        long version = savedTransaction.getVersion();
+
+        // Two updates with the same expected version
+        Transaction firstTransaction = createNewValidTransaction(120.0, savedTransaction.getDate(), account1);
+        firstTransaction.setTransactionId(savedTransaction.getTransactionId());
+        Transaction secondTransaction = createNewValidTransaction(130.0, savedTransaction.getDate(), account1);
+        secondTransaction.setTransactionId(savedTransaction.getTransactionId());
+
+        boolean firstUpdated = transactionService.updateTransactionIfVersionMatches(firstTransaction, version);
+        boolean secondUpdated = transactionService.updateTransactionIfVersionMatches(secondTransaction, version);
+
+        Transaction currentTransaction = transactionService.getCurrentTransactionById(savedTransaction.getTransactionId());
+
+        // Print current transaction
+        System.out.println(currentTransaction);
+
+        // Assert only first update is applied
+        assertTrue(firstUpdated, "First transaction is not updated!");
+        assertFalse(secondUpdated, "Second transaction is updated!");
+        assertEquals(Double.valueOf(120.0), currentTransaction.getValue(), "Values are not equals!");
+        assertEquals(version + 1, currentTransaction.getVersion(), "Versions are not equals!");
+    }
+
+    /**
+     * Test updating not existing Transaction
+     */
+    @Test
+    void updateNotExistingTransaction() {
+        Transaction savedTransaction = transactionService.saveTransaction(
+                createNewValidTransaction(100.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account1)
+        );
+
+        Transaction transaction = createNewValidTransaction(120.0, savedTransaction.getDate(), account1);
+        transaction.setTransactionId(Long.MAX_VALUE);
+
+        assertFalse(transactionService.updateTransactionIfVersionMatches(transaction, savedTransaction.getVersion()), "Not existing transaction is updated!");
+    }
+
     /**
      * Test deleting Transaction
      */
@@ -418,40 +492,35 @@ class TransactionServiceTest {
     }
 
     /**
-     * Test deleting Transaction by AccountId
+     * Test bulk deleting Transactions by AccountIDs in several chunks
      */
     @Test
-    void deleteTransactionsByAccountId() {
-        Transaction transaction1 = createNewValidTransaction(100.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account1);
-        Transaction transaction2 = createNewValidTransaction(-100.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account2);
-
-        // Save transactions
-        Transaction savedTransaction1 = transactionService.saveTransaction(transaction1);
-        Transaction savedTransaction2 = transactionService.saveTransaction(transaction2);
-
-        // Delete transactions by AccountId
-        List<Transaction> retrievedTransactions = transactionService.deleteTransactionsByAccountId(savedTransaction1.getAccount().getAccountId());
-
-        // Print saved and retrieved account users
-        System.out.println(savedTransaction1 + "\n" + retrievedTransactions);
-
-        // Assert parameters are equals
-        assertEquals(1, retrievedTransactions.size(), "Size of list is not 1!");
-        assertEquals(savedTransaction1.getValue(), retrievedTransactions.get(0).getValue(), "Transaction's values are not equals!");
-        assertEquals(0, transactionService.getTransactionsByAccountId(savedTransaction1.getAccount().getAccountId()).size(), "Transactions are not deleted!");
+    void bulkDeleteTransactionsByAccountIds() {
+        // Save transactions. Batch size is 2, so transactions of first account are deleted in 3 chunks
+        for (int i = 0; i < 5; i++) {
+            transactionService.saveTransaction(createNewValidTransaction(10.0 * (i + 1), Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account1));
+        }
+        Transaction savedTransaction = transactionService.saveTransaction(createNewValidTransaction(-100.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account2));
+
+        // Delete transactions of first account
+        long deletedTransactions = transactionService.bulkDeleteTransactionsByAccountIds(List.of(account1.getAccountId()));
+
+        // Assert only transactions of first account are deleted
+        assertEquals(5, deletedTransactions, "Number of deleted transactions is not 5!");
+        assertEquals(0, transactionService.getTransactionsByAccountId(account1.getAccountId()).size(), "Transactions are not deleted!");
+        assertEquals(1, transactionService.getTransactionsByAccountId(account2.getAccountId()).size(), "Transactions of another account are deleted!");
+        assertNotNull(transactionService.getTransactionById(savedTransaction.getTransactionId()), "Transaction of another account is deleted!");
     }
 
     /**
-     * Test deleting Transaction by invalid AccountID
+     * Test bulk deleting Transactions by empty list of AccountIDs
      */
     @Test
-    void deleteTransactionsByInvalidAccountId() {
-        Transaction transaction = createNewValidTransaction(100.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account1);
-
-        // Save transaction
-        Transaction savedTransaction = transactionService.saveTransaction(transaction);
+    void bulkDeleteTransactionsByEmptyAccountIds() {
+        transactionService.saveTransaction(createNewValidTransaction(100.0, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), account1));
 
-        assertEquals(0, transactionService.deleteTransactionsByAccountId(Long.MAX_VALUE).size(), "List of transaction is not empty!");
+        assertEquals(0, transactionService.bulkDeleteTransactionsByAccountIds(List.of()), "Transactions are deleted by empty list!");
+        assertEquals(1, transactionService.getTransactionsByAccountId(account1.getAccountId()).size(), "Transactions are deleted!");
     }
 
     /**
@@ -0,0 +1,173 @@
+package com.ivantrykosh.app.budgettracker.server.tracing;
+
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountService;
+import com.ivantrykosh.app.budgettracker.server.application.services.AccountUsersService;
+import com.ivantrykosh.app.budgettracker.server.application.services.TransactionService;
+import com.ivantrykosh.app.budgettracker.server.application.services.UserService;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Account;
+import com.ivantrykosh.app.budgettracker.server.domain.model.AccountUsers;
+import com.ivantrykosh.app.budgettracker.server.domain.model.Transaction;
+import com.ivantrykosh.app.budgettracker.server.domain.model.User;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.AccountUsersRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.TransactionRepository;
+import com.ivantrykosh.app.budgettracker.server.domain.repos.UserRepository;
+import com.ivantrykosh.app.budgettracker.server.infrastructure.tracing.RequestTracingFilter;
+import com.ivantrykosh.app.budgettracker.server.util.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test request IDs, Server-Timing header and slow-request logs. Every request is slow with threshold 0
+ */
+@SpringBootTest(properties = "tracing.slow-request.threshold-ms=0")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class RequestTracingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUsersService accountUsersService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUsersRepository accountUsersRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private Account account;
+
+    /**
+     * Save user, account and transactions to db
+     */
+    @BeforeEach
+    public void saveData() {
+        User newUser = new User();
+        newUser.setEmail("testemail@gmail.com");
+        newUser.setPasswordHash("hash");
+        newUser.setRegistrationDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+        newUser.setIsVerified(true);
+        user = userService.saveUser(newUser);
+
+        Account newAccount = new Account();
+        newAccount.setName("test account");
+        newAccount.setUser(user);
+        account = accountService.saveAccount(newAccount);
+
+        AccountUsers accountUsers = new AccountUsers();
+        accountUsers.setAccount(account);
+        accountUsersService.saveAccountUsers(accountUsers);
+
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setCategory("category" + i);
+            transaction.setValue(100.0);
+            transaction.setDate(Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+            transaction.setAccount(account);
+            transactionService.saveTransaction(transaction);
+        }
+    }
+
+    /**
+     * Delete saved data from db
+     */
+    @AfterEach
+    public void deleteData() {
+        transactionRepository.deleteAll();
+        accountUsersRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Test Server-Timing header and slow-request log of getting Transactions between dates
+     */
+    @Test
+    void traceTransactionsBetweenDates(CapturedOutput output) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/transactions/get-all-between-dates")
+                        .param("accountIds", account.getAccountId().toString())
+                        .param("startDate", LocalDate.now(ZoneOffset.UTC).minusDays(1).toString())
+                        .param("endDate", LocalDate.now(ZoneOffset.UTC).plusDays(1).toString())
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse();
+        assertEquals(200, response.getStatus(), "Statuses are not equals!");
+
+        String requestId = response.getHeader(RequestTracingFilter.REQUEST_ID_HEADER);
+        assertNotNull(requestId, "Request ID is not returned!");
+        String serverTiming = response.getHeader(RequestTracingFilter.SERVER_TIMING_HEADER);
+        assertNotNull(serverTiming, "Server-Timing is not returned!");
+        for (String phase : new String[]{"app;dur=", "auth;dur=", "lookup;dur=", "db;dur=", "mapping;dur=", "total;dur="}) {
+            assertTrue(serverTiming.contains(phase), "Server-Timing does not contain " + phase + " " + serverTiming);
+        }
+
+        assertTrue(output.getOut().contains("Slow request {\"requestId\":\"" + requestId + "\""), "Slow request is not logged!");
+        assertTrue(output.getOut().contains("\"serialization\":"), "Serialization is not logged!");
+        assertTrue(output.getOut().contains("db: select"), "SQL statements are not logged!");
+    }
+
+    /**
+     * Test request ID of the client
+     */
+    @Test
+    void returnRequestIdOfClient() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/users/get")
+                        .header(RequestTracingFilter.REQUEST_ID_HEADER, "client-request-1")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse();
+
+        assertEquals(200, response.getStatus(), "Statuses are not equals!");
+        assertEquals("client-request-1", response.getHeader(RequestTracingFilter.REQUEST_ID_HEADER), "Request IDs are not equals!");
+    }
+
+    /**
+     * Test invalid request ID of the client
+     */
+    @Test
+    void replaceInvalidRequestId() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/users/get")
+                        .header(RequestTracingFilter.REQUEST_ID_HEADER, "invalid id\n")
+                        .with(user(new CustomUserDetails(user))))
+                .andReturn().getResponse();
+
+        assertEquals(200, response.getStatus(), "Statuses are not equals!");
+        String requestId = response.getHeader(RequestTracingFilter.REQUEST_ID_HEADER);
+        assertNotNull(requestId, "Request ID is not returned!");
+        assertEquals(16, requestId.length(), "Request ID is not generated!");
+    }
+}